@@ -3,12 +3,15 @@ package espresso;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 import espresso.security.infrastructure.filters.JWTAuthenticationEntryPoint;
 import espresso.security.infrastructure.filters.JWTAuthenticationFilter;
 
@@ -37,14 +40,21 @@ public class EspressoSecurityConfig {
             
             // Configure authorization
             .authorizeHttpRequests(authz -> authz
+                // Allow the async dispatch of long-polls, which were authenticated when they started
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Allow Swagger/OpenAPI endpoints
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/api-docs/**", "/v3/api-docs/**").permitAll()
-                // Allow actuator endpoints for health checks
-                .requestMatchers("/actuator/**").permitAll()
+                // Allow the actuator health endpoint for health checks
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                // The other actuator endpoints (metrics of the caches, queues and event bus) are for administrators
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Allow authentication endpoint (login)
                 .requestMatchers("/api/cmd/security/auth").permitAll()
                 // Allow registration endpoint (register)
                 .requestMatchers("/api/cmd/security/register").permitAll()
+                // Operations endpoints, which run a full parallel job over the tables, are for administrators only
+                .requestMatchers(HttpMethod.POST, "/api/cmd/achievement/projections/rebuild",
+                        "/api/cmd/achievement/stats/reconcile").hasRole("ADMIN")
                 // Require authentication for all other API endpoints
                 .requestMatchers("/api/**").authenticated()
                 // Allow all other requests (static resources, etc.)
@@ -5,12 +5,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 
 /**
  * Jackson configuration to handle Hibernate proxy serialization issues.
  * 
- * This configuration adds the Hibernate5Module to Jackson's ObjectMapper,
+ * This configuration adds the Hibernate6Module to Jackson's ObjectMapper,
  * which properly handles Hibernate lazy-loaded proxies during JSON serialization,
  * preventing errors like "No serializer found for class ByteBuddyInterceptor".
  */
@@ -18,7 +19,7 @@ import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 public class JacksonConfig {
 
     /**
-     * Configures Jackson ObjectMapper with Hibernate5Module to handle
+     * Configures Jackson ObjectMapper with Hibernate6Module to handle
      * Hibernate proxy serialization.
      * 
      * @return Configured ObjectMapper with Hibernate support
@@ -28,15 +29,18 @@ public class JacksonConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         
-        // Register Hibernate5Module to handle proxy serialization
-        Hibernate5Module hibernate5Module = new Hibernate5Module();
+        // Register Hibernate6Module to handle proxy serialization
+        Hibernate6Module hibernate6Module = new Hibernate6Module();
         
         // Configure the module to avoid forcing lazy loading
         // This means uninitialized proxies will be serialized as null
-        hibernate5Module.disable(Hibernate5Module.Feature.USE_TRANSIENT_ANNOTATION);
-        hibernate5Module.disable(Hibernate5Module.Feature.FORCE_LAZY_LOADING);
+        hibernate6Module.disable(Hibernate6Module.Feature.USE_TRANSIENT_ANNOTATION);
+        hibernate6Module.disable(Hibernate6Module.Feature.FORCE_LAZY_LOADING);
         
-        mapper.registerModule(hibernate5Module);
+        mapper.registerModule(hibernate6Module);
+
+        // The DTOs carry java.time values, e.g. the birth date of the large user DTO
+        mapper.registerModule(new JavaTimeModule());
         
         return mapper;
     }
@@ -1,17 +1,59 @@
 package espresso.achievement.application.eventHandlers;
 
-import org.springframework.context.event.EventListener;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import espresso.achievement.domain.contracts.IAchievementProjector;
+import espresso.achievement.domain.events.AchievementMediaAdded;
 import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.common.domain.contracts.IDomainEventSubscriber;
+import espresso.common.domain.events.DomainEvent;
 
+/**
+ * Keeps the achievement read models up to date. Every event projects the
+ * achievement it is about again from the write tables, so a repeated or
+ * late event does not leave a stale row; the achievements of a batch are
+ * projected together, once each.
+ */
 @Component
-public class AchievementEventHandler {
-    
-    @EventListener
-    public void handleNewAchievementCreatedEvent(NewAchievementCreated event) {
-        System.out.println("EVENT HANDLED: " + event.toString());
+public class AchievementEventHandler implements IDomainEventSubscriber {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private IAchievementProjector projector;
+
+    @Override
+    public String getName() {
+        return "achievement-projection";
+    }
+
+    @Override
+    public boolean supports(DomainEvent event) {
+        return event instanceof NewAchievementCreated || event instanceof AchievementMediaAdded;
+    }
+
+    @Override
+    public void handle(List<DomainEvent> events) {
+        Set<String> entityKeys = new LinkedHashSet<>();
+
+        for (DomainEvent event : events) {
+            if (event instanceof NewAchievementCreated created) {
+                entityKeys.add(created.getKey());
+            } else if (event instanceof AchievementMediaAdded mediaAdded) {
+                entityKeys.add(mediaAdded.getAchievementKey());
+            }
+        }
+
+        projector.project(entityKeys);
+    }
 
-        
+    @Override
+    public int getBatchSize() {
+        return BATCH_SIZE;
     }
 }
@@ -0,0 +1,73 @@
+package espresso.achievement.application.eventHandlers;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import espresso.achievement.domain.contracts.IAchievementTimelineRepository;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.common.domain.contracts.IDomainEventSubscriber;
+import espresso.common.domain.events.DomainEvent;
+import espresso.user.domain.events.UserFollowed;
+import espresso.user.domain.events.UserUnfollowed;
+
+/**
+ * Keeps the precomputed home timelines up to date: new public achievements
+ * are fanned out to the followers of their owner, and follows add or remove
+ * the achievements of the followee. The creates between two follows are
+ * fanned out together, and the events are applied in order, so an
+ * achievement and a follow of its owner give the same entries in any order.
+ */
+@Component
+public class AchievementTimelineEventHandler implements IDomainEventSubscriber {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private IAchievementTimelineRepository timelineRepository;
+
+    @Override
+    public String getName() {
+        return "achievement-timeline";
+    }
+
+    @Override
+    public boolean supports(DomainEvent event) {
+        return (event instanceof NewAchievementCreated created
+                && created.getVisibility() == AchievementVisibilityStatus.EVERYONE)
+                || event instanceof UserFollowed
+                || event instanceof UserUnfollowed;
+    }
+
+    @Override
+    public void handle(List<DomainEvent> events) {
+        Set<String> entityKeys = new LinkedHashSet<>();
+
+        for (DomainEvent event : events) {
+            if (event instanceof NewAchievementCreated created) {
+                entityKeys.add(created.getKey());
+                continue;
+            }
+
+            timelineRepository.fanOut(entityKeys);
+            entityKeys.clear();
+
+            if (event instanceof UserFollowed followed) {
+                timelineRepository.follow(followed.getFollowerKey(), followed.getFolloweeKey());
+            } else if (event instanceof UserUnfollowed unfollowed) {
+                timelineRepository.unfollow(unfollowed.getFollowerKey(), unfollowed.getFolloweeKey());
+            }
+        }
+
+        timelineRepository.fanOut(entityKeys);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return BATCH_SIZE;
+    }
+}
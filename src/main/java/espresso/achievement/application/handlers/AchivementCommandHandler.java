@@ -1,22 +1,40 @@
 package espresso.achievement.application.handlers;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import espresso.achievement.domain.contracts.IAchievementCommandHandler;
 import espresso.achievement.domain.commands.CreateAchivementCommand;
+import espresso.achievement.domain.commands.ReactToAchievementCommand;
+import espresso.achievement.domain.commands.RebuildAchievementProjectionsCommand;
+import espresso.achievement.domain.commands.ReconcileUserSkillStatsCommand;
+import espresso.achievement.domain.commands.RemoveAchievementReactionCommand;
 import espresso.achievement.domain.commands.UploadAchievementMediaCommand;
 import espresso.achievement.domain.contracts.IAchievementCmdRepository;
+import espresso.achievement.domain.contracts.IAchievementDetailCache;
+import espresso.achievement.domain.contracts.IAchievementFeedBuffer;
+import espresso.achievement.domain.contracts.IAchievementFragmentCache;
 import espresso.achievement.domain.contracts.IAchievementMediaRepository;
+import espresso.achievement.domain.contracts.IAchievementProjector;
 import espresso.achievement.domain.contracts.IAchievementQryRepository;
+import espresso.achievement.domain.contracts.IAchievementReactionCounter;
+import espresso.achievement.domain.contracts.IUserSkillStatsReconciler;
+import espresso.achievement.domain.contracts.IUserSkillStatsRepository;
 import espresso.user.domain.contracts.IUserRepository;
 import espresso.user.domain.entities.User;
 import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
 import espresso.achievement.domain.entities.AchievementMedia;
+import espresso.achievement.domain.entities.AchievementReactionType;
+import espresso.achievement.domain.events.AchievementMediaAdded;
 import espresso.common.domain.responses.HandlerResponse;
 import espresso.common.domain.responses.ResponseType;
 
@@ -35,6 +53,33 @@ public class AchivementCommandHandler implements IAchievementCommandHandler {
     @Autowired
     private IAchievementMediaRepository achievementMediaRepository;
 
+    @Autowired
+    private IAchievementFeedBuffer feedBuffer;
+
+    @Autowired
+    private IAchievementFragmentCache fragmentCache;
+
+    @Autowired
+    private IAchievementDetailCache detailCache;
+
+    @Autowired
+    private IAchievementProjector projector;
+
+    @Autowired
+    private IUserSkillStatsRepository userSkillStatsRepository;
+
+    @Autowired
+    private IUserSkillStatsReconciler userSkillStatsReconciler;
+
+    @Autowired
+    private IAchievementReactionCounter reactionCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public HandlerResponse<Object> handle(CreateAchivementCommand command) {
 
         try {
@@ -63,7 +108,17 @@ public class AchivementCommandHandler implements IAchievementCommandHandler {
                     user,
                     skills);
 
-            Achievement savedEntity = achievementCmdRepository.save(entity);
+            // The stats of the owner are incremented in the same transaction, so they never count a rolled back create
+            Achievement savedEntity = new TransactionTemplate(transactionManager).execute(status -> {
+                Achievement saved = achievementCmdRepository.save(entity);
+                userSkillStatsRepository.increment(saved);
+                return saved;
+            });
+
+            // Put the new achievement at the head of the in-memory latest feed, built from the saved aggregate
+            if (isInPublicFeed(savedEntity)) {
+                feedBuffer.append(savedEntity);
+            }
 
             return HandlerResponse.created(savedEntity);
 
@@ -103,6 +158,8 @@ public class AchivementCommandHandler implements IAchievementCommandHandler {
                         ResponseType.UNAUTHORIZED);
             }
 
+            List<String> mediaKeys = new ArrayList<>();
+
             // Process each image in the array
             for (MultipartFile image : cmd.getImages()) {
                 // Convert MultipartFile to byte array
@@ -123,8 +180,24 @@ public class AchivementCommandHandler implements IAchievementCommandHandler {
 
                 // Save the media
                 achievementMediaRepository.save(achievement, media);
+                mediaKeys.add(media.getImageKey());
+            }
+
+            // The cached details, JSON and buffered feed items no longer include all the media
+            detailCache.invalidate(achievement.getEntityKey());
+            fragmentCache.invalidate(achievement.getEntityKey());
+
+            if (isInPublicFeed(achievement)) {
+                feedBuffer.append(achievement.getEntityKey());
             }
 
+            // Delivered to the subscribers by the DomainEventBus, off the request thread
+            eventPublisher.publishEvent(new AchievementMediaAdded(
+                    achievement.getEntityKey(),
+                    ownerEntityKey,
+                    achievement.getAchievementVisibility(),
+                    mediaKeys.toArray(String[]::new)));
+
             // Return the achievement instance
             return HandlerResponse.created(achievement);
 
@@ -132,4 +205,116 @@ public class AchivementCommandHandler implements IAchievementCommandHandler {
             return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
         }
     }
+
+    public HandlerResponse<Object> handle(RebuildAchievementProjectionsCommand command) {
+
+        try {
+            // Validate the command
+            var validationErrors = command.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            // Unset values fall back to the configured chunk size and parallelism
+            return HandlerResponse.success(projector.rebuild(command.getChunkSize(), command.getParallelism()));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    public HandlerResponse<Object> handle(ReconcileUserSkillStatsCommand command) {
+
+        try {
+            // Validate the command
+            var validationErrors = command.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            // Unset values fall back to the configured chunk size and parallelism
+            return HandlerResponse.success(
+                    userSkillStatsReconciler.reconcile(command.getChunkSize(), command.getParallelism()));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    public HandlerResponse<Object> handle(ReactToAchievementCommand cmd) {
+        try {
+            // Validate the command
+            var validationErrors = cmd.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            return react(cmd.getAchievementKey(), cmd.getUserKey(), cmd.getReaction(), true);
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    public HandlerResponse<Object> handle(RemoveAchievementReactionCommand cmd) {
+        try {
+            // Validate the command
+            var validationErrors = cmd.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            return react(cmd.getAchievementKey(), cmd.getUserKey(), cmd.getReaction(), false);
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * Adds or removes a reaction in the reaction counter, which writes it to the database with its next flush.
+     * Reacting twice, or removing a reaction that is not there, is not an error.
+     */
+    private HandlerResponse<Object> react(String achievementKey, String userKey, String reaction, boolean added) {
+        if (!reactionCounter.isReady()) {
+            return HandlerResponse.error("The reactions are not ready", ResponseType.SERVICE_UNAVAILABLE);
+        }
+
+        User user = userRepository.findByKey(userKey, User.class);
+
+        if (user == null) {
+            return HandlerResponse.error("User not found", ResponseType.NOT_FOUND);
+        }
+
+        Achievement achievement = achievementQryRepository.getAchievementByKey(Achievement.class, achievementKey);
+
+        // Only the owner can see, and so react to, an achievement that is not public
+        if (achievement == null || !achievement.isActive()
+                || (achievement.getAchievementVisibility() != AchievementVisibilityStatus.EVERYONE
+                        && (achievement.getUser() == null || !userKey.equals(achievement.getUser().getEntityKey())))) {
+            return HandlerResponse.error("Achievement not found", ResponseType.NOT_FOUND);
+        }
+
+        AchievementReactionType type = AchievementReactionType.fromName(reaction);
+
+        if (added) {
+            reactionCounter.react(achievement.getId(), user.getId(), type);
+        } else {
+            reactionCounter.unreact(achievement.getId(), user.getId(), type);
+        }
+
+        return HandlerResponse.success(null);
+    }
+
+    /**
+     * @return true if the achievement is shown in the public latest feed
+     */
+    private static boolean isInPublicFeed(Achievement achievement) {
+        return achievement.isActive()
+                && achievement.getAchievementVisibility() == AchievementVisibilityStatus.EVERYONE;
+    }
 }
@@ -2,28 +2,98 @@ package espresso.achievement.application.queryHandlers;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import espresso.achievement.application.response.HandlerResult;
+import espresso.achievement.domain.contracts.IAchievementDetailCache;
+import espresso.achievement.domain.contracts.IAchievementFeedBuffer;
+import espresso.achievement.domain.contracts.IAchievementFragmentCache;
+import espresso.achievement.domain.contracts.IAchievementHiddenOwners;
+import espresso.achievement.domain.contracts.IAchievementKeyFilter;
+import espresso.achievement.domain.contracts.IAchievementLeaderboards;
 import espresso.achievement.domain.contracts.IAchievementQryRepository;
 import espresso.achievement.domain.contracts.IAchievementQueryHandler;
+import espresso.achievement.domain.contracts.IAchievementSkillIndex;
+import espresso.achievement.domain.contracts.IAchievementStreamBroadcaster;
+import espresso.achievement.domain.contracts.IAchievementTimelineRepository;
+import espresso.achievement.domain.contracts.IAchievementReactionCounter;
+import espresso.achievement.domain.contracts.IAchievementTrendingScorer;
+import espresso.achievement.domain.contracts.IAchievementViewCounter;
+import espresso.achievement.domain.contracts.IUserSkillStatsRepository;
+import espresso.achievement.domain.entities.AchievementChangeType;
+import espresso.achievement.domain.entities.Achievement;
 import espresso.achievement.domain.entities.AchievementDtoLg;
 import espresso.achievement.domain.entities.AchievementDtoMd;
 import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.domain.entities.AchievementReactionType;
+import espresso.achievement.domain.entities.AchievementSearchHit;
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.domain.entities.AchievementTimelineItem;
+import espresso.achievement.domain.entities.AchievementViewCount;
+import espresso.achievement.domain.entities.LeaderboardEntry;
+import espresso.achievement.domain.entities.UserSkillStats;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.AchievementMediaAdded;
+import espresso.achievement.domain.events.NewAchievementCreated;
 import espresso.achievement.domain.queries.GetAchievementDetailByKeyQuery;
 import espresso.achievement.domain.queries.GetAchievementDetailQuery;
+import espresso.achievement.domain.queries.GetAchievementReactionsQuery;
+import espresso.achievement.domain.queries.GetAchievementViewsQuery;
+import espresso.achievement.domain.queries.GetAchievementSummariesByKeysQuery;
 import espresso.achievement.domain.queries.GetAchievementSummariesByUserQuery;
 import espresso.achievement.domain.queries.GetAchievementSummaryByKeyQuery;
+import espresso.achievement.domain.queries.GetAchievementsBySkillsQuery;
+import espresso.achievement.domain.queries.GetAchievementFacetsQuery;
+import espresso.achievement.domain.queries.GetChangesQuery;
 import espresso.achievement.domain.queries.GetLatestAchievementsQuery;
+import espresso.achievement.domain.queries.GetTimelineQuery;
+import espresso.achievement.domain.queries.GetUserSkillStatsQuery;
+import espresso.achievement.domain.queries.GetSkillLeaderboardQuery;
+import espresso.achievement.domain.queries.GetSkillLeaderboardRankQuery;
+import espresso.achievement.domain.queries.GetTrendingAchievementsQuery;
+import espresso.achievement.domain.queries.LeaderboardWindow;
+import espresso.achievement.domain.queries.SearchAchievementsQuery;
+import espresso.achievement.domain.queries.StreamLatestAchievementsQuery;
+import espresso.achievement.domain.queries.SkillMatchType;
 import espresso.achievement.domain.readModels.AchievementDetailReadModel;
+import espresso.achievement.domain.readModels.AchievementReactionsReadModel;
+import espresso.achievement.domain.readModels.AchievementViewsReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryLookupReadModel;
 import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.ChangeReadModel;
+import espresso.achievement.domain.readModels.ChangesReadModel;
+import espresso.achievement.domain.readModels.LeaderboardEntryReadModel;
+import espresso.achievement.domain.readModels.LeaderboardReadModel;
+import espresso.achievement.domain.readModels.TrendingAchievementReadModel;
+import espresso.achievement.domain.readModels.UserProfileSummaryReadModel;
+import espresso.common.domain.contracts.IDomainEventLog;
+import espresso.common.domain.events.DomainEventRecord;
+import espresso.common.domain.queries.KeysetCursor;
+import espresso.common.domain.queries.KeysetItem;
 import espresso.common.domain.queries.QuerySizeType;
+import espresso.common.domain.queries.RankCursor;
 import espresso.common.domain.responses.HandlerResponse;
 import espresso.common.domain.responses.HandlerResponseList;
 import espresso.common.domain.responses.ResponseType;
+import espresso.user.domain.contracts.IUserKeyFilter;
+import espresso.user.domain.contracts.IUserRepository;
+import espresso.user.domain.entities.User;
+import espresso.user.domain.events.UserProfileImageChanged;
+import jakarta.annotation.PreDestroy;
 import lombok.NoArgsConstructor;
 
 /**
@@ -44,14 +114,67 @@ import lombok.NoArgsConstructor;
  * about a specific achievement.</li>
  * <li>{@link GetAchievementSummaryByKeyQuery} - Retrieves a summary of a
  * specific achievement.</li>
+ * <li>{@link GetAchievementSummariesByKeysQuery} - Retrieves the summaries of
+ * up to 100 achievements with a single query, answering every requested key
+ * in order and flagging the ones that do not exist.</li>
  * <li>{@link GetAchievementSummariesByUserQuery} - Retrieves summaries of
- * achievements for a specific user.</li>
- * <li>{@link GetLatestAchievementsQuery} - Retrieves the latest achievements
- * with configurable DTO size and limit.</li>
+ * achievements for a specific user (the user timeline), newest first and
+ * paged with the same keyset cursor as the latest feed.</li>
+ * <li>{@link GetLatestAchievementsQuery} - Retrieves the latest public
+ * achievements with configurable DTO size and limit, paged with an opaque
+ * keyset cursor. The first page is served from the
+ * {@link IAchievementFeedBuffer} when it holds the requested window. When the
+ * requester is known, their own non-public achievements are merged in.</li>
+ * <li>{@link GetAchievementsBySkillsQuery} - Retrieves the latest achievements
+ * with any or all of the given skills, paged like the latest feed. The ids
+ * of the page come from the in-memory {@link IAchievementSkillIndex} once it
+ * is seeded, and from the GIN indexed skills array otherwise.</li>
+ * <li>{@link SearchAchievementsQuery} - Full-text search over titles and
+ * descriptions, ranked, paged with a {@link RankCursor}.</li>
+ * <li>{@link GetAchievementFacetsQuery} - Facet counts of the browse screen,
+ * cached per filter set.</li>
+ * <li>{@link GetChangesQuery} - The changes since a sequence number of the
+ * domain event log, for incremental sync; see {@link #awaitChanges} for the
+ * long-poll wait.</li>
+ * <li>{@link StreamLatestAchievementsQuery} - Subscribes to the newly created
+ * public achievements, pushed as server-sent events.</li>
+ * <li>{@link GetTimelineQuery} - The home timeline of the requester: the
+ * public achievements of the users they follow, newest first, paged like the
+ * latest feed. The ids of the page come from the
+ * {@link IAchievementTimelineRepository}, merged from the followees or read
+ * from the precomputed timeline.</li>
+ * <li>{@link GetUserSkillStatsQuery} - The skill stats of a user, read from
+ * their single {@link UserSkillStats} row; the user is only looked up when
+ * they have no row yet.</li>
+ * <li>{@link GetSkillLeaderboardQuery} and {@link GetSkillLeaderboardRankQuery} -
+ * The top users of a skill, of all time or of the last 30 days, and the rank
+ * of a user with their neighbours, read from the in-memory
+ * {@link IAchievementLeaderboards}; the keys and names of the listed users
+ * are read in one round trip.</li>
+ * <li>{@link GetTrendingAchievementsQuery} - The public achievements with the
+ * most recent engagement, served from the snapshot the
+ * {@link IAchievementTrendingScorer} publishes, without reading the database.
+ * Every detail view served here is recorded as an engagement signal.</li>
+ * <li>{@link GetAchievementReactionsQuery} - The reaction counts of an
+ * achievement visible to the requester, the stored counts plus the changes
+ * the {@link IAchievementReactionCounter} has not flushed yet, and the
+ * reactions the requester left, read from memory.</li>
+ * <li>{@link GetAchievementViewsQuery} - The views and the estimated unique
+ * viewers of an achievement visible to the requester, as of the last flush
+ * of the {@link IAchievementViewCounter}. Every detail view served here is
+ * queued to it; serving a detail never writes to the database.</li>
  * </ul>
  * </p>
  * 
  * <p>
+ * Feed and detail results are handed to the {@link IAchievementFragmentCache},
+ * so achievements that were already serialized in the requested size are
+ * written from their cached JSON. Detail lookups of keys that the
+ * {@link IAchievementKeyFilter} knows were never issued are answered with
+ * NOT_FOUND without querying the database, for details and summaries alike.
+ * </p>
+ * 
+ * <p>
  * Input validation is performed for each query, and appropriate exceptions are
  * thrown for invalid inputs.
  * The handler returns either a successful result or an empty/error response
@@ -72,11 +195,78 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class AchievementQueryHandler implements IAchievementQueryHandler {
 
+    private static final int DEFAULT_LIMIT = 10;
+
+    private static final int DEFAULT_CHANGES_LIMIT = 100;
+
+    private static final int DEFAULT_LEADERBOARD_RADIUS = 5;
+
+    private static final Comparator<KeysetItem> NEWEST_FIRST = Comparator
+            .comparing(KeysetItem::getRegisteredAt)
+            .thenComparing(KeysetItem::getId)
+            .reversed();
+
+    // The event log completes the waits on the committing thread, under its lock; the long-polls continue here
+    private final ExecutorService changeWaiters = Executors.newVirtualThreadPerTaskExecutor();
+
     @Autowired
     IAchievementQryRepository achievementRepository;
 
+    @Autowired
+    IAchievementDetailCache detailCache;
+
+    @Autowired
+    IAchievementFeedBuffer feedBuffer;
+
+    @Autowired
+    IAchievementFragmentCache fragmentCache;
+
+    @Autowired
+    IAchievementKeyFilter achievementKeyFilter;
+
+    @Autowired
+    IAchievementSkillIndex skillIndex;
+
+    @Autowired
+    IDomainEventLog eventLog;
+
+    @Autowired
+    IAchievementStreamBroadcaster streamBroadcaster;
+
+    @Autowired
+    IAchievementTimelineRepository timelineRepository;
+
+    @Autowired
+    IUserSkillStatsRepository userSkillStatsRepository;
+
+    @Autowired
+    IUserKeyFilter userKeyFilter;
+
+    @Autowired
+    IUserRepository userRepository;
+
+    @Autowired
+    IAchievementLeaderboards leaderboards;
+
+    @Autowired
+    IAchievementTrendingScorer trendingScorer;
+
+    @Autowired
+    IAchievementReactionCounter reactionCounter;
+
+    @Autowired
+    IAchievementViewCounter viewCounter;
+
+    @Autowired
+    IAchievementHiddenOwners hiddenOwners;
+
     @Override
     public HandlerResponse<Object> handle(GetLatestAchievementsQuery qry) {
+        return handle(qry, null);
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetLatestAchievementsQuery qry, String requesterKey) {
 
         HandlerResponse<Object> response;
 
@@ -94,13 +284,42 @@ public class AchievementQueryHandler implements IAchievementQueryHandler {
                         new String[] { "fromDate must not be in the future" }, ResponseType.VALIDATION_ERROR);
             }
 
-            // Get the achievements from repository
-            List<?> achievementDtos = achievementRepository.getLatestAchievements(getDtoSize(qry.getSize()),
-                    qry.getLimit(), qry.getFromDate());
+            int limit = qry.getLimit() == null || qry.getLimit() <= 0 ? DEFAULT_LIMIT : qry.getLimit();
 
-            response = achievementDtos != null
-                    ? HandlerResponse.success(achievementDtos)
-                    : HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            Class<?> dtoType = getDtoSize(qry.getSize());
+            KeysetCursor cursor = KeysetCursor.decode(qry.getCursor());
+
+            // Ask for one extra row to know if there is a next page without issuing a count query.
+            // The first page of the feed is served from memory when the buffer holds it
+            List<?> achievementDtos = qry.getFromDate() == null && cursor == null
+                    ? feedBuffer.getLatestAchievements(dtoType, limit + 1)
+                    : null;
+
+            if (achievementDtos == null) {
+                achievementDtos = achievementRepository.getLatestAchievements(dtoType, limit + 1,
+                        qry.getFromDate(), cursor);
+            }
+
+            if (achievementDtos == null) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
+            // The owner also sees their private achievements, read from their own rows only,
+            // and only when they have some
+            if (requesterKey != null && hiddenOwners.mayHaveHidden(requesterKey)) {
+                achievementDtos = mergeNewestFirst(achievementDtos, achievementRepository
+                        .getHiddenAchievementsOfUser(dtoType, requesterKey, limit + 1, qry.getFromDate(), cursor),
+                        limit + 1);
+            }
+
+            String nextCursor = null;
+
+            if (achievementDtos.size() > limit) {
+                achievementDtos = achievementDtos.subList(0, limit);
+                nextCursor = getNextCursor(achievementDtos);
+            }
+
+            response = HandlerResponse.success(fragmentCache.toFragments(dtoType, achievementDtos), nextCursor);
 
             return response;
         } catch (Exception ex) {
@@ -108,8 +327,293 @@ public class AchievementQueryHandler implements IAchievementQueryHandler {
         }
     }
 
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementsBySkillsQuery qry) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            // Verify that fromDate is not after now (UTC)
+            if (qry.getFromDate() != null && qry.getFromDate().isAfter(OffsetDateTime.now(ZoneOffset.UTC))) {
+                return HandlerResponse.error(
+                        new String[] { "fromDate must not be in the future" }, ResponseType.VALIDATION_ERROR);
+            }
+
+            int limit = qry.getLimit() == null || qry.getLimit() <= 0 ? DEFAULT_LIMIT : qry.getLimit();
+
+            Class<?> dtoType = getDtoSize(qry.getSize());
+            KeysetCursor cursor = KeysetCursor.decode(qry.getCursor());
+            List<String> skills = qry.getNormalizedSkills();
+            boolean matchAll = qry.getMatch() == SkillMatchType.all;
+
+            // Ask for one extra row to know if there is a next page without issuing a count query.
+            // The ids of the page are taken from the skill index when it is ready, so only the page is read
+            List<Long> ids = skillIndex.findIds(AchievementSkill.toMask(skills), matchAll, qry.getFromDate(),
+                    cursor != null ? cursor.getId() : null, limit + 1);
+
+            List<?> achievementDtos;
+
+            if (ids != null) {
+                achievementDtos = achievementRepository.getAchievementsByIds(dtoType, ids, null);
+
+                // The index resolves fromDate to the minute; drop the few registered before it
+                if (qry.getFromDate() != null) {
+                    achievementDtos = achievementDtos.stream()
+                            .filter(dto -> ((KeysetItem) dto).getRegisteredAt().isAfter(qry.getFromDate()))
+                            .toList();
+                }
+            } else {
+                achievementDtos = achievementRepository.getAchievementsWithSkills(dtoType, limit + 1, skills,
+                        matchAll, qry.getFromDate(), cursor);
+            }
+
+            String nextCursor = null;
+
+            if (achievementDtos.size() > limit) {
+                achievementDtos = achievementDtos.subList(0, limit);
+                nextCursor = getNextCursor(achievementDtos);
+            }
+
+            return HandlerResponse.success(fragmentCache.toFragments(dtoType, achievementDtos), nextCursor);
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(SearchAchievementsQuery qry) {
+        return handle(qry, null);
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(SearchAchievementsQuery qry, String requesterKey) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            int limit = qry.getLimit() == null || qry.getLimit() <= 0 ? DEFAULT_LIMIT : qry.getLimit();
+
+            Class<?> dtoType = getDtoSize(qry.getSize());
+            RankCursor cursor = RankCursor.decode(qry.getCursor());
+
+            // Rank first, then load only the achievements of the page
+            List<AchievementSearchHit> hits = achievementRepository.searchAchievements(qry.getText().trim(),
+                    limit + 1, cursor, requesterKey);
+
+            String nextCursor = null;
+
+            if (hits.size() > limit) {
+                hits = hits.subList(0, limit);
+
+                AchievementSearchHit last = hits.get(limit - 1);
+                nextCursor = new RankCursor(last.rank(), last.id()).encode();
+            }
+
+            List<?> achievementDtos = hits.isEmpty()
+                    ? List.of()
+                    : achievementRepository.getAchievementsByIds(dtoType,
+                            hits.stream().map(AchievementSearchHit::id).toList(), requesterKey);
+
+            return HandlerResponse.success(fragmentCache.toFragments(dtoType, achievementDtos), nextCursor);
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementFacetsQuery qry) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            return HandlerResponse.success(achievementRepository.getAchievementFacets(qry.toFilter()));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetChangesQuery qry, String requesterKey) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            long lastSequence = eventLog.getLastSequence();
+
+            // The log was reset, or the changes after the sequence were deleted by its retention:
+            // the client starts over from the current sequence
+            if (qry.getSince() > lastSequence || qry.getSince() + 1 < eventLog.getFirstSequence()) {
+                return HandlerResponse.success(new ChangesReadModel(lastSequence, false, true, List.of()));
+            }
+
+            int limit = qry.getLimit() != null ? qry.getLimit() : DEFAULT_CHANGES_LIMIT;
+
+            List<ChangeReadModel> changes = new ArrayList<>();
+            long[] sequence = { qry.getSince() };
+
+            // Changes the requester can not see still move the sequence forward
+            eventLog.replay(qry.getSince() + 1, limit, record -> {
+                sequence[0] = record.sequence();
+
+                ChangeReadModel change = toChange(record, requesterKey);
+
+                if (change != null) {
+                    changes.add(change);
+                }
+            });
+
+            return HandlerResponse.success(
+                    new ChangesReadModel(sequence[0], sequence[0] < eventLog.getLastSequence(), false, changes));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> awaitChanges(GetChangesQuery qry) {
+        if (qry.getWait() == null || qry.getWait() <= 0 || !qry.validate().isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return eventLog.awaitAppend(qry.getSince())
+                .completeOnTimeout(qry.getSince(), qry.getWait(), TimeUnit.SECONDS)
+                .thenApplyAsync(sequence -> null, changeWaiters);
+    }
+
+    /**
+     * Stops handing off the long-polls; the pending ones are answered by the timeout of their request
+     */
+    @PreDestroy
+    public void stop() {
+        changeWaiters.shutdownNow();
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(StreamLatestAchievementsQuery qry) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            return HandlerResponse.success(streamBroadcaster.subscribe(getDtoSize(qry.getSize())));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetTimelineQuery qry, String requesterKey) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            // Only a known user has a timeline
+            if (requesterKey == null) {
+                return HandlerResponse.error(null, ResponseType.UNAUTHORIZED);
+            }
+
+            int limit = qry.getLimit() == null || qry.getLimit() <= 0 ? DEFAULT_LIMIT : qry.getLimit();
+
+            Class<?> dtoType = getDtoSize(qry.getSize());
+
+            // Ask for one extra item to know if there is a next page, then load only the page
+            List<AchievementTimelineItem> items = timelineRepository.getTimeline(requesterKey, limit + 1,
+                    KeysetCursor.decode(qry.getCursor()));
+
+            String nextCursor = null;
+
+            if (items.size() > limit) {
+                items = items.subList(0, limit);
+                nextCursor = KeysetCursor.of(items.get(limit - 1)).encode();
+            }
+
+            List<?> achievementDtos = items.isEmpty()
+                    ? List.of()
+                    : achievementRepository.getAchievementsByIds(dtoType,
+                            items.stream().map(AchievementTimelineItem::id).toList(), null);
+
+            return HandlerResponse.success(fragmentCache.toFragments(dtoType, achievementDtos), nextCursor);
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * @return The change of a logged event, or null when the requester can not see it
+     */
+    private static ChangeReadModel toChange(DomainEventRecord record, String requesterKey) {
+        if (record.event() instanceof NewAchievementCreated created) {
+            return isVisible(created.getVisibility(), created.getUserKey(), requesterKey)
+                    ? new ChangeReadModel(record.sequence(), AchievementChangeType.ACHIEVEMENT_CREATED,
+                            created.getKey(), created.getUserKey(), null, null)
+                    : null;
+        }
+
+        if (record.event() instanceof AchievementMediaAdded mediaAdded) {
+            return isVisible(mediaAdded.getVisibility(), mediaAdded.getUserKey(), requesterKey)
+                    ? new ChangeReadModel(record.sequence(), AchievementChangeType.ACHIEVEMENT_MEDIA_ADDED,
+                            mediaAdded.getAchievementKey(), mediaAdded.getUserKey(), mediaAdded.getMediaKeys(), null)
+                    : null;
+        }
+
+        if (record.event() instanceof UserProfileImageChanged imageChanged) {
+            return new ChangeReadModel(record.sequence(), AchievementChangeType.USER_PROFILE_IMAGE_CHANGED,
+                    imageChanged.getUserKey(), null, null, imageChanged.getProfileImageUrl());
+        }
+
+        return null;
+    }
+
+    /**
+     * @return true if the achievement is public or owned by the requester
+     */
+    private static boolean isVisible(AchievementVisibilityStatus visibility, String ownerKey, String requesterKey) {
+        return visibility == AchievementVisibilityStatus.EVERYONE
+                || (requesterKey != null && requesterKey.equals(ownerKey));
+    }
+
     @Override
     public HandlerResponse<Object> handle(GetAchievementDetailQuery qry) {
+        return handle(qry, null);
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementDetailQuery qry, String requesterKey) {
 
         HandlerResponse<Object> response;
 
@@ -121,11 +625,24 @@ public class AchievementQueryHandler implements IAchievementQueryHandler {
                 return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
             }
 
-            Object achievementDto = achievementRepository.getAchievementByKey(getDtoSize(qry.getSize()), qry.getEntityKey());
+            // Keys that were never issued are answered without querying the database
+            if (!achievementKeyFilter.mightExist(qry.getEntityKey())) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
 
-            response = achievementDto != null
-                    ? HandlerResponse.success(achievementDto)
-                    : HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            Class<?> dtoType = getDtoSize(qry.getSize());
+
+            Object achievementDto = detailCache.getAchievementByKey(dtoType, qry.getEntityKey());
+
+            if (achievementDto == null) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
+            // Both only queue the view, the detail read never writes
+            trendingScorer.recordView(qry.getEntityKey());
+            viewCounter.recordView(qry.getEntityKey(), requesterKey);
+
+            response = HandlerResponse.success(fragmentCache.toFragment(dtoType, achievementDto));
 
             return response;
 
@@ -135,6 +652,397 @@ public class AchievementQueryHandler implements IAchievementQueryHandler {
 
     }
 
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementSummariesByUserQuery qry) {
+        return handle(qry, null);
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementSummariesByUserQuery qry, String requesterKey) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            int limit = qry.getLimit() == null || qry.getLimit() <= 0 ? DEFAULT_LIMIT : qry.getLimit();
+
+            KeysetCursor cursor = KeysetCursor.decode(qry.getCursor());
+
+            // Only the owner sees their achievements that are not public
+            boolean includeHidden = qry.getUserKey().equals(requesterKey);
+
+            // Ask for one extra row to know if there is a next page without issuing a count query
+            List<AchievementSummaryReadModel> summaries = achievementRepository
+                    .getAchievementSummariesByUser(qry.getUserKey(), includeHidden, limit + 1, cursor);
+
+            String nextCursor = null;
+
+            if (summaries.size() > limit) {
+                summaries = summaries.subList(0, limit);
+                nextCursor = getNextCursor(summaries);
+            }
+
+            return HandlerResponse.success(summaries, nextCursor);
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetUserSkillStatsQuery qry) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            UserSkillStats stats = userSkillStatsRepository.getByUserKey(qry.getUserKey());
+
+            if (stats != null) {
+                return HandlerResponse.success(stats.toReadModel());
+            }
+
+            // No row: the user has no achievements yet, or does not exist
+            if (!userKeyFilter.mightExist(qry.getUserKey())
+                    || userRepository.findByKey(qry.getUserKey(), User.class) == null) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
+            UserSkillStats empty = new UserSkillStats();
+            empty.setUserKey(qry.getUserKey());
+
+            return HandlerResponse.success(empty.toReadModel());
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetSkillLeaderboardQuery qry) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            AchievementSkill skill = AchievementSkill.fromAbbreviation(qry.getSkill());
+            LeaderboardWindow window = qry.getWindow() != null ? qry.getWindow() : LeaderboardWindow.all;
+            int limit = qry.getLimit() == null || qry.getLimit() <= 0 ? DEFAULT_LIMIT : qry.getLimit();
+
+            List<LeaderboardEntry> entries = leaderboards.getTop(skill, window, limit);
+
+            if (entries == null) {
+                return HandlerResponse.error("The leaderboards are not ready", ResponseType.SERVICE_UNAVAILABLE);
+            }
+
+            return HandlerResponse.success(toLeaderboard(skill, window, entries));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetSkillLeaderboardRankQuery qry) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            AchievementSkill skill = AchievementSkill.fromAbbreviation(qry.getSkill());
+            LeaderboardWindow window = qry.getWindow() != null ? qry.getWindow() : LeaderboardWindow.all;
+            int radius = qry.getRadius() == null ? DEFAULT_LEADERBOARD_RADIUS : qry.getRadius();
+
+            // Only users with achievements are ranked, and they all have a stats row with their id
+            UserSkillStats stats = userSkillStatsRepository.getByUserKey(qry.getUserKey());
+
+            if (stats == null) {
+                if (!userKeyFilter.mightExist(qry.getUserKey())
+                        || userRepository.findByKey(qry.getUserKey(), User.class) == null) {
+                    return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+                }
+
+                if (!leaderboards.isReady()) {
+                    return HandlerResponse.error("The leaderboards are not ready", ResponseType.SERVICE_UNAVAILABLE);
+                }
+
+                return HandlerResponse.success(toLeaderboard(skill, window, List.of()));
+            }
+
+            List<LeaderboardEntry> entries = leaderboards.getAround(skill, window, stats.getUserId(), radius);
+
+            if (entries == null) {
+                return HandlerResponse.error("The leaderboards are not ready", ResponseType.SERVICE_UNAVAILABLE);
+            }
+
+            return HandlerResponse.success(toLeaderboard(skill, window, entries));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetTrendingAchievementsQuery qry) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            int limit = qry.getLimit() == null || qry.getLimit() <= 0 ? DEFAULT_LIMIT : qry.getLimit();
+
+            List<TrendingAchievementReadModel> trending = trendingScorer.getTrending();
+
+            return HandlerResponse.success(trending.subList(0, Math.min(limit, trending.size())));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementReactionsQuery qry, String requesterKey) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            // Keys that were never issued are answered without querying the database
+            if (!achievementKeyFilter.mightExist(qry.getKey())) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
+            Achievement achievement = achievementRepository.getAchievementByKey(Achievement.class, qry.getKey());
+
+            if (achievement == null || !achievement.isActive() || !isVisible(achievement.getAchievementVisibility(),
+                    achievement.getUser() != null ? achievement.getUser().getEntityKey() : null, requesterKey)) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
+            Map<String, Long> counts = new LinkedHashMap<>();
+
+            reactionCounter.getCounts(achievement.getId())
+                    .forEach((type, count) -> counts.put(type.getReactionName(), count));
+
+            List<String> reacted = List.of();
+            User requester = requesterKey != null ? userRepository.findByKey(requesterKey, User.class) : null;
+
+            // Until the counter is ready it does not know every reaction left before the start
+            if (requester != null && reactionCounter.isReady()) {
+                reacted = reactionCounter.getReactions(achievement.getId(), requester.getId()).stream()
+                        .map(AchievementReactionType::getReactionName)
+                        .toList();
+            }
+
+            return HandlerResponse.success(new AchievementReactionsReadModel(qry.getKey(), counts, reacted));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementViewsQuery qry, String requesterKey) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            // Keys that were never issued are answered without querying the database
+            if (!achievementKeyFilter.mightExist(qry.getKey())) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
+            Achievement achievement = achievementRepository.getAchievementByKey(Achievement.class, qry.getKey());
+
+            if (achievement == null || !achievement.isActive() || !isVisible(achievement.getAchievementVisibility(),
+                    achievement.getUser() != null ? achievement.getUser().getEntityKey() : null, requesterKey)) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
+            AchievementViewCount views = viewCounter.getViews(achievement.getId());
+
+            return HandlerResponse.success(
+                    new AchievementViewsReadModel(qry.getKey(), views.views(), views.uniqueViewers()));
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementSummaryByKeyQuery qry) {
+        return handle(qry, null);
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementSummaryByKeyQuery qry, String requesterKey) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            // Keys that were never issued are answered without querying the database
+            if (!achievementKeyFilter.mightExist(qry.getKey())) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
+            // Achievements the requester can not see are answered as missing
+            AchievementSummaryReadModel summary = achievementRepository.getAchievementSummaryByKey(qry.getKey(),
+                    requesterKey);
+
+            return summary != null
+                    ? HandlerResponse.success(summary)
+                    : HandlerResponse.error(null, ResponseType.NOT_FOUND);
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementSummariesByKeysQuery qry) {
+        return handle(qry, null);
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(GetAchievementSummariesByKeysQuery qry, String requesterKey) {
+
+        try {
+            // Validate the query
+            var validationErrors = qry.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            // Duplicates are queried once, and keys that were never issued are not queried at all
+            Set<String> candidateKeys = new LinkedHashSet<>();
+
+            for (String key : qry.getKeys()) {
+                if (achievementKeyFilter.mightExist(key)) {
+                    candidateKeys.add(key);
+                }
+            }
+
+            Map<String, AchievementSummaryReadModel> summariesByKey = new HashMap<>();
+
+            if (!candidateKeys.isEmpty()) {
+                for (AchievementSummaryReadModel summary : achievementRepository
+                        .getAchievementSummariesByKeys(candidateKeys, requesterKey)) {
+                    summariesByKey.put(summary.getKey(), summary);
+                }
+            }
+
+            // One entry per requested key, in the requested order
+            List<AchievementSummaryLookupReadModel> lookups = new ArrayList<>(qry.getKeys().size());
+
+            for (String key : qry.getKeys()) {
+                AchievementSummaryReadModel summary = summariesByKey.get(key);
+                lookups.add(new AchievementSummaryLookupReadModel(key, summary != null, summary));
+            }
+
+            return HandlerResponse.success(lookups);
+
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * Merges two pages that are both ordered newest first (by registeredAt, then id)
+     */
+    private static List<?> mergeNewestFirst(List<?> first, List<?> second, int limit) {
+        if (second.isEmpty()) {
+            return first;
+        }
+
+        List<Object> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size()
+                    || (i < first.size() && NEWEST_FIRST.compare((KeysetItem) first.get(i),
+                            (KeysetItem) second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+
+        return merged;
+    }
+
+    /**
+     * Builds the read model of a leaderboard range, with the key and name of every listed user
+     */
+    private LeaderboardReadModel toLeaderboard(AchievementSkill skill, LeaderboardWindow window,
+            List<LeaderboardEntry> entries) {
+
+        Map<Long, UserProfileSummaryReadModel> users = achievementRepository
+                .getUserSummariesByIds(entries.stream().map(LeaderboardEntry::userId).toList());
+
+        List<LeaderboardEntryReadModel> rows = new ArrayList<>(entries.size());
+
+        for (LeaderboardEntry entry : entries) {
+            UserProfileSummaryReadModel user = users.get(entry.userId());
+
+            // A user deleted since the leaderboards counted them keeps their rank without a profile
+            rows.add(new LeaderboardEntryReadModel(entry.rank(), user != null ? user.getKey() : null,
+                    user != null ? user.getUserName() : null, entry.score()));
+        }
+
+        return new LeaderboardReadModel(skill.getAbbreviation(), window.name(),
+                leaderboards.getRankedUsers(skill, window), rows);
+    }
+
+    /**
+     * Builds the cursor pointing at the last item of a page
+     * 
+     * @param page the items of the current page
+     * @return the encoded cursor, or null when the items cannot be keyed
+     */
+    private String getNextCursor(List<?> page) {
+        Object last = page.get(page.size() - 1);
+
+        return last instanceof KeysetItem item
+                ? KeysetCursor.of(item).encode()
+                : null;
+    }
+
     /**
      * Maps QuerySizeType to the appropriate Achievement DTO class
      * 
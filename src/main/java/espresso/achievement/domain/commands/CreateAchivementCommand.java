@@ -2,6 +2,7 @@ package espresso.achievement.domain.commands;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
+import espresso.achievement.domain.entities.AchievementSkill;
 import espresso.common.domain.commands.CommonCommand;
 import lombok.Getter;
 import lombok.Setter;
@@ -36,7 +37,7 @@ public class CreateAchivementCommand extends CommonCommand {
     private Boolean isPublic = true;
 
     // Allowed skill values
-    private static final Set<String> ALLOWED_SKILLS = Set.of("str", "dex", "con", "wis", "int", "cha", "luc");
+    public static final Set<String> ALLOWED_SKILLS = AchievementSkill.ABBREVIATIONS;
     private static final String ERROR_INVALID_SKILL = "LOCALIZE: INVALID SKILL '%s'. ALLOWED SKILLS ARE: str, dex, con, wis, int, cha, luc";
 
     @Override
@@ -0,0 +1,27 @@
+package espresso.achievement.domain.commands;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import espresso.common.domain.commands.CommonCommand;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class ReconcileUserSkillStatsCommand extends CommonCommand {
+
+    // Optional number of user ids per chunk - defaults to achievement.stats.reconcile.chunk-size
+    @Min(value = 100, message = "LOCALIZE: CHUNK SIZE MUST NOT BE LOWER THAN 100")
+    @Max(value = 100000, message = "LOCALIZE: CHUNK SIZE MUST NOT BE GREATER THAN 100000")
+    private Integer chunkSize;
+
+    // Optional number of chunks recomputed at the same time - defaults to achievement.stats.reconcile.parallelism
+    @Min(value = 1, message = "LOCALIZE: PARALLELISM MUST BE GREATER THAN 0")
+    @Max(value = 32, message = "LOCALIZE: PARALLELISM MUST NOT BE GREATER THAN 32")
+    private Integer parallelism;
+}
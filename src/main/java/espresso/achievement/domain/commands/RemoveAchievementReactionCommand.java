@@ -0,0 +1,48 @@
+package espresso.achievement.domain.commands;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import espresso.achievement.domain.entities.AchievementReactionType;
+import espresso.common.domain.commands.CommonCommand;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(callSuper = true)
+public class RemoveAchievementReactionCommand extends CommonCommand {
+
+    static final String ERROR_INVALID_REACTION = "LOCALIZE: INVALID REACTION '%s'. ALLOWED REACTIONS ARE: like, cheer, clap, wow";
+
+    @NotBlank(message = "LOCALIZE: ACHIEVEMENT KEY IS REQUIRED")
+    @Size(min = 7, max = 7, message = "LOCALIZE: ENTITY KEY MUST BE EXACTLY 7 CHARACTERS")
+    private String achievementKey;
+
+    // The user whose reaction is removed, taken from the JWT
+    @NotBlank(message = "LOCALIZE: USER KEY IS REQUIRED")
+    @Size(min = 7, max = 7, message = "LOCALIZE: ENTITY KEY MUST BE EXACTLY 7 CHARACTERS")
+    private String userKey;
+
+    @NotBlank(message = "LOCALIZE: REACTION IS REQUIRED")
+    private String reaction;
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (reaction != null && !reaction.isBlank() && AchievementReactionType.fromName(reaction) == null) {
+            errors.add("reaction:" + String.format(ERROR_INVALID_REACTION, reaction));
+        }
+
+        return errors;
+    }
+}
@@ -2,6 +2,10 @@ package espresso.achievement.domain.contracts;
 
 import espresso.achievement.application.response.HandlerResult;
 import espresso.achievement.domain.commands.CreateAchivementCommand;
+import espresso.achievement.domain.commands.ReactToAchievementCommand;
+import espresso.achievement.domain.commands.RebuildAchievementProjectionsCommand;
+import espresso.achievement.domain.commands.ReconcileUserSkillStatsCommand;
+import espresso.achievement.domain.commands.RemoveAchievementReactionCommand;
 import espresso.achievement.domain.commands.UploadAchievementMediaCommand;
 import espresso.common.domain.responses.HandlerResponse;
 
@@ -9,4 +13,8 @@ public interface IAchievementCommandHandler {
     
     HandlerResponse<Object> handle(CreateAchivementCommand command);
     HandlerResponse<Object> handleUploadMedia(UploadAchievementMediaCommand command);
+    HandlerResponse<Object> handle(RebuildAchievementProjectionsCommand command);
+    HandlerResponse<Object> handle(ReconcileUserSkillStatsCommand command);
+    HandlerResponse<Object> handle(ReactToAchievementCommand command);
+    HandlerResponse<Object> handle(RemoveAchievementReactionCommand command);
 }
@@ -0,0 +1,18 @@
+package espresso.achievement.domain.contracts;
+
+public interface IAchievementDetailCache {
+
+    /**
+     * Gets the detail of an achievement, from the cache when it holds it
+     * @param dtoType The DTO size, entities are never cached
+     * @param entityKey The key of the achievement
+     * @return The detail, or null when the achievement does not exist
+     */
+    <T> T getAchievementByKey(Class<T> dtoType, String entityKey);
+
+    /**
+     * Drops every cached size of an achievement detail
+     * @param entityKey The key of the achievement that changed
+     */
+    void invalidate(String entityKey);
+}
@@ -0,0 +1,29 @@
+package espresso.achievement.domain.contracts;
+
+import java.util.List;
+
+import espresso.achievement.domain.entities.Achievement;
+
+public interface IAchievementFeedBuffer {
+
+    /**
+     * Gets the newest achievements held in memory for the given DTO type
+     * @param dtoType The DTO class the achievements are projected to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @return The newest achievements, or null when the buffer cannot serve the requested window
+     */
+    List<?> getLatestAchievements(Class<?> dtoType, int limit);
+
+    /**
+     * Adds a newly created achievement to the head of the buffer, built from
+     * the saved aggregate without reading it back from the database
+     * @param achievement The achievement that was created, after its transaction committed
+     */
+    void append(Achievement achievement);
+
+    /**
+     * Reads an achievement that changed again and puts it in the buffer
+     * @param entityKey The key of the achievement that changed
+     */
+    void append(String entityKey);
+}
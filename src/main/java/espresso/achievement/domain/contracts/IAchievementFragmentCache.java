@@ -0,0 +1,29 @@
+package espresso.achievement.domain.contracts;
+
+import java.util.List;
+
+public interface IAchievementFragmentCache {
+
+    /**
+     * Replaces each achievement DTO by its already encoded JSON, encoding and
+     * caching the ones that are not cached yet
+     * @param dtoType The DTO class the achievements are projected to (e.g., AchievementDtoSm.class)
+     * @param dtos The achievements to serialize
+     * @return Items that serialize exactly like the given DTOs, in the same order
+     */
+    List<?> toFragments(Class<?> dtoType, List<?> dtos);
+
+    /**
+     * Replaces a single achievement DTO by its already encoded JSON
+     * @param dtoType The DTO class the achievement is projected to (e.g., AchievementDtoLg.class)
+     * @param dto The achievement to serialize
+     * @return An item that serializes exactly like the given DTO
+     */
+    Object toFragment(Class<?> dtoType, Object dto);
+
+    /**
+     * Drops the cached JSON of every size of an achievement
+     * @param entityKey The key of the achievement that changed
+     */
+    void invalidate(String entityKey);
+}
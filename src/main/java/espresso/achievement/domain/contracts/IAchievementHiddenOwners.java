@@ -0,0 +1,18 @@
+package espresso.achievement.domain.contracts;
+
+public interface IAchievementHiddenOwners {
+
+    /**
+     * Tells whether a user may have hidden (not public, active) achievements, so that
+     * the feeds only read the hidden achievements of the users that have some
+     * @param userKey The key of the user
+     * @return false only when the user is known to have no hidden achievement
+     */
+    boolean mayHaveHidden(String userKey);
+
+    /**
+     * Records that a user has a hidden achievement, once it is committed
+     * @param userKey The key of the owner of the achievement
+     */
+    void add(String userKey);
+}
@@ -0,0 +1,16 @@
+package espresso.achievement.domain.contracts;
+
+public interface IAchievementKeyFilter {
+
+    /**
+     * @param entityKey The achievement key to look up
+     * @return false when no achievement was ever created with the key, true when one might have been
+     */
+    boolean mightExist(String entityKey);
+
+    /**
+     * Records the key of a saved achievement
+     * @param entityKey The key of the saved achievement
+     */
+    void add(String entityKey);
+}
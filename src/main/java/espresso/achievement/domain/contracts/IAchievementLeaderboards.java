@@ -0,0 +1,50 @@
+package espresso.achievement.domain.contracts;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.domain.entities.LeaderboardEntry;
+import espresso.achievement.domain.queries.LeaderboardWindow;
+
+public interface IAchievementLeaderboards {
+
+    /**
+     * Gets the first ranks of a skill leaderboard
+     * @param skill The skill of the leaderboard
+     * @param window The achievements the leaderboard counts
+     * @param limit Maximum number of entries to return
+     * @return The entries in rank order, or null when the leaderboards are not ready
+     */
+    List<LeaderboardEntry> getTop(AchievementSkill skill, LeaderboardWindow window, int limit);
+
+    /**
+     * Gets the rank of a user in a skill leaderboard and the users ranked just before and after them
+     * @param skill The skill of the leaderboard
+     * @param window The achievements the leaderboard counts
+     * @param userId The id of the user
+     * @param radius Maximum number of entries to return on each side of the user
+     * @return The entries in rank order, empty if the user is not ranked,
+     * or null when the leaderboards are not ready
+     */
+    List<LeaderboardEntry> getAround(AchievementSkill skill, LeaderboardWindow window, long userId, int radius);
+
+    /**
+     * @return true once the leaderboards have been seeded
+     */
+    boolean isReady();
+
+    /**
+     * @return The number of ranked users of a skill leaderboard, 0 when the leaderboards are not ready
+     */
+    int getRankedUsers(AchievementSkill skill, LeaderboardWindow window);
+
+    /**
+     * Counts a saved achievement in the leaderboards of its skills
+     * @param id The id of the achievement
+     * @param userId The id of the owner of the achievement
+     * @param skillMask The skills of the achievement
+     * @param registeredAt The registration date of the achievement
+     */
+    void add(Long id, Long userId, short skillMask, OffsetDateTime registeredAt);
+}
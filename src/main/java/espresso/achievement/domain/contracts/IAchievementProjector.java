@@ -0,0 +1,44 @@
+package espresso.achievement.domain.contracts;
+
+import java.util.Collection;
+
+import espresso.achievement.domain.readModels.ProjectionRebuildReadModel;
+
+/**
+ * Keeps the denormalized achievement read-model rows up to date from the
+ * write tables.
+ */
+public interface IAchievementProjector {
+
+    /**
+     * Projects one achievement again from the write tables
+     * @param entityKey The key of the achievement
+     */
+    void project(String entityKey);
+
+    /**
+     * Projects a batch of achievements again from the write tables, in one transaction
+     * @param entityKeys The keys of the achievements
+     */
+    void project(Collection<String> entityKeys);
+
+    /**
+     * Replays every achievement of the write tables into the read-model rows,
+     * in id-range chunks projected in parallel
+     * @param chunkSize Number of ids per chunk, or null for the configured default
+     * @param parallelism Number of chunks projected at the same time, or null for the configured default
+     * @return The outcome of the rebuild
+     */
+    ProjectionRebuildReadModel rebuild(Integer chunkSize, Integer parallelism);
+
+    /**
+     * @return true when the read-model rows were built, so queries can read them
+     */
+    boolean isReady();
+
+    /**
+     * @return The id up to which every achievement has its read-model row; queries read the
+     *         achievements above it from the write tables
+     */
+    long getWatermark();
+}
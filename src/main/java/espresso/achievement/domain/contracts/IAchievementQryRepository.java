@@ -1,19 +1,89 @@
 package espresso.achievement.domain.contracts;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+
+import espresso.achievement.domain.entities.AchievementFacetFilter;
+import espresso.achievement.domain.entities.AchievementSearchHit;
+import espresso.achievement.domain.readModels.AchievementFacetsReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.UserProfileSummaryReadModel;
+import espresso.common.domain.queries.KeysetCursor;
+import espresso.common.domain.queries.RankCursor;
 
 public interface IAchievementQryRepository {
     
     /**
-     * Gets the latest achievements ordered by completion date (newest first)
+     * Gets the latest public (EVERYONE and active) achievements ordered by registration date (newest first)
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param dtoType The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @param fromDate Optional date; only achievements registered after it are returned
+     * @param cursor Optional position of the last achievement of the previous page
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> getLatestAchievements(Class<T> dtoType, Integer limit, OffsetDateTime fromDate, KeysetCursor cursor);
+
+
+    /**
+     * Gets the latest active achievements of a user that are not public, newest first
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param dtoType The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param userKey The key of the owner
+     * @param limit Maximum number of results to return
+     * @param fromDate Optional date; only achievements registered after it are returned
+     * @param cursor Optional position of the last achievement of the previous page
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> getHiddenAchievementsOfUser(Class<T> dtoType, String userKey, Integer limit,
+            OffsetDateTime fromDate, KeysetCursor cursor);
+
+    /**
+     * Gets the latest public (EVERYONE and active) achievements that have any (or all) of the given skills,
+     * newest first
      * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
      * @param dtoType The DTO class to project to (e.g., AchievementDtoSm.class)
      * @param limit Maximum number of results to return
+     * @param skills The skill abbreviations to match
+     * @param matchAll true to require every skill, false to require at least one
+     * @param fromDate Optional date; only achievements registered after it are returned
+     * @param cursor Optional position of the last achievement of the previous page
      * @return List of achievements projected to the specified DTO type
      */
-    <T> List<T> getLatestAchievements(Class<T> dtoType, Integer limit, OffsetDateTime fromDate);
+    <T> List<T> getAchievementsWithSkills(Class<T> dtoType, Integer limit, List<String> skills, boolean matchAll,
+            OffsetDateTime fromDate, KeysetCursor cursor);
+
+    /**
+     * Counts the achievements that match the filter per skill, completion month and visibility
+     * @param filter The filters of the browse request
+     * @return The facet counts, all computed in one pass
+     */
+    AchievementFacetsReadModel getAchievementFacets(AchievementFacetFilter filter);
+
+    /**
+     * Full-text search over the titles and descriptions of the achievements the requester can see:
+     * public (EVERYONE and active) achievements, and the active achievements of the requester
+     * @param text The searched text, in web search syntax
+     * @param limit Maximum number of results to return
+     * @param cursor Optional position of the last result of the previous page
+     * @param requesterKey The key of the user searching, or null for public achievements only
+     * @return The ids and ranks of the matches, most relevant first
+     */
+    List<AchievementSearchHit> searchAchievements(String text, Integer limit, RankCursor cursor,
+            String requesterKey);
 
+    /**
+     * Gets the achievements with the given ids in one round trip, if the requester can see them:
+     * public (EVERYONE and active) achievements, and the active achievements of the requester
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param dtoType The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param ids The ids of the achievements
+     * @param requesterKey The key of the user reading the achievements, or null for public achievements only
+     * @return The achievements that exist and are visible, in the order of the ids
+     */
+    <T> List<T> getAchievementsByIds(Class<T> dtoType, List<Long> ids, String requesterKey);
 
     /**
      * Gets the achievement detail by key and projects it to the specified DTO type.
@@ -23,4 +93,49 @@ public interface IAchievementQryRepository {
      * @return
      */
     <T> T getAchievementByKey(Class<T> dtoType, String entityKey);
+
+    /**
+     * Gets the summary of an achievement by key, if the requester can see it: public
+     * (EVERYONE and active) achievements, and the active achievements of the requester
+     * @param entityKey The key of the achievement to retrieve
+     * @param requesterKey The key of the user reading the summary, or null for public achievements only
+     * @return The summary of the achievement, or null if it does not exist or is not visible to the requester
+     */
+    AchievementSummaryReadModel getAchievementSummaryByKey(String entityKey, String requesterKey);
+
+    /**
+     * Gets the summaries of the achievements with the given keys in one round trip
+     * @param entityKeys The keys of the achievements to retrieve
+     * @param requesterKey The key of the user reading the summaries, or null for public achievements only
+     * @return The summaries that exist and are visible to the requester, in no particular order
+     */
+    List<AchievementSummaryReadModel> getAchievementSummariesByKeys(Collection<String> entityKeys,
+            String requesterKey);
+
+    /**
+     * Gets a page of the timeline of a user: the summaries of the achievements
+     * of the user ordered by registration date (newest first)
+     * @param userKey The key of the owner of the achievements
+     * @param includeHidden true when the owner reads their own timeline and also sees their achievements that
+     *        are not public; otherwise only the public (EVERYONE and active) achievements are returned
+     * @param limit Maximum number of results to return
+     * @param cursor Optional position of the last achievement of the previous page
+     * @return List of achievement summaries, empty if the user has none or does not exist
+     */
+    List<AchievementSummaryReadModel> getAchievementSummariesByUser(String userKey, boolean includeHidden,
+            Integer limit, KeysetCursor cursor);
+
+    /**
+     * Gets which of the given achievements are public (EVERYONE and active)
+     * @param entityKeys The keys of the achievements
+     * @return The keys of the public achievements among them, in no particular order
+     */
+    List<String> getPublicEntityKeys(Collection<String> entityKeys);
+
+    /**
+     * Gets the key and name of the users with the given ids in one round trip
+     * @param userIds The ids of the users
+     * @return The summaries of the users that exist, by id
+     */
+    Map<Long, UserProfileSummaryReadModel> getUserSummariesByIds(Collection<Long> userIds);
 }
@@ -1,7 +1,24 @@
 package espresso.achievement.domain.contracts;
 
+import java.util.concurrent.CompletableFuture;
+
 import espresso.achievement.domain.queries.GetAchievementDetailQuery;
+import espresso.achievement.domain.queries.GetAchievementReactionsQuery;
+import espresso.achievement.domain.queries.GetAchievementViewsQuery;
+import espresso.achievement.domain.queries.GetAchievementSummariesByKeysQuery;
+import espresso.achievement.domain.queries.GetAchievementSummariesByUserQuery;
+import espresso.achievement.domain.queries.GetUserSkillStatsQuery;
+import espresso.achievement.domain.queries.GetSkillLeaderboardQuery;
+import espresso.achievement.domain.queries.GetSkillLeaderboardRankQuery;
+import espresso.achievement.domain.queries.GetTrendingAchievementsQuery;
+import espresso.achievement.domain.queries.GetAchievementSummaryByKeyQuery;
+import espresso.achievement.domain.queries.GetAchievementsBySkillsQuery;
+import espresso.achievement.domain.queries.GetAchievementFacetsQuery;
+import espresso.achievement.domain.queries.GetChangesQuery;
+import espresso.achievement.domain.queries.GetTimelineQuery;
 import espresso.achievement.domain.queries.GetLatestAchievementsQuery;
+import espresso.achievement.domain.queries.SearchAchievementsQuery;
+import espresso.achievement.domain.queries.StreamLatestAchievementsQuery;
 import espresso.common.domain.responses.HandlerResponse;
 
 public interface IAchievementQueryHandler {
@@ -13,6 +30,15 @@ public interface IAchievementQueryHandler {
      */
     public HandlerResponse<Object> handle(GetLatestAchievementsQuery qry);
 
+    /**
+     * Handles the latest feed as seen by a user: the public achievements plus the
+     * requester's own achievements that are not public
+     * @param qry the query containing the size, date filter, limit and cursor
+     * @param requesterKey the key of the authenticated user, or null for the public feed only
+     * @return a HandlerResponse containing the page of achievements and the next cursor
+     */
+    public HandlerResponse<Object> handle(GetLatestAchievementsQuery qry, String requesterKey);
+
     /**
      * Handles the query to get a summary of an achievement by its key
      * @param qry the query containing the key of the achievement
@@ -20,4 +46,163 @@ public interface IAchievementQueryHandler {
      */
     public HandlerResponse<Object> handle(GetAchievementDetailQuery qry);
 
+    /**
+     * Handles the query to get the detail of an achievement, counting the view of the requester
+     * @param qry the query containing the key of the achievement and the DTO size
+     * @param requesterKey the key of the authenticated user, counted as a unique viewer; may be null
+     * @return a HandlerResponse containing the achievement detail
+     */
+    public HandlerResponse<Object> handle(GetAchievementDetailQuery qry, String requesterKey);
+
+    /**
+     * Handles the query to get a page of the achievement summaries of a user
+     * @param qry the query containing the key of the user and the paging cursor
+     * @return a HandlerResponse containing the summaries and the next cursor, if any
+     */
+    public HandlerResponse<Object> handle(GetAchievementSummariesByUserQuery qry);
+
+    /**
+     * Handles a page of the achievement summaries of a user as seen by the requester: the owner also sees their
+     * achievements that are not public, everybody else only the public ones
+     * @param qry the query containing the key of the user and the paging cursor
+     * @param requesterKey the key of the authenticated user; may be null
+     * @return a HandlerResponse containing the summaries and the next cursor, if any
+     */
+    public HandlerResponse<Object> handle(GetAchievementSummariesByUserQuery qry, String requesterKey);
+
+    /**
+     * Handles the character sheet of a user: their achievement count per skill, read from their stats row
+     * @param qry the query containing the key of the user
+     * @return a HandlerResponse containing the stats, zeros for a user without achievements
+     */
+    public HandlerResponse<Object> handle(GetUserSkillStatsQuery qry);
+
+    /**
+     * Handles the query to get the first ranks of a skill leaderboard
+     * @param qry the query containing the skill, the window and the limit
+     * @return a HandlerResponse containing the leaderboard range
+     */
+    public HandlerResponse<Object> handle(GetSkillLeaderboardQuery qry);
+
+    /**
+     * Handles the query to get the rank of a user in a skill leaderboard and their neighbours
+     * @param qry the query containing the skill, the window, the key of the user and the radius
+     * @return a HandlerResponse containing the leaderboard range around the user, empty if they are not ranked
+     */
+    public HandlerResponse<Object> handle(GetSkillLeaderboardRankQuery qry);
+
+    /**
+     * Handles the query to get the trending achievements, served from the last published snapshot
+     * @param qry the query containing the limit
+     * @return a HandlerResponse containing the trending achievements, highest score first
+     */
+    public HandlerResponse<Object> handle(GetTrendingAchievementsQuery qry);
+
+    /**
+     * Handles the query to get the reaction counts of an achievement, flushed or not
+     * @param qry the query containing the key of the achievement
+     * @param requesterKey the key of the authenticated user, whose own reactions are listed; may be null
+     * @return a HandlerResponse containing the reactions read model
+     */
+    public HandlerResponse<Object> handle(GetAchievementReactionsQuery qry, String requesterKey);
+
+    /**
+     * Handles the query to get the view counts of an achievement
+     * @param qry the query containing the key of the achievement
+     * @param requesterKey the key of the authenticated user, who can see their own private achievements; may be null
+     * @return a HandlerResponse containing the views read model
+     */
+    public HandlerResponse<Object> handle(GetAchievementViewsQuery qry, String requesterKey);
+
+    /**
+     * Handles the query to get the summary of an achievement by its key
+     * @param qry the query containing the key of the achievement
+     * @return a HandlerResponse containing the achievement summary read model
+     */
+    public HandlerResponse<Object> handle(GetAchievementSummaryByKeyQuery qry);
+
+    /**
+     * Handles the summary of an achievement as seen by the requester, who also sees their own private achievements
+     * @param qry the query containing the key of the achievement
+     * @param requesterKey the key of the authenticated user; may be null
+     * @return a HandlerResponse containing the summary, or NOT_FOUND when the requester can not see it
+     */
+    public HandlerResponse<Object> handle(GetAchievementSummaryByKeyQuery qry, String requesterKey);
+
+    /**
+     * Handles the query to get the summaries of several achievements at once
+     * @param qry the query containing the keys of the achievements
+     * @return a HandlerResponse containing one lookup entry per requested key, in the requested order
+     */
+    public HandlerResponse<Object> handle(GetAchievementSummariesByKeysQuery qry);
+
+    /**
+     * Handles the summaries of several achievements as seen by the requester
+     * @param qry the query containing the keys of the achievements
+     * @param requesterKey the key of the authenticated user, who also sees their own private achievements; may be null
+     * @return a HandlerResponse containing one lookup entry per requested key, not found when the requester can not
+     *         see it
+     */
+    public HandlerResponse<Object> handle(GetAchievementSummariesByKeysQuery qry, String requesterKey);
+
+    /**
+     * Handles the query to get the latest achievements with any (or all) of the given skills
+     * @param qry the query containing the skills, the match mode and the paging cursor
+     * @return a HandlerResponse containing the achievements and the next cursor, if any
+     */
+    public HandlerResponse<Object> handle(GetAchievementsBySkillsQuery qry);
+
+    /**
+     * Handles the full-text search of achievements
+     * @param qry the query containing the searched text and the paging cursor
+     * @return a HandlerResponse containing the matching achievements, most relevant first, and the next cursor
+     */
+    public HandlerResponse<Object> handle(SearchAchievementsQuery qry);
+
+    /**
+     * Handles the full-text search of achievements as seen by the requester
+     * @param qry the query containing the searched text and the paging cursor
+     * @param requesterKey the key of the authenticated user, who also finds their own private achievements; may be
+     *         null
+     * @return a HandlerResponse containing the matching achievements, most relevant first, and the next cursor
+     */
+    public HandlerResponse<Object> handle(SearchAchievementsQuery qry, String requesterKey);
+
+    /**
+     * Handles the facet counts of the browse screen
+     * @param qry the query containing the browse filters
+     * @return a HandlerResponse containing the counts per skill, completion month and visibility
+     */
+    public HandlerResponse<Object> handle(GetAchievementFacetsQuery qry);
+
+    /**
+     * Handles the change feed: the changes since a sequence number that the requester can see
+     * @param qry the query containing the last seen sequence and the limit
+     * @param requesterKey the key of the authenticated user, who also sees changes of their own private achievements
+     * @return a HandlerResponse containing the changes and the sequence to continue from
+     */
+    public HandlerResponse<Object> handle(GetChangesQuery qry, String requesterKey);
+
+    /**
+     * Waits, for up to the wait of the query, until there are changes after its sequence
+     * @param qry the query containing the last seen sequence and the wait
+     * @return a future completed when there are changes or the wait is over, at once without a wait
+     */
+    public CompletableFuture<Void> awaitChanges(GetChangesQuery qry);
+
+    /**
+     * Handles the subscription to the newly created public achievements
+     * @param qry the query containing the DTO size of the pushed achievements
+     * @return a HandlerResponse containing the SseEmitter of the subscription
+     */
+    public HandlerResponse<Object> handle(StreamLatestAchievementsQuery qry);
+
+    /**
+     * Handles the home timeline: the public achievements of the users the requester follows, newest first
+     * @param qry the query containing the DTO size, the limit and the cursor
+     * @param requesterKey the key of the authenticated user whose timeline is read
+     * @return a HandlerResponse containing the achievements of the page and the cursor of the next one
+     */
+    public HandlerResponse<Object> handle(GetTimelineQuery qry, String requesterKey);
+
 }
@@ -0,0 +1,38 @@
+package espresso.achievement.domain.contracts;
+
+import java.util.Map;
+import java.util.Set;
+
+import espresso.achievement.domain.entities.AchievementReactionType;
+
+public interface IAchievementReactionCounter {
+
+    /**
+     * Adds the reaction of a user to an achievement; it is written to the database with the next flush
+     * @return True if the reaction was added, false if the user had already left it
+     */
+    boolean react(long achievementId, long userId, AchievementReactionType type);
+
+    /**
+     * Removes the reaction of a user from an achievement; it is deleted from the database with the next flush
+     * @return True if the reaction was removed, false if the user had not left it
+     */
+    boolean unreact(long achievementId, long userId, AchievementReactionType type);
+
+    /**
+     * Gets the reactions a user left on an achievement, flushed or not
+     * @return The reactions, empty if none
+     */
+    Set<AchievementReactionType> getReactions(long achievementId, long userId);
+
+    /**
+     * Gets the number of every reaction on an achievement: the stored counts plus the deltas not flushed yet
+     * @return The count of every reaction type, 0 for the ones nobody left
+     */
+    Map<AchievementReactionType, Long> getCounts(long achievementId);
+
+    /**
+     * Whether the reactions stored before the start are loaded; until then, reactions can not be deduplicated
+     */
+    boolean isReady();
+}
@@ -0,0 +1,27 @@
+package espresso.achievement.domain.contracts;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface IAchievementSkillIndex {
+
+    /**
+     * Gets the ids of the newest achievements with any (or all) of the skills of the mask
+     * @param skillMask The skills to match (see AchievementSkill)
+     * @param matchAll true to require every skill, false to require at least one
+     * @param fromDate Optional date; the ids of achievements registered in the same minute
+     * or later are returned, so callers drop the few registered before it
+     * @param beforeId Optional id of the last achievement of the previous page
+     * @param limit Maximum number of ids to return
+     * @return The ids, newest first, or null when the index cannot serve the query
+     */
+    List<Long> findIds(short skillMask, boolean matchAll, OffsetDateTime fromDate, Long beforeId, int limit);
+
+    /**
+     * Adds a public achievement to the index, once it is committed
+     * @param id The id of the achievement
+     * @param skillMask The skills of the achievement
+     * @param registeredAt The registration date of the achievement
+     */
+    void add(Long id, short skillMask, OffsetDateTime registeredAt);
+}
@@ -0,0 +1,18 @@
+package espresso.achievement.domain.contracts;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface IAchievementStreamBroadcaster {
+
+    /**
+     * Subscribes a new client to the newly created public achievements
+     * @param dtoType The DTO class the achievements are pushed as (e.g., AchievementDtoSm.class)
+     * @return The emitter of the subscription, to be returned by the controller
+     */
+    SseEmitter subscribe(Class<?> dtoType);
+
+    /**
+     * @return The number of connected subscribers of every size
+     */
+    int getSubscriberCount();
+}
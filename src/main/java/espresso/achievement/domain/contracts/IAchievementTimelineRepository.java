@@ -0,0 +1,41 @@
+package espresso.achievement.domain.contracts;
+
+import java.util.Collection;
+import java.util.List;
+
+import espresso.achievement.domain.entities.AchievementTimelineItem;
+import espresso.common.domain.queries.KeysetCursor;
+
+public interface IAchievementTimelineRepository {
+
+    /**
+     * Gets a page of the home timeline of a user: the public achievements of
+     * the users they follow, newest first
+     * @param userKey The key of the follower
+     * @param limit Maximum number of results to return
+     * @param cursor Optional position of the last achievement of the previous page
+     * @return The ids and positions of the achievements, empty if the user follows nobody or does not exist
+     */
+    List<AchievementTimelineItem> getTimeline(String userKey, int limit, KeysetCursor cursor);
+
+    /**
+     * Writes newly created public achievements into the precomputed timelines of the followers of their owners
+     * @param entityKeys The keys of the achievements
+     */
+    void fanOut(Collection<String> entityKeys);
+
+    /**
+     * Adds the achievements of a followee to the precomputed timeline of the
+     * follower, precomputing it first if they now follow enough users
+     * @param followerKey The key of the follower
+     * @param followeeKey The key of the followed user
+     */
+    void follow(String followerKey, String followeeKey);
+
+    /**
+     * Removes the achievements of a followee from the precomputed timeline of the follower
+     * @param followerKey The key of the follower
+     * @param followeeKey The key of the user that is not followed anymore
+     */
+    void unfollow(String followerKey, String followeeKey);
+}
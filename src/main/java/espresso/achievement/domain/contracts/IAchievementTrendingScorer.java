@@ -0,0 +1,20 @@
+package espresso.achievement.domain.contracts;
+
+import java.util.List;
+
+import espresso.achievement.domain.readModels.TrendingAchievementReadModel;
+
+public interface IAchievementTrendingScorer {
+
+    /**
+     * Records a view of the detail of an achievement; never blocks and never reads the database
+     * @param entityKey The key of the viewed achievement
+     */
+    void recordView(String entityKey);
+
+    /**
+     * Gets the last published trending snapshot
+     * @return The trending public achievements, highest score first; empty until the first publication
+     */
+    List<TrendingAchievementReadModel> getTrending();
+}
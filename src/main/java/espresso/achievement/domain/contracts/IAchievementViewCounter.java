@@ -0,0 +1,20 @@
+package espresso.achievement.domain.contracts;
+
+import espresso.achievement.domain.entities.AchievementViewCount;
+
+public interface IAchievementViewCounter {
+
+    /**
+     * Records a view of the detail of an achievement; never blocks and never writes to the database
+     * @param entityKey The key of the viewed achievement
+     * @param viewerKey The key of the signed-in viewer, null for an anonymous view, which only counts as a view
+     */
+    void recordView(String entityKey, String viewerKey);
+
+    /**
+     * Gets the stored views of an achievement; the views of the last flush interval are not included yet
+     * @param achievementId The id of the achievement
+     * @return The views and the estimated unique viewers, 0 if it was never viewed
+     */
+    AchievementViewCount getViews(long achievementId);
+}
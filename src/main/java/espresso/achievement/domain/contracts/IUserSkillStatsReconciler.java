@@ -0,0 +1,14 @@
+package espresso.achievement.domain.contracts;
+
+import espresso.achievement.domain.readModels.ProjectionRebuildReadModel;
+
+public interface IUserSkillStatsReconciler {
+
+    /**
+     * Recomputes the stats of every user from their achievements, in parallel user id-range chunks
+     * @param chunkSize Optional number of user ids per chunk
+     * @param parallelism Optional number of chunks recomputed at the same time
+     * @return The number of chunks and of stats rows written
+     */
+    ProjectionRebuildReadModel reconcile(Integer chunkSize, Integer parallelism);
+}
@@ -0,0 +1,21 @@
+package espresso.achievement.domain.contracts;
+
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.UserSkillStats;
+
+public interface IUserSkillStatsRepository {
+
+    /**
+     * Adds a new achievement to the stats of its owner, creating their row on the first one.
+     * Joins the transaction of the caller, so the stats commit with the achievement
+     * @param achievement The saved achievement
+     */
+    void increment(Achievement achievement);
+
+    /**
+     * Gets the stats of a user
+     * @param userKey The key of the user
+     * @return The stats, or null if the user has no achievements or does not exist
+     */
+    UserSkillStats getByUserKey(String userKey);
+}
@@ -5,11 +5,14 @@ import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -19,8 +22,8 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
-import espresso.common.domain.models.DomainEntity;
-import espresso.common.domain.support.StringListConverter;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.common.domain.models.DomainAggregate;
 import espresso.user.domain.entities.User;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -37,13 +40,14 @@ import lombok.NoArgsConstructor;
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 @Entity(name = "Achievement")
 @Table(name = "Achievements", indexes = {
-        @Index(name = "idx_achievement_registered_at_desc", columnList = "registeredAt DESC"),
+        @Index(name = "idx_achievement_registered_at_id_desc", columnList = "registeredAt DESC, id DESC"),
+        @Index(name = "idx_achievement_user_registered_at_id_desc", columnList = "userId, registeredAt DESC, id DESC"),
         @Index(name = "idx_achievement_id_pkey", columnList = "id", unique = true),
         @Index(name = "idx_achievement_entitykey_ukey", columnList = "entityKey", unique = true)
 })
 // @Table(name = "achievements", indexes = {@Index(name = "achievement_idx",
 // columnList = "key", unique = true)})
-public class Achievement extends DomainEntity {
+public class Achievement extends DomainAggregate {
 
     @Column(name = "title", nullable = false, length = 200)
     private String title;
@@ -62,10 +66,17 @@ public class Achievement extends DomainEntity {
     @JoinColumn(name = "userId", referencedColumnName = "id")
     private User user;
 
-    @Convert(converter = StringListConverter.class)
+    // Native varchar[] column, converted and indexed with GIN by AchievementSchemaMigration
+    @JdbcTypeCode(SqlTypes.ARRAY)
     private List<String> skills;
 
+    // The same skills as a 7-bit mask (see AchievementSkill), kept in sync by setSkills
+    @Column(columnDefinition = "smallint not null default 0")
+    private short skillMask;
+
+    // Loads the media of many achievements in one statement when entities are navigated
     @JsonManagedReference
+    @BatchSize(size = 128)
     @OneToMany(mappedBy = "achievement", fetch = FetchType.LAZY)
     private List<AchievementMedia> media;
 
@@ -113,9 +124,10 @@ public class Achievement extends DomainEntity {
         this.active = true;
     }
 
-    // public void setSkills(List<String> skills) {
-    // this.skills = skills;
-    // }
+    public void setSkills(List<String> skills) {
+        this.skills = skills;
+        this.skillMask = AchievementSkill.toMask(skills);
+    }
 
     // public void setMedia(AchievementMedia media) {
     // this.media = media;
@@ -123,14 +135,19 @@ public class Achievement extends DomainEntity {
 
     // #region Domain Events
 
+    /**
+     * Raises the creation event, published by the repository when the
+     * achievement is saved. Media are uploaded after the creation, so the
+     * event never has media keys.
+     */
     public void raiseNewAchievementCreatedEvent() {
-        // this.domainEvents.add(new NewAchievementCreated(
-        // this.getEntityKey(),
-        // this.getUserProfile().getEntityKey(),
-        // this.getCompletedDate(),
-        // this.getSkills().stream().toArray(String[]::new),
-        // this.getMedia().stream().map(AchievementMedia::getEntityKey).toArray(String[]::new)
-        // ));
+        this.domainEvents.add(new NewAchievementCreated(
+                this.getEntityKey(),
+                this.getUser() != null ? this.getUser().getEntityKey() : null,
+                this.getCompletedDate(),
+                this.getSkills() != null ? this.getSkills().toArray(String[]::new) : new String[0],
+                new String[0],
+                this.getAchievementVisibility()));
     }
 
     // #endregion Domain Events
@@ -0,0 +1,10 @@
+package espresso.achievement.domain.entities;
+
+/**
+ * Kinds of change returned by the change feed
+ */
+public enum AchievementChangeType {
+    ACHIEVEMENT_CREATED,
+    ACHIEVEMENT_MEDIA_ADDED,
+    USER_PROFILE_IMAGE_CHANGED
+}
@@ -1,29 +1,57 @@
 package espresso.achievement.domain.entities;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.Date;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import espresso.common.domain.queries.KeysetItem;
 import espresso.user.domain.entities.UserDtoLg;
 
 // TODO: do not used, this is a palce holder for an undefined DTO we don't have requirements for
-public interface AchievementDtoLg {
-    
-    String getEntityKey();
-    
-    String getTitle();
-    
-    String getDescription();
-    
-    @JsonFormat(pattern = "yyyy-MM-dd")
-    Date getCompletedDate();
-    
-    UserDtoLg getUser();
-    
-    List<String> getSkills();
-    
-    AchievementVisibilityStatus getAchievementVisibility();
-    
-    List<AchievementMediaDtoLg> getMedia();
+public record AchievementDtoLg(
+        @JsonIgnore Long id,
+        @JsonIgnore OffsetDateTime registeredAt,
+        String entityKey,
+        String title,
+        String description,
+        @JsonFormat(pattern = "yyyy-MM-dd") Date completedDate,
+        UserDtoLg user,
+        List<String> skills,
+        AchievementVisibilityStatus achievementVisibility,
+        List<AchievementMediaDtoLg> media) implements KeysetItem {
+
+    /**
+     * Flat constructor used by the JPQL constructor expressions; the media are
+     * loaded by a second query and attached with {@link #withMedia(List)}.
+     */
+    public AchievementDtoLg(Long id, OffsetDateTime registeredAt, String entityKey, String title,
+            String description, Date completedDate, String userKey, String username, String email,
+            String firstName, String lastName, LocalDate birthDate, Long profileImageId, String imageName,
+            String contentType, String imageExtension, String profileImageUrl, List<String> skills,
+            AchievementVisibilityStatus achievementVisibility) {
+        this(id, registeredAt, entityKey, title, description, completedDate,
+                userKey == null ? null
+                        : new UserDtoLg(userKey, username, email, firstName, lastName, birthDate, profileImageId,
+                                imageName, contentType, imageExtension, profileImageUrl),
+                skills, achievementVisibility, List.of());
+    }
+
+    public AchievementDtoLg withMedia(List<AchievementMediaDtoLg> media) {
+        return new AchievementDtoLg(id, registeredAt, entityKey, title, description, completedDate, user, skills,
+                achievementVisibility, media);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public OffsetDateTime getRegisteredAt() {
+        return registeredAt;
+    }
 }
@@ -1,27 +1,44 @@
 package espresso.achievement.domain.entities;
 
+import java.time.OffsetDateTime;
 import java.util.Date;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import espresso.common.domain.queries.KeysetItem;
 import espresso.user.domain.entities.UserDtoSm;
 
 // TODO: do not used, this is a palce holder for an undefined DTO we don't have requirements for
-public interface AchievementDtoMd {
-    
-    String getEntityKey();
-    
-    String getTitle();
-    
-    String getDescription();
-    
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    Date getCompletedDate();
-    
-    UserDtoSm getUser();
-    
-    List<String> getSkills();
-    
-    AchievementVisibilityStatus getAchievementVisibility();
+public record AchievementDtoMd(
+        @JsonIgnore Long id,
+        @JsonIgnore OffsetDateTime registeredAt,
+        String entityKey,
+        String title,
+        String description,
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") Date completedDate,
+        UserDtoSm user,
+        List<String> skills,
+        AchievementVisibilityStatus achievementVisibility) implements KeysetItem {
+
+    /**
+     * Flat constructor used by the JPQL constructor expressions, which can not nest
+     */
+    public AchievementDtoMd(Long id, OffsetDateTime registeredAt, String entityKey, String title,
+            String description, Date completedDate, String userKey, String username, String email,
+            List<String> skills, AchievementVisibilityStatus achievementVisibility) {
+        this(id, registeredAt, entityKey, title, description, completedDate,
+                userKey == null ? null : new UserDtoSm(userKey, username, email), skills, achievementVisibility);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public OffsetDateTime getRegisteredAt() {
+        return registeredAt;
+    }
 }
@@ -1,20 +1,44 @@
 package espresso.achievement.domain.entities;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import espresso.common.domain.queries.KeysetItem;
 import espresso.user.domain.entities.UserDtoSm;
 
-public interface AchievementDtoSm {
-    
-    String getEntityKey();
-    
-    String getTitle();
-    
-    String getDescription();
+public record AchievementDtoSm(
+        @JsonIgnore Long id,
+        @JsonIgnore OffsetDateTime registeredAt,
+        String entityKey,
+        String title,
+        String description,
+        List<String> skills,
+        UserDtoSm user,
+        List<AchievementMediaDtoSm> media) implements KeysetItem {
+
+    /**
+     * Flat constructor used by the JPQL constructor expressions; the media are
+     * loaded by a second query and attached with {@link #withMedia(List)}.
+     */
+    public AchievementDtoSm(Long id, OffsetDateTime registeredAt, String entityKey, String title,
+            String description, List<String> skills, String userKey, String username, String email) {
+        this(id, registeredAt, entityKey, title, description, skills,
+                userKey == null ? null : new UserDtoSm(userKey, username, email), List.of());
+    }
 
-    List<String> getSkills();
+    public AchievementDtoSm withMedia(List<AchievementMediaDtoSm> media) {
+        return new AchievementDtoSm(id, registeredAt, entityKey, title, description, skills, user, media);
+    }
 
-    UserDtoSm getUser();
+    @Override
+    public Long getId() {
+        return id;
+    }
 
-    List<AchievementMediaDtoSm> getMedia();
+    @Override
+    public OffsetDateTime getRegisteredAt() {
+        return registeredAt;
+    }
 }
@@ -0,0 +1,25 @@
+package espresso.achievement.domain.entities;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * The filters of a faceted browse request. Skills are kept trimmed, in lower
+ * case, without duplicates and sorted, so two requests that select the same
+ * achievements are equal and share their cached facet counts.
+ *
+ * @param skills The skill abbreviations to match, empty for every achievement
+ * @param matchAll true to require every skill, false to require at least one
+ * @param fromDate Optional date; only achievements registered after it are counted
+ */
+public record AchievementFacetFilter(List<String> skills, boolean matchAll, OffsetDateTime fromDate) {
+
+    public AchievementFacetFilter {
+        skills = skills == null
+                ? List.of()
+                : skills.stream().map(skill -> skill.trim().toLowerCase()).distinct().sorted().toList();
+
+        // With a single skill (or none) any and all select the same achievements
+        matchAll = matchAll && skills.size() > 1;
+    }
+}
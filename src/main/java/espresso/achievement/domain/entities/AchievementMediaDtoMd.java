@@ -1,17 +1,9 @@
 package espresso.achievement.domain.entities;
 
-import java.time.LocalDateTime;
-
-import com.fasterxml.jackson.annotation.JsonFormat;
-
 // TODO: do not used, this is a palce holder for an undefined DTO we don't have requirements for
-public interface AchievementMediaDtoMd {
-    
-    String getImageKey();
-    
-    String getImageName();
-    
-    String getOriginalImageName();
-    
-    String getMediaUrl();
+public record AchievementMediaDtoMd(
+        String imageKey,
+        String imageName,
+        String originalImageName,
+        String mediaUrl) {
 }
@@ -1,8 +1,6 @@
 package espresso.achievement.domain.entities;
 
-public interface AchievementMediaDtoSm {
-
-    String getImageKey();
-
-    String getMediaUrl();
+public record AchievementMediaDtoSm(
+        String imageKey,
+        String mediaUrl) {
 }
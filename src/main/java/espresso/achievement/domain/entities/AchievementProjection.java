@@ -0,0 +1,101 @@
+package espresso.achievement.domain.entities;
+
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import espresso.achievement.domain.readModels.AchievementMediaDetailReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.SkillSummaryReadModel;
+import espresso.achievement.domain.readModels.UserProfileSummaryReadModel;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denormalized read-side row of an achievement: the achievement, its owner
+ * and its media pre-joined, so a summary is read from a single row.
+ * <p>
+ * Rows are written by the projector from the write tables when an
+ * achievement is created or gets media, and can be rebuilt from them at any
+ * time; they are never the source of truth. The id is the id of the
+ * achievement.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "AchievementProjection")
+@Table(name = "AchievementProjections", indexes = {
+        @Index(name = "idx_achievement_projection_entitykey_ukey", columnList = "entityKey", unique = true),
+        @Index(name = "idx_achievement_projection_user_registered_at_id_desc", columnList = "userKey, registeredAt DESC, id DESC")
+})
+public class AchievementProjection {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String entityKey;
+
+    private OffsetDateTime registeredAt;
+
+    @Column(length = 200)
+    private String title;
+
+    @Column(length = 1000)
+    private String description;
+
+    private Date completedDate;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private List<String> skills;
+
+    @Enumerated(EnumType.STRING)
+    private AchievementVisibilityStatus achievementVisibility;
+
+    private boolean active;
+
+    // The owner, copied from Users
+    private String userKey;
+    private String userName;
+    private String email;
+    private String firstName;
+    private String lastName;
+
+    // Image keys of the media in upload order, and the ones whose upload completed
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private List<String> mediaKeys;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private List<String> uploadedMediaKeys;
+
+    /**
+     * @return The summary read model of the achievement
+     */
+    public AchievementSummaryReadModel toSummaryReadModel() {
+        List<String> uploaded = uploadedMediaKeys != null ? uploadedMediaKeys : List.of();
+
+        return new AchievementSummaryReadModel(
+                id,
+                registeredAt,
+                entityKey,
+                title,
+                completedDate,
+                (skills != null ? skills : List.<String>of()).stream()
+                        .map(SkillSummaryReadModel::new)
+                        .toArray(SkillSummaryReadModel[]::new),
+                (mediaKeys != null ? mediaKeys : List.<String>of()).stream()
+                        .map(key -> new AchievementMediaDetailReadModel(key, uploaded.contains(key)))
+                        .toArray(AchievementMediaDetailReadModel[]::new),
+                userKey != null ? new UserProfileSummaryReadModel(userKey, userName) : null);
+    }
+}
@@ -0,0 +1,43 @@
+package espresso.achievement.domain.entities;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One reaction of a user on an achievement. The rows are written behind the
+ * requests, in batches, by the reaction counter; the ids are plain columns
+ * and the reaction is stored by name.
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "AchievementReaction")
+@Table(name = "AchievementReactions", indexes = {
+        @Index(name = "idx_achievement_reaction_achievement_user_reaction_ukey", columnList = "achievementId, userId, reaction", unique = true)
+})
+public class AchievementReaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long achievementId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 16)
+    private String reaction;
+
+    @Column(nullable = false)
+    private OffsetDateTime reactedAt;
+}
@@ -0,0 +1,38 @@
+package espresso.achievement.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The number of {@link AchievementReaction} rows of one reaction on one
+ * achievement, so the counts of an achievement are read without counting
+ * its reactions. The reaction counter adds the deltas of every flush to it
+ * with an upsert, in the transaction that writes the reaction rows.
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "AchievementReactionCount")
+@Table(name = "AchievementReactionCounts", indexes = {
+        @Index(name = "idx_achievement_reaction_count_achievement_reaction_ukey", columnList = "achievementId, reaction", unique = true)
+})
+public class AchievementReactionCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long achievementId;
+
+    @Column(nullable = false, length = 16)
+    private String reaction;
+
+    private long reactionCount;
+}
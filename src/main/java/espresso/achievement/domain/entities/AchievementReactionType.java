@@ -0,0 +1,48 @@
+package espresso.achievement.domain.entities;
+
+/**
+ * The reactions a user can leave on an achievement, at most one of each per
+ * user. The API and the reaction tables use the names.
+ * <p>
+ * The ordinals size the in-memory counters, so new reactions must be
+ * appended at the end.
+ * </p>
+ */
+public enum AchievementReactionType {
+    LIKE("like"),
+    CHEER("cheer"),
+    CLAP("clap"),
+    WOW("wow");
+
+    private static final AchievementReactionType[] TYPES = values();
+
+    private final String reactionName;
+
+    AchievementReactionType(String reactionName) {
+        this.reactionName = reactionName;
+    }
+
+    public String getReactionName() {
+        return reactionName;
+    }
+
+    /**
+     * @param reactionName The name of the reaction, in any case
+     * @return The reaction, or null if the name is not a known reaction
+     */
+    public static AchievementReactionType fromName(String reactionName) {
+        if (reactionName == null) {
+            return null;
+        }
+
+        String normalized = reactionName.trim().toLowerCase();
+
+        for (AchievementReactionType type : TYPES) {
+            if (type.reactionName.equals(normalized)) {
+                return type;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,8 @@
+package espresso.achievement.domain.entities;
+
+/**
+ * One match of the achievement full-text search: the id of the achievement
+ * and its rank for the searched text (higher is more relevant).
+ */
+public record AchievementSearchHit(Long id, float rank) {
+}
@@ -0,0 +1,105 @@
+package espresso.achievement.domain.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The closed set of skills an achievement can carry. Each skill owns one bit
+ * of the 7-bit skill mask stored on the achievement (str = 1, dex = 2, ...),
+ * while the API keeps using the abbreviations.
+ * <p>
+ * The bits are persisted, so new skills must be appended at the end.
+ * </p>
+ */
+public enum AchievementSkill {
+    STR("str"),
+    DEX("dex"),
+    CON("con"),
+    INT("int"),
+    WIS("wis"),
+    CHA("cha"),
+    LUC("luc");
+
+    public static final Set<String> ABBREVIATIONS = Arrays.stream(values())
+            .map(AchievementSkill::getAbbreviation)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final AchievementSkill[] SKILLS = values();
+
+    private final String abbreviation;
+
+    AchievementSkill(String abbreviation) {
+        this.abbreviation = abbreviation;
+    }
+
+    public String getAbbreviation() {
+        return abbreviation;
+    }
+
+    /**
+     * @return The bit of the skill in the skill mask
+     */
+    public short getMask() {
+        return (short) (1 << ordinal());
+    }
+
+    /**
+     * @param abbreviation The abbreviation of the skill, in any case
+     * @return The skill, or null if the abbreviation is not a known skill
+     */
+    public static AchievementSkill fromAbbreviation(String abbreviation) {
+        if (abbreviation == null) {
+            return null;
+        }
+
+        String normalized = abbreviation.trim().toLowerCase();
+
+        for (AchievementSkill skill : SKILLS) {
+            if (skill.abbreviation.equals(normalized)) {
+                return skill;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param abbreviations The abbreviations of the skills; unknown ones are ignored
+     * @return The skill mask with the bit of every given skill set
+     */
+    public static short toMask(Collection<String> abbreviations) {
+        short mask = 0;
+
+        if (abbreviations != null) {
+            for (String abbreviation : abbreviations) {
+                AchievementSkill skill = fromAbbreviation(abbreviation);
+
+                if (skill != null) {
+                    mask |= skill.getMask();
+                }
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * @param mask A skill mask
+     * @return The abbreviations of the skills set in the mask, in skill order
+     */
+    public static List<String> toAbbreviations(short mask) {
+        List<String> abbreviations = new ArrayList<>(Integer.bitCount(mask));
+
+        for (AchievementSkill skill : SKILLS) {
+            if ((mask & skill.getMask()) != 0) {
+                abbreviations.add(skill.abbreviation);
+            }
+        }
+
+        return abbreviations;
+    }
+}
@@ -0,0 +1,49 @@
+package espresso.achievement.domain.entities;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One achievement written ahead into the precomputed home timeline of a
+ * follower (fan-out on write). Only the users with a
+ * {@link MaterializedTimeline} get entries; the ids are plain columns, the
+ * rows are only read and written with SQL by the timeline repository.
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "AchievementTimelineEntry")
+@Table(name = "AchievementTimelineEntries", indexes = {
+        @Index(name = "idx_achievement_timeline_owner_achievement_ukey", columnList = "ownerId, achievementId", unique = true),
+        @Index(name = "idx_achievement_timeline_owner_registered_at_id_desc", columnList = "ownerId, registeredAt DESC, achievementId DESC"),
+        @Index(name = "idx_achievement_timeline_owner_author", columnList = "ownerId, authorId")
+})
+public class AchievementTimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The follower whose timeline this is
+    @Column(nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false)
+    private Long achievementId;
+
+    // The followee who registered the achievement, to drop their entries on unfollow
+    @Column(nullable = false)
+    private Long authorId;
+
+    // Copied from the achievement, the timeline is ordered by it
+    @Column(nullable = false)
+    private OffsetDateTime registeredAt;
+}
@@ -0,0 +1,22 @@
+package espresso.achievement.domain.entities;
+
+import java.time.OffsetDateTime;
+
+import espresso.common.domain.queries.KeysetItem;
+
+/**
+ * One achievement of a home timeline: its id and registration date, which
+ * order the timeline, and the id of its author, whose stream it comes from.
+ */
+public record AchievementTimelineItem(Long id, OffsetDateTime registeredAt, Long authorId) implements KeysetItem {
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public OffsetDateTime getRegisteredAt() {
+        return registeredAt;
+    }
+}
@@ -0,0 +1,8 @@
+package espresso.achievement.domain.entities;
+
+/**
+ * The number of views of the detail of an achievement and the estimated
+ * number of distinct signed-in users who viewed it.
+ */
+public record AchievementViewCount(long views, long uniqueViewers) {
+}
@@ -0,0 +1,36 @@
+package espresso.achievement.domain.entities;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The views of the detail of an achievement: how many there were and a
+ * HyperLogLog sketch of the users who viewed it, from which the number of
+ * unique viewers is estimated.
+ * <p>
+ * The id is the id of the achievement. The row is only written with SQL by
+ * the view counter, which adds the views it buffered every flush interval
+ * and merges their viewers into the sketch.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "AchievementViewStats")
+@Table(name = "AchievementViewStats")
+public class AchievementViewStats {
+
+    @Id
+    private Long achievementId;
+
+    private long viewCount;
+
+    // HyperLogLog.toBytes(), null until a signed-in user viewed the achievement
+    private byte[] viewerSketch;
+
+    private OffsetDateTime updatedAt;
+}
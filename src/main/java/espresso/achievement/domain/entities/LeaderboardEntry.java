@@ -0,0 +1,8 @@
+package espresso.achievement.domain.entities;
+
+/**
+ * One row of a skill leaderboard: the 1-based rank of a user, their id and
+ * their number of achievements with the skill in the window of the board.
+ */
+public record LeaderboardEntry(int rank, long userId, int score) {
+}
@@ -0,0 +1,38 @@
+package espresso.achievement.domain.entities;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marks a user whose home timeline is precomputed into
+ * {@link AchievementTimelineEntry} rows.
+ * <p>
+ * The entries are complete from the newest achievement down to the horizon
+ * (the last entry written when the timeline was materialized); older pages
+ * are merged from the followees like any other timeline. A null horizon
+ * means the entries hold the whole timeline.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "MaterializedTimeline")
+@Table(name = "MaterializedTimelines")
+public class MaterializedTimeline {
+
+    // The id of the user
+    @Id
+    private Long ownerId;
+
+    @Column(nullable = false)
+    private OffsetDateTime materializedAt;
+
+    private OffsetDateTime horizonRegisteredAt;
+
+    private Long horizonAchievementId;
+}
@@ -0,0 +1,85 @@
+package espresso.achievement.domain.entities;
+
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import espresso.achievement.domain.readModels.UserSkillStatsReadModel;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-user aggregate of the achievements of a user: how many they have, how
+ * many carry each skill and the first and last completion dates, so the
+ * character sheet of a profile is a single row read.
+ * <p>
+ * The row is incremented in the transaction that creates the achievement and
+ * can be recomputed from the achievements at any time; the id is the id of
+ * the user. The skill columns are named after the abbreviations of
+ * {@link AchievementSkill}, so a new skill needs a new column.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "UserSkillStats")
+@Table(name = "UserSkillStats", indexes = {
+        @Index(name = "idx_user_skill_stats_userkey_ukey", columnList = "userKey", unique = true)
+})
+public class UserSkillStats {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private String userKey;
+
+    private int achievementCount;
+
+    private int strCount;
+    private int dexCount;
+    private int conCount;
+    private int intCount;
+    private int wisCount;
+    private int chaCount;
+    private int lucCount;
+
+    private Date firstCompletedDate;
+
+    private Date lastCompletedDate;
+
+    private OffsetDateTime updatedAt;
+
+    /**
+     * @return The number of achievements of the user that carry the skill
+     */
+    public int getCount(AchievementSkill skill) {
+        return switch (skill) {
+            case STR -> strCount;
+            case DEX -> dexCount;
+            case CON -> conCount;
+            case INT -> intCount;
+            case WIS -> wisCount;
+            case CHA -> chaCount;
+            case LUC -> lucCount;
+        };
+    }
+
+    /**
+     * @return The stats read model, with the count of every skill in skill order
+     */
+    public UserSkillStatsReadModel toReadModel() {
+        Map<String, Integer> skills = new LinkedHashMap<>();
+
+        for (AchievementSkill skill : AchievementSkill.values()) {
+            skills.put(skill.getAbbreviation(), getCount(skill));
+        }
+
+        return new UserSkillStatsReadModel(userKey, achievementCount, skills, firstCompletedDate, lastCompletedDate);
+    }
+}
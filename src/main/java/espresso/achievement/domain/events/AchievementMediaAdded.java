@@ -0,0 +1,17 @@
+package espresso.achievement.domain.events;
+
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.common.domain.events.DomainEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class AchievementMediaAdded implements DomainEvent {
+    private final String achievementKey;
+    private final String userKey;
+    private final AchievementVisibilityStatus visibility;
+    private final String[] mediaKeys;
+}
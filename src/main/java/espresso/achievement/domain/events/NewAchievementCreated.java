@@ -2,6 +2,8 @@ package espresso.achievement.domain.events;
 
 import java.util.Date;
 
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.common.domain.events.DomainEvent;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.ToString;
@@ -9,10 +11,11 @@ import lombok.ToString;
 @Getter
 @AllArgsConstructor
 @ToString
-public class NewAchievementCreated {
+public class NewAchievementCreated implements DomainEvent {
     private final String key;
     private final String userKey;
     private final Date completedDate;
     private final String[] skillKeys;
     private final String[] mediaKeys;
+    private final AchievementVisibilityStatus visibility;
 }
@@ -0,0 +1,55 @@
+package espresso.achievement.domain.queries;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import espresso.achievement.domain.entities.AchievementFacetFilter;
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.common.domain.queries.CommonQuery;
+
+@Getter
+@AllArgsConstructor
+public class GetAchievementFacetsQuery extends CommonQuery {
+
+    private static final String ERROR_INVALID_SKILL = "LOCALIZE: INVALID SKILL '%s'. ALLOWED SKILLS ARE: str, dex, con, wis, int, cha, luc";
+
+    // Optional, comma separated in the query string (?skills=str,dex); every achievement is counted if empty
+    @Size(max = 7, message = "LOCALIZE: NO MORE THAN 7 SKILLS CAN BE PROVIDED")
+    private List<String> skills;
+
+    // Optional match mode - defaults to any if not specified
+    private SkillMatchType match;
+
+    // Optional date; only achievements registered after it are counted
+    private OffsetDateTime fromDate;
+
+    /**
+     * @return The filters of the query, normalized so that equivalent queries are equal
+     */
+    public AchievementFacetFilter toFilter() {
+        return new AchievementFacetFilter(skills, match == SkillMatchType.all, fromDate);
+    }
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (skills != null) {
+            for (int i = 0; i < skills.size(); i++) {
+                String skill = skills.get(i);
+
+                if (skill == null || AchievementSkill.fromAbbreviation(skill) == null) {
+                    errors.add("skills[" + i + "]:" + String.format(ERROR_INVALID_SKILL, skill));
+                }
+            }
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,17 @@
+package espresso.achievement.domain.queries;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import espresso.common.domain.queries.CommonQuery;
+
+@Getter
+@AllArgsConstructor
+public class GetAchievementReactionsQuery extends CommonQuery {
+
+    @NotBlank(message = "LOCALIZE: ACHIEVEMENT KEY IS REQUIRED")
+    @Size(min = 7, max = 7, message = "LOCALIZE: ENTITY KEY MUST BE EXACTLY 7 CHARACTERS")
+    private String key;
+}
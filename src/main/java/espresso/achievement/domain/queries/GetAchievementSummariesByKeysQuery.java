@@ -0,0 +1,22 @@
+package espresso.achievement.domain.queries;
+
+import java.util.List;
+
+import espresso.common.domain.queries.CommonQuery;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class GetAchievementSummariesByKeysQuery extends CommonQuery {
+
+    public static final int MAX_KEYS = 100;
+
+    // Comma separated in the query string (?keys=KEY0001,KEY0002)
+    @NotEmpty(message = "LOCALIZE: KEYS MUST NOT BE EMPTY")
+    @Size(max = MAX_KEYS, message = "LOCALIZE: NO MORE THAN 100 KEYS CAN BE REQUESTED")
+    private final List<@NotBlank @Size(min = 7, max = 7, message = "The key should be 7 characters") String> keys;
+}
@@ -1,15 +1,44 @@
 package espresso.achievement.domain.queries;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import espresso.common.domain.queries.CommonQuery;
+import espresso.common.domain.queries.KeysetCursor;
+
 @Getter
 @AllArgsConstructor
-public class GetAchievementSummariesByUserQuery {
-    
+public class GetAchievementSummariesByUserQuery extends CommonQuery {
+
+    private static final String ERROR_INVALID_CURSOR = "LOCALIZE: THE CURSOR IS NOT VALID";
+
     @NotBlank
     @Size(min = 7, max = 7, message = "The key should be 7 characters")
     private final String userKey;
+
+    // Optional limit parameter - defaults to 10 if not specified
+    @Min(value = 1, message = "LOCALIZE: LIMIT MUST BE GREATER THAN 0")
+    @Max(value = 100, message = "LOCALIZE: LIMIT MUST NOT BE GREATER THAN 100")
+    private final Integer limit;
+
+    // Optional opaque cursor returned as nextCursor by the previous page
+    private final String cursor;
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (!KeysetCursor.isValid(cursor)) {
+            errors.add("cursor:" + ERROR_INVALID_CURSOR);
+        }
+
+        return errors;
+    }
 }
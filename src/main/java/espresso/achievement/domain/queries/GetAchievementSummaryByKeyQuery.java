@@ -1,5 +1,6 @@
 package espresso.achievement.domain.queries;
 
+import espresso.common.domain.queries.CommonQuery;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -7,7 +8,7 @@ import lombok.Getter;
 
 @Getter
 @AllArgsConstructor
-public class GetAchievementSummaryByKeyQuery {
+public class GetAchievementSummaryByKeyQuery extends CommonQuery {
 
     @NotBlank
     @Size(min = 7, max = 7, message = "The key should be 7 characters")
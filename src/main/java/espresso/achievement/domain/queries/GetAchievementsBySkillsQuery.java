@@ -0,0 +1,77 @@
+package espresso.achievement.domain.queries;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.common.domain.queries.CommonQuery;
+import espresso.common.domain.queries.KeysetCursor;
+import espresso.common.domain.queries.QuerySizeType;
+
+@Getter
+@AllArgsConstructor
+public class GetAchievementsBySkillsQuery extends CommonQuery {
+
+    private static final String ERROR_INVALID_CURSOR = "LOCALIZE: THE CURSOR IS NOT VALID";
+    private static final String ERROR_INVALID_SKILL = "LOCALIZE: INVALID SKILL '%s'. ALLOWED SKILLS ARE: str, dex, con, wis, int, cha, luc";
+
+    @NotNull(message = "LOCALIZE: DTO SIZE MUST NOT BE NULL")
+    private QuerySizeType size;
+
+    // Comma separated in the query string (?skills=str,dex)
+    @NotEmpty(message = "LOCALIZE: AT LEAST ONE SKILL MUST BE PROVIDED")
+    @Size(max = 7, message = "LOCALIZE: NO MORE THAN 7 SKILLS CAN BE PROVIDED")
+    private List<String> skills;
+
+    // Optional match mode - defaults to any if not specified
+    private SkillMatchType match;
+
+    // Optional date; only achievements registered after it are returned
+    private OffsetDateTime fromDate;
+
+    // Optional limit parameter - defaults to 10 if not specified
+    @Min(value = 1, message = "LOCALIZE: LIMIT MUST BE GREATER THAN 0")
+    @Max(value = 100, message = "LOCALIZE: LIMIT MUST NOT BE GREATER THAN 100")
+    private Integer limit;
+
+    // Optional opaque cursor returned as nextCursor by the previous page
+    private String cursor;
+
+    /**
+     * @return The requested skills trimmed, in lower case and without duplicates
+     */
+    public List<String> getNormalizedSkills() {
+        return skills.stream().map(skill -> skill.trim().toLowerCase()).distinct().toList();
+    }
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (skills != null) {
+            for (int i = 0; i < skills.size(); i++) {
+                String skill = skills.get(i);
+
+                if (skill == null || AchievementSkill.fromAbbreviation(skill) == null) {
+                    errors.add("skills[" + i + "]:" + String.format(ERROR_INVALID_SKILL, skill));
+                }
+            }
+        }
+
+        if (!KeysetCursor.isValid(cursor)) {
+            errors.add("cursor:" + ERROR_INVALID_CURSOR);
+        }
+
+        return errors;
+    }
+}
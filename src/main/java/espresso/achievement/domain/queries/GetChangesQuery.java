@@ -0,0 +1,29 @@
+package espresso.achievement.domain.queries;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import espresso.common.domain.queries.CommonQuery;
+
+@Getter
+@AllArgsConstructor
+public class GetChangesQuery extends CommonQuery {
+
+    // The sequence returned by the previous request, 0 for the first one
+    @NotNull(message = "LOCALIZE: THE SEQUENCE MUST NOT BE NULL")
+    @Min(value = 0, message = "LOCALIZE: THE SEQUENCE MUST NOT BE NEGATIVE")
+    private Long since;
+
+    // Optional maximum number of changes read - defaults to 100 if not specified
+    @Min(value = 1, message = "LOCALIZE: LIMIT MUST BE GREATER THAN 0")
+    @Max(value = 500, message = "LOCALIZE: LIMIT MUST NOT BE GREATER THAN 500")
+    private Integer limit;
+
+    // Optional number of seconds to wait for a change when there is none - defaults to 0 (no wait)
+    @Min(value = 0, message = "LOCALIZE: WAIT MUST NOT BE NEGATIVE")
+    @Max(value = 30, message = "LOCALIZE: WAIT MUST NOT BE GREATER THAN 30 SECONDS")
+    private Integer wait;
+}
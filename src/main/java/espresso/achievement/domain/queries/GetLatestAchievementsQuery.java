@@ -1,23 +1,46 @@
 package espresso.achievement.domain.queries;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 import espresso.common.domain.queries.CommonQuery;
+import espresso.common.domain.queries.KeysetCursor;
 import espresso.common.domain.queries.QuerySizeType;
 
 @Getter
 @AllArgsConstructor
 public class GetLatestAchievementsQuery extends CommonQuery {
 
+    private static final String ERROR_INVALID_CURSOR = "LOCALIZE: THE CURSOR IS NOT VALID";
+
     @NotNull(message = "LOCALIZE: DTO SIZE MUST NOT BE NULL")
     private QuerySizeType size;
-    
+
     private OffsetDateTime fromDate;
-    
+
     // Optional limit parameter - defaults to 10 if not specified
+    @Min(value = 1, message = "LOCALIZE: LIMIT MUST BE GREATER THAN 0")
+    @Max(value = 100, message = "LOCALIZE: LIMIT MUST NOT BE GREATER THAN 100")
     private Integer limit = 10;
+
+    // Optional opaque cursor returned as nextCursor by the previous page
+    private String cursor;
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (!KeysetCursor.isValid(cursor)) {
+            errors.add("cursor:" + ERROR_INVALID_CURSOR);
+        }
+
+        return errors;
+    }
 }
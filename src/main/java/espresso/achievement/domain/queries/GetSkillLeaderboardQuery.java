@@ -0,0 +1,42 @@
+package espresso.achievement.domain.queries;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.common.domain.queries.CommonQuery;
+
+@Getter
+@AllArgsConstructor
+public class GetSkillLeaderboardQuery extends CommonQuery {
+
+    static final String ERROR_INVALID_SKILL = "LOCALIZE: INVALID SKILL '%s'. ALLOWED SKILLS ARE: str, dex, con, wis, int, cha, luc";
+
+    @NotBlank(message = "LOCALIZE: SKILL MUST NOT BE BLANK")
+    private String skill;
+
+    // Optional window - defaults to all if not specified
+    private LeaderboardWindow window;
+
+    // Optional limit parameter - defaults to 10 if not specified
+    @Min(value = 1, message = "LOCALIZE: LIMIT MUST BE GREATER THAN 0")
+    @Max(value = 100, message = "LOCALIZE: LIMIT MUST NOT BE GREATER THAN 100")
+    private Integer limit;
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (skill != null && !skill.isBlank() && AchievementSkill.fromAbbreviation(skill) == null) {
+            errors.add("skill:" + String.format(ERROR_INVALID_SKILL, skill));
+        }
+
+        return errors;
+    }
+}
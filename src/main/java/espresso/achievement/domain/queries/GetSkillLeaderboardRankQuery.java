@@ -0,0 +1,45 @@
+package espresso.achievement.domain.queries;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.common.domain.queries.CommonQuery;
+
+@Getter
+@AllArgsConstructor
+public class GetSkillLeaderboardRankQuery extends CommonQuery {
+
+    @NotBlank(message = "LOCALIZE: SKILL MUST NOT BE BLANK")
+    private String skill;
+
+    // Optional window - defaults to all if not specified
+    private LeaderboardWindow window;
+
+    @NotBlank(message = "LOCALIZE: USER KEY MUST NOT BE BLANK")
+    @Size(min = 7, max = 7, message = "LOCALIZE: ENTITY KEY MUST BE EXACTLY 7 CHARACTERS")
+    private String userKey;
+
+    // Optional number of neighbours on each side of the user - defaults to 5 if not specified
+    @Min(value = 0, message = "LOCALIZE: RADIUS MUST NOT BE NEGATIVE")
+    @Max(value = 50, message = "LOCALIZE: RADIUS MUST NOT BE GREATER THAN 50")
+    private Integer radius;
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (skill != null && !skill.isBlank() && AchievementSkill.fromAbbreviation(skill) == null) {
+            errors.add("skill:" + String.format(GetSkillLeaderboardQuery.ERROR_INVALID_SKILL, skill));
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,10 @@
+package espresso.achievement.domain.queries;
+
+/**
+ * The achievements a leaderboard counts: every achievement (all) or the ones
+ * registered in the last 30 days, today included (last30days).
+ */
+public enum LeaderboardWindow {
+    all,
+    last30days
+}
@@ -0,0 +1,55 @@
+package espresso.achievement.domain.queries;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import espresso.common.domain.queries.CommonQuery;
+import espresso.common.domain.queries.QuerySizeType;
+import espresso.common.domain.queries.RankCursor;
+
+@Getter
+@AllArgsConstructor
+public class SearchAchievementsQuery extends CommonQuery {
+
+    private static final String ERROR_INVALID_CURSOR = "LOCALIZE: THE CURSOR IS NOT VALID";
+    private static final String ERROR_INVALID_SIZE = "LOCALIZE: SEARCH RESULTS ARE ONLY AVAILABLE IN xs, sm AND md SIZES";
+
+    @NotNull(message = "LOCALIZE: DTO SIZE MUST NOT BE NULL")
+    private QuerySizeType size;
+
+    // Web search syntax: words, "quoted phrases", OR and -excluded words
+    @NotBlank(message = "LOCALIZE: THE SEARCH TEXT MUST NOT BE EMPTY")
+    @Size(max = 200, message = "LOCALIZE: THE SEARCH TEXT MUST NOT BE LONGER THAN 200 CHARACTERS")
+    private String text;
+
+    // Optional limit parameter - defaults to 10 if not specified
+    @Min(value = 1, message = "LOCALIZE: LIMIT MUST BE GREATER THAN 0")
+    @Max(value = 100, message = "LOCALIZE: LIMIT MUST NOT BE GREATER THAN 100")
+    private Integer limit;
+
+    // Optional opaque cursor returned as nextCursor by the previous page
+    private String cursor;
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (size == QuerySizeType.lg || size == QuerySizeType.xl) {
+            errors.add("size:" + ERROR_INVALID_SIZE);
+        }
+
+        if (!RankCursor.isValid(cursor)) {
+            errors.add("cursor:" + ERROR_INVALID_CURSOR);
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,10 @@
+package espresso.achievement.domain.queries;
+
+/**
+ * How the skills of a skill filtered query are matched: achievements with at
+ * least one of the skills (any) or with every skill (all).
+ */
+public enum SkillMatchType {
+    any,
+    all
+}
@@ -0,0 +1,17 @@
+package espresso.achievement.domain.queries;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import espresso.common.domain.queries.CommonQuery;
+import espresso.common.domain.queries.QuerySizeType;
+
+@Getter
+@AllArgsConstructor
+public class StreamLatestAchievementsQuery extends CommonQuery {
+
+    // The DTO size of the pushed achievements
+    @NotNull(message = "LOCALIZE: DTO SIZE MUST NOT BE NULL")
+    private QuerySizeType size;
+}
@@ -0,0 +1,20 @@
+package espresso.achievement.domain.readModels;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The facet counts shown next to the browse results: the number of matching
+ * achievements per skill, per completion month (yyyy-MM, newest first) and
+ * per visibility. An achievement with several skills counts once for each.
+ */
+@Getter
+@AllArgsConstructor
+public class AchievementFacetsReadModel {
+    private final long total;
+    private final List<FacetCountReadModel> skills;
+    private final List<FacetCountReadModel> completionMonths;
+    private final List<FacetCountReadModel> visibilities;
+}
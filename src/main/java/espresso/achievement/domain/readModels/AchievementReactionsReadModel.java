@@ -0,0 +1,19 @@
+package espresso.achievement.domain.readModels;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The reactions on an achievement: the number of every reaction, by name,
+ * and the reactions the requester left.
+ */
+@Getter
+@AllArgsConstructor
+public class AchievementReactionsReadModel {
+    private final String achievementKey;
+    private final Map<String, Long> counts;
+    private final List<String> reacted;
+}
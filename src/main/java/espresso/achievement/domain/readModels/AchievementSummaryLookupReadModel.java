@@ -0,0 +1,16 @@
+package espresso.achievement.domain.readModels;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One entry of a batch summary lookup: the requested key, whether it was
+ * found and, if so, its summary.
+ */
+@Getter
+@AllArgsConstructor
+public class AchievementSummaryLookupReadModel {
+    private final String key;
+    private final boolean found;
+    private final AchievementSummaryReadModel summary;
+}
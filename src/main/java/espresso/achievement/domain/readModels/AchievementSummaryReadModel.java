@@ -1,17 +1,24 @@
 package espresso.achievement.domain.readModels;
 
+import java.time.OffsetDateTime;
 import java.util.Date;
 
-import org.springframework.format.annotation.DateTimeFormat;
-
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import espresso.common.domain.queries.KeysetItem;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @Getter
 @AllArgsConstructor
-public class AchievementSummaryReadModel {
+public class AchievementSummaryReadModel implements KeysetItem {
+    // Keyset columns of the user timeline, not part of the response
+    @JsonIgnore
+    private final Long id;
+    @JsonIgnore
+    private final OffsetDateTime registeredAt;
+
     private final String key;
     private final String title;
     @JsonFormat(pattern = "yyyy-MM-dd")
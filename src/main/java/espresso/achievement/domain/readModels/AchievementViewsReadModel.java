@@ -0,0 +1,16 @@
+package espresso.achievement.domain.readModels;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The views of the detail of an achievement and the estimated number of
+ * distinct signed-in users who viewed it, as of the last flush.
+ */
+@Getter
+@AllArgsConstructor
+public class AchievementViewsReadModel {
+    private final String achievementKey;
+    private final long views;
+    private final long uniqueViewers;
+}
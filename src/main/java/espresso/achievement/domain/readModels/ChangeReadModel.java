@@ -0,0 +1,24 @@
+package espresso.achievement.domain.readModels;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import espresso.achievement.domain.entities.AchievementChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One change of the change feed. Only the fields of its type are set: the
+ * achievement key and owner of achievement changes, the new media keys of
+ * media changes, the user key and image URL of profile image changes.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeReadModel {
+    private final long sequence;
+    private final AchievementChangeType type;
+    private final String key;
+    private final String userKey;
+    private final String[] mediaKeys;
+    private final String profileImageUrl;
+}
@@ -0,0 +1,24 @@
+package espresso.achievement.domain.readModels;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A page of the change feed.
+ * <p>
+ * The sequence is the one to send as {@code since} with the next request; it
+ * also moves past changes the requester can not see. When resync is true the
+ * requested sequence is not in the feed (it was reset), so the client must
+ * download its data again and continue from the returned sequence.
+ * </p>
+ */
+@Getter
+@AllArgsConstructor
+public class ChangesReadModel {
+    private final long sequence;
+    private final boolean hasMore;
+    private final boolean resync;
+    private final List<ChangeReadModel> changes;
+}
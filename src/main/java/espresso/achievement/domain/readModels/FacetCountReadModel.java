@@ -0,0 +1,14 @@
+package espresso.achievement.domain.readModels;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One value of a facet and the number of achievements that have it.
+ */
+@Getter
+@AllArgsConstructor
+public class FacetCountReadModel {
+    private final String value;
+    private final long count;
+}
@@ -0,0 +1,13 @@
+package espresso.achievement.domain.readModels;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LeaderboardEntryReadModel {
+    private final int rank;
+    private final String userKey;
+    private final String userName;
+    private final int score;
+}
@@ -0,0 +1,19 @@
+package espresso.achievement.domain.readModels;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A range of a skill leaderboard: the skill abbreviation, the window, the
+ * number of ranked users and the entries of the range in rank order.
+ */
+@Getter
+@AllArgsConstructor
+public class LeaderboardReadModel {
+    private final String skill;
+    private final String window;
+    private final int rankedUsers;
+    private final List<LeaderboardEntryReadModel> entries;
+}
@@ -0,0 +1,15 @@
+package espresso.achievement.domain.readModels;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a rebuild of the achievement read-model rows.
+ */
+@Getter
+@AllArgsConstructor
+public class ProjectionRebuildReadModel {
+    private final int chunks;
+    private final long projected;
+    private final long elapsedMillis;
+}
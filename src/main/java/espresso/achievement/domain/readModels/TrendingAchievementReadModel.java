@@ -0,0 +1,14 @@
+package espresso.achievement.domain.readModels;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One achievement of the trending tab: its decayed engagement score and its summary.
+ */
+@Getter
+@AllArgsConstructor
+public class TrendingAchievementReadModel {
+    private final double score;
+    private final AchievementSummaryReadModel achievement;
+}
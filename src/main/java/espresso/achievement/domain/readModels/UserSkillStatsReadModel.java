@@ -0,0 +1,21 @@
+package espresso.achievement.domain.readModels;
+
+import java.util.Date;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The character sheet of a user: their number of achievements, the number
+ * per skill abbreviation and the completion dates of the first and last one.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSkillStatsReadModel {
+    private final String userKey;
+    private final int achievementCount;
+    private final Map<String, Integer> skills;
+    private final Date firstCompletedDate;
+    private final Date lastCompletedDate;
+}
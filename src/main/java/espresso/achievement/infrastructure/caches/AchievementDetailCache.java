@@ -0,0 +1,209 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import espresso.achievement.domain.contracts.IAchievementDetailCache;
+import espresso.achievement.domain.contracts.IAchievementQryRepository;
+import espresso.achievement.domain.entities.AchievementDtoLg;
+import espresso.achievement.domain.entities.AchievementDtoMd;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded TTL cache of the achievement details served by the detail endpoint.
+ * <p>
+ * Popular achievements are shared and their detail is requested far more
+ * often than it changes, so {@link #getAchievementByKey(Class, String)} keeps
+ * the DTOs of each (entityKey, DTO size) pair in memory. Only the DTO sizes
+ * are cached; entities are always read from the repository.
+ * </p>
+ * <p>
+ * Hits only look up a concurrent map and set a flag. Once the cache holds more
+ * than its maximum number of entries, the loads that add one evict with the
+ * CLOCK algorithm, which gives the entries read since the hand last passed
+ * them a second chance; entries also expire after a TTL.
+ * </p>
+ * <p>
+ * The command handler calls {@link #invalidate(String)} whenever an
+ * achievement changes. A load that was running while its achievement was
+ * invalidated is returned but not cached, so a stale detail can not be put
+ * back after the invalidation.
+ * </p>
+ * <p>
+ * Hits, misses and evictions are published to actuator as
+ * {@code achievement.detail.cache.*} metrics.
+ * </p>
+ */
+@Component
+public class AchievementDetailCache implements IAchievementDetailCache {
+
+    private static final List<Class<?>> CACHED_DTO_TYPES = List.of(
+            AchievementDtoSm.class,
+            AchievementDtoMd.class,
+            AchievementDtoLg.class);
+
+    private final IAchievementQryRepository achievementQryRepository;
+
+    private final boolean enabled;
+
+    private final int maxEntries;
+
+    private final Duration ttl;
+
+    private final ConcurrentHashMap<DetailKey, Entry> entries = new ConcurrentHashMap<>(1024);
+
+    // Guards the clock, so that one load at a time evicts
+    private final Object evictionLock = new Object();
+
+    private final ClockEviction<DetailKey, Entry> clock = new ClockEviction<>(entries);
+
+    // Incremented by every invalidation, so loads that overlap one are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidationCount;
+
+    public AchievementDetailCache(
+            IAchievementQryRepository achievementQryRepository,
+            MeterRegistry meterRegistry,
+            @Value("${achievement.detail.cache.enabled:true}") boolean enabled,
+            @Value("${achievement.detail.cache.max-entries:10000}") int maxEntries,
+            @Value("${achievement.detail.cache.ttl:5m}") Duration ttl) {
+
+        this.achievementQryRepository = achievementQryRepository;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+
+        this.hits = Counter.builder("achievement.detail.cache.requests")
+                .description("Achievement detail lookups served by the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("achievement.detail.cache.requests")
+                .description("Achievement detail lookups served by the cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("achievement.detail.cache.evictions")
+                .description("Achievement details evicted from the cache")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("achievement.detail.cache.evictions")
+                .description("Achievement details evicted from the cache")
+                .tag("cause", "expired")
+                .register(meterRegistry);
+        this.invalidationCount = Counter.builder("achievement.detail.cache.invalidations")
+                .description("Achievement details dropped because the achievement changed")
+                .register(meterRegistry);
+
+        meterRegistry.gauge("achievement.detail.cache.size", this, AchievementDetailCache::size);
+    }
+
+    @Override
+    public <T> T getAchievementByKey(Class<T> dtoType, String entityKey) {
+        if (!enabled || entityKey == null || !CACHED_DTO_TYPES.contains(dtoType)) {
+            return achievementQryRepository.getAchievementByKey(dtoType, entityKey);
+        }
+
+        DetailKey key = new DetailKey(entityKey, dtoType);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+
+        if (entry != null && !entry.isExpired(now)) {
+            entry.touch();
+            hits.increment();
+            return dtoType.cast(entry.dto);
+        }
+
+        if (entry != null && entries.remove(key, entry)) {
+            expiredEvictions.increment();
+        }
+
+        misses.increment();
+
+        long version = invalidations.get();
+        T dto = achievementQryRepository.getAchievementByKey(dtoType, entityKey);
+
+        // Missing achievements are not cached, so they show up as soon as they are created
+        if (dto != null && version == invalidations.get()) {
+            Entry loaded = new Entry(dto, now + ttl.toNanos());
+            entries.put(key, loaded);
+
+            // An invalidation between the check and the put may have missed the entry
+            if (version != invalidations.get()) {
+                entries.remove(key, loaded);
+            } else if (entries.size() > maxEntries) {
+                evict(key);
+            }
+        }
+
+        return dto;
+    }
+
+    @Override
+    public void invalidate(String entityKey) {
+        // Incremented before removing, so a load that puts its entry after this is undone by itself
+        invalidations.incrementAndGet();
+
+        for (Class<?> dtoType : CACHED_DTO_TYPES) {
+            if (entries.remove(new DetailKey(entityKey, dtoType)) != null) {
+                invalidationCount.increment();
+            }
+        }
+    }
+
+    /**
+     * @return The number of cached achievement details
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Evicts entries until the cache fits its maximum again, never the one just loaded
+     */
+    private void evict(DetailKey loadedKey) {
+        synchronized (evictionLock) {
+            while (entries.size() > maxEntries) {
+                if (!evictOne(loadedKey)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean evictOne(DetailKey loadedKey) {
+        long now = System.nanoTime();
+        Entry evicted = clock.evictOne(loadedKey, now);
+
+        if (evicted == null) {
+            return false;
+        }
+
+        (evicted.isExpired(now) ? expiredEvictions : sizeEvictions).increment();
+        return true;
+    }
+
+    private record DetailKey(String entityKey, Class<?> dtoType) {
+    }
+
+    private static final class Entry extends ClockEviction.Entry {
+
+        private final Object dto;
+
+        private Entry(Object dto, long expiresAt) {
+            super(expiresAt);
+            this.dto = dto;
+        }
+    }
+}
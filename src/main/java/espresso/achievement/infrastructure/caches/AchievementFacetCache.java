@@ -0,0 +1,123 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import espresso.achievement.domain.entities.AchievementFacetFilter;
+import espresso.achievement.domain.readModels.AchievementFacetsReadModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded TTL and LRU cache of facet counts, keyed by the normalized filter
+ * set of the browse request.
+ * <p>
+ * Browse screens share a small number of filter sets (no filter, one skill,
+ * a couple of skills) and facet counts only need to be roughly current, so
+ * the counts of a filter set are computed at most once per TTL instead of
+ * on every request. Counts are not invalidated when achievements are
+ * created; they catch up when the entry expires.
+ * </p>
+ * <p>
+ * Hits and misses are published to actuator as
+ * {@code achievement.facet.cache.requests} metrics.
+ * </p>
+ */
+@Component
+public class AchievementFacetCache {
+
+    private final boolean enabled;
+
+    private final int maxEntries;
+
+    private final Duration ttl;
+
+    private final Map<AchievementFacetFilter, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public AchievementFacetCache(
+            MeterRegistry meterRegistry,
+            @Value("${achievement.facet.cache.enabled:true}") boolean enabled,
+            @Value("${achievement.facet.cache.max-entries:1000}") int maxEntries,
+            @Value("${achievement.facet.cache.ttl:1m}") Duration ttl) {
+
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+
+        // Access ordered, so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AchievementFacetFilter, Entry> eldest) {
+                return size() > AchievementFacetCache.this.maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("achievement.facet.cache.requests")
+                .description("Facet count requests served by the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("achievement.facet.cache.requests")
+                .description("Facet count requests served by the cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets the cached facet counts of a filter set, computing them on a miss
+     *
+     * @param filter The normalized filter set
+     * @param loader Computes the facet counts of the filter set
+     * @return The facet counts
+     */
+    public AchievementFacetsReadModel get(AchievementFacetFilter filter,
+            Function<AchievementFacetFilter, AchievementFacetsReadModel> loader) {
+        if (!enabled) {
+            return loader.apply(filter);
+        }
+
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            Entry entry = entries.get(filter);
+
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.increment();
+                return entry.facets;
+            }
+
+            if (entry != null) {
+                entries.remove(filter);
+            }
+        }
+
+        misses.increment();
+
+        AchievementFacetsReadModel facets = loader.apply(filter);
+
+        synchronized (entries) {
+            entries.put(filter, new Entry(facets, now + ttl.toNanos()));
+        }
+
+        return facets;
+    }
+
+    /**
+     * @return The number of cached filter sets
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(AchievementFacetsReadModel facets, long expiresAt) {
+    }
+}
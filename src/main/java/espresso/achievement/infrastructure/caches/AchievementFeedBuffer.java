@@ -0,0 +1,341 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import espresso.achievement.domain.contracts.IAchievementFeedBuffer;
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementDtoLg;
+import espresso.achievement.domain.entities.AchievementDtoMd;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import espresso.common.domain.queries.KeysetItem;
+import espresso.user.domain.entities.User;
+import espresso.user.domain.entities.UserProfileImage;
+
+/**
+ * Bounded in-memory window of the newest achievements, one per DTO size.
+ * <p>
+ * The first page of the latest feed is the same for every user and only
+ * changes when an achievement is created, so it is served from memory instead
+ * of querying PostgreSQL on every request. Each window is an immutable list
+ * swapped with a compare-and-set, which keeps reads lock-free while creates
+ * (which are rare compared to reads) pay for the copy.
+ * </p>
+ * <p>
+ * The buffer is seeded when the application is ready. New achievements are
+ * added through {@link #append(Achievement)}, built from the saved aggregate
+ * so a create does not read them back (only the large size is read when the
+ * profile image of the owner was not loaded); achievements that changed are read
+ * again through {@link #append(String)}. Until it is seeded, or when a
+ * request asks for more items than it holds, callers get null and fall back
+ * to the repository. A buffer that is not seeded when an achievement is
+ * appended is seeded again on a background thread, never on the request.
+ * </p>
+ */
+@Component
+public class AchievementFeedBuffer implements IAchievementFeedBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementFeedBuffer.class);
+
+    private static final List<Class<?>> BUFFERED_DTO_TYPES = List.of(
+            AchievementDtoSm.class,
+            AchievementDtoMd.class,
+            AchievementDtoLg.class);
+
+    private static final Comparator<KeysetItem> NEWEST_FIRST = Comparator
+            .comparing(KeysetItem::getRegisteredAt)
+            .thenComparing(KeysetItem::getId)
+            .reversed();
+
+    private final Map<Class<?>, AtomicReference<Window>> windows = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean seeding = new AtomicBoolean();
+
+    @Autowired
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${achievement.feed.buffer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${achievement.feed.buffer.capacity:100}")
+    private int capacity;
+
+    @Override
+    public List<?> getLatestAchievements(Class<?> dtoType, int limit) {
+        AtomicReference<Window> reference = windows.get(dtoType);
+
+        if (!enabled || reference == null) {
+            return null;
+        }
+
+        Window window = reference.get();
+
+        // The buffer can only answer if it holds the whole window, or the whole table
+        if (window.items.size() < limit && !window.complete) {
+            return null;
+        }
+
+        return window.items.subList(0, Math.min(limit, window.items.size()));
+    }
+
+    @Override
+    public void append(Achievement achievement) {
+        if (!enabled) {
+            return;
+        }
+
+        // A buffer that was never seeded (or was invalidated) is rebuilt from the database
+        if (windows.size() < BUFFERED_DTO_TYPES.size()) {
+            seedInBackground();
+            return;
+        }
+
+        try {
+            List<BufferedAchievement> items = new ArrayList<>(BUFFERED_DTO_TYPES.size());
+
+            for (Class<?> dtoType : BUFFERED_DTO_TYPES) {
+                KeysetItem dto = toDto(dtoType, achievement);
+                items.add(dto != null ? materialize(dto, achievement.getEntityKey()) : null);
+            }
+
+            for (int i = 0; i < BUFFERED_DTO_TYPES.size(); i++) {
+                BufferedAchievement item = items.get(i);
+
+                if (item != null) {
+                    update(BUFFERED_DTO_TYPES.get(i), window -> window.merge(List.of(item), capacity, false));
+                }
+            }
+        } catch (Exception ex) {
+            logger.warn("Failed to append achievement {} to the feed buffer, invalidating it",
+                    achievement.getEntityKey(), ex);
+            windows.clear();
+            seedInBackground();
+        }
+    }
+
+    @Override
+    public void append(String entityKey) {
+        if (!enabled) {
+            return;
+        }
+
+        // A buffer that was never seeded (or was invalidated) is rebuilt from the database
+        if (windows.size() < BUFFERED_DTO_TYPES.size()) {
+            seedInBackground();
+            return;
+        }
+
+        try {
+            readOnly().executeWithoutResult(status -> {
+                for (Class<?> dtoType : BUFFERED_DTO_TYPES) {
+                    Object dto = achievementPSQLProvider.findAchievementByKey(dtoType, entityKey);
+
+                    if (dto != null) {
+                        BufferedAchievement item = materialize((KeysetItem) dto, entityKey);
+                        update(dtoType, window -> window.merge(List.of(item), capacity, false));
+                    }
+                }
+            });
+        } catch (Exception ex) {
+            logger.warn("Failed to append achievement {} to the feed buffer, invalidating it", entityKey, ex);
+            windows.clear();
+        }
+    }
+
+    /**
+     * Loads the newest achievements of every buffered size from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            readOnly().executeWithoutResult(status -> {
+                for (Class<?> dtoType : BUFFERED_DTO_TYPES) {
+                    List<?> dtos = achievementPSQLProvider.findLatestAchievements(dtoType, Limit.of(capacity));
+
+                    List<BufferedAchievement> items = new ArrayList<>(dtos.size());
+                    for (Object dto : dtos) {
+                        items.add(materialize((KeysetItem) dto, null));
+                    }
+
+                    // Fewer rows than the capacity means the buffer holds the whole table
+                    boolean complete = items.size() < capacity;
+
+                    // Merge with what was appended while seeding, so a concurrent create is not lost
+                    update(dtoType, window -> window.merge(items, capacity, complete));
+                }
+            });
+
+            logger.info("Seeded the latest achievements buffer with up to {} items per size", capacity);
+
+        } catch (Exception ex) {
+            logger.warn("Failed to seed the latest achievements buffer, the feed will be read from the database",
+                    ex);
+            windows.clear();
+        }
+    }
+
+    /**
+     * Starts seeding on a background thread, unless a seed is already running
+     */
+    private void seedInBackground() {
+        if (!seeding.compareAndSet(false, true)) {
+            return;
+        }
+
+        Thread.ofVirtual().name("achievement-feed-seed").start(() -> {
+            try {
+                seed();
+            } finally {
+                seeding.set(false);
+            }
+        });
+    }
+
+    /**
+     * Builds the DTO of a saved achievement with the values the constructor
+     * queries select; a new achievement has no media yet. The owner was
+     * loaded by another session, so a profile image it did not load is read
+     * with the large DTO instead of touching the lazy association.
+     */
+    private KeysetItem toDto(Class<?> dtoType, Achievement achievement) {
+        User user = achievement.getUser();
+
+        String userKey = user != null ? user.getEntityKey() : null;
+        String username = user != null ? user.getUsername() : null;
+        String email = user != null ? user.getEmail() : null;
+
+        if (dtoType == AchievementDtoSm.class) {
+            return new AchievementDtoSm(achievement.getId(), achievement.getRegisteredAt(),
+                    achievement.getEntityKey(), achievement.getTitle(), achievement.getDescription(),
+                    achievement.getSkills(), userKey, username, email);
+        }
+
+        if (dtoType == AchievementDtoMd.class) {
+            return new AchievementDtoMd(achievement.getId(), achievement.getRegisteredAt(),
+                    achievement.getEntityKey(), achievement.getTitle(), achievement.getDescription(),
+                    achievement.getCompletedDate(), userKey, username, email, achievement.getSkills(),
+                    achievement.getAchievementVisibility());
+        }
+
+        UserProfileImage image = user != null ? user.getProfileImage() : null;
+
+        if (!Hibernate.isInitialized(image)) {
+            return readOnly().execute(status -> (KeysetItem) achievementPSQLProvider
+                    .findAchievementByKey(AchievementDtoLg.class, achievement.getEntityKey()));
+        }
+
+        return new AchievementDtoLg(achievement.getId(), achievement.getRegisteredAt(), achievement.getEntityKey(),
+                achievement.getTitle(), achievement.getDescription(), achievement.getCompletedDate(), userKey,
+                username, email,
+                user != null ? user.getFirstName() : null,
+                user != null ? user.getLastName() : null,
+                user != null ? user.getBirthDate() : null,
+                image != null ? image.getId() : null,
+                image != null ? image.getImageName() : null,
+                image != null ? image.getContentType() : null,
+                image != null ? image.getImageExtension() : null,
+                image != null ? image.getProfileImageUrl() : null,
+                achievement.getSkills(), achievement.getAchievementVisibility());
+    }
+
+    private void update(Class<?> dtoType, UnaryOperator<Window> change) {
+        windows.computeIfAbsent(dtoType, key -> new AtomicReference<>(Window.EMPTY)).updateAndGet(change);
+    }
+
+    private BufferedAchievement materialize(KeysetItem dto, String entityKey) {
+        JsonNode content = objectMapper.valueToTree(dto);
+
+        if (entityKey == null && content.hasNonNull("entityKey")) {
+            entityKey = content.get("entityKey").asText();
+        }
+
+        return new BufferedAchievement(dto.getId(), dto.getRegisteredAt(), entityKey, content);
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /**
+     * Immutable snapshot of the buffered achievements of one size, newest first
+     */
+    private static class Window {
+
+        private static final Window EMPTY = new Window(Collections.emptyList(), false);
+
+        private final List<BufferedAchievement> items;
+
+        // True when the window holds every achievement in the table
+        private final boolean complete;
+
+        private Window(List<BufferedAchievement> items, boolean complete) {
+            this.items = items;
+            this.complete = complete;
+        }
+
+        private Window merge(List<BufferedAchievement> incoming, int capacity, boolean complete) {
+            List<BufferedAchievement> merged = new ArrayList<>(items.size() + incoming.size());
+            Set<Long> ids = new HashSet<>();
+
+            // Incoming items win over the buffered copy of the same achievement
+            for (BufferedAchievement item : incoming) {
+                if (ids.add(item.getId())) {
+                    merged.add(item);
+                }
+            }
+
+            for (BufferedAchievement item : items) {
+                if (ids.add(item.getId())) {
+                    merged.add(item);
+                }
+            }
+
+            merged.sort(NEWEST_FIRST);
+
+            boolean overflow = merged.size() > capacity;
+
+            if (overflow) {
+                merged = merged.subList(0, capacity);
+            }
+
+            return new Window(List.copyOf(merged), (complete || this.complete) && !overflow);
+        }
+    }
+}
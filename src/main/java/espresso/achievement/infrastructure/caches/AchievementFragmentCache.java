@@ -0,0 +1,272 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import espresso.achievement.domain.contracts.IAchievementFragmentCache;
+import espresso.achievement.domain.entities.AchievementDtoLg;
+import espresso.achievement.domain.entities.AchievementDtoMd;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+
+/**
+ * Off-heap cache of the encoded JSON of each achievement, per DTO size.
+ * <p>
+ * The same achievements are serialized over and over by the feed and the
+ * detail endpoints. The first time an achievement is returned in a given size
+ * its UTF-8 JSON is stored in the pages of a {@link FragmentArena} (outside
+ * the Java heap, so large caches do not add GC pressure) and the response
+ * carries a {@link JsonFragment} that Jackson splices into the response
+ * envelope as raw bytes.
+ * </p>
+ * <p>
+ * The cache is bounded by the pages of the arena; once full, entries are
+ * evicted with the CLOCK algorithm, which gives the entries read since the
+ * hand last passed them a second chance. Reads only look up a concurrent map
+ * and set a flag; only the writers that need pages take the eviction lock.
+ * Entries are dropped when media is added to the achievement, and expire after
+ * a TTL, which bounds how long changes that are not tracked (e.g. the owner's
+ * profile) stay visible.
+ * </p>
+ * <p>
+ * The DTOs are loaded by the callers, so a request may still hold the DTO
+ * read before an invalidation. Each entry keeps the hash of the DTO it was
+ * encoded from, and a hit whose DTO does not match is encoded again, so the
+ * bytes served are always those of the DTO that was passed in. An encoding
+ * that overlaps an invalidation is served but not cached.
+ * </p>
+ */
+@Component
+public class AchievementFragmentCache implements IAchievementFragmentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementFragmentCache.class);
+
+    private static final List<Class<?>> CACHED_DTO_TYPES = List.of(
+            AchievementDtoSm.class,
+            AchievementDtoMd.class,
+            AchievementDtoLg.class);
+
+    private final ConcurrentHashMap<FragmentKey, Entry> entries = new ConcurrentHashMap<>(1024);
+
+    // Guards the clock, so that one writer at a time evicts
+    private final Object evictionLock = new Object();
+
+    private final ClockEviction<FragmentKey, Entry> clock = new ClockEviction<>(entries);
+
+    private volatile FragmentArena arena;
+
+    // Incremented by every invalidation, so encodings that overlap one are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${achievement.fragment.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${achievement.fragment.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${achievement.fragment.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Override
+    public List<?> toFragments(Class<?> dtoType, List<?> dtos) {
+        if (!enabled || dtos == null) {
+            return dtos;
+        }
+
+        List<Object> fragments = new ArrayList<>(dtos.size());
+
+        for (Object dto : dtos) {
+            fragments.add(toFragment(dtoType, dto));
+        }
+
+        return fragments;
+    }
+
+    @Override
+    public Object toFragment(Class<?> dtoType, Object dto) {
+        String entityKey = getEntityKey(dto);
+
+        if (!enabled || entityKey == null) {
+            return dto;
+        }
+
+        FragmentKey key = new FragmentKey(entityKey, dtoType);
+        int dtoHash = dto.hashCode();
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+
+        // An entry encoded from another version of the achievement is replaced by this one
+        if (entry != null && !entry.isExpired(now) && entry.dtoHash == dtoHash) {
+            entry.touch();
+            return new JsonFragment(entry.block, () -> encode(dto));
+        }
+
+        try {
+            long version = invalidations.get();
+            byte[] json = objectMapper.writeValueAsBytes(dto);
+
+            // The achievement changed while it was encoded, so the DTO may already be stale
+            if (version != invalidations.get()) {
+                return dto;
+            }
+
+            FragmentArena.Block block = allocate(json);
+
+            if (block == null) {
+                // Larger than the whole cache
+                return dto;
+            }
+
+            Entry loaded = new Entry(block, dtoHash, now + ttl.toNanos());
+            Entry replaced = entries.put(key, loaded);
+
+            if (replaced != null) {
+                arena().release(replaced.block);
+            }
+
+            // An invalidation between the check and the put may have missed the entry
+            if (version != invalidations.get() && entries.remove(key, loaded)) {
+                arena().release(block);
+            }
+
+            return new JsonFragment(block, () -> json);
+
+        } catch (Exception ex) {
+            // The regular serialization path will report the problem, if any
+            logger.warn("Failed to encode achievement {} as {}", entityKey, dtoType.getSimpleName(), ex);
+            return dto;
+        }
+    }
+
+    @Override
+    public void invalidate(String entityKey) {
+        // Incremented before removing, so an encoding that puts its entry after this is undone by itself
+        invalidations.incrementAndGet();
+
+        for (Class<?> dtoType : CACHED_DTO_TYPES) {
+            Entry removed = entries.remove(new FragmentKey(entityKey, dtoType));
+
+            if (removed != null) {
+                arena().release(removed.block);
+            }
+        }
+    }
+
+    /**
+     * @return The number of encoded bytes held by the cache
+     */
+    public long getTotalBytes() {
+        return arena().getUsedBytes();
+    }
+
+    /**
+     * @return The number of off-heap bytes allocated for the cache so far
+     */
+    public long getAllocatedBytes() {
+        return arena().getAllocatedBytes();
+    }
+
+    private FragmentArena arena() {
+        FragmentArena current = arena;
+
+        if (current == null) {
+            synchronized (evictionLock) {
+                if (arena == null) {
+                    arena = new FragmentArena(maxBytes);
+                }
+
+                current = arena;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Copies the encoded JSON to the arena, evicting entries until it fits
+     *
+     * @return The block, or null when it does not fit in the whole arena
+     */
+    private FragmentArena.Block allocate(byte[] json) {
+        FragmentArena arena = arena();
+
+        if (FragmentArena.pagesFor(json.length) > arena.getTotalPages()) {
+            return null;
+        }
+
+        synchronized (evictionLock) {
+            FragmentArena.Block block;
+
+            while ((block = arena.write(json)) == null) {
+                if (!evictOne(arena)) {
+                    return null;
+                }
+            }
+
+            return block;
+        }
+    }
+
+    private boolean evictOne(FragmentArena arena) {
+        Entry evicted = clock.evictOne(null, System.nanoTime());
+
+        if (evicted == null) {
+            return false;
+        }
+
+        arena.release(evicted.block);
+        return true;
+    }
+
+    private byte[] encode(Object dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String getEntityKey(Object dto) {
+        return switch (dto) {
+            case AchievementDtoSm sm -> sm.entityKey();
+            case AchievementDtoMd md -> md.entityKey();
+            case AchievementDtoLg lg -> lg.entityKey();
+            case BufferedAchievement buffered -> buffered.getEntityKey();
+            case null, default -> null;
+        };
+    }
+
+    private record FragmentKey(String entityKey, Class<?> dtoType) {
+    }
+
+    private static final class Entry extends ClockEviction.Entry {
+
+        private final FragmentArena.Block block;
+
+        // Hash of the DTO the block was encoded from
+        private final int dtoHash;
+
+        private Entry(FragmentArena.Block block, int dtoHash, long expiresAt) {
+            super(expiresAt);
+            this.block = block;
+            this.dtoHash = dtoHash;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import espresso.achievement.domain.contracts.IAchievementHiddenOwners;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keys of the users that have hidden (not public, active) achievements.
+ * <p>
+ * The latest feed merges the hidden achievements of the requester into every
+ * page; most users have none, so the feed asks this set first and only reads
+ * them for its members. It is seeded when the application is ready and the
+ * command repository adds the owner of every hidden achievement it saves once
+ * its transaction has committed. Achievements can not be made public or
+ * removed afterwards, so members are never taken out. Until seeding has
+ * finished (or if it failed), every user may have hidden achievements.
+ * </p>
+ */
+@Component
+public class AchievementHiddenOwners implements IAchievementHiddenOwners {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementHiddenOwners.class);
+
+    private final Set<String> userKeys = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile boolean seeded;
+
+    @PostConstruct
+    void initialize() {
+        Gauge.builder("achievement.hidden.owners", userKeys, Set::size)
+                .description("Users with hidden achievements")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mayHaveHidden(String userKey) {
+        return !seeded || userKeys.contains(userKey);
+    }
+
+    @Override
+    public void add(String userKey) {
+        if (userKey != null) {
+            userKeys.add(userKey);
+        }
+    }
+
+    /**
+     * Adds the owners of the hidden achievements stored in the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+
+            template.executeWithoutResult(status -> {
+                try (Stream<String> stream = achievementPSQLProvider.streamHiddenAchievementOwners()) {
+                    stream.forEach(this::add);
+                }
+            });
+
+            seeded = true;
+
+            logger.info("Seeded the owners of hidden achievements with {} users", userKeys.size());
+
+        } catch (Exception ex) {
+            logger.warn("Failed to seed the owners of hidden achievements, feeds will read them for every user", ex);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import espresso.achievement.domain.contracts.IAchievementKeyFilter;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import espresso.common.domain.events.DomainEvent;
+import espresso.common.domain.support.EntityKeyFilter;
+
+/**
+ * Bloom filter of the issued achievement keys, see {@link EntityKeyFilter}
+ */
+@Component
+public class AchievementKeyFilter extends EntityKeyFilter implements IAchievementKeyFilter {
+
+    @Autowired
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    public AchievementKeyFilter() {
+        super("achievement");
+    }
+
+    @Override
+    protected Stream<String> streamKeys() {
+        return achievementPSQLProvider.streamEntityKeys();
+    }
+
+    @Override
+    protected long countKeys() {
+        return achievementPSQLProvider.count();
+    }
+
+    @Override
+    protected String getCreatedKey(DomainEvent event) {
+        return event instanceof NewAchievementCreated created ? created.getKey() : null;
+    }
+}
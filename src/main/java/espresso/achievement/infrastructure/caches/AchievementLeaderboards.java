@@ -0,0 +1,427 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import espresso.achievement.domain.contracts.IAchievementLeaderboards;
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.domain.entities.LeaderboardEntry;
+import espresso.achievement.domain.queries.LeaderboardWindow;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import espresso.common.domain.support.OrderStatisticTree;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory leaderboards of every skill: the users ranked by their number of
+ * achievements with the skill, of all time and of the last 30 days.
+ * <p>
+ * Each leaderboard is an {@link OrderStatisticTree} of user ids, so the top
+ * N, the rank of a user and the users around them are read in O(log n) per
+ * entry, and counting a new achievement is one O(log n) score change per
+ * skill. The users of the 30-day leaderboards are also logged per day of
+ * registration (UTC); when a day leaves the window, its achievements are
+ * subtracted again, checked on every read and write.
+ * </p>
+ * <p>
+ * The leaderboards are seeded when the application is ready by streaming
+ * the owner and skill mask of every achievement, counted under the write
+ * lock a batch at a time, and the command repository adds every achievement
+ * it saves once its transaction has committed. The achievements saved while
+ * seeding are held aside and added afterwards, unless the stream already
+ * counted them. Until seeding has finished (or if it failed), the reads
+ * answer null.
+ * </p>
+ */
+@Component
+public class AchievementLeaderboards implements IAchievementLeaderboards {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementLeaderboards.class);
+
+    private static final AchievementSkill[] SKILLS = AchievementSkill.values();
+
+    private static final int WINDOW_DAYS = 30;
+
+    // A day log entry packs the user id above the 7 bits of the skill mask
+    private static final int MASK_BITS = 7;
+
+    // Rows of the seeding stream counted per hold of the write lock
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final OrderStatisticTree[] allTime = new OrderStatisticTree[SKILLS.length];
+
+    private final OrderStatisticTree[] recent = new OrderStatisticTree[SKILLS.length];
+
+    // Epoch day -> packed entries of the achievements registered that day
+    private final TreeMap<Long, DayLog> days = new TreeMap<>();
+
+    // Achievement id -> packed entry of the achievements saved while seeding
+    private final Map<Long, long[]> pending = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AchievementPSQLProvider achievementPSQLProvider;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final Clock clock;
+
+    private final boolean enabled;
+
+    private volatile boolean seeded;
+
+    private volatile long today;
+
+    @Autowired
+    public AchievementLeaderboards(
+            MeterRegistry meterRegistry,
+            AchievementPSQLProvider achievementPSQLProvider,
+            PlatformTransactionManager transactionManager,
+            @Value("${achievement.leaderboard.enabled:true}") boolean enabled) {
+
+        this(meterRegistry, achievementPSQLProvider, transactionManager, enabled, Clock.systemUTC());
+    }
+
+    AchievementLeaderboards(MeterRegistry meterRegistry, AchievementPSQLProvider achievementPSQLProvider,
+            PlatformTransactionManager transactionManager, boolean enabled, Clock clock) {
+
+        this.achievementPSQLProvider = achievementPSQLProvider;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.clock = clock;
+        this.today = currentDay();
+
+        for (int i = 0; i < SKILLS.length; i++) {
+            allTime[i] = new OrderStatisticTree();
+            recent[i] = new OrderStatisticTree();
+        }
+
+        Gauge.builder("achievement.leaderboard.bytes", this, AchievementLeaderboards::getSizeInBytes)
+                .description("Memory held by the skill leaderboards")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getTop(AchievementSkill skill, LeaderboardWindow window, int limit) {
+        if (!enabled || !seeded) {
+            return null;
+        }
+
+        expireIfNewDay();
+
+        lock.readLock().lock();
+
+        try {
+            return read(board(skill, window), 1, limit);
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LeaderboardEntry> getAround(AchievementSkill skill, LeaderboardWindow window, long userId,
+            int radius) {
+        if (!enabled || !seeded) {
+            return null;
+        }
+
+        expireIfNewDay();
+
+        lock.readLock().lock();
+
+        try {
+            OrderStatisticTree board = board(skill, window);
+            int rank = board.rank(userId);
+
+            if (rank == 0) {
+                return List.of();
+            }
+
+            int from = Math.max(rank - radius, 1);
+
+            return read(board, from, rank + radius - from + 1);
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return enabled && seeded;
+    }
+
+    @Override
+    public int getRankedUsers(AchievementSkill skill, LeaderboardWindow window) {
+        if (!enabled || !seeded) {
+            return 0;
+        }
+
+        expireIfNewDay();
+
+        lock.readLock().lock();
+
+        try {
+            return board(skill, window).size();
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(Long id, Long userId, short skillMask, OffsetDateTime registeredAt) {
+        if (!enabled || id == null || userId == null || skillMask == 0) {
+            return;
+        }
+
+        expireIfNewDay();
+
+        lock.writeLock().lock();
+
+        try {
+            if (!seeded) {
+                // Counted when seeding ends, unless the stream counts it first
+                pending.put(id, new long[] { pack(userId, skillMask), toEpochDay(registeredAt) });
+                return;
+            }
+
+            count(userId, skillMask, toEpochDay(registeredAt));
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts every achievement stored in the database in the leaderboards
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+
+            // The reads answer null and add() only fills pending until seeded is set; the rows are still
+            // counted under the write lock, so the size gauge never walks a day log that is being changed
+            long count = template.execute(status -> {
+                long achievements = 0;
+                List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+
+                try (Stream<Object[]> stream = achievementPSQLProvider.streamUserSkillMasks()) {
+                    for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                        batch.add(row);
+
+                        if (batch.size() == SEED_BATCH_SIZE) {
+                            achievements += countSeeded(batch);
+                            batch.clear();
+                        }
+                    }
+                }
+
+                return achievements + countSeeded(batch);
+            });
+
+            lock.writeLock().lock();
+
+            try {
+                for (long[] entry : pending.values()) {
+                    count(entry[0] >>> MASK_BITS, (short) (entry[0] & ((1 << MASK_BITS) - 1)), entry[1]);
+                }
+
+                count += pending.size();
+                pending.clear();
+                seeded = true;
+
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            logger.info("Seeded the skill leaderboards with {} achievements, {} bytes", count, getSizeInBytes());
+
+        } catch (Exception ex) {
+            logger.warn("Failed to seed the skill leaderboards, leaderboard queries are unavailable", ex);
+        }
+    }
+
+    /**
+     * @return The number of bytes held by the leaderboards and the day logs
+     */
+    public long getSizeInBytes() {
+        lock.readLock().lock();
+
+        try {
+            long bytes = 0;
+
+            for (int i = 0; i < SKILLS.length; i++) {
+                bytes += allTime[i].sizeInBytes() + recent[i].sizeInBytes();
+            }
+
+            for (DayLog log : days.values()) {
+                bytes += (long) log.entries.length * Long.BYTES;
+            }
+
+            return bytes;
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts a batch of streamed rows, except the achievements held aside by add()
+     *
+     * @return The number of counted achievements
+     */
+    private long countSeeded(List<Object[]> rows) {
+        long counted = 0;
+
+        lock.writeLock().lock();
+
+        try {
+            for (Object[] row : rows) {
+                if (pending.containsKey((Long) row[0])) {
+                    continue;
+                }
+
+                count((Long) row[1], (Short) row[2], toEpochDay((OffsetDateTime) row[3]));
+                counted++;
+            }
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return counted;
+    }
+
+    /**
+     * Counts an achievement in the leaderboards of its skills; callers hold the write lock
+     */
+    private void count(long userId, short skillMask, long epochDay) {
+        boolean inWindow = epochDay > today - WINDOW_DAYS;
+
+        for (AchievementSkill skill : SKILLS) {
+            if ((skillMask & skill.getMask()) != 0) {
+                allTime[skill.ordinal()].increment(userId, 1);
+
+                if (inWindow) {
+                    recent[skill.ordinal()].increment(userId, 1);
+                }
+            }
+        }
+
+        if (inWindow) {
+            days.computeIfAbsent(epochDay, day -> new DayLog()).add(pack(userId, skillMask));
+        }
+    }
+
+    /**
+     * Subtracts the days that left the window from the 30-day leaderboards, once per day
+     */
+    private void expireIfNewDay() {
+        long day = currentDay();
+
+        // Seeding counts with the day it started on; the days it logged expire on the first call after it
+        if (day == today || !seeded) {
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            today = day;
+
+            Iterator<Map.Entry<Long, DayLog>> expired = days.headMap(day - WINDOW_DAYS, true).entrySet().iterator();
+
+            while (expired.hasNext()) {
+                DayLog log = expired.next().getValue();
+
+                for (int i = 0; i < log.size; i++) {
+                    long userId = log.entries[i] >>> MASK_BITS;
+
+                    for (AchievementSkill skill : SKILLS) {
+                        if ((log.entries[i] & skill.getMask()) != 0) {
+                            recent[skill.ordinal()].increment(userId, -1);
+                        }
+                    }
+                }
+
+                expired.remove();
+            }
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private OrderStatisticTree board(AchievementSkill skill, LeaderboardWindow window) {
+        return window == LeaderboardWindow.last30days ? recent[skill.ordinal()] : allTime[skill.ordinal()];
+    }
+
+    private static List<LeaderboardEntry> read(OrderStatisticTree board, int fromRank, int count) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(count, board.size()));
+
+        board.range(fromRank, count, (rank, userId, score) -> entries.add(new LeaderboardEntry(rank, userId, score)));
+
+        return entries;
+    }
+
+    private long currentDay() {
+        return LocalDate.now(clock.withZone(ZoneOffset.UTC)).toEpochDay();
+    }
+
+    // Achievements without a date only count for all time
+    private static long toEpochDay(OffsetDateTime registeredAt) {
+        return registeredAt != null ? registeredAt.atZoneSameInstant(ZoneOffset.UTC).toLocalDate().toEpochDay()
+                : Long.MIN_VALUE;
+    }
+
+    private static long pack(long userId, short skillMask) {
+        return (userId << MASK_BITS) | skillMask;
+    }
+
+    /**
+     * The packed entries of the achievements registered in one day
+     */
+    private static final class DayLog {
+
+        private long[] entries = new long[16];
+
+        private int size;
+
+        private void add(long entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+
+            entries[size++] = entry;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import espresso.achievement.domain.contracts.IAchievementSkillIndex;
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import espresso.common.domain.support.CompressedBitSet;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory index of the public achievements of every skill, used to answer
+ * skill filtered feeds without scanning the achievements table.
+ * <p>
+ * Achievement ids are used as ordinals: each skill owns a
+ * {@link CompressedBitSet} of the ids of the achievements with that skill, so
+ * "achievements with str and dex" is the AND (or the OR for any) of two
+ * bitsets, computed one chunk of 65536 ids at a time from the newest chunk
+ * down. Ids are issued in registration order, so the ids registered after a
+ * date are a suffix of the id range; the first id of every minute is kept to
+ * find it.
+ * </p>
+ * <p>
+ * The index is seeded when the application is ready by streaming the skill
+ * masks of the public achievements, and the command repository adds every
+ * public achievement it saves once its transaction has committed. Until
+ * seeding has finished (or if it failed), {@link #findIds} answers null and
+ * the queries go to the database.
+ * </p>
+ */
+@Component
+public class AchievementSkillIndex implements IAchievementSkillIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementSkillIndex.class);
+
+    private static final AchievementSkill[] SKILLS = AchievementSkill.values();
+
+    private final CompressedBitSet[] bitSets = new CompressedBitSet[SKILLS.length];
+
+    // First id registered in every minute (epoch minute -> id)
+    private final TreeMap<Long, Long> firstIdByMinute = new TreeMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${achievement.skill.index.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean seeded;
+
+    // Set when an id does not fit an ordinal; the index then stops serving queries
+    private volatile boolean overflowed;
+
+    public AchievementSkillIndex() {
+        for (int i = 0; i < bitSets.length; i++) {
+            bitSets[i] = new CompressedBitSet();
+        }
+    }
+
+    @PostConstruct
+    void initialize() {
+        Gauge.builder("achievement.skill.index.bytes", this, AchievementSkillIndex::getSizeInBytes)
+                .description("Memory held by the bitsets of the achievement skill index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Long> findIds(short skillMask, boolean matchAll, OffsetDateTime fromDate, Long beforeId,
+            int limit) {
+        if (!enabled || !seeded || overflowed || skillMask == 0) {
+            return null;
+        }
+
+        List<Long> ids = new ArrayList<>(limit);
+
+        if (limit <= 0 || (beforeId != null && beforeId <= 0)) {
+            return ids;
+        }
+
+        long upper = beforeId == null ? Integer.MAX_VALUE : Math.min(beforeId - 1, Integer.MAX_VALUE);
+
+        lock.readLock().lock();
+
+        try {
+            long lower = fromDate == null ? 0 : getFirstIdFrom(fromDate);
+
+            List<CompressedBitSet> selected = new ArrayList<>();
+
+            for (AchievementSkill skill : SKILLS) {
+                if ((skillMask & skill.getMask()) != 0) {
+                    selected.add(bitSets[skill.ordinal()]);
+                }
+            }
+
+            long[] words = new long[CompressedBitSet.WORDS_PER_CHUNK];
+            long[] other = new long[CompressedBitSet.WORDS_PER_CHUNK];
+
+            int chunk = nextChunk(selected, (int) (upper >>> CompressedBitSet.CHUNK_SHIFT));
+
+            while (chunk >= 0 && chunk >= (lower >>> CompressedBitSet.CHUNK_SHIFT)) {
+                combine(selected, chunk, matchAll, words, other);
+
+                // Newest first: highest word and highest bit first
+                for (int w = CompressedBitSet.WORDS_PER_CHUNK - 1; w >= 0; w--) {
+                    long word = words[w];
+
+                    while (word != 0) {
+                        int bit = 63 - Long.numberOfLeadingZeros(word);
+                        long id = ((long) chunk << CompressedBitSet.CHUNK_SHIFT) | ((long) w << 6) | bit;
+                        word &= ~(1L << bit);
+
+                        if (id > upper) {
+                            continue;
+                        }
+
+                        if (id < lower) {
+                            return ids;
+                        }
+
+                        ids.add(id);
+
+                        if (ids.size() == limit) {
+                            return ids;
+                        }
+                    }
+                }
+
+                chunk = nextChunk(selected, chunk - 1);
+            }
+
+            return ids;
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(Long id, short skillMask, OffsetDateTime registeredAt) {
+        if (id == null) {
+            return;
+        }
+
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            overflowed = true;
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            for (AchievementSkill skill : SKILLS) {
+                if ((skillMask & skill.getMask()) != 0) {
+                    bitSets[skill.ordinal()].add(id.intValue());
+                }
+            }
+
+            if (registeredAt != null) {
+                firstIdByMinute.merge(toEpochMinute(registeredAt), id, Math::min);
+            }
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the skills of every public achievement stored in the database to the index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+
+            long count = template.execute(status -> {
+                long achievements = 0;
+
+                try (Stream<Object[]> stream = achievementPSQLProvider.streamPublicSkillMasks()) {
+                    for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                        add((Long) row[0], (Short) row[1], (OffsetDateTime) row[2]);
+                        achievements++;
+                    }
+                }
+
+                return achievements;
+            });
+
+            seeded = true;
+
+            logger.info("Seeded the achievement skill index with {} achievements, {} bytes", count,
+                    getSizeInBytes());
+
+        } catch (Exception ex) {
+            logger.warn("Failed to seed the achievement skill index, skill queries will use the database", ex);
+        }
+    }
+
+    /**
+     * @return The number of bytes held by the bitsets
+     */
+    public long getSizeInBytes() {
+        lock.readLock().lock();
+
+        try {
+            long bytes = 0;
+
+            for (CompressedBitSet bitSet : bitSets) {
+                bytes += bitSet.sizeInBytes();
+            }
+
+            return bytes;
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the AND (all) or OR (any) of the chunk of every selected bitset to words
+     */
+    private static void combine(List<CompressedBitSet> selected, int chunk, boolean matchAll, long[] words,
+            long[] other) {
+        selected.get(0).readChunk(chunk, words);
+
+        for (int i = 1; i < selected.size(); i++) {
+            selected.get(i).readChunk(chunk, other);
+
+            for (int w = 0; w < words.length; w++) {
+                words[w] = matchAll ? words[w] & other[w] : words[w] | other[w];
+            }
+        }
+    }
+
+    /**
+     * @return The greatest chunk lower than or equal to the given one that any selected bitset has, or -1
+     */
+    private static int nextChunk(List<CompressedBitSet> selected, int chunk) {
+        int next = -1;
+
+        for (CompressedBitSet bitSet : selected) {
+            next = Math.max(next, bitSet.floorChunk(chunk));
+        }
+
+        return next;
+    }
+
+    private long getFirstIdFrom(OffsetDateTime fromDate) {
+        Map.Entry<Long, Long> entry = firstIdByMinute.ceilingEntry(toEpochMinute(fromDate));
+
+        // Nothing was registered since fromDate
+        return entry != null ? entry.getValue() : Long.MAX_VALUE;
+    }
+
+    private static long toEpochMinute(OffsetDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(), 60);
+    }
+}
@@ -0,0 +1,29 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.time.OffsetDateTime;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import espresso.common.domain.queries.KeysetItem;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Detached, already materialized projection of an achievement held by the
+ * {@link AchievementFeedBuffer}. It serializes exactly like the projection it
+ * was built from, but no longer depends on an open persistence context.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class BufferedAchievement implements KeysetItem {
+
+    private final Long id;
+    private final OffsetDateTime registeredAt;
+    private final String entityKey;
+
+    @JsonValue
+    private final JsonNode content;
+}
@@ -0,0 +1,86 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CLOCK eviction over the entries of a concurrent map, shared by the
+ * {@link AchievementDetailCache} and the {@link AchievementFragmentCache}.
+ * <p>
+ * The hand walks the map and evicts the first entry that was not read since
+ * it last passed, clearing the flag of the ones that were, which gives them
+ * a second chance. Expired entries are evicted whether they were read or
+ * not. The hand is not thread-safe; callers hold their eviction lock.
+ * </p>
+ */
+final class ClockEviction<K, E extends ClockEviction.Entry> {
+
+    private final ConcurrentHashMap<K, E> entries;
+
+    private Iterator<Map.Entry<K, E>> hand;
+
+    ClockEviction(ConcurrentHashMap<K, E> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Removes the next entry the hand finds
+     *
+     * @param pinned A key that is never evicted, or null
+     * @param now The current {@link System#nanoTime()}
+     * @return The removed entry, or null when there is none to evict
+     */
+    E evictOne(K pinned, long now) {
+        // Two sweeps clear every flag once, so an entry is found unless only the pinned one is left
+        for (int scanned = 0, limit = 2 * entries.size() + 1; scanned <= limit; scanned++) {
+            if (hand == null || !hand.hasNext()) {
+                hand = entries.entrySet().iterator();
+
+                if (!hand.hasNext()) {
+                    return null;
+                }
+            }
+
+            Map.Entry<K, E> candidate = hand.next();
+            E entry = candidate.getValue();
+
+            if (candidate.getKey().equals(pinned) || (entry.referenced && !entry.isExpired(now))) {
+                entry.referenced = false;
+                continue;
+            }
+
+            if (entries.remove(candidate.getKey(), entry)) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * An entry with a TTL and the flag read by the hand
+     */
+    abstract static class Entry {
+
+        private final long expiresAt;
+
+        // Set on reads, cleared by the hand of the clock
+        volatile boolean referenced;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+
+        void touch() {
+            // Only written when it changes, so hot entries do not keep invalidating the cache line
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
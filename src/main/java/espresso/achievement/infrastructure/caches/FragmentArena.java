@@ -0,0 +1,194 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * Off-heap memory of the {@link AchievementFragmentCache}: direct slabs cut
+ * into fixed-size pages that are reused explicitly.
+ * <p>
+ * The slabs are allocated the first time their pages are needed, up to the
+ * byte budget, and are never released, so the native memory of the cache is
+ * allocated once instead of once per fragment and freed whenever the GC runs
+ * the Cleaner of each buffer. A fragment takes whole pages, not necessarily
+ * next to each other, so any freed page fits any other fragment and the
+ * arena never has to be compacted.
+ * </p>
+ * <p>
+ * A released block can still be read by a response that got it just before,
+ * while its pages already hold another fragment. Readers copy the pages
+ * first and check that the block was not released after, like the optimistic
+ * read of a sequence lock, and fall back to encoding the value again when it
+ * was. Blocks are written and released under the lock of the arena; reads do
+ * not lock.
+ * </p>
+ */
+final class FragmentArena {
+
+    static final int PAGE_SIZE = 256;
+
+    private static final int SLAB_SIZE = 1 << 20;
+
+    private static final int PAGES_PER_SLAB = SLAB_SIZE / PAGE_SIZE;
+
+    private final ByteBuffer[] slabs;
+
+    private final int totalPages;
+
+    // Stack of the free pages of the allocated slabs; guarded by this
+    private final int[] freePages;
+
+    private int freeCount;
+
+    private int allocatedSlabs;
+
+    private long usedBytes;
+
+    /**
+     * @param maxBytes The byte budget of the slabs, rounded down to whole pages
+     */
+    FragmentArena(long maxBytes) {
+        this.totalPages = (int) Math.min(Math.max(1, maxBytes / PAGE_SIZE), Integer.MAX_VALUE / 2);
+        this.slabs = new ByteBuffer[(totalPages + PAGES_PER_SLAB - 1) / PAGES_PER_SLAB];
+        this.freePages = new int[totalPages];
+    }
+
+    /**
+     * @return The number of pages a value of the given length takes
+     */
+    static int pagesFor(int length) {
+        return Math.max(1, (length + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    int getTotalPages() {
+        return totalPages;
+    }
+
+    /**
+     * @return The number of bytes of the live blocks
+     */
+    synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return The number of native bytes of the slabs allocated so far
+     */
+    synchronized long getAllocatedBytes() {
+        long bytes = 0;
+
+        for (int i = 0; i < allocatedSlabs; i++) {
+            bytes += slabs[i].capacity();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Copies the bytes to free pages
+     *
+     * @return The block, or null when there are not enough free pages
+     */
+    synchronized Block write(byte[] bytes) {
+        int needed = pagesFor(bytes.length);
+
+        while (freeCount < needed && allocatedSlabs < slabs.length) {
+            allocateSlab();
+        }
+
+        if (freeCount < needed) {
+            return null;
+        }
+
+        int[] pages = new int[needed];
+
+        for (int i = 0; i < needed; i++) {
+            int page = freePages[--freeCount];
+            int from = i * PAGE_SIZE;
+
+            slabOf(page).put(offsetOf(page), bytes, from, Math.min(PAGE_SIZE, bytes.length - from));
+            pages[i] = page;
+        }
+
+        usedBytes += bytes.length;
+
+        return new Block(pages, bytes.length);
+    }
+
+    /**
+     * Returns the pages of a block to the free pages; releasing it again does nothing
+     */
+    synchronized void release(Block block) {
+        if (block.released) {
+            return;
+        }
+
+        // Set before the pages can be written again, so that a reader copying them sees it
+        block.released = true;
+
+        for (int page : block.pages) {
+            freePages[freeCount++] = page;
+        }
+
+        usedBytes -= block.length;
+    }
+
+    private void allocateSlab() {
+        int firstPage = allocatedSlabs * PAGES_PER_SLAB;
+        int pages = Math.min(PAGES_PER_SLAB, totalPages - firstPage);
+
+        slabs[allocatedSlabs++] = ByteBuffer.allocateDirect(pages * PAGE_SIZE);
+
+        // Pushed last page first, so the lowest pages are handed out first
+        for (int page = firstPage + pages - 1; page >= firstPage; page--) {
+            freePages[freeCount++] = page;
+        }
+    }
+
+    private ByteBuffer slabOf(int page) {
+        return slabs[page / PAGES_PER_SLAB];
+    }
+
+    private static int offsetOf(int page) {
+        return (page % PAGES_PER_SLAB) * PAGE_SIZE;
+    }
+
+    /**
+     * The pages of one encoded value
+     */
+    final class Block {
+
+        private final int[] pages;
+
+        private final int length;
+
+        private volatile boolean released;
+
+        private Block(int[] pages, int length) {
+            this.pages = pages;
+            this.length = length;
+        }
+
+        int length() {
+            return length;
+        }
+
+        /**
+         * Copies the bytes of the block
+         *
+         * @return false when the block was released, the copied bytes are then not valid
+         */
+        boolean copyTo(byte[] target, int offset) {
+            for (int i = 0; i < pages.length; i++) {
+                int from = i * PAGE_SIZE;
+
+                slabOf(pages[i]).get(offsetOf(pages[i]), target, offset + from, Math.min(PAGE_SIZE, length - from));
+            }
+
+            // The copied bytes are read before the flag, as in StampedLock.validate
+            VarHandle.acquireFence();
+
+            return !released;
+        }
+    }
+}
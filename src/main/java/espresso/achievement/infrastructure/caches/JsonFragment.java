@@ -0,0 +1,163 @@
+package espresso.achievement.infrastructure.caches;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * A JSON value that was already encoded as UTF-8 and is held off-heap in the
+ * pages of a {@link FragmentArena}.
+ * <p>
+ * When it is part of a response, Jackson copies the bytes straight into its
+ * output buffer as a raw value, so the envelope around it is serialized as
+ * usual while the fragment itself is never serialized again. If the pages were
+ * given to another fragment while they were being copied, the value is
+ * encoded again instead.
+ * </p>
+ */
+public final class JsonFragment implements JsonSerializable, SerializableString {
+
+    private final FragmentArena.Block block;
+
+    private final Supplier<byte[]> fallback;
+
+    /**
+     * @param fallback Encodes the value again, when the block was released before it was read
+     */
+    JsonFragment(FragmentArena.Block block, Supplier<byte[]> fallback) {
+        this.block = block;
+        this.fallback = fallback;
+    }
+
+    FragmentArena.Block block() {
+        return block;
+    }
+
+    /**
+     * @return The number of off-heap bytes held by the fragment
+     */
+    int size() {
+        return block.length();
+    }
+
+    // #region JsonSerializable
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(this);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    // #endregion JsonSerializable
+
+    // #region SerializableString (only the unquoted forms are meaningful for a raw value)
+
+    @Override
+    public String getValue() {
+        return new String(asUnquotedUTF8(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        byte[] copy = new byte[block.length()];
+        return block.copyTo(copy, 0) ? copy : fallback.get();
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        int length = block.length();
+
+        if (offset + length > buffer.length) {
+            return -1;
+        }
+
+        // When released, Jackson falls back to asUnquotedUTF8, which encodes the value again
+        return block.copyTo(buffer, offset) ? length : -1;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String value = getValue();
+
+        if (offset + value.length() > buffer.length) {
+            return -1;
+        }
+
+        value.getChars(0, value.length(), buffer, offset);
+        return value.length();
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        byte[] copy = asUnquotedUTF8();
+        out.write(copy);
+        return copy.length;
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+        byte[] copy = asUnquotedUTF8();
+
+        if (copy.length > buffer.remaining()) {
+            return -1;
+        }
+
+        buffer.put(copy);
+        return copy.length;
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        throw new UnsupportedOperationException("A JSON fragment can only be written as a raw value");
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        throw new UnsupportedOperationException("A JSON fragment can only be written as a raw value");
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        throw new UnsupportedOperationException("A JSON fragment can only be written as a raw value");
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        throw new UnsupportedOperationException("A JSON fragment can only be written as a raw value");
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        throw new UnsupportedOperationException("A JSON fragment can only be written as a raw value");
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+        throw new UnsupportedOperationException("A JSON fragment can only be written as a raw value");
+    }
+
+    // #endregion SerializableString
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
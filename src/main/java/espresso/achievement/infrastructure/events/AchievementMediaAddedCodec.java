@@ -0,0 +1,43 @@
+package espresso.achievement.infrastructure.events;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.AchievementMediaAdded;
+import espresso.common.infrastructure.events.DomainEventCodec;
+
+/**
+ * Event log encoding of {@link AchievementMediaAdded}, type id 3
+ */
+@Component
+public class AchievementMediaAddedCodec extends DomainEventCodec<AchievementMediaAdded> {
+
+    public AchievementMediaAddedCodec() {
+        super(3, AchievementMediaAdded.class);
+    }
+
+    @Override
+    protected void write(AchievementMediaAdded event, DataOutputStream out) throws IOException {
+        writeString(out, event.getAchievementKey());
+        writeString(out, event.getUserKey());
+        writeString(out, event.getVisibility() != null ? event.getVisibility().name() : null);
+        writeStrings(out, event.getMediaKeys());
+    }
+
+    @Override
+    protected AchievementMediaAdded read(DataInputStream in) throws IOException {
+        String achievementKey = readString(in);
+        String userKey = readString(in);
+        String visibility = readString(in);
+
+        return new AchievementMediaAdded(
+                achievementKey,
+                userKey,
+                visibility != null ? AchievementVisibilityStatus.valueOf(visibility) : null,
+                readStrings(in));
+    }
+}
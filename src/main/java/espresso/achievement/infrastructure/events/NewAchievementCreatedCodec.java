@@ -0,0 +1,53 @@
+package espresso.achievement.infrastructure.events;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Date;
+
+import org.springframework.stereotype.Component;
+
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.common.infrastructure.events.DomainEventCodec;
+
+/**
+ * Event log encoding of {@link NewAchievementCreated}, type id 1
+ */
+@Component
+public class NewAchievementCreatedCodec extends DomainEventCodec<NewAchievementCreated> {
+
+    public NewAchievementCreatedCodec() {
+        super(1, NewAchievementCreated.class);
+    }
+
+    @Override
+    protected void write(NewAchievementCreated event, DataOutputStream out) throws IOException {
+        writeString(out, event.getKey());
+        writeString(out, event.getUserKey());
+        out.writeLong(event.getCompletedDate() != null ? event.getCompletedDate().getTime() : Long.MIN_VALUE);
+        writeStrings(out, event.getSkillKeys());
+        writeStrings(out, event.getMediaKeys());
+        writeString(out, event.getVisibility() != null ? event.getVisibility().name() : null);
+    }
+
+    @Override
+    protected NewAchievementCreated read(DataInputStream in) throws IOException {
+        String key = readString(in);
+        String userKey = readString(in);
+        long completedDate = in.readLong();
+        String[] skillKeys = readStrings(in);
+        String[] mediaKeys = readStrings(in);
+
+        // Appended field, missing from the first payloads
+        String visibility = in.available() > 0 ? readString(in) : null;
+
+        return new NewAchievementCreated(
+                key,
+                userKey,
+                completedDate != Long.MIN_VALUE ? new Date(completedDate) : null,
+                skillKeys,
+                mediaKeys,
+                visibility != null ? AchievementVisibilityStatus.valueOf(visibility) : null);
+    }
+}
@@ -1,30 +0,0 @@
-package espresso.achievement.infrastructure.helpers;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
-import jakarta.persistence.AttributeConverter;
-import jakarta.persistence.Converter;
-
-@Converter
-public class StringArrayConverter implements AttributeConverter<List<String>, String> {
-
-    private static final String DELIMITER = ",";
-
-    @Override
-    public String convertToDatabaseColumn(List<String> attribute) {
-        if (attribute == null || attribute.size() == 0) {
-            return null;
-        }
-        return String.join(DELIMITER, attribute);
-    }
-
-    @Override
-    public List<String> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isEmpty()) {
-            return new ArrayList<String>();
-        }
-        return Arrays.asList(dbData.split(DELIMITER));
-    }
-}
@@ -0,0 +1,197 @@
+package espresso.achievement.infrastructure.migrations;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import espresso.achievement.domain.entities.AchievementSkill;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * PostgreSQL schema changes of the achievement tables that the JPA mapping
+ * and {@code ddl-auto=update} can not express: column type changes of
+ * existing columns and non B-tree indexes.
+ * <p>
+ * Every step is idempotent and runs during startup, before the web server
+ * accepts requests and before the ready listeners seed from the tables. The
+ * column type change runs before the entity manager factory is built, since
+ * the mapping already expects the new type; the other steps need the columns
+ * and tables that {@code ddl-auto=update} adds, so they run once every
+ * singleton, including the entity manager factory, is created. A step that
+ * fails stops the startup. Other databases (the H2 tests) get their schema
+ * from the mapping alone and are skipped.
+ * </p>
+ * <p>
+ * Steps:
+ * <ul>
+ * <li>Skills: the legacy semicolon separated varchar column is converted in
+ * place to a varchar[] array, splitting every existing row, and indexed with
+ * GIN for the any/all skill filters.</li>
+ * <li>Skill mask: the skillMask column added by the mapping is filled from
+ * the skills array of the rows that predate it.</li>
+ * <li>Search: a stored generated tsvector over the title (weight A) and the
+ * description (weight B), filled for every existing row when it is added,
+ * and indexed with GIN for the full-text search.</li>
+ * <li>Public feed: a partial index on (registeredAt DESC, id DESC) of the
+ * public, active rows only, which the latest feed reads.</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class AchievementSchemaMigration implements InitializingBean, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementSchemaMigration.class);
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    // Unquoted identifiers are folded to lower case by PostgreSQL
+    private static final String COLUMN_TYPE = "SELECT data_type FROM information_schema.columns "
+            + "WHERE table_name = 'achievements' AND column_name = ?";
+
+    private static final String CONVERT_SKILLS_TO_ARRAY = "ALTER TABLE Achievements ALTER COLUMN skills "
+            + "TYPE varchar(255)[] USING CASE WHEN skills IS NULL OR skills = '' THEN '{}'::varchar(255)[] "
+            + "ELSE string_to_array(skills, ';')::varchar(255)[] END";
+
+    private static final String CREATE_SKILLS_INDEX = "CREATE INDEX IF NOT EXISTS idx_achievement_skills_gin "
+            + "ON Achievements USING GIN (skills)";
+
+    // Rows with skills always have a non-zero mask, so only rows that predate the column match
+    private static final String BACKFILL_SKILL_MASKS = "UPDATE Achievements SET skillMask = "
+            + "(SELECT COALESCE(bit_or(" + skillBitCase() + "), 0)::smallint FROM unnest(skills) AS s) "
+            + "WHERE skillMask = 0 AND cardinality(skills) > 0";
+
+    private static final String ADD_SEARCH_VECTOR = "ALTER TABLE Achievements ADD COLUMN IF NOT EXISTS searchVector "
+            + "tsvector GENERATED ALWAYS AS ("
+            + "setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+            + "setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED";
+
+    private static final String CREATE_SEARCH_INDEX = "CREATE INDEX IF NOT EXISTS idx_achievement_search_gin "
+            + "ON Achievements USING GIN (searchVector)";
+
+    // The predicate must match the one of the latest feed queries for the planner to use the index
+    private static final String CREATE_PUBLIC_FEED_INDEX = "CREATE INDEX IF NOT EXISTS "
+            + "idx_achievement_public_registered_at_id_desc ON Achievements (registeredAt DESC, id DESC) "
+            + "WHERE achievementVisibility = 'EVERYONE' AND active = true";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Resolved only after the column changes, since the factory itself waits for them
+    @Autowired
+    private ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @Value("${achievement.schema.migration.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Converts the columns whose type the mapping already expects, before the
+     * entity manager factory is built
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled || !isPostgreSQL()) {
+            return;
+        }
+
+        try {
+            migrateSkillsToArray();
+
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to migrate the achievement schema", ex);
+        }
+    }
+
+    /**
+     * Fills the new columns and builds the indexes, once the tables and
+     * columns of the mapping exist
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled || !isPostgreSQL()) {
+            return;
+        }
+
+        // With lazy initialization the factory, and the ddl-auto update it runs, may not be created yet
+        entityManagerFactory.getObject();
+
+        try {
+            jdbcTemplate.execute(CREATE_SKILLS_INDEX);
+            backfillSkillMasks();
+            addSearchVector();
+            jdbcTemplate.execute(CREATE_PUBLIC_FEED_INDEX);
+
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to migrate the achievement schema", ex);
+        }
+    }
+
+    /**
+     * Converts the legacy skills column in place; a new table is created with the array type by the mapping
+     */
+    private void migrateSkillsToArray() {
+        if ("character varying".equals(getColumnType("skills"))) {
+            int rows = jdbcTemplate.queryForObject("SELECT count(*) FROM Achievements", Integer.class);
+
+            jdbcTemplate.execute(CONVERT_SKILLS_TO_ARRAY);
+
+            logger.info("Converted the skills of {} achievements to arrays", rows);
+        }
+    }
+
+    private void backfillSkillMasks() {
+        int rows = jdbcTemplate.update(BACKFILL_SKILL_MASKS);
+
+        if (rows > 0) {
+            logger.info("Filled the skill mask of {} achievements", rows);
+        }
+    }
+
+    private void addSearchVector() {
+        jdbcTemplate.execute(ADD_SEARCH_VECTOR);
+        jdbcTemplate.execute(CREATE_SEARCH_INDEX);
+    }
+
+    /**
+     * @return A CASE expression giving the bit of the skill abbreviation s
+     */
+    private static String skillBitCase() {
+        StringBuilder sql = new StringBuilder("CASE lower(s)");
+
+        for (AchievementSkill skill : AchievementSkill.values()) {
+            sql.append(" WHEN '").append(skill.getAbbreviation()).append("' THEN ").append(skill.getMask());
+        }
+
+        return sql.append(" ELSE 0 END").toString();
+    }
+
+    private String getColumnType(String column) {
+        return jdbcTemplate.query(COLUMN_TYPE, rs -> rs.next() ? rs.getString(1) : null, column);
+    }
+
+    private boolean isPostgreSQL() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+
+        return POSTGRESQL.equals(product);
+    }
+
+    /**
+     * Makes the entity manager factory depend on the migration, so the column
+     * type changes run before Hibernate reads the schema
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnMigration extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnMigration() {
+            super(AchievementSchemaMigration.class);
+        }
+    }
+}
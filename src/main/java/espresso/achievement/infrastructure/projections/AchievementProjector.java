@@ -0,0 +1,444 @@
+package espresso.achievement.infrastructure.projections;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import espresso.achievement.domain.contracts.IAchievementProjector;
+import espresso.achievement.domain.entities.AchievementProjection;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.readModels.ProjectionRebuildReadModel;
+import espresso.achievement.infrastructure.repositories.AchievementReadModelPSQLProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Writes the {@link AchievementProjection} rows from the write tables.
+ * <p>
+ * Only the summary read model is projected, with the user profile and skill
+ * summaries it nests. The detail read model carries a list of media, which
+ * one row can not hold, so the detail, the feeds of DTOs and the user
+ * queries still join the write tables; the detail cache and the fragment
+ * cache keep those joins off the hot path.
+ * </p>
+ * <p>
+ * A row is always projected from the current state of the achievement, its
+ * user and its media, never patched from the content of an event, so
+ * projecting the same achievement twice or out of order gives the same row.
+ * The event handler calls {@link #project(Collection)} for the achievements
+ * a batch of events is about; {@link #rebuild(Integer, Integer)} replays the whole table in
+ * id-range chunks, each one replacing its rows in its own transaction, with
+ * a fixed number of chunks in flight.
+ * </p>
+ * <p>
+ * When the application is ready, the rows are rebuilt if their count does
+ * not match the achievements. Until then, or after a rebuild failed,
+ * {@link #isReady()} is false and the queries read the write tables.
+ * </p>
+ * <p>
+ * Events can be late or lost, so every catch-up interval the achievements
+ * that failed to project are projected again and the achievements above the
+ * {@link #getWatermark() watermark} without a row are projected. The
+ * watermark then moves to the highest id seen by the previous catch-up, so
+ * every id range is checked twice before the queries stop reading it from
+ * the write tables; a create still uncommitted after a whole interval is the
+ * only one that can be missed.
+ * </p>
+ * <p>
+ * Projections and rebuilds hold one lock, since a chunk of a rebuild would
+ * overwrite a row projected after the chunk was read. A batch that arrives
+ * while the lock is held is projected by the next catch-up instead of
+ * waiting for the rebuild.
+ * </p>
+ */
+@Component
+public class AchievementProjector implements IAchievementProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementProjector.class);
+
+    private static final String ACHIEVEMENT_SELECT = "SELECT a.id, a.registeredAt, a.entityKey, a.title, "
+            + "a.description, a.completedDate, a.skills, a.achievementVisibility, a.active, "
+            + "u.entityKey, u.username, u.email, u.firstName, u.lastName "
+            + "FROM Achievement a LEFT JOIN a.user u";
+
+    private static final String MEDIA_SELECT = "SELECT m.achievement.id, m.imageKey, m.mediaUrl "
+            + "FROM AchievementMedia m";
+
+    private static final String UNPROJECTED_SELECT = "SELECT a.entityKey FROM Achievement a "
+            + "WHERE a.id > :fromId AND a.id <= :toId "
+            + "AND NOT EXISTS (SELECT p.id FROM AchievementProjection p WHERE p.id = a.id) ORDER BY a.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AchievementReadModelPSQLProvider readModelPSQLProvider;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${achievement.projection.enabled:true}")
+    private boolean enabled;
+
+    @Value("${achievement.projection.rebuild.chunk-size:5000}")
+    private int defaultChunkSize;
+
+    @Value("${achievement.projection.rebuild.parallelism:4}")
+    private int defaultParallelism;
+
+    @Value("${achievement.projection.catch-up-interval:5s}")
+    private Duration catchUpInterval;
+
+    private volatile boolean ready;
+
+    // Every achievement with an id up to the watermark has its row
+    private volatile long watermark;
+
+    // Highest achievement id seen by the previous catch-up; guarded by lock
+    private long checkedUpTo;
+
+    // Only one rebuild at a time; chunks of two rebuilds would delete each other's rows
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Achievements to project again with the next catch-up
+    private final Set<String> retryKeys = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService catchUpExecutor;
+
+    @PostConstruct
+    public void start() {
+        catchUpExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("achievement-projection-catch-up").daemon().unstarted(runnable));
+
+        catchUpExecutor.scheduleWithFixedDelay(this::catchUp, catchUpInterval.toMillis(), catchUpInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (catchUpExecutor != null) {
+            catchUpExecutor.shutdownNow();
+            catchUpExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void project(String entityKey) {
+        if (entityKey != null) {
+            project(List.of(entityKey));
+        }
+    }
+
+    @Override
+    public void project(Collection<String> entityKeys) {
+        if (!enabled || entityKeys.isEmpty()) {
+            return;
+        }
+
+        if (!lock.tryLock()) {
+            retryKeys.addAll(entityKeys);
+            return;
+        }
+
+        try {
+            projectKeys(entityKeys);
+
+        } catch (Exception ex) {
+            // The rows are missing or stale until the next catch-up projects them again
+            retryKeys.addAll(entityKeys);
+            logger.warn("Failed to project achievements {}, retrying with the next catch-up", entityKeys, ex);
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Projects the achievements that failed or arrived during a rebuild again,
+     * then the achievements above the watermark that have no row, and moves
+     * the watermark up
+     */
+    public void catchUp() {
+        if (!isReady() || !lock.tryLock()) {
+            return;
+        }
+
+        try {
+            List<String> retried = new ArrayList<>(retryKeys);
+
+            if (!retried.isEmpty()) {
+                retryKeys.removeAll(retried);
+
+                try {
+                    projectKeys(retried);
+                } catch (Exception ex) {
+                    retryKeys.addAll(retried);
+                    throw ex;
+                }
+            }
+
+            Long maxId = entityManager.createQuery("SELECT max(a.id) FROM Achievement a", Long.class)
+                    .getSingleResult();
+            long upTo = maxId == null ? 0 : maxId;
+
+            List<String> unprojected = entityManager.createQuery(UNPROJECTED_SELECT, String.class)
+                    .setParameter("fromId", watermark)
+                    .setParameter("toId", upTo)
+                    .setMaxResults(defaultChunkSize)
+                    .getResultList();
+
+            projectKeys(unprojected);
+
+            // A full chunk may have left rows out: keep the watermark and check again
+            if (unprojected.size() < defaultChunkSize) {
+                watermark = Math.max(watermark, checkedUpTo);
+                checkedUpTo = upTo;
+            }
+
+        } catch (Exception ex) {
+            logger.warn("Failed to catch up the achievement projections", ex);
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void projectKeys(Collection<String> entityKeys) {
+        if (entityKeys.isEmpty()) {
+            return;
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Object[]> rows = entityManager
+                    .createQuery(ACHIEVEMENT_SELECT + " WHERE a.entityKey IN :entityKeys", Object[].class)
+                    .setParameter("entityKeys", entityKeys)
+                    .getResultList();
+
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+
+            List<Object[]> media = entityManager
+                    .createQuery(MEDIA_SELECT + " WHERE m.achievement.id IN :ids ORDER BY m.id", Object[].class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+
+            readModelPSQLProvider.deleteAllByIdInBatch(ids);
+            write(rows, media);
+        });
+    }
+
+    @Override
+    public ProjectionRebuildReadModel rebuild(Integer chunkSize, Integer parallelism) {
+        int size = chunkSize == null || chunkSize <= 0 ? defaultChunkSize : chunkSize;
+        int threads = parallelism == null || parallelism <= 0 ? defaultParallelism : parallelism;
+
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rebuild of the achievement projections is already running");
+        }
+
+        long started = System.nanoTime();
+
+        // Waits for the projection in progress; the ones that arrive meanwhile are retried after the rebuild
+        lock.lock();
+
+        try {
+            Object[] bounds = entityManager
+                    .createQuery("SELECT min(a.id), max(a.id) FROM Achievement a", Object[].class)
+                    .getSingleResult();
+
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+            if (bounds[0] == null) {
+                template.executeWithoutResult(status -> readModelPSQLProvider.deleteAllInBatch());
+                watermark = 0;
+                checkedUpTo = 0;
+                ready = true;
+                return new ProjectionRebuildReadModel(0, 0, elapsedMillis(started));
+            }
+
+            long minId = (Long) bounds[0];
+            long maxId = (Long) bounds[1];
+
+            template.executeWithoutResult(status -> readModelPSQLProvider.deleteOutsideIdRange(minId, maxId));
+
+            List<Future<Integer>> chunks = new ArrayList<>();
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                for (long fromId = minId; fromId <= maxId; fromId += size) {
+                    long from = fromId;
+                    long to = Math.min(fromId + size - 1, maxId);
+
+                    chunks.add(executor.submit(() -> template.execute(status -> projectRange(from, to))));
+                }
+            }
+
+            long projected = 0;
+
+            for (Future<Integer> chunk : chunks) {
+                projected += chunk.get();
+            }
+
+            watermark = maxId;
+            checkedUpTo = maxId;
+            ready = true;
+
+            logger.info("Rebuilt {} achievement projections in {} chunks", projected, chunks.size());
+
+            return new ProjectionRebuildReadModel(chunks.size(), projected, elapsedMillis(started));
+
+        } catch (Exception ex) {
+            // Some chunks may have been replaced and others not
+            ready = false;
+            throw new IllegalStateException("Failed to rebuild the achievement projections", ex);
+
+        } finally {
+            lock.unlock();
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @Override
+    public long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Rebuilds the rows when their count does not match the achievements
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            long achievements = entityManager.createQuery("SELECT count(a) FROM Achievement a", Long.class)
+                    .getSingleResult();
+
+            if (achievements == readModelPSQLProvider.count()) {
+                Long maxId = entityManager.createQuery("SELECT max(p.id) FROM AchievementProjection p", Long.class)
+                        .getSingleResult();
+
+                lock.lock();
+
+                try {
+                    watermark = maxId == null ? 0 : maxId;
+                    checkedUpTo = watermark;
+                } finally {
+                    lock.unlock();
+                }
+
+                ready = true;
+                return;
+            }
+
+            rebuild(null, null);
+
+        } catch (Exception ex) {
+            logger.warn("Failed to initialize the achievement projections, queries will use the write tables", ex);
+        }
+    }
+
+    private int projectRange(long fromId, long toId) {
+        List<Object[]> rows = entityManager
+                .createQuery(ACHIEVEMENT_SELECT + " WHERE a.id BETWEEN :fromId AND :toId", Object[].class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .getResultList();
+
+        List<Object[]> media = rows.isEmpty()
+                ? List.of()
+                : entityManager
+                        .createQuery(MEDIA_SELECT + " WHERE m.achievement.id BETWEEN :fromId AND :toId ORDER BY m.id",
+                                Object[].class)
+                        .setParameter("fromId", fromId)
+                        .setParameter("toId", toId)
+                        .getResultList();
+
+        readModelPSQLProvider.deleteByIdRange(fromId, toId);
+        write(rows, media);
+
+        return rows.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(List<Object[]> rows, List<Object[]> media) {
+        Map<Long, List<String>> mediaKeys = new HashMap<>();
+        Map<Long, List<String>> uploadedMediaKeys = new HashMap<>();
+
+        for (Object[] row : media) {
+            mediaKeys.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+
+            if (row[2] != null) {
+                uploadedMediaKeys.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+
+        for (Object[] row : rows) {
+            AchievementProjection projection = new AchievementProjection();
+
+            projection.setId((Long) row[0]);
+            projection.setRegisteredAt((OffsetDateTime) row[1]);
+            projection.setEntityKey((String) row[2]);
+            projection.setTitle((String) row[3]);
+            projection.setDescription((String) row[4]);
+            projection.setCompletedDate((Date) row[5]);
+            projection.setSkills(row[6] != null ? new ArrayList<>((List<String>) row[6]) : List.of());
+            projection.setAchievementVisibility((AchievementVisibilityStatus) row[7]);
+            projection.setActive((Boolean) row[8]);
+            projection.setUserKey((String) row[9]);
+            projection.setUserName((String) row[10]);
+            projection.setEmail((String) row[11]);
+            projection.setFirstName((String) row[12]);
+            projection.setLastName((String) row[13]);
+            projection.setMediaKeys(mediaKeys.getOrDefault(projection.getId(), List.of()));
+            projection.setUploadedMediaKeys(uploadedMediaKeys.getOrDefault(projection.getId(), List.of()));
+
+            entityManager.persist(projection);
+        }
+
+        // Write the chunk now and keep the persistence context small
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
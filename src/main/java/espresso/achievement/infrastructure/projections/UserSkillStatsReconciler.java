@@ -0,0 +1,197 @@
+package espresso.achievement.infrastructure.projections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import espresso.achievement.domain.contracts.IUserSkillStatsReconciler;
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.domain.entities.UserSkillStats;
+import espresso.achievement.domain.readModels.ProjectionRebuildReadModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Recomputes the {@link UserSkillStats} rows from the achievements, to
+ * repair drift (rows written before the stats existed, or changed by hand).
+ * <p>
+ * The users are split in id-range chunks; each chunk deletes and re-inserts
+ * the rows of its users from one grouped read of their achievements, in its
+ * own transaction, with a fixed number of chunks in flight. Creates are not
+ * lost while a chunk runs: an increment either commits before the chunk reads
+ * the achievements or waits for the chunk and applies after it, and a row
+ * that a create inserts in the meantime is kept as it is.
+ * </p>
+ * <p>
+ * When the application is ready, the stats are reconciled if their total
+ * does not match the number of achievements.
+ * </p>
+ */
+@Component
+public class UserSkillStatsReconciler implements IUserSkillStatsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSkillStatsReconciler.class);
+
+    private static final String DELETE_RANGE = "DELETE FROM UserSkillStats WHERE userId BETWEEN :fromId AND :toId";
+
+    private static final String DELETE_OUTSIDE_RANGE = "DELETE FROM UserSkillStats "
+            + "WHERE userId < :minId OR userId > :maxId";
+
+    private static final String RECOMPUTE_RANGE = buildRecompute();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${achievement.stats.reconcile.on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    @Value("${achievement.stats.reconcile.chunk-size:5000}")
+    private int defaultChunkSize;
+
+    @Value("${achievement.stats.reconcile.parallelism:4}")
+    private int defaultParallelism;
+
+    // Only one reconciliation at a time; two would delete each other's rows
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    @Override
+    public ProjectionRebuildReadModel reconcile(Integer chunkSize, Integer parallelism) {
+        int size = chunkSize == null || chunkSize <= 0 ? defaultChunkSize : chunkSize;
+        int threads = parallelism == null || parallelism <= 0 ? defaultParallelism : parallelism;
+
+        if (!reconciling.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reconciliation of the user skill stats is already running");
+        }
+
+        long started = System.nanoTime();
+
+        try {
+            Object[] bounds = entityManager
+                    .createQuery("SELECT min(u.id), max(u.id) FROM User u", Object[].class)
+                    .getSingleResult();
+
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+            if (bounds[0] == null) {
+                template.executeWithoutResult(status -> entityManager
+                        .createQuery("DELETE FROM UserSkillStats").executeUpdate());
+                return new ProjectionRebuildReadModel(0, 0, elapsedMillis(started));
+            }
+
+            long minId = (Long) bounds[0];
+            long maxId = (Long) bounds[1];
+
+            template.executeWithoutResult(status -> entityManager.createNativeQuery(DELETE_OUTSIDE_RANGE)
+                    .setParameter("minId", minId)
+                    .setParameter("maxId", maxId)
+                    .executeUpdate());
+
+            List<Future<Integer>> chunks = new ArrayList<>();
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                for (long fromId = minId; fromId <= maxId; fromId += size) {
+                    long from = fromId;
+                    long to = Math.min(fromId + size - 1, maxId);
+
+                    chunks.add(executor.submit(() -> template.execute(status -> recomputeRange(from, to))));
+                }
+            }
+
+            long reconciled = 0;
+
+            for (Future<Integer> chunk : chunks) {
+                reconciled += chunk.get();
+            }
+
+            logger.info("Reconciled the skill stats of {} users in {} chunks", reconciled, chunks.size());
+
+            return new ProjectionRebuildReadModel(chunks.size(), reconciled, elapsedMillis(started));
+
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to reconcile the user skill stats", ex);
+
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    /**
+     * Reconciles the stats when their total does not match the achievements
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!reconcileOnStartup) {
+            return;
+        }
+
+        try {
+            long achievements = entityManager
+                    .createQuery("SELECT count(a) FROM Achievement a WHERE a.user IS NOT NULL", Long.class)
+                    .getSingleResult();
+
+            long counted = entityManager
+                    .createQuery("SELECT coalesce(sum(s.achievementCount), 0) FROM UserSkillStats s", Long.class)
+                    .getSingleResult();
+
+            if (achievements != counted) {
+                reconcile(null, null);
+            }
+
+        } catch (Exception ex) {
+            logger.warn("Failed to reconcile the user skill stats on startup", ex);
+        }
+    }
+
+    private int recomputeRange(long fromId, long toId) {
+        entityManager.createNativeQuery(DELETE_RANGE)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
+
+        return entityManager.createNativeQuery(RECOMPUTE_RANGE)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
+    }
+
+    /**
+     * @return The grouped insert of the stats of a user id range, counting each skill from the skill mask
+     */
+    private static String buildRecompute() {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder counts = new StringBuilder();
+
+        for (AchievementSkill skill : AchievementSkill.values()) {
+            columns.append(", ").append(skill.getAbbreviation()).append("Count");
+            counts.append(", count(*) FILTER (WHERE a.skillMask & ").append(skill.getMask()).append(" <> 0)");
+        }
+
+        return "INSERT INTO UserSkillStats (userId, userKey, achievementCount" + columns
+                + ", firstCompletedDate, lastCompletedDate, updatedAt) "
+                + "SELECT u.id, u.entityKey, count(*)" + counts
+                + ", min(a.completedDate), max(a.completedDate), now() "
+                + "FROM Users u JOIN Achievements a ON a.userId = u.id "
+                + "WHERE u.id BETWEEN :fromId AND :toId GROUP BY u.id, u.entityKey "
+                + "ON CONFLICT (userId) DO NOTHING";
+    }
+
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
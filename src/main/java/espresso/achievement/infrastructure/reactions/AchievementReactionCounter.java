@@ -0,0 +1,504 @@
+package espresso.achievement.infrastructure.reactions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import espresso.achievement.domain.contracts.IAchievementReactionCounter;
+import espresso.achievement.domain.entities.AchievementReactionType;
+import espresso.common.domain.support.LongHashSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Counts the reactions on the achievements in memory and writes them behind
+ * the requests, so a burst of reactions on a popular achievement never
+ * queues up on the lock of its count row.
+ * <p>
+ * A reaction is deduplicated against an in-memory set of the 64-bit
+ * fingerprints of every (achievement, user, reaction) left, split into
+ * stripes by fingerprint, each a {@link LongHashSet} behind its own lock.
+ * It then records the change of the row to write and increments the
+ * {@link LongAdder} of the (achievement, reaction) pair, so concurrent
+ * reactions on the same achievement do not contend on one counter. Two
+ * different reactions colliding on a fingerprint is possible but negligible
+ * (about 1 in 10^19 per pair); the later one is refused.
+ * </p>
+ * <p>
+ * Every flush interval, the changes recorded since the previous flush are
+ * written in one transaction: the new rows are inserted and the removed
+ * ones deleted in batches, and the number of rows each batch actually wrote
+ * is added to the counts with one upsert per (achievement, reaction), in
+ * key order. The stored counts stay exact even if another instance wrote
+ * the same rows. Once committed, the changes are subtracted from the
+ * adders; a failed flush puts them back for the next one. The reads add the
+ * adders to the stored counts, so a reaction shows at once. A crash loses
+ * the changes of at most one flush interval; a shutdown flushes them.
+ * </p>
+ * <p>
+ * The fingerprints are loaded when the application is ready. Until then
+ * (or if loading failed), {@link #isReady()} is false and the handlers
+ * refuse reactions, which could not be deduplicated.
+ * </p>
+ * <p>
+ * Metrics: {@code achievement.reaction.pending},
+ * {@code achievement.reaction.dedupe.bytes} and
+ * {@code achievement.reaction.flush.failures}.
+ * </p>
+ */
+@Component
+public class AchievementReactionCounter implements IAchievementReactionCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementReactionCounter.class);
+
+    private static final AchievementReactionType[] TYPES = AchievementReactionType.values();
+
+    // A power of two, picked by the top bits of the fingerprint
+    private static final int STRIPES = 64;
+
+    private static final int SEED_PAGE_SIZE = 10_000;
+
+    private static final String INSERT_REACTION = "INSERT INTO AchievementReactions "
+            + "(achievementId, userId, reaction, reactedAt) VALUES (:achievementId, :userId, :reaction, :reactedAt) "
+            + "ON CONFLICT (achievementId, userId, reaction) DO NOTHING";
+
+    private static final String DELETE_REACTION = "DELETE FROM AchievementReactions "
+            + "WHERE achievementId = :achievementId AND userId = :userId AND reaction = :reaction";
+
+    private static final String ADD_COUNT = "INSERT INTO AchievementReactionCounts "
+            + "(achievementId, reaction, reactionCount) VALUES (:achievementId, :reaction, :delta) "
+            + "ON CONFLICT (achievementId, reaction) "
+            + "DO UPDATE SET reactionCount = AchievementReactionCounts.reactionCount + EXCLUDED.reactionCount";
+
+    private static final String COUNTS = "SELECT reaction, reactionCount FROM AchievementReactionCounts "
+            + "WHERE achievementId = :achievementId";
+
+    private static final String SEED_PAGE = "SELECT id, achievementId, userId, reaction FROM AchievementReactions "
+            + "WHERE id > :afterId ORDER BY id LIMIT :limit";
+
+    private final LongHashSet[] reacted = new LongHashSet[STRIPES];
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    // (achievement id, reaction ordinal) -> reactions added minus removed, not flushed yet
+    private final Map<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+
+    // The last change of every reaction since the previous flush
+    private final Map<Reaction, Change> pending = new ConcurrentHashMap<>();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final Duration flushInterval;
+
+    private final Clock clock;
+
+    private final Counter flushFailures;
+
+    private volatile boolean seeded;
+
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public AchievementReactionCounter(
+            MeterRegistry meterRegistry,
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${achievement.reaction.flush-interval:250ms}") Duration flushInterval) {
+
+        this(meterRegistry, jdbcTemplate, transactionManager, flushInterval, Clock.systemUTC());
+    }
+
+    AchievementReactionCounter(MeterRegistry meterRegistry, NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, Duration flushInterval, Clock clock) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.flushInterval = flushInterval;
+        this.clock = clock;
+
+        for (int i = 0; i < STRIPES; i++) {
+            reacted[i] = new LongHashSet();
+            locks[i] = new ReentrantLock();
+        }
+
+        Gauge.builder("achievement.reaction.pending", pending, Map::size)
+                .description("Reaction changes waiting for the next flush")
+                .register(meterRegistry);
+
+        Gauge.builder("achievement.reaction.dedupe.bytes", this, AchievementReactionCounter::getSizeInBytes)
+                .description("Memory held by the reaction fingerprints")
+                .register(meterRegistry);
+
+        this.flushFailures = Counter.builder("achievement.reaction.flush.failures")
+                .description("Reaction flushes that failed and were retried with the next one")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("achievement-reaction-flusher").daemon().unstarted(runnable));
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(flushInterval.toMillis() * 4, TimeUnit.MILLISECONDS);
+        }
+
+        // The changes of the last interval are written before the database goes away
+        flushQuietly();
+    }
+
+    @Override
+    public boolean react(long achievementId, long userId, AchievementReactionType type) {
+        return change(new Reaction(achievementId, userId, type), true);
+    }
+
+    @Override
+    public boolean unreact(long achievementId, long userId, AchievementReactionType type) {
+        return change(new Reaction(achievementId, userId, type), false);
+    }
+
+    @Override
+    public Set<AchievementReactionType> getReactions(long achievementId, long userId) {
+        Set<AchievementReactionType> reactions = EnumSet.noneOf(AchievementReactionType.class);
+
+        for (AchievementReactionType type : TYPES) {
+            long fingerprint = fingerprint(achievementId, userId, type);
+            int stripe = stripe(fingerprint);
+
+            locks[stripe].lock();
+
+            try {
+                if (reacted[stripe].contains(fingerprint)) {
+                    reactions.add(type);
+                }
+
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        return reactions;
+    }
+
+    @Override
+    public Map<AchievementReactionType, Long> getCounts(long achievementId) {
+        Map<AchievementReactionType, Long> counts = new EnumMap<>(AchievementReactionType.class);
+
+        for (AchievementReactionType type : TYPES) {
+            LongAdder delta = deltas.get(key(achievementId, type));
+            counts.put(type, delta != null ? delta.sum() : 0L);
+        }
+
+        jdbcTemplate.query(COUNTS, new MapSqlParameterSource("achievementId", achievementId), rs -> {
+            AchievementReactionType type = AchievementReactionType.fromName(rs.getString(1));
+
+            if (type != null) {
+                counts.merge(type, rs.getLong(2), Long::sum);
+            }
+        });
+
+        // A flush that committed but did not subtract its changes yet counts them twice for a moment
+        counts.replaceAll((type, count) -> Math.max(count, 0L));
+
+        return counts;
+    }
+
+    @Override
+    public boolean isReady() {
+        return seeded;
+    }
+
+    /**
+     * Loads the fingerprints of the reactions stored in the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            long afterId = 0;
+            long reactions = 0;
+            List<StoredReaction> page;
+
+            do {
+                page = jdbcTemplate.query(SEED_PAGE,
+                        new MapSqlParameterSource("afterId", afterId).addValue("limit", SEED_PAGE_SIZE),
+                        (rs, rowNum) -> new StoredReaction(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                                AchievementReactionType.fromName(rs.getString(4))));
+
+                for (StoredReaction row : page) {
+                    afterId = row.id();
+
+                    if (row.type() != null) {
+                        long fingerprint = fingerprint(row.achievementId(), row.userId(), row.type());
+                        int stripe = stripe(fingerprint);
+
+                        locks[stripe].lock();
+
+                        try {
+                            reacted[stripe].add(fingerprint);
+
+                        } finally {
+                            locks[stripe].unlock();
+                        }
+
+                        reactions++;
+                    }
+                }
+            } while (page.size() == SEED_PAGE_SIZE);
+
+            seeded = true;
+
+            logger.info("Loaded {} achievement reactions, {} bytes of fingerprints", reactions, getSizeInBytes());
+
+        } catch (Exception ex) {
+            logger.warn("Failed to load the achievement reactions, reactions are unavailable", ex);
+        }
+    }
+
+    /**
+     * Writes the changes recorded since the previous flush
+     *
+     * @return The number of changes written
+     */
+    synchronized int flush() {
+        List<Map.Entry<Reaction, Change>> batch = new ArrayList<>();
+
+        // A change made after this point stays pending for the next flush
+        for (Map.Entry<Reaction, Change> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> write(batch));
+
+        } catch (RuntimeException ex) {
+            // Retried with the next flush, folded into the newer change of the same reaction if there is one
+            for (Map.Entry<Reaction, Change> entry : batch) {
+                pending.merge(entry.getKey(), entry.getValue(), (newer, failed) -> newer.then(failed.delta()));
+            }
+
+            throw ex;
+        }
+
+        // The stored counts include the changes now, the adders keep the ones made since
+        for (Map.Entry<Reaction, Change> entry : batch) {
+            Reaction reaction = entry.getKey();
+            deltas.computeIfAbsent(key(reaction.achievementId(), reaction.type()), key -> new LongAdder())
+                    .add(-entry.getValue().delta());
+        }
+
+        removeSettledDeltas();
+
+        return batch.size();
+    }
+
+    /**
+     * @return The number of bytes held by the fingerprint sets
+     */
+    public long getSizeInBytes() {
+        long bytes = 0;
+
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+
+            try {
+                bytes += reacted[i].sizeInBytes();
+
+            } finally {
+                locks[i].unlock();
+            }
+        }
+
+        return bytes;
+    }
+
+    private boolean change(Reaction reaction, boolean added) {
+        long fingerprint = fingerprint(reaction.achievementId(), reaction.userId(), reaction.type());
+        int stripe = stripe(fingerprint);
+
+        locks[stripe].lock();
+
+        try {
+            boolean changed = added ? reacted[stripe].add(fingerprint) : reacted[stripe].remove(fingerprint);
+
+            if (!changed) {
+                return false;
+            }
+
+            // Recorded under the stripe lock, so the last change of a reaction is the one that stays pending
+            Change change = new Change(added, clock.millis(), added ? 1 : -1);
+            pending.merge(reaction, change, (previous, next) -> next.then(previous.delta()));
+            deltas.computeIfAbsent(key(reaction.achievementId(), reaction.type()), key -> new LongAdder())
+                    .add(added ? 1 : -1);
+
+            return true;
+
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    private void write(List<Map.Entry<Reaction, Change>> batch) {
+        List<Map.Entry<Reaction, Change>> added = batch.stream().filter(entry -> entry.getValue().added()).toList();
+        List<Map.Entry<Reaction, Change>> removed = batch.stream().filter(entry -> !entry.getValue().added())
+                .toList();
+
+        int[] inserted = added.isEmpty() ? new int[0]
+                : jdbcTemplate.batchUpdate(INSERT_REACTION, added.stream()
+                        .map(entry -> params(entry.getKey()).addValue("reactedAt",
+                                OffsetDateTime.ofInstant(Instant.ofEpochMilli(entry.getValue().at()), ZoneOffset.UTC)))
+                        .toArray(MapSqlParameterSource[]::new));
+
+        int[] deleted = removed.isEmpty() ? new int[0]
+                : jdbcTemplate.batchUpdate(DELETE_REACTION, removed.stream()
+                        .map(entry -> params(entry.getKey()))
+                        .toArray(MapSqlParameterSource[]::new));
+
+        // Only the rows that were written count; sorted, so concurrent flushes lock the count rows in one order
+        Map<Long, Long> counts = new TreeMap<>();
+
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] != 0) {
+                Reaction reaction = added.get(i).getKey();
+                counts.merge(key(reaction.achievementId(), reaction.type()), 1L, Long::sum);
+            }
+        }
+
+        for (int i = 0; i < deleted.length; i++) {
+            if (deleted[i] != 0) {
+                Reaction reaction = removed.get(i).getKey();
+                counts.merge(key(reaction.achievementId(), reaction.type()), -1L, Long::sum);
+            }
+        }
+
+        MapSqlParameterSource[] updates = counts.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new MapSqlParameterSource("achievementId", entry.getKey() / TYPES.length)
+                        .addValue("reaction", TYPES[(int) (entry.getKey() % TYPES.length)].getReactionName())
+                        .addValue("delta", entry.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+
+        if (updates.length > 0) {
+            jdbcTemplate.batchUpdate(ADD_COUNT, updates);
+        }
+    }
+
+    /**
+     * Drops the adders that are back to 0; the stripe locks keep a reaction from incrementing a dropped adder,
+     * and the flushes subtract from a new adder when theirs was dropped
+     */
+    private void removeSettledDeltas() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+
+        try {
+            deltas.values().removeIf(delta -> delta.sum() == 0);
+
+        } finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+
+        } catch (Exception ex) {
+            flushFailures.increment();
+            logger.warn("Failed to flush the achievement reactions, retrying with the next flush", ex);
+        }
+    }
+
+    private static MapSqlParameterSource params(Reaction reaction) {
+        return new MapSqlParameterSource("achievementId", reaction.achievementId())
+                .addValue("userId", reaction.userId())
+                .addValue("reaction", reaction.type().getReactionName());
+    }
+
+    private static long key(long achievementId, AchievementReactionType type) {
+        return achievementId * TYPES.length + type.ordinal();
+    }
+
+    private static int stripe(long fingerprint) {
+        return (int) (fingerprint >>> (Long.SIZE - Integer.numberOfTrailingZeros(STRIPES)));
+    }
+
+    // The finalizer of MurmurHash3 over the three parts of the reaction
+    private static long fingerprint(long achievementId, long userId, AchievementReactionType type) {
+        long hash = achievementId * 0x9E3779B97F4A7C15L;
+        hash ^= Long.rotateLeft(userId * 0xC2B2AE3D27D4EB4FL, 31);
+        hash ^= (type.ordinal() + 1L) * 0x165667B19E3779F9L;
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    private record Reaction(long achievementId, long userId, AchievementReactionType type) {
+    }
+
+    /**
+     * The last change of a reaction since the previous flush: added or removed, at the given time in
+     * milliseconds; the delta is the sum of all its changes since then, -1, 0 or 1 as they alternate
+     */
+    private record Change(boolean added, long at, int delta) {
+
+        private Change then(int previousDelta) {
+            return new Change(added, at, delta + previousDelta);
+        }
+    }
+
+    private record StoredReaction(long id, long achievementId, long userId, AchievementReactionType type) {
+    }
+}
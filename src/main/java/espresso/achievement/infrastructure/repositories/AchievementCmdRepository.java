@@ -3,9 +3,16 @@ package espresso.achievement.infrastructure.repositories;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import espresso.achievement.domain.contracts.IAchievementCmdRepository;
+import espresso.achievement.domain.contracts.IAchievementHiddenOwners;
+import espresso.achievement.domain.contracts.IAchievementKeyFilter;
+import espresso.achievement.domain.contracts.IAchievementLeaderboards;
+import espresso.achievement.domain.contracts.IAchievementSkillIndex;
 import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
 
 @Primary
 @Component
@@ -14,6 +21,18 @@ public class AchievementCmdRepository implements IAchievementCmdRepository {
     @Autowired
     AchievementPSQLProvider achievementPSQLProvider;
 
+    @Autowired
+    IAchievementKeyFilter achievementKeyFilter;
+
+    @Autowired
+    IAchievementSkillIndex achievementSkillIndex;
+
+    @Autowired
+    IAchievementLeaderboards achievementLeaderboards;
+
+    @Autowired
+    IAchievementHiddenOwners achievementHiddenOwners;
+
     @Override
     public Achievement save(Achievement achievement) {
 
@@ -24,6 +43,21 @@ public class AchievementCmdRepository implements IAchievementCmdRepository {
 
             Achievement entity = this.achievementPSQLProvider.save(achievement);
 
+            // Lookups of the new key must not be rejected by the key filter; a rolled back
+            // create must not leave its key or id behind, so the caches are updated after commit
+            afterCommit(() -> this.achievementKeyFilter.add(entity.getEntityKey()));
+
+            if (entity.isActive() && entity.getAchievementVisibility() == AchievementVisibilityStatus.EVERYONE) {
+                afterCommit(() -> this.achievementSkillIndex.add(entity.getId(), entity.getSkillMask(),
+                        entity.getRegisteredAt()));
+            } else if (entity.isActive() && entity.getUser() != null) {
+                afterCommit(() -> this.achievementHiddenOwners.add(entity.getUser().getEntityKey()));
+            }
+
+            afterCommit(() -> this.achievementLeaderboards.add(entity.getId(),
+                    entity.getUser() != null ? entity.getUser().getId() : null, entity.getSkillMask(),
+                    entity.getRegisteredAt()));
+
             return entity;
 
         } catch (Exception e) {
@@ -33,4 +67,22 @@ public class AchievementCmdRepository implements IAchievementCmdRepository {
         }
 
     }
+
+    /**
+     * Runs the action once the current transaction has committed, or right away
+     * when there is no transaction
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -1,47 +1,85 @@
 package espresso.achievement.infrastructure.repositories;
 
-import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Limit;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import espresso.achievement.domain.entities.Achievement;
+import jakarta.persistence.QueryHint;
 
+/**
+ * The read queries that project achievements to DTOs live in
+ * {@link AchievementProjectionPSQLProvider}, which Spring Data mixes into this
+ * repository.
+ */
 @Repository
-public interface AchievementPSQLProvider extends JpaRepository<Achievement, Long> {
+public interface AchievementPSQLProvider extends JpaRepository<Achievement, Long>, AchievementProjectionPSQLProvider {
 
     /**
-     * Gets the achievement detail by key and projects it to the specified DTO type.
-     * @param <T> The type of the DTO to project to (e.g., AchievementDtoLg.class)
-     * @param type The DTO class to project to (e.g., AchievementDtoLg.class)
-     * @param entityKey The key of the achievement to retrieve
-     * @return A single achievement projected to the specified DTO type
+     * Streams the keys of every achievement, fetching them from the database in batches.
+     * The stream must be consumed and closed inside a transaction.
+     * @return The keys of every achievement
      */
-    @Query("SELECT a FROM Achievement a WHERE a.entityKey = :entityKey")
-    <T> T findAchievementByKey(Class<T> type, String entityKey);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.entityKey FROM Achievement a")
+    Stream<String> streamEntityKeys();
 
     /**
-     * Gets the latest achievements ordered by completion date (newest first)
-     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
-     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
-     * @param limit Maximum number of results to return
-     * @return List of achievements projected to the specified DTO type
+     * Streams the id, skill mask and registration date of every public (EVERYONE and active)
+     * achievement, by id, fetching them from the database in batches.
+     * The stream must be consumed and closed inside a transaction.
+     * @return One (Long id, Short skillMask, OffsetDateTime registeredAt) row per public achievement
      */
-    @Query("SELECT a FROM Achievement a ORDER BY a.registeredAt DESC")
-    <T> List<T> findLatestAchievements(Class<T> type, Limit limit);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id, a.skillMask, a.registeredAt FROM Achievement a "
+            + "WHERE a.achievementVisibility = espresso.achievement.domain.entities.AchievementVisibilityStatus.EVERYONE "
+            + "AND a.active = true ORDER BY a.id")
+    Stream<Object[]> streamPublicSkillMasks();
 
     /**
-     * Gets the latest achievements ordered by completion date (newest first)
-     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
-     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
-     * @param limit Maximum number of results to return
-     * @param fromDate The date from which to retrieve achievements
-     * @return List of achievements projected to the specified DTO type
+     * Streams the id, owner id, skill mask and registration date of every achievement
+     * that has an owner, fetching them from the database in batches.
+     * The stream must be consumed and closed inside a transaction.
+     * @return One (Long id, Long userId, Short skillMask, OffsetDateTime registeredAt) row per achievement
      */
-    @Query("SELECT a FROM Achievement a WHERE a.registeredAt > :fromDate ORDER BY a.registeredAt DESC")
-    <T> List<T> findLatestAchievements(Class<T> type, Limit limit, OffsetDateTime fromDate);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id, a.user.id, a.skillMask, a.registeredAt FROM Achievement a WHERE a.user IS NOT NULL")
+    Stream<Object[]> streamUserSkillMasks();
 
-}
\ No newline at end of file
+    /**
+     * Streams the keys of the users that have hidden (not public, active) achievements,
+     * fetching them from the database in batches.
+     * The stream must be consumed and closed inside a transaction.
+     * @return One key per user
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT DISTINCT u.entityKey FROM Achievement a JOIN a.user u WHERE a.active = true "
+            + "AND (a.achievementVisibility IS NULL "
+            + "OR a.achievementVisibility <> espresso.achievement.domain.entities.AchievementVisibilityStatus.EVERYONE)")
+    Stream<String> streamHiddenAchievementOwners();
+
+    /**
+     * Gets the key and name of the users with the given ids
+     * @param ids The ids of the users
+     * @return One (Long id, String entityKey, String username) row per existing user
+     */
+    @Query("SELECT u.id, u.entityKey, u.username FROM User u WHERE u.id IN :ids")
+    List<Object[]> findUserSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Gets which of the given achievements are public and active
+     * @param entityKeys The keys of the achievements
+     * @return The keys of the public, active achievements among them
+     */
+    @Query("SELECT a.entityKey FROM Achievement a WHERE a.entityKey IN :entityKeys "
+            + "AND a.achievementVisibility = espresso.achievement.domain.entities.AchievementVisibilityStatus.EVERYONE "
+            + "AND a.active = true")
+    List<String> findPublicEntityKeys(@Param("entityKeys") Collection<String> entityKeys);
+}
@@ -0,0 +1,223 @@
+package espresso.achievement.infrastructure.repositories;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+import espresso.achievement.domain.entities.AchievementSearchHit;
+import espresso.achievement.domain.readModels.AchievementFacetsReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+
+/**
+ * Achievement read queries projected to the record DTOs (AchievementDtoSm/Md/Lg).
+ * Each size selects only the columns it exposes through a JPQL constructor
+ * expression; see {@link AchievementProjectionPSQLProviderImpl}.
+ */
+public interface AchievementProjectionPSQLProvider {
+
+    /**
+     * Gets the achievement detail by key and projects it to the specified DTO type.
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoLg.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoLg.class), or Achievement.class for the entity
+     * @param entityKey The key of the achievement to retrieve
+     * @return A single achievement projected to the specified DTO type, or null if it does not exist
+     */
+    <T> T findAchievementByKey(Class<T> type, String entityKey);
+
+    /**
+     * Gets the latest public (EVERYONE and active) achievements ordered by registration date (newest first)
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> findLatestAchievements(Class<T> type, Limit limit);
+
+    /**
+     * Gets the latest public (EVERYONE and active) achievements ordered by registration date (newest first)
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @param fromDate The date from which to retrieve achievements
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> findLatestAchievements(Class<T> type, Limit limit, OffsetDateTime fromDate);
+
+    /**
+     * Gets the public achievements that follow the given cursor position (seek pagination).
+     * The redundant registeredAt <= :registeredAt predicate lets PostgreSQL start the
+     * scan of the partial idx_achievement_public_registered_at_id_desc at the cursor, so every page costs
+     * the same regardless of how deep the client has paged.
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @param registeredAt The registration date of the last achievement of the previous page
+     * @param id The id of the last achievement of the previous page
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> findLatestAchievementsBefore(Class<T> type, Limit limit, OffsetDateTime registeredAt, Long id);
+
+    /**
+     * Gets the public achievements that follow the given cursor position and were registered after fromDate
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @param fromDate The date from which to retrieve achievements
+     * @param registeredAt The registration date of the last achievement of the previous page
+     * @param id The id of the last achievement of the previous page
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> findLatestAchievementsBefore(Class<T> type, Limit limit, OffsetDateTime fromDate,
+            OffsetDateTime registeredAt, Long id);
+
+    /**
+     * Gets the active achievements of a user that are not public, newest first, so
+     * that owners see them in their own feed. Reads idx_achievement_user_registered_at_id_desc,
+     * so only the rows of the user are visited.
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @param userKey The key of the owner
+     * @param fromDate Optional date; only achievements registered after it are returned
+     * @param registeredAt The registration date of the last achievement of the previous page, or null
+     * @param id The id of the last achievement of the previous page, or null
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> findHiddenAchievementsOfUser(Class<T> type, Limit limit, String userKey, OffsetDateTime fromDate,
+            OffsetDateTime registeredAt, Long id);
+
+    /**
+     * Gets the achievements with the given ids that the requester can see, in the order of the ids:
+     * public (EVERYONE and active) achievements, and the active achievements of the requester
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param ids The ids of the achievements; ids that do not exist or are not visible are left out
+     * @param requesterKey The key of the user reading the achievements, or null for public achievements only
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> findAchievementsByIds(Class<T> type, List<Long> ids, String requesterKey);
+
+    /**
+     * Gets the latest public (EVERYONE and active) achievements that have any (or all) of the given skills.
+     * The skills predicate is rendered as the array overlap (&&) or containment
+     * (@>) operator, which PostgreSQL answers from idx_achievement_skills_gin.
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @param skills The skill abbreviations to match
+     * @param matchAll true to require every skill, false to require at least one
+     * @param fromDate Optional date; only achievements registered after it are returned
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> findAchievementsWithSkills(Class<T> type, Limit limit, List<String> skills, boolean matchAll,
+            OffsetDateTime fromDate);
+
+    /**
+     * Gets the public achievements that have any (or all) of the given skills and follow the given cursor position
+     * @param <T> The type of the DTO to project to (e.g., AchievementDtoSm.class)
+     * @param type The DTO class to project to (e.g., AchievementDtoSm.class)
+     * @param limit Maximum number of results to return
+     * @param skills The skill abbreviations to match
+     * @param matchAll true to require every skill, false to require at least one
+     * @param fromDate Optional date; only achievements registered after it are returned
+     * @param registeredAt The registration date of the last achievement of the previous page
+     * @param id The id of the last achievement of the previous page
+     * @return List of achievements projected to the specified DTO type
+     */
+    <T> List<T> findAchievementsWithSkillsBefore(Class<T> type, Limit limit, List<String> skills, boolean matchAll,
+            OffsetDateTime fromDate, OffsetDateTime registeredAt, Long id);
+
+    /**
+     * Counts the public (EVERYONE and active) achievements that match a filter
+     * per skill, completion month and visibility in one statement, so private and
+     * removed achievements are never counted: the matching rows are grouped by
+     * (completion month, visibility, skill mask), which gives a few hundred
+     * groups at most, and every facet is summed from those groups.
+     * @param skills The skill abbreviations to match, empty for every achievement
+     * @param matchAll true to require every skill, false to require at least one
+     * @param fromDate Optional date; only achievements registered after it are counted
+     * @return The facet counts
+     */
+    AchievementFacetsReadModel findAchievementFacets(List<String> skills, boolean matchAll, OffsetDateTime fromDate);
+
+    /**
+     * Full-text search over the titles and descriptions of the achievements.
+     * Native PostgreSQL query on the generated searchVector column, indexed by
+     * idx_achievement_search_gin (see AchievementSchemaMigration). Every match the
+     * requester can see is ranked with ts_rank_cd and only the page is returned, so
+     * keyset pages stay stable while achievements are added.
+     * Only public (EVERYONE and active) achievements and the active achievements of
+     * the requester match.
+     * @param text The searched text, in web search syntax
+     * @param limit Maximum number of results to return
+     * @param rank The rank of the last result of the previous page, or null for the first page
+     * @param id The id of the last result of the previous page, or null for the first page
+     * @param requesterKey The key of the user searching, or null for public achievements only
+     * @return The matches ordered by rank then id, both descending
+     */
+    List<AchievementSearchHit> searchAchievements(String text, Limit limit, Float rank, Long id,
+            String requesterKey);
+
+    /**
+     * Gets the summary of an achievement by key, if the requester can see it: public
+     * (EVERYONE and active) achievements, and the active achievements of the requester
+     * @param entityKey The key of the achievement to retrieve
+     * @param requesterKey The key of the user reading the summary, or null for public achievements only
+     * @return The summary of the achievement, or null if it does not exist or is not visible to the requester
+     */
+    AchievementSummaryReadModel findAchievementSummaryByKey(String entityKey, String requesterKey);
+
+    /**
+     * Gets the summaries of the achievements with the given keys in one query.
+     * Keys that do not exist or that the requester can not see (see findAchievementSummaryByKey)
+     * are left out and the order is not specified.
+     * @param entityKeys The keys of the achievements to retrieve
+     * @param requesterKey The key of the user reading the summaries, or null for public achievements only
+     * @return List of the achievement summaries that exist and are visible to the requester
+     */
+    List<AchievementSummaryReadModel> findAchievementSummariesByKeys(Collection<String> entityKeys,
+            String requesterKey);
+
+    /**
+     * Gets the newest achievements of a user (the user timeline). The user is
+     * resolved by a scalar subquery, so PostgreSQL reads the page straight from
+     * idx_achievement_user_registered_at_id_desc whatever the number of
+     * achievements of the user.
+     * @param userKey The key of the owner of the achievements
+     * @param includeHidden true when the owner reads their own timeline: every active achievement is returned,
+     *        otherwise only the public (EVERYONE and active) ones
+     * @param limit Maximum number of results to return
+     * @return List of achievement summaries, newest first
+     */
+    List<AchievementSummaryReadModel> findAchievementSummariesByUser(String userKey, boolean includeHidden,
+            Limit limit);
+
+    /**
+     * Gets the achievements of a user that follow the given cursor position (seek pagination)
+     * @param userKey The key of the owner of the achievements
+     * @param includeHidden true when the owner reads their own timeline, see findAchievementSummariesByUser
+     * @param limit Maximum number of results to return
+     * @param registeredAt The registration date of the last achievement of the previous page
+     * @param id The id of the last achievement of the previous page
+     * @return List of achievement summaries, newest first
+     */
+    List<AchievementSummaryReadModel> findAchievementSummariesByUserBefore(String userKey, boolean includeHidden,
+            Limit limit, OffsetDateTime registeredAt, Long id);
+
+    /**
+     * Gets the achievements of a user with an id above the given one, merged by
+     * the repository into the pages read from the projections: the achievements
+     * above the projection watermark may not have their row yet
+     * @param userKey The key of the owner of the achievements
+     * @param includeHidden true when the owner reads their own timeline, see findAchievementSummariesByUser
+     * @param afterId Only achievements with a greater id are returned
+     * @param limit Maximum number of results to return
+     * @param registeredAt The registration date of the last achievement of the previous page, or null for the first page
+     * @param id The id of the last achievement of the previous page, or null for the first page
+     * @return List of achievement summaries, newest first
+     */
+    List<AchievementSummaryReadModel> findAchievementSummariesByUserAfterId(String userKey, boolean includeHidden,
+            long afterId, Limit limit, OffsetDateTime registeredAt, Long id);
+}
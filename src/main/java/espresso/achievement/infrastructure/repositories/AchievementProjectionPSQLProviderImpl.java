@@ -0,0 +1,580 @@
+package espresso.achievement.infrastructure.repositories;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.data.domain.Limit;
+
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementDtoLg;
+import espresso.achievement.domain.entities.AchievementDtoMd;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.domain.entities.AchievementMediaDtoLg;
+import espresso.achievement.domain.entities.AchievementMediaDtoSm;
+import espresso.achievement.domain.entities.AchievementSearchHit;
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.readModels.AchievementFacetsReadModel;
+import espresso.achievement.domain.readModels.AchievementMediaDetailReadModel;
+import espresso.achievement.domain.readModels.FacetCountReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.SkillSummaryReadModel;
+import espresso.achievement.domain.readModels.UserProfileSummaryReadModel;
+import espresso.common.domain.queries.KeysetItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Builds the achievement read queries from a select clause per DTO size and a
+ * shared where/order clause.
+ * <p>
+ * Every size selects its record directly with a JPQL constructor expression,
+ * so only the columns the size exposes are read and no entity or proxy is
+ * created. Constructor expressions can not build collections, so the sizes
+ * that expose media load them for the whole page with one extra query and
+ * attach them to the records. A page is therefore always one or two
+ * statements.
+ * </p>
+ * <p>
+ * The summary read models hold arrays, so they are assembled from plain
+ * tuples with the same two statements per page.
+ * </p>
+ * <p>
+ * Facet counts are read in a single grouped statement and summed per facet
+ * in memory, see {@link #findAchievementFacets}.
+ * </p>
+ */
+public class AchievementProjectionPSQLProviderImpl implements AchievementProjectionPSQLProvider {
+
+    private static final Map<Class<?>, String> SELECTS = Map.of(
+            AchievementDtoSm.class, "SELECT new " + AchievementDtoSm.class.getName() + "("
+                    + "a.id, a.registeredAt, a.entityKey, a.title, a.description, a.skills, "
+                    + "u.entityKey, u.username, u.email) "
+                    + "FROM Achievement a LEFT JOIN a.user u",
+            AchievementDtoMd.class, "SELECT new " + AchievementDtoMd.class.getName() + "("
+                    + "a.id, a.registeredAt, a.entityKey, a.title, a.description, a.completedDate, "
+                    + "u.entityKey, u.username, u.email, a.skills, a.achievementVisibility) "
+                    + "FROM Achievement a LEFT JOIN a.user u",
+            AchievementDtoLg.class, "SELECT new " + AchievementDtoLg.class.getName() + "("
+                    + "a.id, a.registeredAt, a.entityKey, a.title, a.description, a.completedDate, "
+                    + "u.entityKey, u.username, u.email, u.firstName, u.lastName, u.birthDate, "
+                    + "p.id, p.imageName, p.contentType, p.imageExtension, p.profileImageUrl, "
+                    + "a.skills, a.achievementVisibility) "
+                    + "FROM Achievement a LEFT JOIN a.user u LEFT JOIN u.profileImage p",
+            Achievement.class, "SELECT a FROM Achievement a");
+
+    private static final Map<Class<?>, String> MEDIA_SELECTS = Map.of(
+            AchievementDtoSm.class, "SELECT m.achievement.id, new " + AchievementMediaDtoSm.class.getName() + "("
+                    + "m.imageKey, m.mediaUrl) "
+                    + "FROM AchievementMedia m WHERE m.achievement.id IN :ids ORDER BY m.id",
+            AchievementDtoLg.class, "SELECT m.achievement.id, new " + AchievementMediaDtoLg.class.getName() + "("
+                    + "m.imageKey, m.imageName, m.originalImageName, m.contentType, m.mediaUrl, m.fileSize) "
+                    + "FROM AchievementMedia m WHERE m.achievement.id IN :ids ORDER BY m.id");
+
+    private static final String SUMMARY_SELECT = "SELECT a.id, a.registeredAt, a.entityKey, a.title, "
+            + "a.completedDate, a.skills, u.entityKey, u.username "
+            + "FROM Achievement a LEFT JOIN a.user u";
+
+    private static final String SUMMARY_MEDIA_SELECT = "SELECT m.achievement.id, m.imageKey, m.mediaUrl "
+            + "FROM AchievementMedia m WHERE m.achievement.id IN :ids ORDER BY m.id";
+
+    private static final String OF_USER = "a.user.id = (SELECT su.id FROM User su WHERE su.entityKey = :userKey)";
+
+    // Literal values, so that PostgreSQL matches the predicate of idx_achievement_public_registered_at_id_desc
+    private static final String PUBLIC = "a.achievementVisibility = "
+            + AchievementVisibilityStatus.class.getName() + ".EVERYONE AND a.active = true";
+
+    private static final String ACTIVE = "a.active = true";
+
+    private static final String VISIBLE_TO_REQUESTER = "(" + PUBLIC + " OR (" + ACTIVE
+            + " AND u.entityKey = :requesterKey))";
+
+    private static final String HIDDEN = "a.active = true AND (a.achievementVisibility IS NULL "
+            + "OR a.achievementVisibility <> " + AchievementVisibilityStatus.class.getName() + ".EVERYONE)";
+
+    private static final String ORDER_BY_NEWEST = " ORDER BY a.registeredAt DESC, a.id DESC";
+
+    private static final String FACET_CELL = "extract(year from a.completedDate), extract(month from a.completedDate), "
+            + "a.achievementVisibility, a.skillMask";
+
+    private static final String FACET_CELLS_SELECT = "SELECT " + FACET_CELL + ", count(a) FROM Achievement a";
+
+    private static final String AFTER_FROM_DATE = "a.registeredAt > :fromDate";
+
+    private static final String BEFORE_CURSOR = "a.registeredAt <= :registeredAt "
+            + "AND (a.registeredAt < :registeredAt OR a.id < :id)";
+
+    // Native PostgreSQL: searchVector is maintained by the database and not mapped on the entity.
+    // Every match is ranked, so the order of the pages is the same whichever rows were added since
+    private static final String SEARCH_RANKED = "WITH query AS (SELECT websearch_to_tsquery('english', :text) AS q), "
+            + "ranked AS (SELECT a.id, ts_rank_cd(a.searchVector, query.q) AS rank "
+            + "FROM Achievements a CROSS JOIN query LEFT JOIN Users u ON u.id = a.userId "
+            + "WHERE a.searchVector @@ query.q AND a.active = true "
+            + "AND (a.achievementVisibility = 'EVERYONE' OR u.entityKey = cast(:requesterKey AS varchar))) "
+            + "SELECT id, rank FROM ranked ";
+
+    // Public so that AchievementSearchBenchmark measures the same statements
+    public static final String SEARCH = SEARCH_RANKED + "ORDER BY rank DESC, id DESC LIMIT :limit";
+
+    public static final String SEARCH_AFTER = SEARCH_RANKED
+            + "WHERE (rank, id) < (cast(:rank AS real), :id) ORDER BY rank DESC, id DESC LIMIT :limit";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <T> T findAchievementByKey(Class<T> type, String entityKey) {
+        TypedQuery<T> query = entityManager
+                .createQuery(select(type) + " WHERE a.entityKey = :entityKey", type)
+                .setParameter("entityKey", entityKey)
+                .setMaxResults(1);
+
+        List<T> result = attachMedia(type, query.getResultList());
+
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public <T> List<T> findLatestAchievements(Class<T> type, Limit limit) {
+        TypedQuery<T> query = entityManager.createQuery(select(type) + " WHERE " + PUBLIC + ORDER_BY_NEWEST, type);
+
+        return getPage(type, query, limit);
+    }
+
+    @Override
+    public <T> List<T> findLatestAchievements(Class<T> type, Limit limit, OffsetDateTime fromDate) {
+        TypedQuery<T> query = entityManager
+                .createQuery(select(type) + " WHERE " + PUBLIC + " AND " + AFTER_FROM_DATE + ORDER_BY_NEWEST, type)
+                .setParameter("fromDate", fromDate);
+
+        return getPage(type, query, limit);
+    }
+
+    @Override
+    public <T> List<T> findLatestAchievementsBefore(Class<T> type, Limit limit, OffsetDateTime registeredAt,
+            Long id) {
+        TypedQuery<T> query = entityManager
+                .createQuery(select(type) + " WHERE " + PUBLIC + " AND " + BEFORE_CURSOR + ORDER_BY_NEWEST, type)
+                .setParameter("registeredAt", registeredAt)
+                .setParameter("id", id);
+
+        return getPage(type, query, limit);
+    }
+
+    @Override
+    public <T> List<T> findLatestAchievementsBefore(Class<T> type, Limit limit, OffsetDateTime fromDate,
+            OffsetDateTime registeredAt, Long id) {
+        TypedQuery<T> query = entityManager
+                .createQuery(select(type) + " WHERE " + PUBLIC + " AND " + AFTER_FROM_DATE + " AND " + BEFORE_CURSOR
+                        + ORDER_BY_NEWEST, type)
+                .setParameter("fromDate", fromDate)
+                .setParameter("registeredAt", registeredAt)
+                .setParameter("id", id);
+
+        return getPage(type, query, limit);
+    }
+
+    @Override
+    public <T> List<T> findHiddenAchievementsOfUser(Class<T> type, Limit limit, String userKey,
+            OffsetDateTime fromDate, OffsetDateTime registeredAt, Long id) {
+        StringBuilder jpql = new StringBuilder(select(type))
+                .append(" WHERE ").append(OF_USER).append(" AND ").append(HIDDEN);
+
+        if (fromDate != null) {
+            jpql.append(" AND ").append(AFTER_FROM_DATE);
+        }
+
+        if (registeredAt != null) {
+            jpql.append(" AND ").append(BEFORE_CURSOR);
+        }
+
+        TypedQuery<T> query = entityManager.createQuery(jpql + ORDER_BY_NEWEST, type)
+                .setParameter("userKey", userKey);
+
+        if (fromDate != null) {
+            query.setParameter("fromDate", fromDate);
+        }
+
+        if (registeredAt != null) {
+            query.setParameter("registeredAt", registeredAt).setParameter("id", id);
+        }
+
+        return getPage(type, query, limit);
+    }
+
+    @Override
+    public <T> List<T> findAchievementsByIds(Class<T> type, List<Long> ids, String requesterKey) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<T> dtos = attachMedia(type, setRequester(entityManager
+                .createQuery(select(type) + " WHERE a.id IN :ids AND " + visibleTo(requesterKey), type)
+                .setParameter("ids", ids), requesterKey)
+                .getResultList());
+
+        // Back in the order of the ids
+        Map<Long, T> byId = new HashMap<>();
+
+        for (T dto : dtos) {
+            byId.put(((KeysetItem) dto).getId(), dto);
+        }
+
+        List<T> result = new ArrayList<>(dtos.size());
+
+        for (Long id : ids) {
+            T dto = byId.get(id);
+
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public <T> List<T> findAchievementsWithSkills(Class<T> type, Limit limit, List<String> skills,
+            boolean matchAll, OffsetDateTime fromDate) {
+        return findAchievementsWithSkillsBefore(type, limit, skills, matchAll, fromDate, null, null);
+    }
+
+    @Override
+    public <T> List<T> findAchievementsWithSkillsBefore(Class<T> type, Limit limit, List<String> skills,
+            boolean matchAll, OffsetDateTime fromDate, OffsetDateTime registeredAt, Long id) {
+        StringBuilder jpql = new StringBuilder(select(type))
+                .append(" WHERE ").append(PUBLIC).append(" AND ").append(withSkills(skills, matchAll));
+
+        if (fromDate != null) {
+            jpql.append(" AND ").append(AFTER_FROM_DATE);
+        }
+
+        if (registeredAt != null) {
+            jpql.append(" AND ").append(BEFORE_CURSOR);
+        }
+
+        TypedQuery<T> query = setSkills(entityManager.createQuery(jpql + ORDER_BY_NEWEST, type), skills);
+
+        if (fromDate != null) {
+            query.setParameter("fromDate", fromDate);
+        }
+
+        if (registeredAt != null) {
+            query.setParameter("registeredAt", registeredAt).setParameter("id", id);
+        }
+
+        return getPage(type, query, limit);
+    }
+
+    @Override
+    public AchievementFacetsReadModel findAchievementFacets(List<String> skills, boolean matchAll,
+            OffsetDateTime fromDate) {
+        List<String> conditions = new ArrayList<>(List.of(PUBLIC));
+
+        if (!skills.isEmpty()) {
+            conditions.add(withSkills(skills, matchAll));
+        }
+
+        if (fromDate != null) {
+            conditions.add(AFTER_FROM_DATE);
+        }
+
+        String jpql = FACET_CELLS_SELECT + " WHERE " + String.join(" AND ", conditions) + " GROUP BY " + FACET_CELL;
+
+        TypedQuery<Object[]> query = setSkills(entityManager.createQuery(jpql, Object[].class), skills);
+
+        if (fromDate != null) {
+            query.setParameter("fromDate", fromDate);
+        }
+
+        long total = 0;
+        long[] skillCounts = new long[AchievementSkill.values().length];
+        Map<String, Long> monthCounts = new TreeMap<>(Comparator.reverseOrder());
+        Map<AchievementVisibilityStatus, Long> visibilityCounts = new EnumMap<>(AchievementVisibilityStatus.class);
+
+        for (Object[] cell : query.getResultList()) {
+            AchievementVisibilityStatus visibility = (AchievementVisibilityStatus) cell[2];
+            short skillMask = (Short) cell[3];
+            long count = (Long) cell[4];
+
+            total += count;
+            monthCounts.merge(String.format("%04d-%02d", (Integer) cell[0], (Integer) cell[1]), count, Long::sum);
+
+            if (visibility != null) {
+                visibilityCounts.merge(visibility, count, Long::sum);
+            }
+
+            for (AchievementSkill skill : AchievementSkill.values()) {
+                if ((skillMask & skill.getMask()) != 0) {
+                    skillCounts[skill.ordinal()] += count;
+                }
+            }
+        }
+
+        List<FacetCountReadModel> skillFacets = new ArrayList<>();
+
+        for (AchievementSkill skill : AchievementSkill.values()) {
+            skillFacets.add(new FacetCountReadModel(skill.getAbbreviation(), skillCounts[skill.ordinal()]));
+        }
+
+        List<FacetCountReadModel> monthFacets = new ArrayList<>();
+        monthCounts.forEach((month, count) -> monthFacets.add(new FacetCountReadModel(month, count)));
+
+        List<FacetCountReadModel> visibilityFacets = new ArrayList<>();
+        visibilityCounts.forEach((visibility, count) -> visibilityFacets
+                .add(new FacetCountReadModel(visibility.name(), count)));
+
+        return new AchievementFacetsReadModel(total, skillFacets, monthFacets, visibilityFacets);
+    }
+
+    @Override
+    public List<AchievementSearchHit> searchAchievements(String text, Limit limit, Float rank, Long id,
+            String requesterKey) {
+        Query query = entityManager
+                .createNativeQuery(rank == null ? SEARCH : SEARCH_AFTER, Object[].class)
+                .setParameter("text", text)
+                .setParameter("requesterKey", requesterKey)
+                .setParameter("limit", limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
+
+        if (rank != null) {
+            query.setParameter("rank", rank).setParameter("id", id);
+        }
+
+        List<AchievementSearchHit> hits = new ArrayList<>();
+
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            hits.add(new AchievementSearchHit(((Number) columns[0]).longValue(), ((Number) columns[1]).floatValue()));
+        }
+
+        return hits;
+    }
+
+    @Override
+    public AchievementSummaryReadModel findAchievementSummaryByKey(String entityKey, String requesterKey) {
+        TypedQuery<Object[]> query = setRequester(entityManager
+                .createQuery(SUMMARY_SELECT + " WHERE a.entityKey = :entityKey AND " + visibleTo(requesterKey),
+                        Object[].class)
+                .setParameter("entityKey", entityKey)
+                .setMaxResults(1), requesterKey);
+
+        List<AchievementSummaryReadModel> result = toSummaries(query.getResultList());
+
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public List<AchievementSummaryReadModel> findAchievementSummariesByKeys(Collection<String> entityKeys,
+            String requesterKey) {
+        if (entityKeys.isEmpty()) {
+            return List.of();
+        }
+
+        TypedQuery<Object[]> query = setRequester(entityManager
+                .createQuery(SUMMARY_SELECT + " WHERE a.entityKey IN :entityKeys AND " + visibleTo(requesterKey),
+                        Object[].class)
+                .setParameter("entityKeys", entityKeys), requesterKey);
+
+        return toSummaries(query.getResultList());
+    }
+
+    @Override
+    public List<AchievementSummaryReadModel> findAchievementSummariesByUser(String userKey, boolean includeHidden,
+            Limit limit) {
+        TypedQuery<Object[]> query = entityManager
+                .createQuery(SUMMARY_SELECT + " WHERE " + OF_USER + " AND " + (includeHidden ? ACTIVE : PUBLIC)
+                        + ORDER_BY_NEWEST, Object[].class)
+                .setParameter("userKey", userKey);
+
+        return getSummaryPage(query, limit);
+    }
+
+    @Override
+    public List<AchievementSummaryReadModel> findAchievementSummariesByUserBefore(String userKey,
+            boolean includeHidden, Limit limit, OffsetDateTime registeredAt, Long id) {
+        TypedQuery<Object[]> query = entityManager
+                .createQuery(SUMMARY_SELECT + " WHERE " + OF_USER + " AND " + (includeHidden ? ACTIVE : PUBLIC)
+                        + " AND " + BEFORE_CURSOR + ORDER_BY_NEWEST, Object[].class)
+                .setParameter("userKey", userKey)
+                .setParameter("registeredAt", registeredAt)
+                .setParameter("id", id);
+
+        return getSummaryPage(query, limit);
+    }
+
+    @Override
+    public List<AchievementSummaryReadModel> findAchievementSummariesByUserAfterId(String userKey,
+            boolean includeHidden, long afterId, Limit limit, OffsetDateTime registeredAt, Long id) {
+        TypedQuery<Object[]> query = entityManager
+                .createQuery(SUMMARY_SELECT + " WHERE " + OF_USER + " AND " + (includeHidden ? ACTIVE : PUBLIC)
+                        + " AND a.id > :afterId" + (registeredAt != null ? " AND " + BEFORE_CURSOR : "")
+                        + ORDER_BY_NEWEST, Object[].class)
+                .setParameter("userKey", userKey)
+                .setParameter("afterId", afterId);
+
+        if (registeredAt != null) {
+            query.setParameter("registeredAt", registeredAt).setParameter("id", id);
+        }
+
+        return getSummaryPage(query, limit);
+    }
+
+    /**
+     * Builds the array overlap (any) or containment (all) predicate. The skills
+     * are bound one parameter per element, so the array is typed on every
+     * database; the skill set is closed, so there are few distinct statements.
+     */
+    private static String withSkills(List<String> skills, boolean matchAll) {
+        StringBuilder array = new StringBuilder("array_list(");
+
+        for (int i = 0; i < skills.size(); i++) {
+            array.append(i == 0 ? "" : ", ").append("cast(:skill").append(i).append(" as String)");
+        }
+
+        return (matchAll ? "array_includes(a.skills, " : "array_intersects(a.skills, ") + array + "))";
+    }
+
+    /**
+     * Builds the visibility predicate of a requester: the public achievements,
+     * plus the active achievements of the requester when there is one
+     */
+    private static String visibleTo(String requesterKey) {
+        return requesterKey == null ? PUBLIC : VISIBLE_TO_REQUESTER;
+    }
+
+    private static <T> TypedQuery<T> setRequester(TypedQuery<T> query, String requesterKey) {
+        return requesterKey == null ? query : query.setParameter("requesterKey", requesterKey);
+    }
+
+    private static <T> TypedQuery<T> setSkills(TypedQuery<T> query, List<String> skills) {
+        for (int i = 0; i < skills.size(); i++) {
+            query.setParameter("skill" + i, skills.get(i));
+        }
+
+        return query;
+    }
+
+    private String select(Class<?> type) {
+        String select = SELECTS.get(type);
+
+        if (select == null) {
+            throw new IllegalArgumentException("Unsupported achievement projection: " + type.getName());
+        }
+
+        return select;
+    }
+
+    private <T> List<T> getPage(Class<T> type, TypedQuery<T> query, Limit limit) {
+        if (limit != null && limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+
+        return attachMedia(type, query.getResultList());
+    }
+
+    /**
+     * Loads the media of every achievement of the page in one query and
+     * returns copies of the records with their media attached
+     */
+    private <T> List<T> attachMedia(Class<T> type, List<T> dtos) {
+        String select = MEDIA_SELECTS.get(type);
+
+        if (select == null || dtos.isEmpty()) {
+            return dtos;
+        }
+
+        List<Long> ids = dtos.stream().map(dto -> ((KeysetItem) dto).getId()).toList();
+
+        Map<Long, List<Object>> mediaByAchievement = new HashMap<>();
+
+        for (Object[] row : entityManager.createQuery(select, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            mediaByAchievement.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row[1]);
+        }
+
+        List<T> result = new ArrayList<>(dtos.size());
+
+        for (T dto : dtos) {
+            List<Object> media = mediaByAchievement.getOrDefault(((KeysetItem) dto).getId(), List.of());
+            result.add(type.cast(withMedia(dto, media)));
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object withMedia(Object dto, List<?> media) {
+        if (dto instanceof AchievementDtoSm sm) {
+            return sm.withMedia(List.copyOf((List<AchievementMediaDtoSm>) media));
+        }
+
+        if (dto instanceof AchievementDtoLg lg) {
+            return lg.withMedia(List.copyOf((List<AchievementMediaDtoLg>) media));
+        }
+
+        return dto;
+    }
+
+    private List<AchievementSummaryReadModel> getSummaryPage(TypedQuery<Object[]> query, Limit limit) {
+        if (limit != null && limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+
+        return toSummaries(query.getResultList());
+    }
+
+    /**
+     * Builds the summaries of a page from the achievement tuples, loading the
+     * media of the whole page in one query
+     */
+    @SuppressWarnings("unchecked")
+    private List<AchievementSummaryReadModel> toSummaries(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+
+        Map<Long, List<AchievementMediaDetailReadModel>> mediaByAchievement = new HashMap<>();
+
+        for (Object[] row : entityManager.createQuery(SUMMARY_MEDIA_SELECT, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            mediaByAchievement.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new AchievementMediaDetailReadModel((String) row[1], row[2] != null));
+        }
+
+        List<AchievementSummaryReadModel> result = new ArrayList<>(rows.size());
+
+        for (Object[] row : rows) {
+            List<String> skills = row[5] != null ? (List<String>) row[5] : List.of();
+            UserProfileSummaryReadModel userProfile = row[6] != null
+                    ? new UserProfileSummaryReadModel((String) row[6], (String) row[7])
+                    : null;
+
+            result.add(new AchievementSummaryReadModel(
+                    (Long) row[0],
+                    (OffsetDateTime) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    (Date) row[4],
+                    skills.stream().map(SkillSummaryReadModel::new).toArray(SkillSummaryReadModel[]::new),
+                    mediaByAchievement.getOrDefault((Long) row[0], List.of())
+                            .toArray(AchievementMediaDetailReadModel[]::new),
+                    userProfile));
+        }
+
+        return result;
+    }
+}
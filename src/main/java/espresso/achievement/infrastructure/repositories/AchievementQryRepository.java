@@ -2,13 +2,30 @@ package espresso.achievement.infrastructure.repositories;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
+import espresso.achievement.domain.contracts.IAchievementProjector;
 import espresso.achievement.domain.contracts.IAchievementQryRepository;
+import espresso.achievement.domain.entities.AchievementFacetFilter;
+import espresso.achievement.domain.entities.AchievementProjection;
+import espresso.achievement.domain.entities.AchievementSearchHit;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.readModels.AchievementFacetsReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.UserProfileSummaryReadModel;
+import espresso.achievement.infrastructure.caches.AchievementFacetCache;
+import espresso.common.domain.queries.KeysetCursor;
+import espresso.common.domain.queries.RankCursor;
 
 @Component
 public class AchievementQryRepository implements IAchievementQryRepository {
@@ -16,8 +33,18 @@ public class AchievementQryRepository implements IAchievementQryRepository {
     @Autowired
     AchievementPSQLProvider achievementPSQLProvider;
 
+    @Autowired
+    AchievementReadModelPSQLProvider readModelPSQLProvider;
+
+    @Autowired
+    IAchievementProjector projector;
+
+    @Autowired
+    AchievementFacetCache facetCache;
+
     @Override
-    public <T> List<T> getLatestAchievements(Class<T> dtoType, Integer limit, OffsetDateTime fromDate) {
+    public <T> List<T> getLatestAchievements(Class<T> dtoType, Integer limit, OffsetDateTime fromDate,
+            KeysetCursor cursor) {
 
         List<T> entities;
 
@@ -25,6 +52,15 @@ public class AchievementQryRepository implements IAchievementQryRepository {
             limit = 10; // Default limit
         }
 
+        // If a cursor is provided, seek past the last achievement of the previous page
+        if (cursor != null) {
+            return fromDate == null
+                    ? achievementPSQLProvider.findLatestAchievementsBefore(dtoType, Limit.of(limit),
+                            cursor.getTimestamp(), cursor.getId())
+                    : achievementPSQLProvider.findLatestAchievementsBefore(dtoType, Limit.of(limit), fromDate,
+                            cursor.getTimestamp(), cursor.getId());
+        }
+
         // If fromDate is null, get all latest achievements
         // If fromDate is provided, filter achievements from that date
         // This allows for pagination and filtering based on date
@@ -35,6 +71,62 @@ public class AchievementQryRepository implements IAchievementQryRepository {
         return entities;
     }
 
+    @Override
+    public <T> List<T> getHiddenAchievementsOfUser(Class<T> dtoType, String userKey, Integer limit,
+            OffsetDateTime fromDate, KeysetCursor cursor) {
+
+        if (limit == null || limit <= 0) {
+            limit = 10; // Default limit
+        }
+
+        return cursor == null
+                ? achievementPSQLProvider.findHiddenAchievementsOfUser(dtoType, Limit.of(limit), userKey, fromDate,
+                        null, null)
+                : achievementPSQLProvider.findHiddenAchievementsOfUser(dtoType, Limit.of(limit), userKey, fromDate,
+                        cursor.getTimestamp(), cursor.getId());
+    }
+
+    @Override
+    public <T> List<T> getAchievementsWithSkills(Class<T> dtoType, Integer limit, List<String> skills,
+            boolean matchAll, OffsetDateTime fromDate, KeysetCursor cursor) {
+
+        if (limit == null || limit <= 0) {
+            limit = 10; // Default limit
+        }
+
+        // If a cursor is provided, seek past the last achievement of the previous page
+        return cursor == null
+                ? achievementPSQLProvider.findAchievementsWithSkills(dtoType, Limit.of(limit), skills, matchAll,
+                        fromDate)
+                : achievementPSQLProvider.findAchievementsWithSkillsBefore(dtoType, Limit.of(limit), skills,
+                        matchAll, fromDate, cursor.getTimestamp(), cursor.getId());
+    }
+
+    @Override
+    public AchievementFacetsReadModel getAchievementFacets(AchievementFacetFilter filter) {
+        return facetCache.get(filter, f -> achievementPSQLProvider.findAchievementFacets(f.skills(), f.matchAll(),
+                f.fromDate()));
+    }
+
+    @Override
+    public List<AchievementSearchHit> searchAchievements(String text, Integer limit, RankCursor cursor,
+            String requesterKey) {
+
+        if (limit == null || limit <= 0) {
+            limit = 10; // Default limit
+        }
+
+        return cursor == null
+                ? achievementPSQLProvider.searchAchievements(text, Limit.of(limit), null, null, requesterKey)
+                : achievementPSQLProvider.searchAchievements(text, Limit.of(limit), cursor.getRank(), cursor.getId(),
+                        requesterKey);
+    }
+
+    @Override
+    public <T> List<T> getAchievementsByIds(Class<T> dtoType, List<Long> ids, String requesterKey) {
+        return achievementPSQLProvider.findAchievementsByIds(dtoType, ids, requesterKey);
+    }
+
     @Override
     public <T> T getAchievementByKey(Class<T> dtoType, String entityKey) {
 
@@ -45,4 +137,141 @@ public class AchievementQryRepository implements IAchievementQryRepository {
         return entity;
     }
 
+    @Override
+    public AchievementSummaryReadModel getAchievementSummaryByKey(String entityKey, String requesterKey) {
+
+        // Read the pre-joined row; an achievement created since the last projection is read from the write tables
+        if (projector.isReady()) {
+            AchievementProjection projection = readModelPSQLProvider.findByEntityKey(entityKey);
+
+            if (projection != null) {
+                return isVisible(projection, requesterKey) ? projection.toSummaryReadModel() : null;
+            }
+        }
+
+        return achievementPSQLProvider.findAchievementSummaryByKey(entityKey, requesterKey);
+    }
+
+    @Override
+    public List<AchievementSummaryReadModel> getAchievementSummariesByKeys(Collection<String> entityKeys,
+            String requesterKey) {
+
+        if (!projector.isReady() || entityKeys.isEmpty()) {
+            return achievementPSQLProvider.findAchievementSummariesByKeys(entityKeys, requesterKey);
+        }
+
+        Map<String, AchievementSummaryReadModel> summaries = new HashMap<>();
+        Set<String> projected = new HashSet<>();
+
+        for (AchievementProjection projection : readModelPSQLProvider.findByEntityKeyIn(entityKeys)) {
+            projected.add(projection.getEntityKey());
+
+            if (isVisible(projection, requesterKey)) {
+                summaries.put(projection.getEntityKey(), projection.toSummaryReadModel());
+            }
+        }
+
+        // Keys without a projection are read from the write tables
+        List<String> missing = entityKeys.stream().filter(key -> !projected.contains(key)).toList();
+
+        List<AchievementSummaryReadModel> result = new ArrayList<>(summaries.values());
+
+        if (!missing.isEmpty()) {
+            result.addAll(achievementPSQLProvider.findAchievementSummariesByKeys(missing, requesterKey));
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<AchievementSummaryReadModel> getAchievementSummariesByUser(String userKey, boolean includeHidden,
+            Integer limit, KeysetCursor cursor) {
+
+        if (limit == null || limit <= 0) {
+            limit = 10; // Default limit
+        }
+
+        // The projections of a user are read from one index, without joining the users and media.
+        // The achievements above the watermark may not be projected yet, so they are read from the
+        // write tables and merged in
+        if (projector.isReady()) {
+            long watermark = projector.getWatermark();
+            List<AchievementProjection> projections;
+
+            if (includeHidden) {
+                projections = cursor == null
+                        ? readModelPSQLProvider.findByUser(userKey, Limit.of(limit))
+                        : readModelPSQLProvider.findByUserBefore(userKey, cursor.getTimestamp(), cursor.getId(),
+                                Limit.of(limit));
+            } else {
+                projections = cursor == null
+                        ? readModelPSQLProvider.findPublicByUser(userKey, Limit.of(limit))
+                        : readModelPSQLProvider.findPublicByUserBefore(userKey, cursor.getTimestamp(), cursor.getId(),
+                                Limit.of(limit));
+            }
+
+            List<AchievementSummaryReadModel> recent = achievementPSQLProvider.findAchievementSummariesByUserAfterId(
+                    userKey, includeHidden, watermark, Limit.of(limit), cursor == null ? null : cursor.getTimestamp(),
+                    cursor == null ? null : cursor.getId());
+
+            return mergeNewestFirst(recent,
+                    projections.stream().map(AchievementProjection::toSummaryReadModel).toList(), limit);
+        }
+
+        // If a cursor is provided, seek past the last achievement of the previous page
+        return cursor == null
+                ? achievementPSQLProvider.findAchievementSummariesByUser(userKey, includeHidden, Limit.of(limit))
+                : achievementPSQLProvider.findAchievementSummariesByUserBefore(userKey, includeHidden,
+                        Limit.of(limit), cursor.getTimestamp(), cursor.getId());
+    }
+
+    @Override
+    public List<String> getPublicEntityKeys(Collection<String> entityKeys) {
+        return entityKeys.isEmpty() ? List.of() : achievementPSQLProvider.findPublicEntityKeys(entityKeys);
+    }
+
+    /**
+     * Merges two pages sorted newest first; the first page wins when both hold the same achievement
+     */
+    private static List<AchievementSummaryReadModel> mergeNewestFirst(List<AchievementSummaryReadModel> first,
+            List<AchievementSummaryReadModel> second, int limit) {
+        if (first.isEmpty()) {
+            return second;
+        }
+
+        Map<Long, AchievementSummaryReadModel> byId = new HashMap<>();
+        second.forEach(summary -> byId.put(summary.getId(), summary));
+        first.forEach(summary -> byId.put(summary.getId(), summary));
+
+        return byId.values().stream()
+                .sorted(Comparator.comparing(AchievementSummaryReadModel::getRegisteredAt)
+                        .thenComparing(AchievementSummaryReadModel::getId).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Same rule as the summary queries: public achievements, and the active achievements of the requester
+     */
+    private static boolean isVisible(AchievementProjection projection, String requesterKey) {
+        return projection.isActive()
+                && (projection.getAchievementVisibility() == AchievementVisibilityStatus.EVERYONE
+                        || (requesterKey != null && requesterKey.equals(projection.getUserKey())));
+    }
+
+    @Override
+    public Map<Long, UserProfileSummaryReadModel> getUserSummariesByIds(Collection<Long> userIds) {
+
+        Map<Long, UserProfileSummaryReadModel> summaries = new HashMap<>();
+
+        if (userIds.isEmpty()) {
+            return summaries;
+        }
+
+        for (Object[] row : achievementPSQLProvider.findUserSummariesByIds(userIds)) {
+            summaries.put((Long) row[0], new UserProfileSummaryReadModel((String) row[1], (String) row[2]));
+        }
+
+        return summaries;
+    }
 }
@@ -0,0 +1,95 @@
+package espresso.achievement.infrastructure.repositories;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import espresso.achievement.domain.entities.AchievementProjection;
+
+/**
+ * Reads and clears the denormalized {@link AchievementProjection} rows. The
+ * rows are written by the AchievementProjector.
+ */
+@Repository
+public interface AchievementReadModelPSQLProvider extends JpaRepository<AchievementProjection, Long> {
+
+    String PUBLIC = "p.achievementVisibility = espresso.achievement.domain.entities.AchievementVisibilityStatus.EVERYONE "
+            + "AND p.active = true ";
+
+    AchievementProjection findByEntityKey(String entityKey);
+
+    List<AchievementProjection> findByEntityKeyIn(Collection<String> entityKeys);
+
+    /**
+     * Gets the newest active projections of a user (the timeline the owner
+     * sees), read from idx_achievement_projection_user_registered_at_id_desc
+     * @param userKey The key of the user
+     * @param limit Maximum number of results to return
+     * @return The projections, newest first
+     */
+    @Query("SELECT p FROM AchievementProjection p WHERE p.userKey = :userKey AND p.active = true "
+            + "ORDER BY p.registeredAt DESC, p.id DESC")
+    List<AchievementProjection> findByUser(@Param("userKey") String userKey, Limit limit);
+
+    /**
+     * Gets the active projections of a user that follow the given cursor position
+     * @param userKey The key of the user
+     * @param registeredAt The registration date of the last achievement of the previous page
+     * @param id The id of the last achievement of the previous page
+     * @param limit Maximum number of results to return
+     * @return The projections, newest first
+     */
+    @Query("SELECT p FROM AchievementProjection p WHERE p.userKey = :userKey AND p.active = true "
+            + "AND p.registeredAt <= :registeredAt AND (p.registeredAt < :registeredAt OR p.id < :id) "
+            + "ORDER BY p.registeredAt DESC, p.id DESC")
+    List<AchievementProjection> findByUserBefore(@Param("userKey") String userKey,
+            @Param("registeredAt") OffsetDateTime registeredAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Gets the newest public (EVERYONE and active) projections of a user (the
+     * timeline every other user sees)
+     * @param userKey The key of the user
+     * @param limit Maximum number of results to return
+     * @return The projections, newest first
+     */
+    @Query("SELECT p FROM AchievementProjection p WHERE p.userKey = :userKey AND " + PUBLIC
+            + "ORDER BY p.registeredAt DESC, p.id DESC")
+    List<AchievementProjection> findPublicByUser(@Param("userKey") String userKey, Limit limit);
+
+    /**
+     * Gets the public projections of a user that follow the given cursor position
+     * @param userKey The key of the user
+     * @param registeredAt The registration date of the last achievement of the previous page
+     * @param id The id of the last achievement of the previous page
+     * @param limit Maximum number of results to return
+     * @return The projections, newest first
+     */
+    @Query("SELECT p FROM AchievementProjection p WHERE p.userKey = :userKey AND " + PUBLIC
+            + "AND p.registeredAt <= :registeredAt AND (p.registeredAt < :registeredAt OR p.id < :id) "
+            + "ORDER BY p.registeredAt DESC, p.id DESC")
+    List<AchievementProjection> findPublicByUserBefore(@Param("userKey") String userKey,
+            @Param("registeredAt") OffsetDateTime registeredAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Deletes the projections of an id range, before it is projected again
+     * @return The number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM AchievementProjection p WHERE p.id BETWEEN :fromId AND :toId")
+    int deleteByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Deletes the projections of achievements outside the id range of the write table
+     * @return The number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM AchievementProjection p WHERE p.id < :fromId OR p.id > :toId")
+    int deleteOutsideIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -0,0 +1,311 @@
+package espresso.achievement.infrastructure.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import espresso.achievement.domain.contracts.IAchievementTimelineRepository;
+import espresso.achievement.domain.entities.AchievementTimelineEntry;
+import espresso.achievement.domain.entities.AchievementTimelineItem;
+import espresso.achievement.domain.entities.MaterializedTimeline;
+import espresso.achievement.infrastructure.timelines.AchievementTimelineMerger;
+import espresso.common.domain.queries.KeysetCursor;
+
+/**
+ * Reads the home timelines, from the followees of a user or from their
+ * precomputed entries.
+ * <p>
+ * Fan-out on read: the heads of the streams of all the followees are read in
+ * one statement (a lateral keyset read of the per-user index of every
+ * followee) and merged by the {@link AchievementTimelineMerger}, which reads
+ * further into the streams that fill the page. It costs nothing on write,
+ * but the heads grow with the number of followees.
+ * </p>
+ * <p>
+ * Fan-out on write: once a user follows {@code min-followees} users, their
+ * latest {@code capacity} achievements are copied into
+ * {@link AchievementTimelineEntry} rows and every new public achievement of a
+ * followee is added to them, so a page is one index range read whatever the
+ * number of followees. The entries are complete down to the horizon of the
+ * {@link MaterializedTimeline}; the pages past it are merged.
+ * </p>
+ * <p>
+ * The statements are public for the benchmark.
+ * </p>
+ */
+@Component
+public class AchievementTimelineRepository implements IAchievementTimelineRepository {
+
+    // Positions before the newest and after the oldest possible achievement
+    private static final KeysetCursor NEWEST = new KeysetCursor(
+            OffsetDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC), Long.MAX_VALUE);
+
+    private static final KeysetCursor OLDEST = new KeysetCursor(
+            OffsetDateTime.of(1, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC), 0L);
+
+    private static final String PUBLIC = "a.achievementVisibility = 'EVERYONE' AND a.active = true";
+
+    private static final String BEFORE_CURSOR = "(a.registeredAt < :registeredAt "
+            + "OR (a.registeredAt = :registeredAt AND a.id < :id))";
+
+    private static final String NEWEST_FIRST = " ORDER BY a.registeredAt DESC, a.id DESC";
+
+    // The public achievements of one followee, read from idx_achievement_user_registered_at_id_desc
+    private static final String FOLLOWEE_STREAM = "SELECT a.id, a.registeredAt, a.userId FROM Achievements a "
+            + "WHERE a.userId = f.followeeId AND " + PUBLIC;
+
+    public static final String USER_ID = "SELECT id FROM Users WHERE entityKey = :userKey";
+
+    public static final String HEADS = "SELECT a.id, a.registeredAt, a.userId FROM UserFollows f "
+            + "CROSS JOIN LATERAL (" + FOLLOWEE_STREAM + " AND " + BEFORE_CURSOR + NEWEST_FIRST
+            + " LIMIT :pageSize) a WHERE f.followerId = :ownerId";
+
+    public static final String STREAM_PAGE = "SELECT a.id, a.registeredAt, a.userId FROM Achievements a "
+            + "WHERE a.userId = :authorId AND " + PUBLIC + " AND " + BEFORE_CURSOR + NEWEST_FIRST
+            + " LIMIT :pageSize";
+
+    public static final String MATERIALIZED_PAGE = "SELECT e.achievementId, e.registeredAt, e.authorId "
+            + "FROM AchievementTimelineEntries e WHERE e.ownerId = :ownerId "
+            + "AND (e.registeredAt < :registeredAt OR (e.registeredAt = :registeredAt AND e.achievementId < :id)) "
+            + "AND (e.registeredAt > :horizonRegisteredAt "
+            + "OR (e.registeredAt = :horizonRegisteredAt AND e.achievementId >= :horizonId)) "
+            + "ORDER BY e.registeredAt DESC, e.achievementId DESC LIMIT :limit";
+
+    public static final String FAN_OUT = "INSERT INTO AchievementTimelineEntries "
+            + "(ownerId, achievementId, authorId, registeredAt) "
+            + "SELECT f.followerId, a.id, a.userId, a.registeredAt FROM Achievements a "
+            + "JOIN UserFollows f ON f.followeeId = a.userId "
+            + "JOIN MaterializedTimelines t ON t.ownerId = f.followerId "
+            + "WHERE a.entityKey IN (:entityKeys) AND " + PUBLIC + " "
+            + "ON CONFLICT (ownerId, achievementId) DO NOTHING";
+
+    private static final String FOLLOWEE_COUNT = "SELECT count(*) FROM UserFollows WHERE followerId = :ownerId";
+
+    private static final String MATERIALIZATION = "SELECT horizonRegisteredAt, horizonAchievementId "
+            + "FROM MaterializedTimelines WHERE ownerId = :ownerId";
+
+    // The latest achievements of all the followees, capacity at most
+    private static final String TIMELINE_WINDOW = "FROM UserFollows f CROSS JOIN LATERAL ("
+            + FOLLOWEE_STREAM + NEWEST_FIRST + " LIMIT :capacity) a WHERE f.followerId = :ownerId" + NEWEST_FIRST;
+
+    private static final String FOLLOWEE_WINDOW = "FROM Achievements a WHERE a.userId = :authorId AND " + PUBLIC
+            + NEWEST_FIRST;
+
+    private static final String INSERT_ENTRIES = "INSERT INTO AchievementTimelineEntries "
+            + "(ownerId, achievementId, authorId, registeredAt) SELECT :ownerId, a.id, a.userId, a.registeredAt ";
+
+    public static final String MATERIALIZE = INSERT_ENTRIES + TIMELINE_WINDOW
+            + " LIMIT :capacity ON CONFLICT (ownerId, achievementId) DO NOTHING";
+
+    private static final String BACKFILL_FOLLOWEE = INSERT_ENTRIES + FOLLOWEE_WINDOW
+            + " LIMIT :capacity ON CONFLICT (ownerId, achievementId) DO NOTHING";
+
+    // The last position a window of capacity reaches, none when the window holds everything
+    private static final String TIMELINE_HORIZON = "SELECT a.registeredAt, a.id " + TIMELINE_WINDOW
+            + " OFFSET :capacity - 1 LIMIT 1";
+
+    private static final String FOLLOWEE_HORIZON = "SELECT a.registeredAt, a.id " + FOLLOWEE_WINDOW
+            + " OFFSET :capacity - 1 LIMIT 1";
+
+    private static final String INSERT_MATERIALIZATION = "INSERT INTO MaterializedTimelines "
+            + "(ownerId, materializedAt, horizonRegisteredAt, horizonAchievementId) "
+            + "VALUES (:ownerId, :materializedAt, :horizonRegisteredAt, :horizonId)";
+
+    private static final String UPDATE_HORIZON = "UPDATE MaterializedTimelines "
+            + "SET horizonRegisteredAt = :horizonRegisteredAt, horizonAchievementId = :horizonId "
+            + "WHERE ownerId = :ownerId";
+
+    private static final String DELETE_FOLLOWEE_ENTRIES = "DELETE FROM AchievementTimelineEntries "
+            + "WHERE ownerId = :ownerId AND authorId = :authorId";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${achievement.timeline.merge.page-size:5}")
+    private int mergePageSize;
+
+    @Value("${achievement.timeline.materialize.min-followees:500}")
+    private int minFollowees;
+
+    @Value("${achievement.timeline.materialize.capacity:1000}")
+    private int capacity;
+
+    @Override
+    public List<AchievementTimelineItem> getTimeline(String userKey, int limit, KeysetCursor cursor) {
+        Long ownerId = findUserId(userKey);
+
+        if (ownerId == null) {
+            return List.of();
+        }
+
+        KeysetCursor after = cursor != null ? cursor : NEWEST;
+        Materialization materialization = findMaterialization(ownerId);
+
+        if (materialization == null) {
+            return merge(ownerId, limit, after);
+        }
+
+        KeysetCursor horizon = materialization.horizon() != null ? materialization.horizon() : OLDEST;
+
+        List<AchievementTimelineItem> items = jdbcTemplate.query(MATERIALIZED_PAGE,
+                params(ownerId, after).addValue("horizonRegisteredAt", horizon.getTimestamp())
+                        .addValue("horizonId", horizon.getId()).addValue("limit", limit),
+                AchievementTimelineRepository::toItem);
+
+        if (items.size() == limit || materialization.horizon() == null) {
+            return items;
+        }
+
+        // The page reached the horizon, the rest of it is merged from the followees
+        List<AchievementTimelineItem> page = new ArrayList<>(items);
+
+        page.addAll(merge(ownerId, limit - items.size(),
+                items.isEmpty() ? after : KeysetCursor.of(items.get(items.size() - 1))));
+
+        return page;
+    }
+
+    @Override
+    public void fanOut(Collection<String> entityKeys) {
+        if (!entityKeys.isEmpty()) {
+            jdbcTemplate.update(FAN_OUT, Map.of("entityKeys", entityKeys));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void follow(String followerKey, String followeeKey) {
+        Long ownerId = findUserId(followerKey);
+        Long authorId = findUserId(followeeKey);
+
+        if (ownerId == null || authorId == null) {
+            return;
+        }
+
+        Materialization materialization = findMaterialization(ownerId);
+
+        if (materialization == null) {
+            long followees = jdbcTemplate.queryForObject(FOLLOWEE_COUNT, Map.of("ownerId", ownerId), Long.class);
+
+            if (followees >= minFollowees) {
+                materialize(ownerId);
+            }
+
+            return;
+        }
+
+        Map<String, Object> parameters = Map.of("ownerId", ownerId, "authorId", authorId, "capacity", capacity);
+
+        KeysetCursor reached = findPosition(FOLLOWEE_HORIZON, parameters);
+
+        jdbcTemplate.update(BACKFILL_FOLLOWEE, parameters);
+
+        // Older achievements of the followee were left out: the entries are only complete down to them
+        KeysetCursor horizon = materialization.horizon();
+
+        if (reached != null && (horizon == null || isNewer(reached, horizon))) {
+            jdbcTemplate.update(UPDATE_HORIZON, horizonParams(ownerId, reached));
+        }
+    }
+
+    @Override
+    public void unfollow(String followerKey, String followeeKey) {
+        Long ownerId = findUserId(followerKey);
+        Long authorId = findUserId(followeeKey);
+
+        // The timeline stays materialized, following a few users less does not make the merge cheap again
+        if (ownerId != null && authorId != null) {
+            jdbcTemplate.update(DELETE_FOLLOWEE_ENTRIES, Map.of("ownerId", ownerId, "authorId", authorId));
+        }
+    }
+
+    /**
+     * Copies the latest achievements of the followees of a user into their entries
+     */
+    private void materialize(Long ownerId) {
+        Map<String, Object> parameters = Map.of("ownerId", ownerId, "capacity", capacity);
+
+        KeysetCursor reached = findPosition(TIMELINE_HORIZON, parameters);
+
+        jdbcTemplate.update(MATERIALIZE, parameters);
+        jdbcTemplate.update(INSERT_MATERIALIZATION, horizonParams(ownerId, reached)
+                .addValue("materializedAt", OffsetDateTime.now(ZoneOffset.UTC)));
+    }
+
+    private List<AchievementTimelineItem> merge(Long ownerId, int limit, KeysetCursor after) {
+        int pageSize = Math.min(limit, mergePageSize);
+
+        List<AchievementTimelineItem> heads = jdbcTemplate.query(HEADS,
+                params(ownerId, after).addValue("pageSize", pageSize),
+                AchievementTimelineRepository::toItem);
+
+        return AchievementTimelineMerger.merge(heads, pageSize, limit, (authorId, streamAfter, size) -> jdbcTemplate
+                .query(STREAM_PAGE, params(ownerId, streamAfter).addValue("authorId", authorId)
+                        .addValue("pageSize", size), AchievementTimelineRepository::toItem));
+    }
+
+    private Long findUserId(String userKey) {
+        List<Long> ids = jdbcTemplate.queryForList(USER_ID, Map.of("userKey", userKey), Long.class);
+
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private Materialization findMaterialization(Long ownerId) {
+        List<Materialization> rows = jdbcTemplate.query(MATERIALIZATION, Map.of("ownerId", ownerId),
+                (rs, rowNum) -> new Materialization(toPosition(rs)));
+
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private KeysetCursor findPosition(String sql, Map<String, Object> parameters) {
+        List<KeysetCursor> rows = jdbcTemplate.query(sql, parameters, (rs, rowNum) -> toPosition(rs));
+
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static MapSqlParameterSource params(Long ownerId, KeysetCursor after) {
+        return new MapSqlParameterSource().addValue("ownerId", ownerId)
+                .addValue("registeredAt", after.getTimestamp())
+                .addValue("id", after.getId());
+    }
+
+    private static MapSqlParameterSource horizonParams(Long ownerId, KeysetCursor horizon) {
+        return new MapSqlParameterSource().addValue("ownerId", ownerId)
+                .addValue("horizonRegisteredAt", horizon != null ? horizon.getTimestamp() : null,
+                        Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("horizonId", horizon != null ? horizon.getId() : null, Types.BIGINT);
+    }
+
+    private static boolean isNewer(KeysetCursor position, KeysetCursor other) {
+        int byDate = position.getTimestamp().compareTo(other.getTimestamp());
+
+        return byDate > 0 || (byDate == 0 && position.getId() > other.getId());
+    }
+
+    private static AchievementTimelineItem toItem(ResultSet rs, int rowNum) throws SQLException {
+        return new AchievementTimelineItem(rs.getLong(1), rs.getObject(2, OffsetDateTime.class), rs.getLong(3));
+    }
+
+    private static KeysetCursor toPosition(ResultSet rs) throws SQLException {
+        OffsetDateTime registeredAt = rs.getObject(1, OffsetDateTime.class);
+
+        return registeredAt != null ? new KeysetCursor(registeredAt, rs.getLong(2)) : null;
+    }
+
+    // The precomputed timeline of a user, complete down to the horizon (null: complete)
+    private record Materialization(KeysetCursor horizon) {
+    }
+}
@@ -0,0 +1,88 @@
+package espresso.achievement.infrastructure.repositories;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import espresso.achievement.domain.contracts.IUserSkillStatsRepository;
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.domain.entities.UserSkillStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TemporalType;
+
+/**
+ * Increments the stats of a user with a single upsert, so two achievements
+ * created at the same time by the same user both count, whether the row
+ * exists yet or not.
+ */
+@Component
+public class UserSkillStatsRepository implements IUserSkillStatsRepository {
+
+    private static final String INCREMENT = buildIncrement();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void increment(Achievement achievement) {
+        if (achievement.getUser() == null) {
+            return;
+        }
+
+        Query query = entityManager.createNativeQuery(INCREMENT)
+                .setParameter("userId", achievement.getUser().getId())
+                .setParameter("userKey", achievement.getUser().getEntityKey())
+                .setParameter("completedDate", achievement.getCompletedDate(), TemporalType.TIMESTAMP)
+                .setParameter("updatedAt", OffsetDateTime.now(ZoneOffset.UTC));
+
+        for (AchievementSkill skill : AchievementSkill.values()) {
+            query.setParameter(skill.getAbbreviation(),
+                    (achievement.getSkillMask() & skill.getMask()) != 0 ? 1 : 0);
+        }
+
+        query.executeUpdate();
+    }
+
+    @Override
+    public UserSkillStats getByUserKey(String userKey) {
+        List<UserSkillStats> rows = entityManager
+                .createQuery("SELECT s FROM UserSkillStats s WHERE s.userKey = :userKey", UserSkillStats.class)
+                .setParameter("userKey", userKey)
+                .getResultList();
+
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * @return The upsert of the stats row, with one column and one 0/1 parameter per skill
+     */
+    private static String buildIncrement() {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        StringBuilder updates = new StringBuilder();
+
+        for (AchievementSkill skill : AchievementSkill.values()) {
+            String column = skill.getAbbreviation() + "Count";
+
+            columns.append(", ").append(column);
+            values.append(", :").append(skill.getAbbreviation());
+            updates.append(", ").append(column).append(" = UserSkillStats.").append(column)
+                    .append(" + EXCLUDED.").append(column);
+        }
+
+        // LEAST and GREATEST skip nulls, an achievement without a completion date keeps the dates
+        return "INSERT INTO UserSkillStats (userId, userKey, achievementCount" + columns
+                + ", firstCompletedDate, lastCompletedDate, updatedAt) "
+                + "VALUES (:userId, :userKey, 1" + values + ", :completedDate, :completedDate, :updatedAt) "
+                + "ON CONFLICT (userId) DO UPDATE SET achievementCount = UserSkillStats.achievementCount + 1"
+                + updates
+                + ", firstCompletedDate = LEAST(UserSkillStats.firstCompletedDate, EXCLUDED.firstCompletedDate)"
+                + ", lastCompletedDate = GREATEST(UserSkillStats.lastCompletedDate, EXCLUDED.lastCompletedDate)"
+                + ", updatedAt = EXCLUDED.updatedAt";
+    }
+}
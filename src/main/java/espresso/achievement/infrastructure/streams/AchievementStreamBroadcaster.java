@@ -0,0 +1,403 @@
+package espresso.achievement.infrastructure.streams;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import espresso.achievement.domain.contracts.IAchievementStreamBroadcaster;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import espresso.common.domain.contracts.IDomainEventSubscriber;
+import espresso.common.domain.events.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes newly created public achievements to the server-sent event
+ * subscribers of the latest feed.
+ * <p>
+ * The broadcaster is a single {@link IDomainEventSubscriber}, so it receives
+ * the creates after they commit, in batches. The achievements of a batch are
+ * loaded and encoded once per DTO size that has subscribers, into a single
+ * frame of events that is queued for every subscriber of that size and
+ * written with one flush.
+ * </p>
+ * <p>
+ * A subscriber is only its emitter and a small bounded buffer of frames; no
+ * thread is held while it is idle. When frames are queued, a writer of a
+ * small shared pool writes them out until the buffer is empty. A subscriber
+ * whose buffer is full is too slow to keep up and is evicted (its stream is
+ * completed by its writer, the client reconnects), so the fan-out never
+ * waits for a socket. A comment is sent every heartbeat interval to find the
+ * closed connections.
+ * </p>
+ * <p>
+ * Metrics: {@code achievement.stream.subscribers} and
+ * {@code achievement.stream.evicted}.
+ * </p>
+ */
+@Component
+public class AchievementStreamBroadcaster implements IAchievementStreamBroadcaster, IDomainEventSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementStreamBroadcaster.class);
+
+    private static final String EVENT_NAME = "achievement";
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final Map<Class<?>, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Platform threads: the emitters write while holding their monitor, which would pin virtual threads
+    private final ExecutorService writers;
+
+    private final AchievementPSQLProvider achievementPSQLProvider;
+
+    private final ObjectMapper objectMapper;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final int bufferSize;
+
+    private final Duration timeout;
+
+    private final Duration heartbeatInterval;
+
+    private final Counter evicted;
+
+    private ScheduledExecutorService heartbeat;
+
+    public AchievementStreamBroadcaster(
+            MeterRegistry meterRegistry,
+            AchievementPSQLProvider achievementPSQLProvider,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${achievement.stream.buffer-size:16}") int bufferSize,
+            @Value("${achievement.stream.timeout:30m}") Duration timeout,
+            @Value("${achievement.stream.heartbeat-interval:20s}") Duration heartbeatInterval,
+            @Value("${achievement.stream.writer-threads:8}") int writerThreads) {
+
+        this.achievementPSQLProvider = achievementPSQLProvider;
+        this.transactionManager = transactionManager;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.writers = Executors.newFixedThreadPool(writerThreads,
+                Thread.ofPlatform().name("achievement-stream-writer-", 0).daemon().factory());
+
+        Gauge.builder("achievement.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Connected subscribers of the latest achievements stream")
+                .register(meterRegistry);
+
+        this.evicted = Counter.builder("achievement.stream.evicted")
+                .description("Subscribers evicted because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("achievement-stream-heartbeat").factory());
+
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(() -> broadcast(null, HEARTBEAT), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes every stream, so the clients reconnect to another instance
+     */
+    @PreDestroy
+    public void stop() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+
+        for (Set<Subscriber> sizeSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : sizeSubscribers) {
+                remove(subscriber, true);
+            }
+        }
+
+        writers.shutdown();
+    }
+
+    @Override
+    public SseEmitter subscribe(Class<?> dtoType) {
+        return subscribe(dtoType, new SseEmitter(timeout.toMillis()));
+    }
+
+    /**
+     * Registers an emitter as a subscriber of the achievements of a DTO size
+     */
+    SseEmitter subscribe(Class<?> dtoType, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(dtoType, emitter);
+
+        emitter.onCompletion(() -> remove(subscriber, false));
+        emitter.onTimeout(() -> remove(subscriber, false));
+        emitter.onError(ex -> remove(subscriber, false));
+
+        subscribers.computeIfAbsent(dtoType, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+
+        return emitter;
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // #region IDomainEventSubscriber
+
+    @Override
+    public String getName() {
+        return "achievement-stream";
+    }
+
+    @Override
+    public boolean supports(DomainEvent event) {
+        // Nothing is loaded for the creates nobody is listening to
+        return event instanceof NewAchievementCreated created
+                && created.getVisibility() == AchievementVisibilityStatus.EVERYONE
+                && subscriberCount.get() > 0;
+    }
+
+    @Override
+    public void handle(List<DomainEvent> events) {
+        List<String> entityKeys = new ArrayList<>(events.size());
+
+        for (DomainEvent event : events) {
+            entityKeys.add(((NewAchievementCreated) event).getKey());
+        }
+
+        for (Map.Entry<Class<?>, Set<Subscriber>> entry : subscribers.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+
+            Set<DataWithMediaType> frame = encode(entry.getKey(), entityKeys);
+
+            if (!frame.isEmpty()) {
+                broadcast(entry.getKey(), frame);
+            }
+        }
+    }
+
+    @Override
+    public int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    // #endregion
+
+    /**
+     * Loads and encodes the achievements of a batch in one DTO size, as one event each, oldest first
+     */
+    private Set<DataWithMediaType> encode(Class<?> dtoType, List<String> entityKeys) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        // The parts of the events are distinct objects, so the set keeps all of them in order
+        Set<DataWithMediaType> frame = new LinkedHashSet<>();
+
+        template.executeWithoutResult(status -> {
+            for (String entityKey : entityKeys) {
+                Object dto = achievementPSQLProvider.findAchievementByKey(dtoType, entityKey);
+
+                if (dto == null) {
+                    continue;
+                }
+
+                try {
+                    frame.addAll(SseEmitter.event()
+                            .id(entityKey)
+                            .name(EVENT_NAME)
+                            .data(objectMapper.writeValueAsString(dto))
+                            .build());
+
+                } catch (IOException ex) {
+                    logger.warn("Failed to encode achievement {} for the stream", entityKey, ex);
+                }
+            }
+        });
+
+        return frame;
+    }
+
+    /**
+     * Queues a frame for the subscribers of a DTO size, or of every size when it is null
+     */
+    private void broadcast(Class<?> dtoType, Set<DataWithMediaType> frame) {
+        for (Map.Entry<Class<?>, Set<Subscriber>> entry : subscribers.entrySet()) {
+            if (dtoType != null && !dtoType.equals(entry.getKey())) {
+                continue;
+            }
+
+            for (Subscriber subscriber : entry.getValue()) {
+                if (!subscriber.offer(frame)) {
+                    evict(subscriber);
+                }
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (remove(subscriber, true)) {
+            evicted.increment();
+        }
+    }
+
+    /**
+     * Disconnects a subscriber, completing its emitter unless the emitter is already done
+     *
+     * @return true if the subscriber was connected
+     */
+    private boolean remove(Subscriber subscriber, boolean complete) {
+        subscriber.close(complete);
+
+        Set<Subscriber> sizeSubscribers = subscribers.get(subscriber.dtoType);
+
+        if (sizeSubscribers != null && sizeSubscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * A connected client: its emitter and the frames not written to it yet
+     */
+    private final class Subscriber {
+
+        private final Class<?> dtoType;
+
+        private final SseEmitter emitter;
+
+        private final Deque<Set<DataWithMediaType>> buffer = new ArrayDeque<>(4);
+
+        // Guarded by the buffer; true while a writer is scheduled or running
+        private boolean writing;
+
+        private boolean closed;
+
+        // Guarded by the buffer; the emitter is completed by whoever sees it idle after the close
+        private boolean completeOnClose;
+
+        private Subscriber(Class<?> dtoType, SseEmitter emitter) {
+            this.dtoType = dtoType;
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return false if the buffer is full
+         */
+        private boolean offer(Set<DataWithMediaType> frame) {
+            synchronized (buffer) {
+                if (closed) {
+                    return true;
+                }
+
+                if (buffer.size() >= bufferSize) {
+                    return false;
+                }
+
+                buffer.add(frame);
+
+                if (writing) {
+                    return true;
+                }
+
+                writing = true;
+            }
+
+            writers.execute(this::write);
+            return true;
+        }
+
+        private void write() {
+            while (true) {
+                Set<DataWithMediaType> frame;
+
+                boolean complete = false;
+
+                synchronized (buffer) {
+                    frame = closed ? null : buffer.poll();
+
+                    if (frame == null) {
+                        writing = false;
+                        complete = closed && completeOnClose;
+                    }
+                }
+
+                if (frame == null) {
+                    if (complete) {
+                        emitter.complete();
+                    }
+
+                    return;
+                }
+
+                try {
+                    emitter.send(frame);
+
+                } catch (IOException | IllegalStateException ex) {
+                    // The connection is gone; the container completes the emitter
+                    remove(this, false);
+                    return;
+                }
+            }
+        }
+
+        private void close(boolean complete) {
+            boolean idle;
+
+            synchronized (buffer) {
+                if (closed) {
+                    return;
+                }
+
+                closed = true;
+                completeOnClose = complete;
+                buffer.clear();
+                idle = !writing;
+            }
+
+            // A write in progress can block; its writer completes the emitter when it returns
+            if (complete && idle) {
+                emitter.complete();
+            }
+        }
+    }
+}
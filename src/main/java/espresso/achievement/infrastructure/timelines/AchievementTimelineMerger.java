@@ -0,0 +1,111 @@
+package espresso.achievement.infrastructure.timelines;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import espresso.achievement.domain.entities.AchievementTimelineItem;
+import espresso.common.domain.queries.KeysetCursor;
+
+/**
+ * Merges the streams of the followees of a user into one page of their home
+ * timeline (fan-out on read).
+ * <p>
+ * Every followee is a keyset stream of their achievements, newest first,
+ * read a few items at a time. The streams are kept in a heap ordered by their
+ * next item, so a page of n items over k streams takes O(n log k) once the
+ * heads are loaded. A stream is only read further when its buffered items
+ * were all taken and the page is not full yet, so the followees that are
+ * not on the page cost their head only.
+ * </p>
+ */
+public final class AchievementTimelineMerger {
+
+    private static final Comparator<Stream> NEWEST_HEAD_FIRST = Comparator
+            .comparing((Stream stream) -> stream.items.peekFirst().registeredAt())
+            .thenComparing(stream -> stream.items.peekFirst().id())
+            .reversed();
+
+    /**
+     * Reads the next items of the stream of a followee
+     */
+    @FunctionalInterface
+    public interface StreamReader {
+
+        /**
+         * @param authorId The id of the followee
+         * @param after The position of the last item read from the stream
+         * @param size Maximum number of items to read
+         * @return The items that follow the position, newest first
+         */
+        List<AchievementTimelineItem> read(Long authorId, KeysetCursor after, int size);
+    }
+
+    private AchievementTimelineMerger() {
+    }
+
+    /**
+     * @param heads The first items of every stream, newest first within a stream, at most pageSize per stream
+     * @param pageSize The number of items read from a stream at a time
+     * @param limit Maximum number of items to return
+     * @param reader Reads the streams past their heads
+     * @return The newest items of all the streams, newest first
+     */
+    public static List<AchievementTimelineItem> merge(List<AchievementTimelineItem> heads, int pageSize, int limit,
+            StreamReader reader) {
+
+        Map<Long, Stream> streams = new LinkedHashMap<>();
+
+        for (AchievementTimelineItem item : heads) {
+            streams.computeIfAbsent(item.authorId(), Stream::new).items.addLast(item);
+        }
+
+        PriorityQueue<Stream> heap = new PriorityQueue<>(Math.max(streams.size(), 1), NEWEST_HEAD_FIRST);
+
+        for (Stream stream : streams.values()) {
+            // A head shorter than a page is the whole stream
+            stream.exhausted = stream.items.size() < pageSize;
+            heap.add(stream);
+        }
+
+        List<AchievementTimelineItem> page = new ArrayList<>(limit);
+
+        while (page.size() < limit && !heap.isEmpty()) {
+            Stream stream = heap.poll();
+            AchievementTimelineItem item = stream.items.pollFirst();
+
+            page.add(item);
+
+            if (stream.items.isEmpty() && !stream.exhausted && page.size() < limit) {
+                List<AchievementTimelineItem> next = reader.read(stream.authorId, KeysetCursor.of(item), pageSize);
+
+                stream.items.addAll(next);
+                stream.exhausted = next.size() < pageSize;
+            }
+
+            if (!stream.items.isEmpty()) {
+                heap.add(stream);
+            }
+        }
+
+        return page;
+    }
+
+    private static final class Stream {
+
+        private final Long authorId;
+
+        private final Deque<AchievementTimelineItem> items = new ArrayDeque<>();
+
+        private boolean exhausted;
+
+        private Stream(Long authorId) {
+            this.authorId = authorId;
+        }
+    }
+}
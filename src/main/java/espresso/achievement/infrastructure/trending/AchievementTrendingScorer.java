@@ -0,0 +1,299 @@
+package espresso.achievement.infrastructure.trending;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import espresso.achievement.domain.contracts.IAchievementQryRepository;
+import espresso.achievement.domain.contracts.IAchievementTrendingScorer;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.AchievementMediaAdded;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.TrendingAchievementReadModel;
+import espresso.common.domain.contracts.IDomainEventSubscriber;
+import espresso.common.domain.events.DomainEvent;
+import espresso.common.domain.support.DecayedSpaceSaving;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ranks the achievements by their recent engagement for the trending tab.
+ * <p>
+ * Engagement signals are detail views (recorded by the query handler), and
+ * creates and media uploads of public achievements (received from the
+ * domain event bus after they commit). Recording a signal only offers it to
+ * a bounded queue; a signal that does not fit is dropped, so a burst of views
+ * never slows the reads down. A single scorer thread drains the queue into a
+ * {@link DecayedSpaceSaving} sketch, whose counters are bounded by the memory
+ * budget and whose hits lose half their weight every half-life.
+ * </p>
+ * <p>
+ * Every publish interval, the scorer takes the top candidates of the sketch,
+ * keeps the public ones and loads their summaries, and publishes them as an
+ * immutable snapshot. The trending query serves that snapshot as is, without
+ * reading the database.
+ * </p>
+ * <p>
+ * Metrics: {@code achievement.trending.counters} and
+ * {@code achievement.trending.dropped}.
+ * </p>
+ */
+@Component
+public class AchievementTrendingScorer implements IAchievementTrendingScorer, IDomainEventSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(AchievementTrendingScorer.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    // Private achievements and stale candidates are filtered out of the top of the sketch
+    private static final int CANDIDATE_FACTOR = 2;
+
+    private final BlockingQueue<Signal> signals;
+
+    private final DecayedSpaceSaving<String> sketch;
+
+    private final IAchievementQryRepository achievementRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final Clock clock;
+
+    private final int topK;
+
+    private final Duration publishInterval;
+
+    private final double viewWeight;
+
+    private final double mediaWeight;
+
+    private final double createWeight;
+
+    private final Counter dropped;
+
+    private volatile List<TrendingAchievementReadModel> snapshot = List.of();
+
+    private Thread scorer;
+
+    @Autowired
+    public AchievementTrendingScorer(
+            MeterRegistry meterRegistry,
+            IAchievementQryRepository achievementRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${achievement.trending.half-life:6h}") Duration halfLife,
+            @Value("${achievement.trending.memory-budget:2MB}") DataSize memoryBudget,
+            @Value("${achievement.trending.top-k:100}") int topK,
+            @Value("${achievement.trending.publish-interval:15s}") Duration publishInterval,
+            @Value("${achievement.trending.queue-capacity:65536}") int queueCapacity,
+            @Value("${achievement.trending.weight.view:1}") double viewWeight,
+            @Value("${achievement.trending.weight.media:3}") double mediaWeight,
+            @Value("${achievement.trending.weight.create:2}") double createWeight) {
+
+        this(meterRegistry, achievementRepository, transactionManager, halfLife, memoryBudget, topK,
+                publishInterval, queueCapacity, viewWeight, mediaWeight, createWeight, Clock.systemUTC());
+    }
+
+    AchievementTrendingScorer(MeterRegistry meterRegistry, IAchievementQryRepository achievementRepository,
+            PlatformTransactionManager transactionManager, Duration halfLife, DataSize memoryBudget, int topK,
+            Duration publishInterval, int queueCapacity, double viewWeight, double mediaWeight,
+            double createWeight, Clock clock) {
+
+        this.achievementRepository = achievementRepository;
+        this.transactionManager = transactionManager;
+        this.clock = clock;
+        this.topK = topK;
+        this.publishInterval = publishInterval;
+        this.viewWeight = viewWeight;
+        this.mediaWeight = mediaWeight;
+        this.createWeight = createWeight;
+        this.signals = new ArrayBlockingQueue<>(queueCapacity);
+
+        // The budget bounds the counters; the sketch keeps at least enough of them to fill the top
+        int capacity = (int) Math.max(memoryBudget.toBytes() / DecayedSpaceSaving.BYTES_PER_COUNTER,
+                (long) topK * CANDIDATE_FACTOR);
+        this.sketch = new DecayedSpaceSaving<>(capacity, halfLife.toMillis(), clock.millis());
+
+        Gauge.builder("achievement.trending.counters", sketch, DecayedSpaceSaving::size)
+                .description("Achievements counted by the trending sketch")
+                .register(meterRegistry);
+
+        this.dropped = Counter.builder("achievement.trending.dropped")
+                .description("Engagement signals dropped because the scorer queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scorer = Thread.ofPlatform().name("achievement-trending-scorer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scorer != null) {
+            scorer.interrupt();
+        }
+    }
+
+    @Override
+    public void recordView(String entityKey) {
+        record(entityKey, viewWeight);
+    }
+
+    @Override
+    public List<TrendingAchievementReadModel> getTrending() {
+        return snapshot;
+    }
+
+    // #region IDomainEventSubscriber
+
+    @Override
+    public String getName() {
+        return "achievement-trending";
+    }
+
+    @Override
+    public boolean supports(DomainEvent event) {
+        return (event instanceof NewAchievementCreated created
+                && created.getVisibility() == AchievementVisibilityStatus.EVERYONE)
+                || (event instanceof AchievementMediaAdded mediaAdded
+                        && mediaAdded.getVisibility() == AchievementVisibilityStatus.EVERYONE);
+    }
+
+    @Override
+    public void handle(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            if (event instanceof NewAchievementCreated created) {
+                record(created.getKey(), createWeight);
+            } else if (event instanceof AchievementMediaAdded mediaAdded) {
+                record(mediaAdded.getAchievementKey(), mediaWeight);
+            }
+        }
+    }
+
+    @Override
+    public int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    // #endregion
+
+    /**
+     * Adds the queued signals to the sketch
+     *
+     * @return The number of signals added
+     */
+    int drain() {
+        List<Signal> batch = new ArrayList<>();
+        signals.drainTo(batch);
+
+        for (Signal signal : batch) {
+            sketch.add(signal.entityKey(), signal.weight(), signal.at());
+        }
+
+        return batch.size();
+    }
+
+    /**
+     * Replaces the snapshot with the public achievements of the top of the sketch
+     */
+    void publish() {
+        List<DecayedSpaceSaving.Entry<String>> candidates = sketch.top(topK * CANDIDATE_FACTOR, clock.millis());
+
+        if (candidates.isEmpty()) {
+            snapshot = List.of();
+            return;
+        }
+
+        List<String> keys = candidates.stream().map(DecayedSpaceSaving.Entry::key).toList();
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        Map<String, AchievementSummaryReadModel> summaries = template.execute(status -> {
+            Set<String> publicKeys = new HashSet<>(achievementRepository.getPublicEntityKeys(keys));
+            Map<String, AchievementSummaryReadModel> byKey = new HashMap<>();
+
+            for (AchievementSummaryReadModel summary : achievementRepository
+                    .getAchievementSummariesByKeys(publicKeys, null)) {
+                byKey.put(summary.getKey(), summary);
+            }
+
+            return byKey;
+        });
+
+        List<TrendingAchievementReadModel> trending = new ArrayList<>(topK);
+
+        for (DecayedSpaceSaving.Entry<String> candidate : candidates) {
+            AchievementSummaryReadModel summary = summaries.get(candidate.key());
+
+            if (summary != null) {
+                trending.add(new TrendingAchievementReadModel(candidate.count(), summary));
+
+                if (trending.size() == topK) {
+                    break;
+                }
+            }
+        }
+
+        snapshot = List.copyOf(trending);
+    }
+
+    private void record(String entityKey, double weight) {
+        if (entityKey == null || weight <= 0) {
+            return;
+        }
+
+        if (!signals.offer(new Signal(entityKey, weight, clock.millis()))) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        long nextPublish = System.nanoTime();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Signal first = signals.poll(Math.max(nextPublish - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+
+                if (first != null) {
+                    sketch.add(first.entityKey(), first.weight(), first.at());
+                    drain();
+                }
+
+                if (System.nanoTime() - nextPublish >= 0) {
+                    nextPublish = System.nanoTime() + publishInterval.toNanos();
+                    publish();
+                }
+
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+
+            } catch (Exception ex) {
+                logger.warn("Failed to publish the trending achievements, serving the previous snapshot", ex);
+            }
+        }
+    }
+
+    private record Signal(String entityKey, double weight, long at) {
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -16,6 +17,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import espresso.achievement.domain.commands.CreateAchivementCommand;
+import espresso.achievement.domain.commands.ReactToAchievementCommand;
+import espresso.achievement.domain.commands.RebuildAchievementProjectionsCommand;
+import espresso.achievement.domain.commands.ReconcileUserSkillStatsCommand;
+import espresso.achievement.domain.commands.RemoveAchievementReactionCommand;
 import espresso.achievement.domain.commands.UploadAchievementMediaCommand;
 import espresso.achievement.domain.contracts.IAchievementCommandHandler;
 import espresso.common.domain.responses.ServiceResponse;
@@ -65,4 +70,60 @@ public class AchievementCmdApi extends CommonCmdApi {
 		UploadAchievementMediaCommand command = new UploadAchievementMediaCommand(key, userKey, images);
 		return executeCommand(command, achivementCommandHandler::handleUploadMedia);
 	}
+
+	@Operation(summary = "React To Achievement", description = "Adds a reaction (like, cheer, clap or wow) of the authenticated user to an achievement. The counts include it at once; it is written to the database within a few hundred milliseconds.")
+	@PostMapping("/{key}/reactions/{reaction}")
+	@ApiResponse(responseCode = "200:OK", description = "The reaction is added, or was already there.")
+	@ApiResponse(responseCode = "400:BAD_REQUEST", description = "Validation error in the request.")
+	@ApiResponse(responseCode = "404:NOT_FOUND", description = "Achievement or user not found.")
+	@ApiResponse(responseCode = "503:SERVICE_UNAVAILABLE", description = "The reactions are still loading.")
+	@ApiResponse(responseCode = "500:INTERNAL_SERVER_ERROR", description = "An internal error occurred.")
+	@ApiLogger("React to achievement")
+	public ResponseEntity<ServiceResponse<Object>> reactToAchievement(@PathVariable String key,
+			@PathVariable String reaction) {
+
+		return executeCommand(new ReactToAchievementCommand(key, getRequesterKey(), reaction),
+				achivementCommandHandler::handle);
+	}
+
+	@Operation(summary = "Remove Achievement Reaction", description = "Removes a reaction of the authenticated user from an achievement.")
+	@DeleteMapping("/{key}/reactions/{reaction}")
+	@ApiResponse(responseCode = "200:OK", description = "The reaction is removed, or was not there.")
+	@ApiResponse(responseCode = "400:BAD_REQUEST", description = "Validation error in the request.")
+	@ApiResponse(responseCode = "404:NOT_FOUND", description = "Achievement or user not found.")
+	@ApiResponse(responseCode = "503:SERVICE_UNAVAILABLE", description = "The reactions are still loading.")
+	@ApiResponse(responseCode = "500:INTERNAL_SERVER_ERROR", description = "An internal error occurred.")
+	@ApiLogger("Remove achievement reaction")
+	public ResponseEntity<ServiceResponse<Object>> removeAchievementReaction(@PathVariable String key,
+			@PathVariable String reaction) {
+
+		return executeCommand(new RemoveAchievementReactionCommand(key, getRequesterKey(), reaction),
+				achivementCommandHandler::handle);
+	}
+
+	@Operation(summary = "Rebuild Achievement Projections", description = "Rebuilds the achievement read-model projections from the write tables, in parallel id-range chunks. Administrators only.")
+	@PostMapping("/projections/rebuild")
+	@ApiResponse(responseCode = "200:OK", description = "Rebuilt the projections successfully.")
+	@ApiResponse(responseCode = "400:BAD_REQUEST", description = "Validation error in the request.")
+	@ApiResponse(responseCode = "403:FORBIDDEN", description = "The requester is not an administrator.")
+	@ApiResponse(responseCode = "500:INTERNAL_SERVER_ERROR", description = "A rebuild is already running or failed.")
+	@ApiLogger("Rebuild achievement projections")
+	public ResponseEntity<ServiceResponse<Object>> rebuildProjections(
+			@RequestBody(required = false) RebuildAchievementProjectionsCommand command) {
+		return executeCommand(command != null ? command : new RebuildAchievementProjectionsCommand(),
+				achivementCommandHandler::handle);
+	}
+
+	@Operation(summary = "Reconcile User Skill Stats", description = "Recomputes the per-user skill stats from the achievements, in parallel user id-range chunks. Administrators only.")
+	@PostMapping("/stats/reconcile")
+	@ApiResponse(responseCode = "200:OK", description = "Reconciled the stats successfully.")
+	@ApiResponse(responseCode = "400:BAD_REQUEST", description = "Validation error in the request.")
+	@ApiResponse(responseCode = "403:FORBIDDEN", description = "The requester is not an administrator.")
+	@ApiResponse(responseCode = "500:INTERNAL_SERVER_ERROR", description = "A reconciliation is already running or failed.")
+	@ApiLogger("Reconcile user skill stats")
+	public ResponseEntity<ServiceResponse<Object>> reconcileUserSkillStats(
+			@RequestBody(required = false) ReconcileUserSkillStatsCommand command) {
+		return executeCommand(command != null ? command : new ReconcileUserSkillStatsCommand(),
+				achivementCommandHandler::handle);
+	}
 }
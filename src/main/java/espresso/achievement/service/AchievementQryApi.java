@@ -1,14 +1,35 @@
 package espresso.achievement.service;
 
+import java.io.IOException;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import espresso.achievement.domain.contracts.IAchievementQueryHandler;
 import espresso.achievement.domain.queries.GetAchievementDetailQuery;
+import espresso.achievement.domain.queries.GetAchievementReactionsQuery;
+import espresso.achievement.domain.queries.GetAchievementViewsQuery;
+import espresso.achievement.domain.queries.GetAchievementSummariesByKeysQuery;
+import espresso.achievement.domain.queries.GetAchievementSummariesByUserQuery;
+import espresso.achievement.domain.queries.GetUserSkillStatsQuery;
+import espresso.achievement.domain.queries.GetSkillLeaderboardQuery;
+import espresso.achievement.domain.queries.GetSkillLeaderboardRankQuery;
+import espresso.achievement.domain.queries.GetTrendingAchievementsQuery;
+import espresso.achievement.domain.queries.GetAchievementSummaryByKeyQuery;
+import espresso.achievement.domain.queries.GetAchievementsBySkillsQuery;
+import espresso.achievement.domain.queries.GetAchievementFacetsQuery;
+import espresso.achievement.domain.queries.GetChangesQuery;
 import espresso.achievement.domain.queries.GetLatestAchievementsQuery;
+import espresso.achievement.domain.queries.GetTimelineQuery;
+import espresso.achievement.domain.queries.SearchAchievementsQuery;
+import espresso.achievement.domain.queries.StreamLatestAchievementsQuery;
+import espresso.common.domain.responses.HandlerResponse;
 import espresso.common.domain.responses.ServiceResponse;
 import espresso.common.service.CommonQryApi;
 import espresso.common.service.operational.ApiLogger;
@@ -32,7 +53,7 @@ public class AchievementQryApi extends CommonQryApi {
 	@Autowired
 	private IAchievementQueryHandler achievementQueryHandler;
 
-	@Operation(summary = "Get Latest Achievements", description = "Retrieves the latest achievements ordered by completion date (newest first).")
+	@Operation(summary = "Get Latest Achievements", description = "Retrieves the latest public achievements, newest first. The authenticated user also gets their own private achievements merged in.")
 	@GetMapping("/latest")
 	@ApiResponse(responseCode = "200:OK", description = "Returns the latest achievements in the specified DTO format.")
 	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
@@ -40,9 +61,100 @@ public class AchievementQryApi extends CommonQryApi {
 	@ApiLogger("Get latest achievements")
 	public ResponseEntity<ServiceResponse<Object>> getLatestAchievements(GetLatestAchievementsQuery qry) {
 
+		// The requester comes from the JWT, never from the query string
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
+	@Operation(summary = "Get Timeline", description = "Retrieves the home timeline of the authenticated user: the public achievements of the users they follow, newest first.")
+	@GetMapping("/timeline")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the achievements of the timeline in the specified DTO format.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiLogger("Get timeline")
+	public ResponseEntity<ServiceResponse<Object>> getTimeline(GetTimelineQuery qry) {
+
+		// The timeline is always the one of the requester, taken from the JWT
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
+	@Operation(summary = "Stream Latest Achievements", description = "Pushes the newly created public achievements in the specified DTO size as server-sent events named achievement, with the achievement key as id. Clients that do not keep up are disconnected and should reconnect and catch up with /latest.")
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@ApiResponse(responseCode = "200:OK", description = "Streams the new achievements in the specified DTO format.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiLogger("Stream latest achievements")
+	public ResponseEntity<SseEmitter> streamLatestAchievements(StreamLatestAchievementsQuery qry) throws IOException {
+
+		HandlerResponse<Object> handlerResponse = achievementQueryHandler.handle(qry);
+
+		if (handlerResponse.isSuccess()) {
+			return ResponseEntity.ok((SseEmitter) handlerResponse.getData());
+		}
+
+		// The errors are sent as a single error event, the stream is then closed
+		ServiceResponse<Object> apiResponse = processHandlerResult(handlerResponse);
+		SseEmitter emitter = new SseEmitter();
+
+		emitter.send(SseEmitter.event().name("error").data(apiResponse, MediaType.APPLICATION_JSON));
+		emitter.complete();
+
+		return ResponseEntity.status(apiResponse.getHttpStatus()).body(emitter);
+	}
+
+	@Operation(summary = "Get Achievements By Skills", description = "Retrieves the latest achievements with any (match=any, default) or all (match=all) of the given skills, optionally registered after fromDate, paged with the returned nextCursor.")
+	@GetMapping("/skills")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the matching achievements in the specified DTO format.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiLogger("Get achievements by skills")
+	public ResponseEntity<ServiceResponse<Object>> getAchievementsBySkills(GetAchievementsBySkillsQuery qry) {
+
 		return executeQuery(qry, achievementQueryHandler::handle);
 	}
 
+	@Operation(summary = "Get Achievement Facets", description = "Counts the public achievements that match the browse filters (optional skills, match mode and fromDate) per skill, completion month and visibility. Counts are cached per filter set for a short time.")
+	@GetMapping("/facets")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the facet counts.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiLogger("Get achievement facets")
+	public ResponseEntity<ServiceResponse<Object>> getAchievementFacets(GetAchievementFacetsQuery qry) {
+
+		return executeQuery(qry, achievementQueryHandler::handle);
+	}
+
+	@Operation(summary = "Search Achievements", description = "Full-text search over the titles and descriptions of the achievements (web search syntax), most relevant first, paged with the returned nextCursor. Available in the xs, sm and md sizes.")
+	@GetMapping("/search")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the matching achievements in the specified DTO format.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiLogger("Search achievements")
+	public ResponseEntity<ServiceResponse<Object>> searchAchievements(SearchAchievementsQuery qry) {
+
+		// The requester comes from the JWT, never from the query string
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
+	@Operation(summary = "Get Changes", description = "Retrieves the achievements created or given media and the profile images changed since the sequence of the previous request (0 for the first one), oldest first. Continue from the returned sequence; hasMore means the limit was reached and resync means the client must reload. With wait, the request is held for up to that many seconds until there is a change.")
+	@GetMapping("/changes")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the changes and the sequence to continue from.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiLogger("Get changes")
+	public DeferredResult<ResponseEntity<ServiceResponse<Object>>> getChanges(GetChangesQuery qry) {
+
+		// Read before going async, the security context is not carried to the completing thread
+		String requesterKey = getRequesterKey();
+
+		long waitSeconds = qry.getWait() != null ? Math.max(qry.getWait(), 0) : 0;
+		DeferredResult<ResponseEntity<ServiceResponse<Object>>> result = new DeferredResult<>((waitSeconds + 5) * 1000);
+
+		achievementQueryHandler.awaitChanges(qry).whenComplete((ignored, ex) -> result
+				.setResult(executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey))));
+
+		return result;
+	}
+
 	@Operation(summary = "Get Achievement Detail", description = "Retrieves the details for a single achievment using the given size.")
 	@GetMapping("/detail")
 	@ApiResponse(responseCode = "200:OK", description = "Returns the latest achievements in the specified DTO format.")
@@ -51,7 +163,116 @@ public class AchievementQryApi extends CommonQryApi {
 	@ApiLogger("Get achievement detail")
 	public ResponseEntity<ServiceResponse<Object>> getAchievementDetail(GetAchievementDetailQuery qry) {
 
+		// The viewer comes from the JWT, never from the query string
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
+	@Operation(summary = "Get Achievement Summary", description = "Retrieves the summary of a single achievement.")
+	@GetMapping("/summary")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the summary of the achievement.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiResponse(responseCode = "404:NOT_FOUND", description = "Achievement not found.")
+	@ApiLogger("Get achievement summary")
+	public ResponseEntity<ServiceResponse<Object>> getAchievementSummary(GetAchievementSummaryByKeyQuery qry) {
+
+		// The owner of a private achievement is recognized from the JWT
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
+	@Operation(summary = "Get Achievement Summaries", description = "Retrieves the summaries of up to 100 achievements in one call. Every requested key gets an entry, in the requested order, flagged as not found when the achievement does not exist or is private to another user.")
+	@GetMapping("/summaries")
+	@ApiResponse(responseCode = "200:OK", description = "Returns one entry per requested key.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiLogger("Get achievement summaries")
+	public ResponseEntity<ServiceResponse<Object>> getAchievementSummariesByKeys(GetAchievementSummariesByKeysQuery qry) {
+
+		// The owner of a private achievement is recognized from the JWT
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
+	@Operation(summary = "Get User Achievements", description = "Retrieves the achievement summaries of a user (newest first), paged with the returned nextCursor. Only the public achievements are returned, except to their owner, who also sees their private ones.")
+	@GetMapping("/user")
+	@ApiResponse(responseCode = "200:OK", description = "Returns a page of the achievement summaries of the user.")
+	@ApiResponse(responseCode = "401:UNAUTHORIZED", description = "Unauthorized access to the achievement service.")
+	@ApiLogger("Get user achievements")
+	public ResponseEntity<ServiceResponse<Object>> getAchievementSummariesByUser(GetAchievementSummariesByUserQuery qry) {
+
+		// The owner is recognized from the JWT, never from the query string
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
+	@Operation(summary = "Get User Skill Stats", description = "Retrieves the character sheet of a user: their number of achievements, per skill, and the first and last completion dates.")
+	@GetMapping("/user/stats")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the skill stats of the user.")
+	@ApiResponse(responseCode = "404:NOT_FOUND", description = "User not found.")
+	@ApiLogger("Get user skill stats")
+	public ResponseEntity<ServiceResponse<Object>> getUserSkillStats(GetUserSkillStatsQuery qry) {
+
 		return executeQuery(qry, achievementQueryHandler::handle);
 	}
 
+	@Operation(summary = "Get Skill Leaderboard", description = "Retrieves the users with the most achievements with a skill, of all time or of the last 30 days.")
+	@GetMapping("/leaderboard")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the first ranks of the leaderboard.")
+	@ApiResponse(responseCode = "503:SERVICE_UNAVAILABLE", description = "The leaderboards are still loading.")
+	@ApiLogger("Get skill leaderboard")
+	public ResponseEntity<ServiceResponse<Object>> getSkillLeaderboard(GetSkillLeaderboardQuery qry) {
+
+		return executeQuery(qry, achievementQueryHandler::handle);
+	}
+
+	@Operation(summary = "Get Skill Leaderboard Rank", description = "Retrieves the rank of a user in a skill leaderboard and the users ranked around them. The entries are empty when the user has no achievement with the skill in the window.")
+	@GetMapping("/leaderboard/user")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the leaderboard range around the user.")
+	@ApiResponse(responseCode = "404:NOT_FOUND", description = "User not found.")
+	@ApiResponse(responseCode = "503:SERVICE_UNAVAILABLE", description = "The leaderboards are still loading.")
+	@ApiLogger("Get skill leaderboard rank")
+	public ResponseEntity<ServiceResponse<Object>> getSkillLeaderboardRank(GetSkillLeaderboardRankQuery qry) {
+
+		return executeQuery(qry, achievementQueryHandler::handle);
+	}
+
+	@Operation(summary = "Get Trending Achievements", description = "Retrieves the public achievements with the most recent engagement (detail views, media uploads and creates, decayed over time), from a snapshot refreshed every few seconds.")
+	@GetMapping("/trending")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the trending achievements, highest score first.")
+	@ApiLogger("Get trending achievements")
+	public ResponseEntity<ServiceResponse<Object>> getTrendingAchievements(GetTrendingAchievementsQuery qry) {
+
+		return executeQuery(qry, achievementQueryHandler::handle);
+	}
+
+	@Operation(summary = "Get Achievement Reactions", description = "Retrieves the number of every reaction on an achievement, including the reactions not written to the database yet, and the reactions of the authenticated user.")
+	@GetMapping("/reactions")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the reaction counts of the achievement.")
+	@ApiResponse(responseCode = "404:NOT_FOUND", description = "Achievement not found.")
+	@ApiLogger("Get achievement reactions")
+	public ResponseEntity<ServiceResponse<Object>> getAchievementReactions(GetAchievementReactionsQuery qry) {
+
+		// The requester comes from the JWT, never from the query string
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
+	@Operation(summary = "Get Achievement Views", description = "Retrieves the number of views of the detail of an achievement and the estimated number of distinct signed-in viewers. The views are written in the background, so the last few seconds are not included yet.")
+	@GetMapping("/views")
+	@ApiResponse(responseCode = "200:OK", description = "Returns the view counts of the achievement.")
+	@ApiResponse(responseCode = "404:NOT_FOUND", description = "Achievement not found.")
+	@ApiLogger("Get achievement views")
+	public ResponseEntity<ServiceResponse<Object>> getAchievementViews(GetAchievementViewsQuery qry) {
+
+		// The requester comes from the JWT, never from the query string
+		String requesterKey = getRequesterKey();
+
+		return executeQuery(qry, query -> achievementQueryHandler.handle(query, requesterKey));
+	}
+
 }
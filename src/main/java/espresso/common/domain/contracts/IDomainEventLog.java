@@ -0,0 +1,61 @@
+package espresso.common.domain.contracts;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import espresso.common.domain.events.DomainEventRecord;
+
+/**
+ * Local, append-only log of the domain events that have a codec, so that
+ * read models and caches can be rebuilt by replaying it instead of
+ * querying the database.
+ */
+public interface IDomainEventLog {
+
+    /**
+     * @return The sequence number of the first event kept by the retention of the log; the events
+     *         before it were deleted
+     */
+    long getFirstSequence();
+
+    /**
+     * @return The sequence number of the last appended event, 0 when the log is empty
+     */
+    long getLastSequence();
+
+    /**
+     * @return The sequence number of the last event written to disk
+     */
+    long getDurableSequence();
+
+    /**
+     * Replays the events from a sequence number up to the last appended one,
+     * oldest first, on the calling thread
+     *
+     * @param fromSequence The first sequence number to replay
+     * @param consumer Receives every replayed event
+     * @return The number of replayed events
+     */
+    long replay(long fromSequence, Consumer<DomainEventRecord> consumer);
+
+    /**
+     * Replays at most a number of events from a sequence number, oldest
+     * first, on the calling thread
+     *
+     * @param fromSequence The first sequence number to replay
+     * @param maxEvents The maximum number of events to replay
+     * @param consumer Receives every replayed event
+     * @return The number of replayed events
+     */
+    long replay(long fromSequence, long maxEvents, Consumer<DomainEventRecord> consumer);
+
+    /**
+     * Waits for events after a sequence number to be written to disk. The
+     * future is completed on the thread that wrote them, so callers should
+     * continue on their own executor.
+     *
+     * @param afterSequence The last sequence number the caller has seen
+     * @return Completed with the durable sequence number, at once if it is already after the given one
+     */
+    CompletableFuture<Long> awaitAppend(long afterSequence);
+}
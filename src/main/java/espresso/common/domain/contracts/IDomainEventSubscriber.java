@@ -0,0 +1,39 @@
+package espresso.common.domain.contracts;
+
+import java.util.List;
+
+import espresso.common.domain.events.DomainEvent;
+
+/**
+ * Receives domain events from the DomainEventBus, in publication order, in
+ * batches of up to {@link #getBatchSize()} events. Subscribers that write to
+ * the database handle a whole batch in one unit of work.
+ */
+public interface IDomainEventSubscriber {
+
+    /**
+     * @return The name of the subscriber, used to tag its metrics and consumer thread
+     */
+    String getName();
+
+    /**
+     * @param event A published domain event
+     * @return true if the event is delivered to this subscriber
+     */
+    boolean supports(DomainEvent event);
+
+    /**
+     * Handles a batch of events. An exception drops the batch; events are not
+     * redelivered.
+     *
+     * @param events The supported events, oldest first
+     */
+    void handle(List<DomainEvent> events);
+
+    /**
+     * @return The maximum number of events of a batch
+     */
+    default int getBatchSize() {
+        return 1;
+    }
+}
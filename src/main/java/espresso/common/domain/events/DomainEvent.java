@@ -0,0 +1,11 @@
+package espresso.common.domain.events;
+
+/**
+ * Marker of the events raised by the domain aggregates and the command
+ * handlers. Published domain events are handed to the DomainEventBus when
+ * the publishing transaction commits, and delivered to the
+ * {@link espresso.common.domain.contracts.IDomainEventSubscriber}s from its
+ * consumers, never on the request thread.
+ */
+public interface DomainEvent {
+}
@@ -0,0 +1,11 @@
+package espresso.common.domain.events;
+
+/**
+ * A domain event read back from the event log, with the sequence number it
+ * was appended with
+ *
+ * @param sequence The sequence number, increasing by one from 1
+ * @param event The decoded event
+ */
+public record DomainEventRecord(long sequence, DomainEvent event) {
+}
@@ -0,0 +1,99 @@
+package espresso.common.domain.queries;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Opaque position in a feed ordered by (timestamp DESC, id DESC).
+ *
+ * The cursor is handed to clients as a URL safe base64 string so they can ask
+ * for the page that follows the last item they received (seek pagination),
+ * instead of skipping rows with an OFFSET.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final OffsetDateTime timestamp;
+    private final Long id;
+
+    /**
+     * Creates the cursor that points at the given feed item
+     *
+     * @param item the last item of the current page
+     * @return the cursor for the following page
+     */
+    public static KeysetCursor of(KeysetItem item) {
+        return new KeysetCursor(item.getRegisteredAt(), item.getId());
+    }
+
+    /**
+     * Encodes the cursor into the opaque string that is returned to clients
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        Instant instant = timestamp.toInstant();
+
+        String raw = instant.getEpochSecond() + SEPARATOR + instant.getNano() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}
+     *
+     * @param value the encoded cursor
+     * @return the decoded cursor, or null when no value is given
+     * @throws IllegalArgumentException when the value is not a valid cursor
+     */
+    public static KeysetCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+
+            return new KeysetCursor(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC), Long.parseLong(parts[2]));
+
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, ex);
+        }
+    }
+
+    /**
+     * Checks whether the given value can be decoded into a cursor
+     *
+     * @param value the encoded cursor
+     * @return true if the value is empty or a valid cursor, false otherwise
+     */
+    public static boolean isValid(String value) {
+        try {
+            decode(value);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package espresso.common.domain.queries;
+
+import java.time.OffsetDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Implemented by the projections of feeds that are paged with a
+ * {@link KeysetCursor}. The keys are needed to build the next cursor but are
+ * not part of the serialized response.
+ */
+public interface KeysetItem {
+
+    @JsonIgnore
+    Long getId();
+
+    @JsonIgnore
+    OffsetDateTime getRegisteredAt();
+}
@@ -0,0 +1,88 @@
+package espresso.common.domain.queries;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Opaque position in a result list ordered by (rank DESC, id DESC), such as
+ * ranked search results.
+ *
+ * Like {@link KeysetCursor}, the cursor is handed to clients as a URL safe
+ * base64 string. The rank is encoded with its exact bits, so the next page
+ * starts exactly after the last item even when ranks are not round numbers.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class RankCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final float rank;
+    private final Long id;
+
+    /**
+     * Encodes the cursor into the opaque string that is returned to clients
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = Float.floatToIntBits(rank) + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}
+     *
+     * @param value the encoded cursor
+     * @return the decoded cursor, or null when no value is given
+     * @throws IllegalArgumentException when the value is not a valid cursor
+     */
+    public static RankCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+
+            float rank = Float.intBitsToFloat(Integer.parseInt(parts[0]));
+
+            if (Float.isNaN(rank)) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+
+            return new RankCursor(rank, Long.parseLong(parts[1]));
+
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, ex);
+        }
+    }
+
+    /**
+     * Checks whether the given value can be decoded into a cursor
+     *
+     * @param value the encoded cursor
+     * @return true if the value is empty or a valid cursor, false otherwise
+     */
+    public static boolean isValid(String value) {
+        try {
+            decode(value);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+}
@@ -14,6 +14,8 @@ public class HandlerResponse<T> {
     private Integer count = null;
     private T data;
     private ResponseType responseType;
+    @Builder.Default
+    private String nextCursor = null;
 
     public static <T> HandlerResponse<T> empty() {
         return HandlerResponse.<T>builder()
@@ -55,6 +57,14 @@ public class HandlerResponse<T> {
 
     }
 
+    public static <T> HandlerResponse<T> success(T data, String nextCursor) {
+
+        HandlerResponse<T> response = success(data);
+        response.setNextCursor(nextCursor);
+
+        return response;
+    }
+
     public static <T> HandlerResponse<T> error(T data, ResponseType responseType) {
         return HandlerResponse.<T>builder()
                 .data(data)
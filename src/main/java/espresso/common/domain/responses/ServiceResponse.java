@@ -2,6 +2,8 @@ package espresso.common.domain.responses;
 
 import org.springframework.http.HttpStatus;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +18,9 @@ public class ServiceResponse<T> {
     private Integer count = null;
     private T data;
     private HttpStatus httpStatus;
+    @Builder.Default
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor = null;
 
     public static <T> ServiceResponse<T> empty() {
         return success(null, null, null);
@@ -30,6 +35,16 @@ public class ServiceResponse<T> {
             .build();
     }
 
+    public static <T> ServiceResponse<T> success(HttpStatus httpStatus, T data, Integer count, String nextCursor) {
+        return ServiceResponse.<T>builder()
+            .data(data)
+            .count(count)
+            .success(true)
+            .httpStatus(httpStatus)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
     public static <T> ServiceResponse<T> error(HttpStatus httpStatus, T data) {
         return ServiceResponse.<T>builder()
             .data(data)
@@ -0,0 +1,139 @@
+package espresso.common.domain.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of strings.
+ * <p>
+ * {@link #mightContain(String)} never returns false for a value that was
+ * added, and returns true for a value that was never added with a probability
+ * close to the configured false positive rate as long as no more than the
+ * expected number of values are added. Bits are set with atomic operations,
+ * so values can be added while other threads query the filter.
+ * </p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    /**
+     * @param expectedInsertions The number of distinct values the filter is sized for
+     * @param falsePositiveRate  The false positive rate wanted at that number of values (e.g. 0.01)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("The expected insertions must be greater than 0");
+        }
+
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1");
+        }
+
+        // Optimal size and number of hash functions, see https://en.wikipedia.org/wiki/Bloom_filter
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+
+        this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+        this.bitSize = words.length() * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds a value to the filter
+     * 
+     * @param value The value to add
+     */
+    public void put(String value) {
+        long hash1 = hash1(value);
+        long hash2 = hash2(value);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = bitIndex(hash1, hash2, i);
+            long mask = 1L << bit;
+
+            long previous = words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+
+            if ((previous & mask) == 0) {
+                bitsSet.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @param value The value to look up
+     * @return false when the value was definitely never added, true when it might have been
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash1(value);
+        long hash2 = hash2(value);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = bitIndex(hash1, hash2, i);
+
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Estimates the current false positive rate from the share of bits that are
+     * set, which accounts for duplicates and for more values than expected
+     * 
+     * @return The probability that an absent value is reported as present
+     */
+    public double getFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashFunctions);
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    // Double hashing: the i-th hash function is hash1 + i * hash2
+    private long bitIndex(long hash1, long hash2, int i) {
+        return ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+    }
+
+    private static long hash1(String value) {
+        return mix(fnv1a(value));
+    }
+
+    private static long hash2(String value) {
+        // Odd, so the probe sequence never collapses to a single bit
+        return mix(fnv1a(value) ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    // Finalizer of MurmurHash3, spreads the bits of the FNV hash
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,216 @@
+package espresso.common.domain.support;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compressed set of non-negative ints, in the spirit of Roaring bitmaps.
+ * <p>
+ * Values are grouped in chunks of 65536 by their high 16 bits. A chunk keeps
+ * its values as a sorted array of 16-bit lows while it is sparse, and switches
+ * to a 1024-word bitmap once it holds more than 4096 values, so a chunk never
+ * takes more than 8 KB. Set operations are done chunk by chunk on the bitmap
+ * words, see {@link #readChunk(int, long[])}.
+ * </p>
+ * <p>
+ * Not thread safe; callers synchronize access.
+ * </p>
+ */
+public class CompressedBitSet {
+
+    public static final int CHUNK_SHIFT = 16;
+
+    public static final int WORDS_PER_CHUNK = 1 << (CHUNK_SHIFT - 6);
+
+    // Above this many values a bitmap is smaller than the sorted array
+    private static final int ARRAY_MAX_SIZE = 4096;
+
+    private final TreeMap<Integer, Chunk> chunks = new TreeMap<>();
+
+    private long cardinality;
+
+    /**
+     * Adds a value to the set
+     *
+     * @param value The value to add, not negative
+     */
+    public void add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Only non-negative values can be added");
+        }
+
+        int key = value >>> CHUNK_SHIFT;
+        Chunk chunk = chunks.get(key);
+
+        if (chunk == null) {
+            chunk = new ArrayChunk();
+            chunks.put(key, chunk);
+        }
+
+        if (chunk.add((char) value)) {
+            cardinality++;
+
+            if (chunk instanceof ArrayChunk array && array.size > ARRAY_MAX_SIZE) {
+                chunks.put(key, array.toBitmap());
+            }
+        }
+    }
+
+    /**
+     * @param value The value to look up
+     * @return true if the value was added to the set
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+
+        Chunk chunk = chunks.get(value >>> CHUNK_SHIFT);
+
+        return chunk != null && chunk.contains((char) value);
+    }
+
+    /**
+     * @return The number of values in the set
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return The approximate number of bytes held by the chunks
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+
+        for (Chunk chunk : chunks.values()) {
+            bytes += chunk.sizeInBytes();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * @param chunk A chunk number (a value shifted right by {@link #CHUNK_SHIFT})
+     * @return The greatest non-empty chunk number lower than or equal to the given one, or -1 if there is none
+     */
+    public int floorChunk(int chunk) {
+        Map.Entry<Integer, Chunk> entry = chunks.floorEntry(chunk);
+
+        return entry != null ? entry.getKey() : -1;
+    }
+
+    /**
+     * Writes the values of a chunk as a bitmap: bit {@code i % 64} of word
+     * {@code i / 64} is set when {@code (chunk << 16) + i} is in the set
+     *
+     * @param chunk A chunk number (a value shifted right by {@link #CHUNK_SHIFT})
+     * @param words The {@link #WORDS_PER_CHUNK} words to overwrite
+     * @return false if the chunk is empty (the words are then all cleared)
+     */
+    public boolean readChunk(int chunk, long[] words) {
+        Chunk found = chunks.get(chunk);
+
+        if (found == null) {
+            Arrays.fill(words, 0L);
+            return false;
+        }
+
+        found.copyTo(words);
+        return true;
+    }
+
+    private sealed interface Chunk permits ArrayChunk, BitmapChunk {
+
+        boolean add(char low);
+
+        boolean contains(char low);
+
+        void copyTo(long[] words);
+
+        long sizeInBytes();
+    }
+
+    private static final class ArrayChunk implements Chunk {
+
+        private char[] values = new char[4];
+
+        private int size;
+
+        @Override
+        public boolean add(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+
+            if (index >= 0) {
+                return false;
+            }
+
+            int insertAt = -index - 1;
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_MAX_SIZE + 1));
+            }
+
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = low;
+            size++;
+
+            return true;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        public void copyTo(long[] words) {
+            Arrays.fill(words, 0L);
+
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return values.length * 2L;
+        }
+
+        BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            copyTo(bitmap.words);
+
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapChunk implements Chunk {
+
+        private final long[] words = new long[WORDS_PER_CHUNK];
+
+        @Override
+        public boolean add(char low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before | (1L << low);
+
+            return before != words[low >>> 6];
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public void copyTo(long[] target) {
+            System.arraycopy(words, 0, target, 0, WORDS_PER_CHUNK);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return WORDS_PER_CHUNK * 8L;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package espresso.common.domain.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heavy-hitter sketch of the keys with the most weight, where the weight of
+ * every hit decays exponentially with its age: a Space-Saving summary with
+ * forward decay.
+ * <p>
+ * At most {@code capacity} keys are counted. A hit on a key that is not
+ * counted when the sketch is full takes over the counter with the lowest
+ * count: the new key starts from that count, which is kept as its maximum
+ * overestimation (error). A key whose decayed weight is above 1/capacity of
+ * the total is always counted.
+ * </p>
+ * <p>
+ * Hits are not decayed one by one. A hit at time t is added with weight
+ * {@code w * 2^((t - landmark) / halfLife)}, and the counts are scaled down
+ * by {@code 2^((now - landmark) / halfLife)} when they are read. Scaling all
+ * counts by the same factor keeps their order, so the min-heap of the
+ * counters stays valid. The landmark moves forward before the scaled weights
+ * grow too large.
+ * </p>
+ * <p>
+ * Not thread safe; callers synchronize access.
+ * </p>
+ */
+public class DecayedSpaceSaving<K> {
+
+    /**
+     * Approximate bytes held per counter: the counter, its map entry, its heap slot and a short key
+     */
+    public static final int BYTES_PER_COUNTER = 160;
+
+    // Move the landmark once the scaled weights reach 2^32
+    private static final double MAX_EXPONENT = 32;
+
+    private final int capacity;
+
+    private final double halfLifeMillis;
+
+    private final Map<K, Counter<K>> counters;
+
+    // Min-heap of the counters by count
+    private final Counter<K>[] heap;
+
+    private int size;
+
+    private long landmark;
+
+    /**
+     * @param capacity The maximum number of counted keys
+     * @param halfLifeMillis The age at which a hit weighs half its weight
+     * @param now The current time, in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public DecayedSpaceSaving(int capacity, long halfLifeMillis, long now) {
+        if (capacity <= 0 || halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("The capacity and the half-life must be positive");
+        }
+
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+        this.landmark = now;
+    }
+
+    /**
+     * Adds a hit on a key
+     *
+     * @param weight The weight of the hit when it happens
+     * @param now The time of the hit, in milliseconds; hits are expected in time order
+     */
+    public void add(K key, double weight, long now) {
+        if (weight <= 0) {
+            return;
+        }
+
+        if ((now - landmark) / halfLifeMillis > MAX_EXPONENT) {
+            rescale(now);
+        }
+
+        double scaled = weight * Math.pow(2, (now - landmark) / halfLifeMillis);
+
+        Counter<K> counter = counters.get(key);
+
+        if (counter != null) {
+            counter.count += scaled;
+            siftDown(counter.index);
+            return;
+        }
+
+        if (size < capacity) {
+            counter = new Counter<>(key, scaled, 0, size);
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.index);
+            return;
+        }
+
+        // Take over the smallest counter, keeping its count as the error of the new key
+        counter = heap[0];
+        counters.remove(counter.key);
+
+        counter.key = key;
+        counter.error = counter.count;
+        counter.count += scaled;
+        counters.put(key, counter);
+
+        siftDown(0);
+    }
+
+    /**
+     * @param k The maximum number of keys to return
+     * @param now The current time, in milliseconds
+     * @return The k keys with the highest decayed counts, highest first
+     */
+    public List<Entry<K>> top(int k, long now) {
+        Counter<K>[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, Comparator.comparingDouble((Counter<K> counter) -> counter.count).reversed());
+
+        double decay = Math.pow(2, -(now - landmark) / halfLifeMillis);
+        List<Entry<K>> entries = new ArrayList<>(Math.min(k, size));
+
+        for (int i = 0; i < Math.min(k, size); i++) {
+            entries.add(new Entry<>(sorted[i].key, sorted[i].count * decay, sorted[i].error * decay));
+        }
+
+        return entries;
+    }
+
+    /**
+     * @return The number of counted keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The maximum number of counted keys
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * A counted key with its decayed count and the maximum overestimation of that count
+     */
+    public record Entry<K>(K key, double count, double error) {
+    }
+
+    private void rescale(long now) {
+        double factor = Math.pow(2, -(now - landmark) / halfLifeMillis);
+
+        for (int i = 0; i < size; i++) {
+            heap[i].count *= factor;
+            heap[i].error *= factor;
+        }
+
+        landmark = now;
+    }
+
+    private void siftUp(int index) {
+        Counter<K> counter = heap[index];
+
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+
+            place(heap[parent], index);
+            index = parent;
+        }
+
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter<K> counter = heap[index];
+
+        while (true) {
+            int child = 2 * index + 1;
+
+            if (child >= size) {
+                break;
+            }
+
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+
+            place(heap[child], index);
+            index = child;
+        }
+
+        place(counter, index);
+    }
+
+    private void place(Counter<K> counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    private static final class Counter<K> {
+
+        private K key;
+
+        private double count;
+
+        private double error;
+
+        private int index;
+
+        private Counter(K key, double count, double error, int index) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package espresso.common.domain.support;
+
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import espresso.common.domain.contracts.IDomainEventLog;
+import espresso.common.domain.events.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bloom filter of every entity key issued for one entity type, used to answer
+ * lookups of keys that were never issued without querying the database.
+ * <p>
+ * The filter is seeded when the application is ready by streaming the keys of
+ * the table, and the repositories add every key they save. Until seeding has
+ * finished (or if it failed), {@link #mightExist(String)} answers true so
+ * every lookup goes to the database as before.
+ * </p>
+ * <p>
+ * When the domain event log holds a creation event for every row of the
+ * table (the counts match), the keys are replayed from the log instead and
+ * the table is only counted.
+ * </p>
+ * <p>
+ * The estimated false positive rate and the number of lookups answered by the
+ * filter are published as {@code entity.key.filter.*} metrics, tagged with the
+ * entity name.
+ * </p>
+ */
+public abstract class EntityKeyFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityKeyFilter.class);
+
+    private final String entityName;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private IDomainEventLog eventLog;
+
+    @Value("${entity.key.filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${entity.key.filter.expected-keys:1000000}")
+    private long expectedKeys;
+
+    @Value("${entity.key.filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private BloomFilter filter;
+
+    private volatile boolean seeded;
+
+    private Counter rejections;
+
+    protected EntityKeyFilter(String entityName) {
+        this.entityName = entityName;
+    }
+
+    /**
+     * Streams every entity key stored in the database; called inside a
+     * read-only transaction
+     */
+    protected abstract Stream<String> streamKeys();
+
+    /**
+     * Counts the entities stored in the database; called inside a read-only
+     * transaction
+     */
+    protected abstract long countKeys();
+
+    /**
+     * @param event An event replayed from the domain event log
+     * @return The key of the entity the event created, or null for other events
+     */
+    protected abstract String getCreatedKey(DomainEvent event);
+
+    @PostConstruct
+    void initialize() {
+        // Created before seeding, so keys saved while the table is streamed are not lost
+        filter = new BloomFilter(expectedKeys, falsePositiveRate);
+
+        rejections = Counter.builder("entity.key.filter.rejections")
+                .description("Lookups of keys that were never issued, answered without the database")
+                .tag("entity", entityName)
+                .register(meterRegistry);
+
+        Gauge.builder("entity.key.filter.fpp", filter, BloomFilter::getFalsePositiveRate)
+                .description("Estimated false positive rate of the entity key filter")
+                .tag("entity", entityName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param entityKey The key to look up
+     * @return false when no entity was ever saved with the key, true when one might have been
+     */
+    public boolean mightExist(String entityKey) {
+        if (!enabled || !seeded || entityKey == null) {
+            return true;
+        }
+
+        if (filter.mightContain(entityKey)) {
+            return true;
+        }
+
+        rejections.increment();
+        return false;
+    }
+
+    /**
+     * Records a key that was issued to a saved entity
+     * 
+     * @param entityKey The key of the saved entity
+     */
+    public void add(String entityKey) {
+        if (entityKey != null) {
+            filter.put(entityKey);
+        }
+    }
+
+    /**
+     * Adds the keys of every entity stored in the database to the filter
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+
+            long count = seedFromEventLog(template);
+
+            if (count >= 0) {
+                seeded = true;
+
+                logger.info("Seeded the {} key filter with {} keys from the event log", entityName, count);
+                return;
+            }
+
+            count = template.execute(status -> {
+                long keys = 0;
+
+                try (Stream<String> stream = streamKeys()) {
+                    for (String entityKey : (Iterable<String>) stream::iterator) {
+                        filter.put(entityKey);
+                        keys++;
+                    }
+                }
+
+                return keys;
+            });
+
+            seeded = true;
+
+            logger.info("Seeded the {} key filter with {} keys, estimated false positive rate {}", entityName,
+                    count, filter.getFalsePositiveRate());
+
+        } catch (Exception ex) {
+            logger.warn("Failed to seed the {} key filter, every lookup will query the database", entityName, ex);
+        }
+    }
+
+    /**
+     * Adds the keys created by the events of the log to the filter
+     *
+     * @return The number of keys, or -1 when the log does not have every key of the table
+     */
+    private long seedFromEventLog(TransactionTemplate template) {
+        if (eventLog == null) {
+            return -1;
+        }
+
+        long[] keys = { 0 };
+
+        eventLog.replay(1, record -> {
+            String entityKey = getCreatedKey(record.event());
+
+            if (entityKey != null) {
+                filter.put(entityKey);
+                keys[0]++;
+            }
+        });
+
+        long stored = template.execute(status -> countKeys());
+
+        if (keys[0] != stored) {
+            // The keys already added are real keys, so they stay in the filter
+            logger.info("The event log has {} of the {} {} keys, streaming them from the database", keys[0],
+                    stored, entityName);
+            return -1;
+        }
+
+        return keys[0];
+    }
+}
@@ -0,0 +1,199 @@
+package espresso.common.domain.support;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Approximate count of distinct members (64-bit hashes): a HyperLogLog
+ * sketch with {@code 2^precision} one-byte registers.
+ * <p>
+ * The first {@code precision} bits of a hash pick a register, which keeps
+ * the longest run of leading zeros (plus one) seen in the remaining bits.
+ * The standard error of the estimate is about {@code 1.04 / sqrt(2^precision)},
+ * 2.3% with the 2048 registers of precision 11; small counts use linear
+ * counting over the empty registers and are close to exact. Two sketches of
+ * the same precision merge by keeping the maximum of every register, so
+ * counting a member twice, or in two sketches, never counts it twice.
+ * </p>
+ * <p>
+ * {@link #toBytes()} writes the registers densely, or only the non-empty
+ * ones with their index when that is shorter, so the sketches of the many
+ * members seen by few are a few bytes. The hashes must be well mixed.
+ * </p>
+ * <p>
+ * Not thread safe; callers synchronize access.
+ * </p>
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+
+    public static final int MAX_PRECISION = 16;
+
+    private static final byte DENSE = 0;
+
+    private static final byte SPARSE = 1;
+
+    // Format and precision
+    private static final int HEADER_BYTES = 2;
+
+    // Register index (2 bytes) and value
+    private static final int SPARSE_ENTRY_BYTES = 3;
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    /**
+     * @param precision The number of bits of the hash that pick a register, 4 to 16
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("The precision must be between 4 and 16");
+        }
+
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Reads a sketch written by {@link #toBytes()}
+     *
+     * @throws IllegalArgumentException If the bytes are not a sketch
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("The bytes are not a HyperLogLog sketch");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        HyperLogLog sketch = new HyperLogLog(buffer.get());
+
+        if (format == DENSE && buffer.remaining() == sketch.registers.length) {
+            buffer.get(sketch.registers);
+            return sketch;
+        }
+
+        if (format == SPARSE && buffer.remaining() % SPARSE_ENTRY_BYTES == 0) {
+            while (buffer.hasRemaining()) {
+                int index = Short.toUnsignedInt(buffer.getShort());
+                byte value = buffer.get();
+
+                if (index >= sketch.registers.length) {
+                    throw new IllegalArgumentException("The bytes are not a HyperLogLog sketch");
+                }
+
+                sketch.registers[index] = value;
+            }
+
+            return sketch;
+        }
+
+        throw new IllegalArgumentException("The bytes are not a HyperLogLog sketch");
+    }
+
+    /**
+     * Adds a member
+     *
+     * @param hash The 64-bit hash of the member
+     * @return Whether a register changed, false if the estimate stays the same
+     */
+    public boolean add(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+
+        // The bit after the remaining ones stops the run when they are all zeros
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+
+        if (rank > registers[index]) {
+            registers[index] = rank;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds the members of another sketch of the same precision to this one
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Only sketches of the same precision can be merged");
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * @return The estimated number of distinct members added
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return The sketch, in the shorter of the dense and the sparse format
+     */
+    public byte[] toBytes() {
+        int nonEmpty = 0;
+
+        for (byte register : registers) {
+            if (register != 0) {
+                nonEmpty++;
+            }
+        }
+
+        if (nonEmpty * SPARSE_ENTRY_BYTES >= registers.length) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + registers.length);
+            buffer.put(DENSE).put((byte) precision).put(registers);
+            return buffer.array();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + nonEmpty * SPARSE_ENTRY_BYTES);
+        buffer.put(SPARSE).put((byte) precision);
+
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] != 0) {
+                buffer.putShort((short) i).put(registers[i]);
+            }
+        }
+
+        return buffer.array();
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package espresso.common.domain.support;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive longs: open addressing with linear probing over a single
+ * long array, kept at most half full.
+ * <p>
+ * A member costs 16 to 32 bytes, instead of the 60 or so of a boxed
+ * {@code HashSet<Long>} entry, and lookups do not allocate. The empty slot
+ * is 0, so 0 itself is tracked with a flag. Removal shifts back the rest of
+ * the probe run, so no tombstones build up.
+ * </p>
+ * <p>
+ * Not thread safe; callers synchronize access.
+ * </p>
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+
+    private int count;
+
+    private boolean containsEmpty;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * @param expectedSize The number of members the set holds before it grows
+     */
+    public LongHashSet(int expectedSize) {
+        keys = new long[capacityFor(expectedSize)];
+    }
+
+    /**
+     * @return Whether the member was added, false if it was already in the set
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            boolean added = !containsEmpty;
+            containsEmpty = true;
+            return added;
+        }
+
+        if ((count + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        count++;
+
+        return true;
+    }
+
+    /**
+     * @return Whether the member was removed, false if it was not in the set
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            boolean removed = containsEmpty;
+            containsEmpty = false;
+            return removed;
+        }
+
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        count--;
+
+        // Shift back the members of the probe run that follows, so no lookup stops at the hole
+        int hole = slot;
+
+        for (int i = (hole + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = slot(keys[i], mask);
+
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                hole = i;
+            }
+        }
+
+        keys[hole] = EMPTY;
+
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
+
+        int mask = keys.length - 1;
+
+        for (int slot = slot(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Calls the action with every member, in no particular order
+     */
+    public void forEach(LongConsumer action) {
+        if (containsEmpty) {
+            action.accept(EMPTY);
+        }
+
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * @return The number of members
+     */
+    public int size() {
+        return count + (containsEmpty ? 1 : 0);
+    }
+
+    /**
+     * @return The number of bytes held by the slots
+     */
+    public long sizeInBytes() {
+        return (long) keys.length * Long.BYTES;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+
+        keys = new long[capacity];
+        count = 0;
+
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                add(key);
+            }
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+
+        while (capacity < (long) expectedSize * 2) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
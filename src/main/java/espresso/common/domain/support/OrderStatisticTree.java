@@ -0,0 +1,422 @@
+package espresso.common.domain.support;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Ranked set of members (long ids) by score, highest score first and lower
+ * member first among equal scores: an order-statistic tree.
+ * <p>
+ * The tree is a treap whose nodes also count the nodes below them, so the
+ * rank of a member, the member at a rank and a score change are all
+ * O(log n). Nodes live in parallel primitive arrays and are found by member
+ * through an open-addressing index, which keeps a member at about 50 bytes
+ * instead of the few hundred of a tree of objects.
+ * </p>
+ * <p>
+ * Members with a score of 0 are not kept. Not thread safe; callers
+ * synchronize access.
+ * </p>
+ */
+public class OrderStatisticTree {
+
+    // Node 0 is the empty tree: its size is 0 and it is never linked
+    private static final int NIL = 0;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final SplittableRandom random = new SplittableRandom(0x5EED);
+
+    private long[] members = new long[INITIAL_CAPACITY];
+    private int[] scores = new int[INITIAL_CAPACITY];
+    private int[] priorities = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+    private int[] sizes = new int[INITIAL_CAPACITY];
+
+    private final MemberIndex index = new MemberIndex();
+
+    private int root = NIL;
+
+    // Next never used node, and the head of the freed nodes (linked through left)
+    private int next = 1;
+    private int free = NIL;
+
+    /**
+     * @return The number of members
+     */
+    public int size() {
+        return sizes[root];
+    }
+
+    /**
+     * @return The score of the member, 0 if it is not in the tree
+     */
+    public int getScore(long member) {
+        int node = index.get(member);
+
+        return node == NIL ? 0 : scores[node];
+    }
+
+    /**
+     * Adds a delta to the score of a member, adding or removing the member as needed
+     *
+     * @return The new score
+     */
+    public int increment(long member, int delta) {
+        int score = getScore(member) + delta;
+
+        set(member, score);
+
+        return score;
+    }
+
+    /**
+     * Sets the score of a member; a score of 0 or less removes it
+     */
+    public void set(long member, int score) {
+        int node = index.get(member);
+
+        if (node != NIL) {
+            if (scores[node] == score) {
+                return;
+            }
+
+            root = delete(root, scores[node], member);
+
+            if (score <= 0) {
+                index.remove(member);
+                release(node);
+                return;
+            }
+
+        } else {
+            if (score <= 0) {
+                return;
+            }
+
+            node = allocate(member);
+            index.put(member, node);
+        }
+
+        scores[node] = score;
+        left[node] = NIL;
+        right[node] = NIL;
+        sizes[node] = 1;
+
+        root = insert(root, node);
+    }
+
+    /**
+     * @return The 1-based rank of the member, 0 if it is not in the tree
+     */
+    public int rank(long member) {
+        int node = index.get(member);
+
+        if (node == NIL) {
+            return 0;
+        }
+
+        int score = scores[node];
+        int before = 0;
+        int t = root;
+
+        while (t != node) {
+            if (compare(score, member, t) < 0) {
+                t = left[t];
+            } else {
+                before += sizes[left[t]] + 1;
+                t = right[t];
+            }
+        }
+
+        return before + sizes[left[node]] + 1;
+    }
+
+    /**
+     * Reads the members of a range of ranks, in rank order
+     *
+     * @param fromRank The 1-based rank of the first member
+     * @param count The maximum number of members to read
+     * @param consumer Receives the rank, member and score of every member of the range
+     */
+    public void range(int fromRank, int count, RankConsumer consumer) {
+        int from = Math.max(fromRank, 1);
+        int to = Math.min(from + count - 1, size());
+
+        for (int rank = from; rank <= to; rank++) {
+            int node = select(rank - 1);
+            consumer.accept(rank, members[node], scores[node]);
+        }
+    }
+
+    /**
+     * @return The approximate number of bytes held by the tree and its index
+     */
+    public long sizeInBytes() {
+        return (long) members.length * (Long.BYTES + 5 * Integer.BYTES) + index.sizeInBytes();
+    }
+
+    /**
+     * Receives one member of a range
+     */
+    @FunctionalInterface
+    public interface RankConsumer {
+        void accept(int rank, long member, int score);
+    }
+
+    /**
+     * @return Negative if (score, member) ranks before the node, positive if after, 0 if it is the node
+     */
+    private int compare(int score, long member, int node) {
+        if (score != scores[node]) {
+            return score > scores[node] ? -1 : 1;
+        }
+
+        return Long.compare(member, members[node]);
+    }
+
+    private int select(int offset) {
+        int t = root;
+
+        while (true) {
+            int leftSize = sizes[left[t]];
+
+            if (offset < leftSize) {
+                t = left[t];
+            } else if (offset == leftSize) {
+                return t;
+            } else {
+                offset -= leftSize + 1;
+                t = right[t];
+            }
+        }
+    }
+
+    private int insert(int t, int node) {
+        if (t == NIL) {
+            return node;
+        }
+
+        if (priorities[node] > priorities[t]) {
+            // The node becomes the root of this subtree: split the subtree around it
+            split(t, node);
+            update(node);
+            return node;
+        }
+
+        if (compare(scores[node], members[node], t) < 0) {
+            left[t] = insert(left[t], node);
+        } else {
+            right[t] = insert(right[t], node);
+        }
+
+        update(t);
+        return t;
+    }
+
+    /**
+     * Splits the subtree t into the left (before) and right (after) children of the node
+     */
+    private void split(int t, int node) {
+        if (t == NIL) {
+            left[node] = NIL;
+            right[node] = NIL;
+            return;
+        }
+
+        if (compare(scores[node], members[node], t) < 0) {
+            split(left[t], node);
+            left[t] = right[node];
+            update(t);
+            right[node] = t;
+        } else {
+            split(right[t], node);
+            right[t] = left[node];
+            update(t);
+            left[node] = t;
+        }
+    }
+
+    private int delete(int t, int score, long member) {
+        int order = compare(score, member, t);
+
+        if (order == 0) {
+            return merge(left[t], right[t]);
+        }
+
+        if (order < 0) {
+            left[t] = delete(left[t], score, member);
+        } else {
+            right[t] = delete(right[t], score, member);
+        }
+
+        update(t);
+        return t;
+    }
+
+    /**
+     * Merges two subtrees whose nodes of a are all before the nodes of b
+     */
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+
+        if (b == NIL) {
+            return a;
+        }
+
+        if (priorities[a] > priorities[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private void update(int t) {
+        sizes[t] = sizes[left[t]] + sizes[right[t]] + 1;
+    }
+
+    private int allocate(long member) {
+        int node;
+
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (next == members.length) {
+                grow();
+            }
+
+            node = next++;
+        }
+
+        members[node] = member;
+        priorities[node] = random.nextInt();
+
+        return node;
+    }
+
+    private void release(int node) {
+        left[node] = free;
+        right[node] = NIL;
+        sizes[node] = 0;
+        free = node;
+    }
+
+    private void grow() {
+        int capacity = members.length * 2;
+
+        members = Arrays.copyOf(members, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+    }
+
+    /**
+     * Open-addressing map of members to nodes with linear probing; node 0 marks an empty slot
+     */
+    private static final class MemberIndex {
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        private int count;
+
+        private int get(long key) {
+            int mask = keys.length - 1;
+
+            for (int slot = slot(key, mask); values[slot] != NIL; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+
+            return NIL;
+        }
+
+        private void put(long key, int value) {
+            // Kept at most half full, so the probes stay short
+            if ((count + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+
+            while (values[slot] != NIL && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            if (values[slot] == NIL) {
+                count++;
+            }
+
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void remove(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+
+            while (values[slot] != NIL && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            if (values[slot] == NIL) {
+                return;
+            }
+
+            count--;
+
+            // Shift back the entries of the probe run that follows, so no lookup stops at the hole
+            int hole = slot;
+
+            for (int i = (hole + 1) & mask; values[i] != NIL; i = (i + 1) & mask) {
+                int home = slot(keys[i], mask);
+
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    values[hole] = values[i];
+                    hole = i;
+                }
+            }
+
+            values[hole] = NIL;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+
+            keys = new long[capacity];
+            values = new int[capacity];
+            count = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != NIL) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private long sizeInBytes() {
+            return (long) keys.length * (Long.BYTES + Integer.BYTES);
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
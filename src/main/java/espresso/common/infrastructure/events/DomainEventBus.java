@@ -0,0 +1,250 @@
+package espresso.common.infrastructure.events;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import espresso.common.domain.contracts.IDomainEventSubscriber;
+import espresso.common.domain.events.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delivers domain events to the {@link IDomainEventSubscriber}s off the
+ * request thread.
+ * <p>
+ * Events published through the application event publisher are received
+ * after the publishing transaction commits (or at once, when there is no
+ * transaction), so a subscriber never sees an event whose changes were
+ * rolled back. Every subscriber has its own bounded queue, drained by its
+ * own virtual thread; publishing only offers the event to the queues, so it
+ * never blocks the command that raised it. When a queue is full the event
+ * is dropped for that subscriber and counted.
+ * </p>
+ * <p>
+ * A consumer waits for the first event of a batch, then collects more for
+ * up to {@code domain.event.bus.max-batch-delay} or until the batch size of
+ * the subscriber is reached, so a burst of creates becomes a few database
+ * writes.
+ * </p>
+ * <p>
+ * Metrics: {@code domain.event.bus.published} per event type,
+ * {@code domain.event.bus.dropped}, {@code domain.event.bus.failed},
+ * {@code domain.event.bus.lag} (time from publication to delivery) and
+ * {@code domain.event.bus.queue.size} per subscriber.
+ * </p>
+ */
+@Component
+public class DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventBus.class);
+
+    // Bounds the time a consumer takes to notice the shutdown
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration maxBatchDelay;
+
+    private final Duration shutdownTimeout;
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public DomainEventBus(
+            MeterRegistry meterRegistry,
+            List<IDomainEventSubscriber> subscribers,
+            @Value("${domain.event.bus.queue-capacity:10000}") int queueCapacity,
+            @Value("${domain.event.bus.max-batch-delay:50ms}") Duration maxBatchDelay,
+            @Value("${domain.event.bus.shutdown-timeout:5s}") Duration shutdownTimeout) {
+
+        this.meterRegistry = meterRegistry;
+        this.maxBatchDelay = maxBatchDelay;
+        this.shutdownTimeout = shutdownTimeout;
+
+        for (IDomainEventSubscriber subscriber : subscribers) {
+            subscriptions.add(new Subscription(subscriber, queueCapacity, meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+
+        for (Subscription subscription : subscriptions) {
+            subscription.consumer = Thread.ofVirtual()
+                    .name("domain-event-" + subscription.subscriber.getName())
+                    .start(() -> consume(subscription));
+        }
+    }
+
+    /**
+     * Lets the consumers deliver the queued events, for up to the shutdown timeout
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+
+        for (Subscription subscription : subscriptions) {
+            if (subscription.consumer != null) {
+                subscription.consumer.join(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        publish(event);
+    }
+
+    /**
+     * Queues an event for every subscriber that supports it, without waiting
+     *
+     * @param event The domain event
+     */
+    public void publish(DomainEvent event) {
+        meterRegistry.counter("domain.event.bus.published", "type", event.getClass().getSimpleName()).increment();
+
+        long publishedAt = System.nanoTime();
+
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.subscriber.supports(event)) {
+                continue;
+            }
+
+            if (!running || !subscription.queue.offer(new Envelope(event, publishedAt))) {
+                subscription.dropped.increment();
+                logger.warn("Dropped {} for subscriber {}", event.getClass().getSimpleName(),
+                        subscription.subscriber.getName());
+            }
+        }
+    }
+
+    private void consume(Subscription subscription) {
+        int batchSize = Math.max(1, subscription.subscriber.getBatchSize());
+        List<Envelope> batch = new ArrayList<>(batchSize);
+
+        while (running || !subscription.queue.isEmpty()) {
+            try {
+                Envelope first = subscription.queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                collect(subscription.queue, batch, batchSize);
+                deliver(subscription, batch);
+
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Adds queued events to the batch until it is full or the batch delay of its first event elapsed
+     */
+    private void collect(BlockingQueue<Envelope> queue, List<Envelope> batch, int batchSize)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + maxBatchDelay.toNanos();
+
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+
+            long remaining = deadline - System.nanoTime();
+
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+
+            Envelope next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+            if (next == null) {
+                return;
+            }
+
+            batch.add(next);
+        }
+    }
+
+    private void deliver(Subscription subscription, List<Envelope> batch) {
+        long now = System.nanoTime();
+        List<DomainEvent> events = new ArrayList<>(batch.size());
+
+        for (Envelope envelope : batch) {
+            subscription.lag.record(now - envelope.publishedAt(), TimeUnit.NANOSECONDS);
+            events.add(envelope.event());
+        }
+
+        try {
+            subscription.subscriber.handle(events);
+
+        } catch (Exception ex) {
+            subscription.failed.increment(events.size());
+            logger.error("Subscriber {} failed to handle {} events", subscription.subscriber.getName(),
+                    events.size(), ex);
+        }
+    }
+
+    private record Envelope(DomainEvent event, long publishedAt) {
+    }
+
+    private static final class Subscription {
+
+        private final IDomainEventSubscriber subscriber;
+        private final BlockingQueue<Envelope> queue;
+
+        private final Counter dropped;
+        private final Counter failed;
+        private final Timer lag;
+
+        private Thread consumer;
+
+        private Subscription(IDomainEventSubscriber subscriber, int queueCapacity, MeterRegistry meterRegistry) {
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+            String name = subscriber.getName();
+
+            this.dropped = Counter.builder("domain.event.bus.dropped")
+                    .description("Domain events dropped because the queue of the subscriber was full")
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+            this.failed = Counter.builder("domain.event.bus.failed")
+                    .description("Domain events whose batch failed in the subscriber")
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+            this.lag = Timer.builder("domain.event.bus.lag")
+                    .description("Time from the publication of a domain event to its delivery")
+                    .tag("subscriber", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+
+            Gauge.builder("domain.event.bus.queue.size", queue, BlockingQueue::size)
+                    .description("Domain events waiting for the subscriber")
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+        }
+    }
+}
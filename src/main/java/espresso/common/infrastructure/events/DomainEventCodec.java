@@ -0,0 +1,104 @@
+package espresso.common.infrastructure.events;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import espresso.common.domain.events.DomainEvent;
+
+/**
+ * Compact binary encoding of one domain event type in the
+ * {@link DomainEventLog}.
+ * <p>
+ * The type id is written with every record, so it must never change or be
+ * reused once events of the type were logged; fields can only be appended
+ * to the payload, and older payloads must still decode.
+ * </p>
+ */
+public abstract class DomainEventCodec<E extends DomainEvent> {
+
+    private final short typeId;
+
+    private final Class<E> eventType;
+
+    protected DomainEventCodec(int typeId, Class<E> eventType) {
+        this.typeId = (short) typeId;
+        this.eventType = eventType;
+    }
+
+    public short getTypeId() {
+        return typeId;
+    }
+
+    public Class<E> getEventType() {
+        return eventType;
+    }
+
+    protected abstract void write(E event, DataOutputStream out) throws IOException;
+
+    protected abstract E read(DataInputStream in) throws IOException;
+
+    /**
+     * @return The payload of the event
+     */
+    public byte[] encode(DomainEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(eventType.cast(event), out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param payload The payload of a record, from its position to its limit
+     * @return The decoded event
+     */
+    public E decode(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return read(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    protected static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    protected static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    protected static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values != null ? values.length : 0);
+
+        for (int i = 0; values != null && i < values.length; i++) {
+            writeString(out, values[i]);
+        }
+    }
+
+    protected static String[] readStrings(DataInputStream in) throws IOException {
+        String[] values = new String[in.readInt()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(in);
+        }
+
+        return values;
+    }
+}
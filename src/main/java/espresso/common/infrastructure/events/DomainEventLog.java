@@ -0,0 +1,584 @@
+package espresso.common.infrastructure.events;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import espresso.common.domain.contracts.IDomainEventLog;
+import espresso.common.domain.events.DomainEvent;
+import espresso.common.domain.events.DomainEventRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only log of the domain events that have a {@link DomainEventCodec},
+ * written through memory-mapped segment files.
+ * <p>
+ * Events are appended on the thread that committed them, right after the
+ * commit (or at once, when there is no transaction), and forced to disk
+ * before that thread goes on, so an event is never lost in a full queue of
+ * the {@link DomainEventBus}. The force holds the lock of the log, so the
+ * events appended by the other threads while it runs are forced together by
+ * the next one. A segment is a file of
+ * {@code domain.event.log.segment-size} bytes named after the sequence
+ * number of its first record; when a record does not fit, the segment is
+ * forced and the next one is created.
+ * </p>
+ * <p>
+ * Record layout (big endian):
+ * <pre>
+ * int    length of the body
+ * int    CRC32 of the body
+ * long   sequence number  \
+ * short  codec type id     | body
+ * byte[] payload          /
+ * </pre>
+ * Segments are zero filled, so a zero length marks the end of the written
+ * part. When the log is opened, the last segment is scanned up to the first
+ * record whose length or checksum is invalid (a write torn by a crash), and
+ * appending continues from there.
+ * </p>
+ * <p>
+ * Replays start from the closest indexed record before the requested
+ * sequence number: the offset of every {@value #INDEX_INTERVAL}th record is
+ * kept in memory when it is appended or first scanned, so a replay from a
+ * recent sequence number does not scan its segment from the start. Records
+ * of types without a codec are skipped. The mappings of the full segments are
+ * kept, so replays do not map them again.
+ * </p>
+ * <p>
+ * Retention: whenever a segment is created and when the log is opened, the
+ * oldest full segments are deleted while there are more than
+ * {@code domain.event.log.retention.max-segments} or while they were last
+ * written before {@code domain.event.log.retention.max-age}. Readers find the
+ * first retained sequence number with {@link #getFirstSequence()}.
+ * </p>
+ */
+@Component
+public class DomainEventLog implements IDomainEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventLog.class);
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // Length and checksum
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    // Sequence number and type id
+    private static final int BODY_HEADER_BYTES = 10;
+
+    private static final int INDEX_INTERVAL = 1024;
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final int maxSegments;
+
+    private final Duration maxAge;
+
+    private final Map<Class<?>, DomainEventCodec<?>> codecsByType = new HashMap<>();
+
+    private final Map<Short, DomainEventCodec<?>> codecsById = new HashMap<>();
+
+    private final Counter appended;
+
+    private final Timer fsyncs;
+
+    private final Counter failures;
+
+    // First sequence number of every segment; guarded by this
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    // Guarded by this
+    private Segment active;
+
+    // Mappings of the full segments, by first sequence number
+    private final Map<Long, ByteBuffer> sealed = new ConcurrentHashMap<>();
+
+    // Offset in its segment of every INDEX_INTERVAL-th record
+    private final ConcurrentSkipListMap<Long, Integer> index = new ConcurrentSkipListMap<>();
+
+    private volatile long firstSequence = 1;
+
+    private volatile long lastSequence;
+
+    private volatile long durableSequence;
+
+    // Completed, and replaced, every time appended events are forced to disk; guarded by this
+    private CompletableFuture<Long> nextForce = new CompletableFuture<>();
+
+    public DomainEventLog(
+            MeterRegistry meterRegistry,
+            List<DomainEventCodec<?>> codecs,
+            @Value("${domain.event.log.enabled:true}") boolean enabled,
+            @Value("${domain.event.log.directory:data/event-log}") Path directory,
+            @Value("${domain.event.log.segment-size:64MB}") DataSize segmentSize,
+            @Value("${domain.event.log.retention.max-segments:32}") int maxSegments,
+            @Value("${domain.event.log.retention.max-age:30d}") Duration maxAge) {
+
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.maxSegments = maxSegments;
+        this.maxAge = maxAge;
+
+        for (DomainEventCodec<?> codec : codecs) {
+            if (codecsById.put(codec.getTypeId(), codec) != null) {
+                throw new IllegalStateException("Duplicate domain event codec type id " + codec.getTypeId());
+            }
+
+            codecsByType.put(codec.getEventType(), codec);
+        }
+
+        this.appended = Counter.builder("domain.event.log.appended")
+                .description("Domain events appended to the event log")
+                .register(meterRegistry);
+        this.fsyncs = Timer.builder("domain.event.log.fsync")
+                .description("Time to force the appended events of the event log to disk")
+                .register(meterRegistry);
+        this.failures = Counter.builder("domain.event.log.failed")
+                .description("Committed domain events that could not be appended to the event log")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> segments.put(firstSequenceOf(file), file));
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+            lastSequence = 0;
+
+        } else {
+            firstSequence = segments.firstKey();
+
+            active = new Segment(segments.lastKey(),
+                    map(segments.lastEntry().getValue(), FileChannel.MapMode.READ_WRITE));
+            lastSequence = recover(active);
+        }
+
+        durableSequence = lastSequence;
+        applyRetention();
+
+        logger.info("Opened the domain event log in {} at sequence {} ({} segments)", directory, lastSequence,
+                segments.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            active.buffer.force();
+            durableSequence = lastSequence;
+        }
+    }
+
+    /**
+     * @return true when the event has a codec and is logged
+     */
+    public boolean supports(DomainEvent event) {
+        return enabled && codecsByType.containsKey(event.getClass());
+    }
+
+    /**
+     * Appends a committed event and forces it to disk before returning. A failure is logged and
+     * counted, not thrown: the transaction is already committed, and the key filters check the
+     * log against the tables before trusting it
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        if (!supports(event)) {
+            return;
+        }
+
+        try {
+            force(append(event));
+
+        } catch (Exception ex) {
+            failures.increment();
+            logger.error("Failed to append a {} to the domain event log", event.getClass().getSimpleName(), ex);
+        }
+    }
+
+    /**
+     * Appends a batch of events and forces it to disk once
+     */
+    public synchronized void appendAll(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            append(event);
+        }
+
+        force();
+    }
+
+    /**
+     * Appends an event to the mapped segment, without forcing it to disk
+     *
+     * @param event An event with a codec
+     * @return The sequence number of the event
+     */
+    public synchronized long append(DomainEvent event) {
+        if (!enabled) {
+            throw new IllegalStateException("The domain event log is disabled");
+        }
+
+        DomainEventCodec<?> codec = codecsByType.get(event.getClass());
+
+        if (codec == null) {
+            throw new IllegalArgumentException("No codec for " + event.getClass().getSimpleName());
+        }
+
+        byte[] payload = codec.encode(event);
+        int length = BODY_HEADER_BYTES + payload.length;
+
+        if (RECORD_HEADER_BYTES + length > segmentSize) {
+            throw new IllegalArgumentException("The event is larger than a segment of the event log");
+        }
+
+        if (active.buffer.remaining() < RECORD_HEADER_BYTES + length) {
+            roll();
+        }
+
+        long sequence = lastSequence + 1;
+
+        ByteBuffer body = ByteBuffer.allocate(length)
+                .putLong(sequence)
+                .putShort(codec.getTypeId())
+                .put(payload)
+                .flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        // The length is written last, so a partially written record is never read as a complete one
+        int position = active.buffer.position();
+
+        active.buffer.put(position + RECORD_HEADER_BYTES, body, 0, length);
+        active.buffer.putInt(position + 4, (int) crc.getValue());
+        active.buffer.putInt(position, length);
+        active.buffer.position(position + RECORD_HEADER_BYTES + length);
+
+        lastSequence = sequence;
+        appended.increment();
+
+        if (sequence % INDEX_INTERVAL == 0) {
+            index.put(sequence, position);
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Forces the appended events to disk, unless an event at or after the given sequence number
+     * was already forced by another thread
+     */
+    public synchronized void force(long sequence) {
+        if (durableSequence < sequence) {
+            force();
+        }
+    }
+
+    /**
+     * Forces the appended events to disk
+     */
+    public synchronized void force() {
+        if (durableSequence == lastSequence) {
+            return;
+        }
+
+        fsyncs.record(() -> active.buffer.force());
+        durableSequence = lastSequence;
+
+        CompletableFuture<Long> forced = nextForce;
+        nextForce = new CompletableFuture<>();
+        forced.complete(durableSequence);
+    }
+
+    @Override
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    @Override
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Long> awaitAppend(long afterSequence) {
+        if (durableSequence > afterSequence) {
+            return CompletableFuture.completedFuture(durableSequence);
+        }
+
+        // A copy, so that a caller completing it on a timeout does not complete it for the others
+        return nextForce.copy();
+    }
+
+    @Override
+    public long replay(long fromSequence, Consumer<DomainEventRecord> consumer) {
+        return replay(fromSequence, Long.MAX_VALUE, consumer);
+    }
+
+    @Override
+    public long replay(long fromSequence, long maxEvents, Consumer<DomainEventRecord> consumer) {
+        if (!enabled || maxEvents <= 0) {
+            return 0;
+        }
+
+        // Resolved under the lock, so that the retention can not delete a segment before it is mapped
+        Map<Long, ByteBuffer> buffers = new TreeMap<>();
+        long until;
+
+        synchronized (this) {
+            until = lastSequence;
+
+            if (fromSequence > until) {
+                return 0;
+            }
+
+            Long first = segments.floorKey(Math.max(fromSequence, 1));
+
+            for (Map.Entry<Long, Path> file : segments.tailMap(first != null ? first : segments.firstKey(), true)
+                    .entrySet()) {
+                ByteBuffer buffer = file.getKey() == active.firstSequence
+                        ? active.buffer
+                        : sealed.computeIfAbsent(file.getKey(),
+                                key -> map(file.getValue(), FileChannel.MapMode.READ_ONLY));
+
+                buffers.put(file.getKey(), buffer.duplicate().position(0));
+            }
+        }
+
+        long replayed = 0;
+
+        for (Map.Entry<Long, ByteBuffer> segment : buffers.entrySet()) {
+            ByteBuffer buffer = segment.getValue();
+
+            // Skip to the closest indexed record of the segment before the requested one
+            Map.Entry<Long, Integer> indexed = index.floorEntry(fromSequence);
+
+            if (indexed != null && indexed.getKey() >= segment.getKey()) {
+                buffer.position(indexed.getValue());
+            }
+
+            ByteBuffer body;
+
+            while (true) {
+                int position = buffer.position();
+
+                if ((body = nextRecord(buffer)) == null) {
+                    break;
+                }
+
+                long sequence = body.getLong();
+
+                if (sequence > until) {
+                    return replayed;
+                }
+
+                if (sequence % INDEX_INTERVAL == 0) {
+                    index.putIfAbsent(sequence, position);
+                }
+
+                DomainEventCodec<?> codec = codecsById.get(body.getShort());
+
+                if (sequence < fromSequence || codec == null) {
+                    continue;
+                }
+
+                consumer.accept(new DomainEventRecord(sequence, codec.decode(body)));
+
+                if (++replayed >= maxEvents) {
+                    return replayed;
+                }
+            }
+        }
+
+        return replayed;
+    }
+
+    /**
+     * Moves past the record at the position of the buffer
+     *
+     * @return The body of the record, or null at the end of the written part or at an invalid record
+     */
+    private static ByteBuffer nextRecord(ByteBuffer buffer) {
+        int position = buffer.position();
+
+        if (buffer.remaining() < RECORD_HEADER_BYTES + BODY_HEADER_BYTES) {
+            return null;
+        }
+
+        int length = buffer.getInt(position);
+
+        if (length < BODY_HEADER_BYTES || length > buffer.remaining() - RECORD_HEADER_BYTES) {
+            return null;
+        }
+
+        ByteBuffer body = buffer.slice(position + RECORD_HEADER_BYTES, length);
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+
+        buffer.position(position + RECORD_HEADER_BYTES + length);
+
+        return body;
+    }
+
+    /**
+     * Finds the end of the written part of the segment and clears a torn record after it
+     *
+     * @return The sequence number of the last complete record
+     */
+    private long recover(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        long sequence = segment.firstSequence - 1;
+
+        ByteBuffer body;
+
+        while ((body = nextRecord(buffer)) != null) {
+            sequence = body.getLong();
+        }
+
+        int end = buffer.position();
+
+        if (buffer.remaining() >= 4 && buffer.getInt(end) != 0) {
+            int torn = Math.min(buffer.remaining(), RECORD_HEADER_BYTES + Math.max(0, buffer.getInt(end)));
+
+            buffer.put(end, new byte[torn]);
+            logger.warn("Cleared a torn record of the domain event log after sequence {}", sequence);
+        }
+
+        return sequence;
+    }
+
+    private void roll() {
+        active.buffer.force();
+        durableSequence = lastSequence;
+
+        // Never written again, so its mapping serves the replays
+        sealed.put(active.firstSequence, active.buffer);
+        active = createSegment(lastSequence + 1);
+
+        applyRetention();
+    }
+
+    /**
+     * Deletes the oldest full segments beyond the maximum count or age; the active segment is kept
+     */
+    private void applyRetention() {
+        Instant oldest = maxAge.isZero() ? null : Instant.now().minus(maxAge);
+
+        while (segments.size() > 1) {
+            Map.Entry<Long, Path> first = segments.firstEntry();
+
+            try {
+                boolean tooMany = maxSegments > 0 && segments.size() > maxSegments;
+                boolean tooOld = oldest != null
+                        && Files.getLastModifiedTime(first.getValue()).toInstant().isBefore(oldest);
+
+                if (!tooMany && !tooOld) {
+                    break;
+                }
+
+                Files.deleteIfExists(first.getValue());
+
+            } catch (IOException ex) {
+                logger.warn("Failed to delete the domain event log segment {}", first.getValue(), ex);
+                break;
+            }
+
+            segments.remove(first.getKey());
+            sealed.remove(first.getKey());
+
+            firstSequence = segments.firstKey();
+            index.headMap(firstSequence).clear();
+
+            logger.info("Deleted the domain event log segment {}, the log now starts at sequence {}",
+                    first.getValue(), firstSequence);
+        }
+    }
+
+    private Segment createSegment(long firstSequence) {
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+
+        segments.put(firstSequence, file);
+
+        return new Segment(firstSequence, map(file, FileChannel.MapMode.READ_WRITE));
+    }
+
+    private MappedByteBuffer map(Path file, FileChannel.MapMode mode) {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] { StandardOpenOption.READ }
+                : new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE };
+
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            // An existing segment keeps its size when the configured one changed
+            long size = mode == FileChannel.MapMode.READ_ONLY || channel.size() > 0 ? channel.size() : segmentSize;
+
+            return channel.map(mode, 0, size);
+
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Segment(long firstSequence, MappedByteBuffer buffer) {
+    }
+}
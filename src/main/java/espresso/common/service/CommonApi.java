@@ -2,6 +2,8 @@ package espresso.common.service;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import espresso.common.domain.responses.HandlerResponse;
 import espresso.common.domain.responses.ServiceResponse;
 import espresso.common.service.operational.ApiLogger;
+import espresso.security.domain.entities.JWTAuthenticationToken;
 
 public class CommonApi {
 
@@ -28,11 +31,11 @@ public class CommonApi {
 
             switch (result.getResponseType()) {
                 case CREATED:
-                    return ServiceResponse.success(HttpStatus.CREATED, result.getData(), result.getCount());
+                    return ServiceResponse.success(HttpStatus.CREATED, result.getData(), result.getCount(), result.getNextCursor());
                 case SUCCESS:
-                    return ServiceResponse.success(HttpStatus.OK, result.getData(), result.getCount());
+                    return ServiceResponse.success(HttpStatus.OK, result.getData(), result.getCount(), result.getNextCursor());
                 default:
-                    return ServiceResponse.success(HttpStatus.OK, result.getData(), result.getCount());
+                    return ServiceResponse.success(HttpStatus.OK, result.getData(), result.getCount(), result.getNextCursor());
             }
 
         } else {
@@ -45,12 +48,23 @@ public class CommonApi {
                     return ServiceResponse.error(HttpStatus.UNAUTHORIZED, result.getData());
                 case FORBIDDEN:
                     return ServiceResponse.error(HttpStatus.FORBIDDEN, result.getData());
+                case SERVICE_UNAVAILABLE:
+                    return ServiceResponse.error(HttpStatus.SERVICE_UNAVAILABLE, result.getData());
                 default:
                     return ServiceResponse.error(HttpStatus.INTERNAL_SERVER_ERROR, result.getData());
             }
         }
     }
 
+    /*
+     * This method returns the key of the authenticated user, taken from the JWT and never from the request
+     */
+    protected static String getRequesterKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return authentication instanceof JWTAuthenticationToken jwtAuth ? jwtAuth.getUserKey() : null;
+    }
+
     /*
      * This method is used to process any error that occurs during the handler
      */
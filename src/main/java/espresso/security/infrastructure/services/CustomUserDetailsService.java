@@ -1,8 +1,13 @@
 package espresso.security.infrastructure.services;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,6 +22,10 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private IUserRepository userRepository;
 
+    // The users allowed to run the operations endpoints, e.g. the projection rebuild
+    @Value("${security.admin.usernames:}")
+    private Set<String> adminUsernames;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username);
@@ -30,11 +39,15 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
 
         // Create UserDetails with user information
-        // For now, we'll use a simple implementation with no specific authorities
+        // Only the configured administrators get a role; every other user has no specific authorities
+        List<GrantedAuthority> authorities = adminUsernames.contains(user.getUsername())
+                ? List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : new ArrayList<>();
+
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
                 .password(user.getPasswordHash()) // This won't be used for JWT authentication
-                .authorities(new ArrayList<>()) // Add specific authorities/roles as needed
+                .authorities(authorities)
                 .accountExpired(false)
                 .accountLocked(false)
                 .credentialsExpired(false)
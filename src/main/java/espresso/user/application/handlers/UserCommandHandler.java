@@ -3,17 +3,23 @@ package espresso.user.application.handlers;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import espresso.common.domain.responses.HandlerResponse;
 import espresso.common.domain.responses.ResponseType;
 import espresso.user.domain.commands.AddUserCommand;
+import espresso.user.domain.commands.FollowUserCommand;
+import espresso.user.domain.commands.UnfollowUserCommand;
 import espresso.user.domain.commands.UpdateProfilePictureCommand;
 import espresso.user.domain.contracts.IUserCommandHandler;
+import espresso.user.domain.contracts.IUserFollowRepository;
 import espresso.user.domain.contracts.IUserProfilePictureRepository;
 import espresso.user.domain.contracts.IUserRepository;
 import espresso.user.domain.entities.User;
 import espresso.user.domain.entities.UserProfileImage;
+import espresso.user.domain.events.UserFollowed;
+import espresso.user.domain.events.UserUnfollowed;
 
 @Service
 public class UserCommandHandler implements IUserCommandHandler {
@@ -24,6 +30,11 @@ public class UserCommandHandler implements IUserCommandHandler {
     @Autowired
     private IUserProfilePictureRepository userProfileImageRepository;
 
+    @Autowired
+    private IUserFollowRepository userFollowRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public HandlerResponse<Object> handle(AddUserCommand command) {
         try {
@@ -97,7 +108,7 @@ public class UserCommandHandler implements IUserCommandHandler {
 
             UserProfileImage savedEntity = userProfileImageRepository.save(entity);
 
-            user.setProfileImage(savedEntity);
+            user.changeProfileImage(savedEntity);
 
             userRepository.save(user);
 
@@ -107,4 +118,59 @@ public class UserCommandHandler implements IUserCommandHandler {
         }
     }
 
+    @Override
+    public HandlerResponse<Object> handle(FollowUserCommand cmd) {
+        try {
+            // Validate the command
+            var validationErrors = cmd.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            User follower = userRepository.findByKey(cmd.getFollowerKey(), User.class);
+            User followee = userRepository.findByKey(cmd.getFolloweeKey(), User.class);
+
+            if (follower == null || followee == null) {
+                return HandlerResponse.error("User not found", ResponseType.NOT_FOUND);
+            }
+
+            // Following twice is not an error, but only the first follow updates the timeline
+            if (userFollowRepository.follow(follower, followee)) {
+                eventPublisher.publishEvent(new UserFollowed(follower.getEntityKey(), followee.getEntityKey()));
+            }
+
+            return HandlerResponse.success(null);
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
+    @Override
+    public HandlerResponse<Object> handle(UnfollowUserCommand cmd) {
+        try {
+            // Validate the command
+            var validationErrors = cmd.validate();
+
+            if (!validationErrors.isEmpty()) {
+                return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
+            }
+
+            User follower = userRepository.findByKey(cmd.getFollowerKey(), User.class);
+            User followee = userRepository.findByKey(cmd.getFolloweeKey(), User.class);
+
+            if (follower == null || followee == null) {
+                return HandlerResponse.error("User not found", ResponseType.NOT_FOUND);
+            }
+
+            if (userFollowRepository.unfollow(follower, followee)) {
+                eventPublisher.publishEvent(new UserUnfollowed(follower.getEntityKey(), followee.getEntityKey()));
+            }
+
+            return HandlerResponse.success(null);
+        } catch (Exception ex) {
+            return HandlerResponse.error(ex.getMessage(), ResponseType.INTERNAL_ERROR);
+        }
+    }
+
 }
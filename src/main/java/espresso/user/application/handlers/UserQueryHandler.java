@@ -10,6 +10,7 @@ import espresso.user.domain.queries.GetUserByKeyQuery;
 import espresso.user.domain.queries.GetUserNameExistsQuery;
 import espresso.user.domain.queries.GetEmailExistsQuery;
 import espresso.user.domain.queries.GetMyUserQuery;
+import espresso.user.domain.contracts.IUserKeyFilter;
 import espresso.user.domain.contracts.IUserQueryHandler;
 import espresso.user.domain.contracts.IUserRepository;
 import espresso.user.domain.entities.UserDtoLg;
@@ -22,6 +23,9 @@ public class UserQueryHandler implements IUserQueryHandler {
     @Autowired
     private IUserRepository userRepository;
 
+    @Autowired
+    private IUserKeyFilter userKeyFilter;
+
     @Override
     public HandlerResponse<Object> handle(GetUserByKeyQuery qry) {
 
@@ -35,6 +39,11 @@ public class UserQueryHandler implements IUserQueryHandler {
                 return HandlerResponse.error(validationErrors, ResponseType.VALIDATION_ERROR);
             }
 
+            // Keys that were never issued are answered without querying the database
+            if (!userKeyFilter.mightExist(qry.getEntityKey())) {
+                return HandlerResponse.error(null, ResponseType.NOT_FOUND);
+            }
+
             // Get the registered user by user key and size, then set the response
             Object userDto = this.userRepository.findByKey(qry.getEntityKey(), getDtoSize(qry.getSize()));
 
@@ -0,0 +1,43 @@
+package espresso.user.domain.commands;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import espresso.common.domain.commands.CommonCommand;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(callSuper = true)
+public class UnfollowUserCommand extends CommonCommand {
+
+    private static final String ERROR_SELF_FOLLOW = "LOCALIZE: USERS CAN NOT FOLLOW THEMSELVES";
+
+    // The authenticated user, taken from the JWT
+    @NotBlank(message = "LOCALIZE: FOLLOWER KEY IS REQUIRED")
+    @Size(min = 7, max = 7, message = "LOCALIZE: ENTITY KEY MUST BE EXACTLY 7 CHARACTERS")
+    private String followerKey;
+
+    @NotBlank(message = "LOCALIZE: FOLLOWEE KEY IS REQUIRED")
+    @Size(min = 7, max = 7, message = "LOCALIZE: ENTITY KEY MUST BE EXACTLY 7 CHARACTERS")
+    private String followeeKey;
+
+    @Override
+    public Set<String> validate() {
+        Set<String> errors = new HashSet<>(super.validate());
+
+        if (followerKey != null && followerKey.equals(followeeKey)) {
+            errors.add("followeeKey:" + ERROR_SELF_FOLLOW);
+        }
+
+        return errors;
+    }
+}
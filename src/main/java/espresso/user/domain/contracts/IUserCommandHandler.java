@@ -4,10 +4,16 @@ import java.util.logging.Handler;
 
 import espresso.common.domain.responses.HandlerResponse;
 import espresso.user.domain.commands.AddUserCommand;
+import espresso.user.domain.commands.FollowUserCommand;
+import espresso.user.domain.commands.UnfollowUserCommand;
 import espresso.user.domain.commands.UpdateProfilePictureCommand;
 
 public interface IUserCommandHandler {
     HandlerResponse<Object> handle(AddUserCommand command);
 
     HandlerResponse<Object> handle(UpdateProfilePictureCommand command);
+
+    HandlerResponse<Object> handle(FollowUserCommand command);
+
+    HandlerResponse<Object> handle(UnfollowUserCommand command);
 }
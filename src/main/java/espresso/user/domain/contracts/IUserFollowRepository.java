@@ -0,0 +1,22 @@
+package espresso.user.domain.contracts;
+
+import espresso.user.domain.entities.User;
+
+public interface IUserFollowRepository {
+
+    /**
+     * Makes a user follow another one
+     * @param follower The user that follows
+     * @param followee The user that is followed
+     * @return true if the follower did not follow the followee yet
+     */
+    boolean follow(User follower, User followee);
+
+    /**
+     * Makes a user stop following another one
+     * @param follower The user that follows
+     * @param followee The user that is followed
+     * @return true if the follower was following the followee
+     */
+    boolean unfollow(User follower, User followee);
+}
@@ -0,0 +1,16 @@
+package espresso.user.domain.contracts;
+
+public interface IUserKeyFilter {
+
+    /**
+     * @param entityKey The user key to look up
+     * @return false when no user was ever created with the key, true when one might have been
+     */
+    boolean mightExist(String entityKey);
+
+    /**
+     * Records the key of a saved user
+     * @param entityKey The key of the saved user
+     */
+    void add(String entityKey);
+}
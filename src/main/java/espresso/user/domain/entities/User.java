@@ -9,10 +9,12 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.*;
 import lombok.*;
-import espresso.common.domain.models.DomainEntity;
+import espresso.common.domain.models.DomainAggregate;
 import espresso.common.domain.support.KeyGenerator;
 import espresso.common.domain.support.NameGenerator;
 import espresso.common.domain.support.PasswordService;
+import espresso.user.domain.events.NewUserCreated;
+import espresso.user.domain.events.UserProfileImageChanged;
 
 //TODO: Add the birthDate to the vertical feature
 //TODO: Add the profilePictureUrl to the vertical feature
@@ -29,7 +31,7 @@ import espresso.common.domain.support.PasswordService;
         @Index(name = "idx_user_username_ukey", columnList = "username", unique = true),
         @Index(name = "idx_user_email_ukey", columnList = "email", unique = true)
 })
-public class User extends DomainEntity {
+public class User extends DomainAggregate {
 
     @Column(name = "username", nullable = false)
     private String username;
@@ -79,6 +81,8 @@ public class User extends DomainEntity {
         entity.active = true;
         entity.emailVerified = false;
 
+        entity.raiseNewUserCreatedEvent();
+
         return entity;
     }
 
@@ -112,6 +116,8 @@ public class User extends DomainEntity {
             entity.lastName = randomName.split(" ")[1];
         }
 
+        entity.raiseNewUserCreatedEvent();
+
         return entity;
     }
 
@@ -166,4 +172,35 @@ public class User extends DomainEntity {
         this.passwordHash = PasswordService.hashPassword(newPassword);
     }
 
+    /**
+     * Replaces the profile image and raises the change event, published by
+     * the repository when the user is saved
+     *
+     * @param profileImage The new, saved profile image
+     */
+    public void changeProfileImage(UserProfileImage profileImage) {
+        this.profileImage = profileImage;
+
+        this.domainEvents.add(new UserProfileImageChanged(
+                this.getEntityKey(),
+                profileImage != null ? profileImage.getProfileImageUrl() : null));
+    }
+
+    // #region Domain Events
+
+    /**
+     * Raises the creation event, published by the repository when the user
+     * is saved
+     */
+    public void raiseNewUserCreatedEvent() {
+        this.domainEvents.add(new NewUserCreated(
+                this.getEntityKey(),
+                this.getUsername(),
+                this.getEmail(),
+                this.getFirstName(),
+                this.getLastName(),
+                this.getBirthDate()));
+    }
+
+    // #endregion Domain Events
 }
\ No newline at end of file
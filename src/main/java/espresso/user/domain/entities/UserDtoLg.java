@@ -1,26 +1,28 @@
 package espresso.user.domain.entities;
 
 import java.time.LocalDate;
-import java.time.OffsetDateTime;
-
-import org.springframework.format.annotation.DateTimeFormat;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 
-public interface UserDtoLg {
-
-    String getEntityKey();
-
-    String getUsername();
-
-    String getEmail();
-
-    String getFirstName();
-
-    String getLastName();
-
-    @JsonFormat(pattern = "yyyy-MM-dd")
-    LocalDate getBirthDate();
-
-    UserProfileImageDtoLg getProfileImage();
+public record UserDtoLg(
+        String entityKey,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate birthDate,
+        UserProfileImageDtoLg profileImage) {
+
+    /**
+     * Flat constructor used by the JPQL constructor expressions, which can not
+     * nest; the profile image columns come from a left join and are all null
+     * when the user has no profile image.
+     */
+    public UserDtoLg(String entityKey, String username, String email, String firstName, String lastName,
+            LocalDate birthDate, Long profileImageId, String imageName, String contentType, String imageExtension,
+            String profileImageUrl) {
+        this(entityKey, username, email, firstName, lastName, birthDate,
+                profileImageId == null ? null
+                        : new UserProfileImageDtoLg(imageName, contentType, imageExtension, profileImageUrl));
+    }
 }
@@ -2,24 +2,25 @@ package espresso.user.domain.entities;
 
 import java.time.LocalDate;
 
-import org.springframework.format.annotation.DateTimeFormat;
-
 import com.fasterxml.jackson.annotation.JsonFormat;
 
-public interface UserDtoMd {
-
-    String getEntityKey();
-
-    String getUsername();
-
-    String getEmail();
-
-    String getFirstName();
-
-    String getLastName();
-
-    @JsonFormat(pattern = "yyyy-MM-dd")
-    LocalDate getBirthDate();
-
-    UserProfileImageDtoMd getProfileImage();
+public record UserDtoMd(
+        String entityKey,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate birthDate,
+        UserProfileImageDtoMd profileImage) {
+
+    /**
+     * Flat constructor used by the JPQL constructor expressions, which can not
+     * nest; the profile image columns come from a left join and are all null
+     * when the user has no profile image.
+     */
+    public UserDtoMd(String entityKey, String username, String email, String firstName, String lastName,
+            LocalDate birthDate, Long profileImageId, String profileImageUrl) {
+        this(entityKey, username, email, firstName, lastName, birthDate,
+                profileImageId == null ? null : new UserProfileImageDtoMd(profileImageUrl));
+    }
 }
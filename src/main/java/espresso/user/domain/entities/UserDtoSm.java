@@ -1,10 +1,7 @@
 package espresso.user.domain.entities;
 
-public interface UserDtoSm {
-
-    String getEntityKey();
-
-    String getUsername();
-
-    String getEmail();
+public record UserDtoSm(
+        String entityKey,
+        String username,
+        String email) {
 }
@@ -0,0 +1,56 @@
+package espresso.user.domain.entities;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user following another user, whose public achievements then appear in
+ * the home timeline of the follower.
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "UserFollow")
+@Table(name = "UserFollows", indexes = {
+        @Index(name = "idx_user_follow_follower_followee_ukey", columnList = "followerId, followeeId", unique = true),
+        @Index(name = "idx_user_follow_followee_follower", columnList = "followeeId, followerId")
+})
+public class UserFollow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "followerId", referencedColumnName = "id")
+    private User follower;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "followeeId", referencedColumnName = "id")
+    private User followee;
+
+    @Column(nullable = false)
+    private OffsetDateTime followedAt;
+
+    public static UserFollow create(User follower, User followee) {
+        UserFollow entity = new UserFollow();
+
+        entity.follower = follower;
+        entity.followee = followee;
+        entity.followedAt = OffsetDateTime.now(ZoneOffset.UTC);
+
+        return entity;
+    }
+}
@@ -1,12 +1,8 @@
 package espresso.user.domain.entities;
 
-public interface UserProfileImageDtoLg {
-    
-    String getImageName();
-
-    String getContentType();
-
-    String getImageExtension();
-
-    String getProfileImageUrl();
-}
\ No newline at end of file
+public record UserProfileImageDtoLg(
+        String imageName,
+        String contentType,
+        String imageExtension,
+        String profileImageUrl) {
+}
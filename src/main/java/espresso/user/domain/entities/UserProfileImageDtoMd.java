@@ -1,6 +1,5 @@
 package espresso.user.domain.entities;
 
-public interface UserProfileImageDtoMd {
-    
-    String getProfileImageUrl();
-}
\ No newline at end of file
+public record UserProfileImageDtoMd(
+        String profileImageUrl) {
+}
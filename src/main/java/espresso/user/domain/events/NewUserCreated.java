@@ -2,12 +2,13 @@ package espresso.user.domain.events;
 
 import java.time.LocalDate;
 
+import espresso.common.domain.events.DomainEvent;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @Getter
 @AllArgsConstructor
-public class NewUserCreated {
+public class NewUserCreated implements DomainEvent {
     private final String userKey;
     private final String username;
     private final String email;
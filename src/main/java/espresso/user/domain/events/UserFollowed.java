@@ -0,0 +1,14 @@
+package espresso.user.domain.events;
+
+import espresso.common.domain.events.DomainEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class UserFollowed implements DomainEvent {
+    private final String followerKey;
+    private final String followeeKey;
+}
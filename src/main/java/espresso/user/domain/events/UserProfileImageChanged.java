@@ -0,0 +1,14 @@
+package espresso.user.domain.events;
+
+import espresso.common.domain.events.DomainEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class UserProfileImageChanged implements DomainEvent {
+    private final String userKey;
+    private final String profileImageUrl;
+}
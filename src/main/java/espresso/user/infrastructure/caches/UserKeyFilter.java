@@ -0,0 +1,41 @@
+package espresso.user.infrastructure.caches;
+
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import espresso.common.domain.events.DomainEvent;
+import espresso.common.domain.support.EntityKeyFilter;
+import espresso.user.domain.contracts.IUserKeyFilter;
+import espresso.user.domain.events.NewUserCreated;
+import espresso.user.infrastructure.repositories.UserPSQLProvider;
+
+/**
+ * Bloom filter of the issued user keys, see {@link EntityKeyFilter}
+ */
+@Component
+public class UserKeyFilter extends EntityKeyFilter implements IUserKeyFilter {
+
+    @Autowired
+    private UserPSQLProvider userPSQLProvider;
+
+    public UserKeyFilter() {
+        super("user");
+    }
+
+    @Override
+    protected Stream<String> streamKeys() {
+        return userPSQLProvider.streamEntityKeys();
+    }
+
+    @Override
+    protected long countKeys() {
+        return userPSQLProvider.count();
+    }
+
+    @Override
+    protected String getCreatedKey(DomainEvent event) {
+        return event instanceof NewUserCreated created ? created.getUserKey() : null;
+    }
+}
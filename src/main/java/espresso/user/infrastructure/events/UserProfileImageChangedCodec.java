@@ -0,0 +1,32 @@
+package espresso.user.infrastructure.events;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+
+import espresso.common.infrastructure.events.DomainEventCodec;
+import espresso.user.domain.events.UserProfileImageChanged;
+
+/**
+ * Event log encoding of {@link UserProfileImageChanged}, type id 4
+ */
+@Component
+public class UserProfileImageChangedCodec extends DomainEventCodec<UserProfileImageChanged> {
+
+    public UserProfileImageChangedCodec() {
+        super(4, UserProfileImageChanged.class);
+    }
+
+    @Override
+    protected void write(UserProfileImageChanged event, DataOutputStream out) throws IOException {
+        writeString(out, event.getUserKey());
+        writeString(out, event.getProfileImageUrl());
+    }
+
+    @Override
+    protected UserProfileImageChanged read(DataInputStream in) throws IOException {
+        return new UserProfileImageChanged(readString(in), readString(in));
+    }
+}
@@ -0,0 +1,21 @@
+package espresso.user.infrastructure.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import espresso.user.domain.entities.UserFollow;
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface UserFollowPSQLProvider extends JpaRepository<UserFollow, Long> {
+
+    @Query("SELECT COUNT(f) > 0 FROM UserFollow f WHERE f.follower.id = ?1 AND f.followee.id = ?2")
+    boolean checkFollowExists(Long followerId, Long followeeId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserFollow f WHERE f.follower.id = ?1 AND f.followee.id = ?2")
+    int deleteFollow(Long followerId, Long followeeId);
+}
@@ -0,0 +1,37 @@
+package espresso.user.infrastructure.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+
+import espresso.user.domain.contracts.IUserFollowRepository;
+import espresso.user.domain.entities.User;
+import espresso.user.domain.entities.UserFollow;
+
+@Repository
+public class UserFollowRepository implements IUserFollowRepository {
+
+    @Autowired
+    private UserFollowPSQLProvider userFollowPSQLProvider;
+
+    @Override
+    public boolean follow(User follower, User followee) {
+        if (userFollowPSQLProvider.checkFollowExists(follower.getId(), followee.getId())) {
+            return false;
+        }
+
+        try {
+            userFollowPSQLProvider.save(UserFollow.create(follower, followee));
+            return true;
+
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent request inserted the same follow first
+            return false;
+        }
+    }
+
+    @Override
+    public boolean unfollow(User follower, User followee) {
+        return userFollowPSQLProvider.deleteFollow(follower.getId(), followee.getId()) > 0;
+    }
+}
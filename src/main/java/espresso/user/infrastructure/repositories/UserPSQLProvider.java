@@ -1,16 +1,21 @@
 package espresso.user.infrastructure.repositories;
 
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import espresso.user.domain.entities.User;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
 
 @Repository
-public interface UserPSQLProvider extends JpaRepository<User, Long> {
+public interface UserPSQLProvider extends JpaRepository<User, Long>, UserProjectionPSQLProvider {
 
     @Query("SELECT u FROM User u WHERE u.username = ?1")
     User findByUsername(String username);
@@ -24,7 +29,13 @@ public interface UserPSQLProvider extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.email = ?1")
     boolean checkEmailExists(String email);
 
-    @Query("SELECT u FROM User u WHERE u.entityKey = :entityKey")
-    <T> T findByKey(String entityKey, Class<T> type);
+    /**
+     * Streams the keys of every user, fetching them from the database in batches.
+     * The stream must be consumed and closed inside a transaction.
+     * @return The keys of every user
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.entityKey FROM User u")
+    Stream<String> streamEntityKeys();
 
 }
@@ -0,0 +1,17 @@
+package espresso.user.infrastructure.repositories;
+
+/**
+ * User read queries projected to the record DTOs (UserDtoSm/Md/Lg); see
+ * {@link UserProjectionPSQLProviderImpl}.
+ */
+public interface UserProjectionPSQLProvider {
+
+    /**
+     * Gets the user by key and projects it to the specified DTO type.
+     * @param <T> The type of the DTO to project to (e.g., UserDtoLg.class)
+     * @param entityKey The key of the user to retrieve
+     * @param type The DTO class to project to (e.g., UserDtoLg.class), or User.class for the entity
+     * @return The user projected to the specified DTO type, or null if it does not exist
+     */
+    <T> T findByKey(String entityKey, Class<T> type);
+}
@@ -0,0 +1,52 @@
+package espresso.user.infrastructure.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+import espresso.user.domain.entities.User;
+import espresso.user.domain.entities.UserDtoLg;
+import espresso.user.domain.entities.UserDtoMd;
+import espresso.user.domain.entities.UserDtoSm;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Selects every user DTO size with a JPQL constructor expression, so only the
+ * columns the size exposes are read and the profile image is joined in the
+ * same statement instead of being loaded through a lazy proxy.
+ */
+public class UserProjectionPSQLProviderImpl implements UserProjectionPSQLProvider {
+
+    private static final Map<Class<?>, String> SELECTS = Map.of(
+            UserDtoSm.class, "SELECT new " + UserDtoSm.class.getName() + "("
+                    + "u.entityKey, u.username, u.email) "
+                    + "FROM User u",
+            UserDtoMd.class, "SELECT new " + UserDtoMd.class.getName() + "("
+                    + "u.entityKey, u.username, u.email, u.firstName, u.lastName, u.birthDate, "
+                    + "p.id, p.profileImageUrl) "
+                    + "FROM User u LEFT JOIN u.profileImage p",
+            UserDtoLg.class, "SELECT new " + UserDtoLg.class.getName() + "("
+                    + "u.entityKey, u.username, u.email, u.firstName, u.lastName, u.birthDate, "
+                    + "p.id, p.imageName, p.contentType, p.imageExtension, p.profileImageUrl) "
+                    + "FROM User u LEFT JOIN u.profileImage p",
+            User.class, "SELECT u FROM User u");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <T> T findByKey(String entityKey, Class<T> type) {
+        String select = SELECTS.get(type);
+
+        if (select == null) {
+            throw new IllegalArgumentException("Unsupported user projection: " + type.getName());
+        }
+
+        List<T> result = entityManager.createQuery(select + " WHERE u.entityKey = :entityKey", type)
+                .setParameter("entityKey", entityKey)
+                .setMaxResults(1)
+                .getResultList();
+
+        return result.isEmpty() ? null : result.get(0);
+    }
+}
@@ -3,6 +3,7 @@ package espresso.user.infrastructure.repositories;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import espresso.user.domain.contracts.IUserKeyFilter;
 import espresso.user.domain.contracts.IUserRepository;
 import espresso.user.domain.entities.User;
 
@@ -12,9 +13,17 @@ public class UserRepository implements IUserRepository {
     @Autowired
     private UserPSQLProvider userJpaRepository;
 
+    @Autowired
+    private IUserKeyFilter userKeyFilter;
+
     @Override
     public User save(User user) {
-        return userJpaRepository.save(user);
+        User savedUser = userJpaRepository.save(user);
+
+        // Lookups of the new key must not be rejected by the key filter
+        userKeyFilter.add(savedUser.getEntityKey());
+
+        return savedUser;
     }
 
     @Override
@@ -2,6 +2,7 @@ package espresso.user.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -16,6 +17,8 @@ import espresso.common.domain.responses.ServiceResponse;
 import espresso.common.service.CommonCmdApi;
 import espresso.common.service.operational.ApiLogger;
 import espresso.user.domain.commands.AddUserCommand;
+import espresso.user.domain.commands.FollowUserCommand;
+import espresso.user.domain.commands.UnfollowUserCommand;
 import espresso.user.domain.commands.UpdateProfilePictureCommand;
 import espresso.user.domain.contracts.IUserCommandHandler;
 import io.swagger.v3.oas.annotations.Operation;
@@ -52,4 +55,28 @@ public class UserCmdApi extends CommonCmdApi {
 
         return executeCommand(new UpdateProfilePictureCommand(key, image),userCommandHandler::handle);
     }
+
+    @Operation(summary = "Follow User", description = "Makes the authenticated user follow the user with the given key, whose public achievements then appear in their timeline.")
+    @ApiResponse(responseCode = "200:OK", description = "The user is followed.")
+    @ApiResponse(responseCode = "400:BAD_REQUEST", description = "Validation error in the request.")
+    @ApiResponse(responseCode = "404:NOT_FOUND", description = "User not found.")
+    @ApiResponse(responseCode = "500:INTERNAL_SERVER_ERROR", description = "An internal error occurred.")
+    @PostMapping("/{key}/follow")
+    @ApiLogger("Follow user")
+    public ResponseEntity<ServiceResponse<Object>> followUser(@PathVariable String key) {
+
+        return executeCommand(new FollowUserCommand(getRequesterKey(), key), userCommandHandler::handle);
+    }
+
+    @Operation(summary = "Unfollow User", description = "Makes the authenticated user stop following the user with the given key.")
+    @ApiResponse(responseCode = "200:OK", description = "The user is not followed anymore.")
+    @ApiResponse(responseCode = "400:BAD_REQUEST", description = "Validation error in the request.")
+    @ApiResponse(responseCode = "404:NOT_FOUND", description = "User not found.")
+    @ApiResponse(responseCode = "500:INTERNAL_SERVER_ERROR", description = "An internal error occurred.")
+    @DeleteMapping("/{key}/follow")
+    @ApiLogger("Unfollow user")
+    public ResponseEntity<ServiceResponse<Object>> unfollowUser(@PathVariable String key) {
+
+        return executeCommand(new UnfollowUserCommand(getRequesterKey(), key), userCommandHandler::handle);
+    }
 }
@@ -0,0 +1,1020 @@
+package espresso.achievement.application.queryHandlers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import espresso.achievement.domain.contracts.IAchievementDetailCache;
+import espresso.achievement.domain.contracts.IAchievementFeedBuffer;
+import espresso.achievement.domain.contracts.IAchievementFragmentCache;
+import espresso.achievement.domain.contracts.IAchievementHiddenOwners;
+import espresso.achievement.domain.contracts.IAchievementKeyFilter;
+import espresso.achievement.domain.contracts.IAchievementLeaderboards;
+import espresso.achievement.domain.contracts.IAchievementQryRepository;
+import espresso.achievement.domain.contracts.IAchievementReactionCounter;
+import espresso.achievement.domain.contracts.IAchievementSkillIndex;
+import espresso.achievement.domain.contracts.IAchievementStreamBroadcaster;
+import espresso.achievement.domain.contracts.IAchievementTimelineRepository;
+import espresso.achievement.domain.contracts.IAchievementTrendingScorer;
+import espresso.achievement.domain.contracts.IAchievementViewCounter;
+import espresso.achievement.domain.contracts.IUserSkillStatsRepository;
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementChangeType;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.domain.entities.AchievementTimelineItem;
+import espresso.achievement.domain.entities.AchievementViewCount;
+import espresso.achievement.domain.entities.UserSkillStats;
+import espresso.achievement.domain.entities.AchievementReactionType;
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.domain.entities.LeaderboardEntry;
+import espresso.achievement.domain.entities.AchievementSearchHit;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.AchievementMediaAdded;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.achievement.domain.queries.GetAchievementDetailQuery;
+import espresso.achievement.domain.queries.GetAchievementReactionsQuery;
+import espresso.achievement.domain.queries.GetAchievementViewsQuery;
+import espresso.achievement.domain.queries.GetAchievementSummariesByKeysQuery;
+import espresso.achievement.domain.queries.GetAchievementSummariesByUserQuery;
+import espresso.achievement.domain.queries.GetAchievementSummaryByKeyQuery;
+import espresso.achievement.domain.queries.GetChangesQuery;
+import espresso.achievement.domain.queries.GetAchievementsBySkillsQuery;
+import espresso.achievement.domain.queries.GetLatestAchievementsQuery;
+import espresso.achievement.domain.queries.SearchAchievementsQuery;
+import espresso.achievement.domain.queries.StreamLatestAchievementsQuery;
+import espresso.achievement.domain.queries.GetTimelineQuery;
+import espresso.achievement.domain.queries.GetUserSkillStatsQuery;
+import espresso.achievement.domain.queries.GetSkillLeaderboardQuery;
+import espresso.achievement.domain.queries.GetSkillLeaderboardRankQuery;
+import espresso.achievement.domain.queries.LeaderboardWindow;
+import espresso.achievement.domain.queries.GetTrendingAchievementsQuery;
+import espresso.achievement.domain.queries.SkillMatchType;
+import espresso.achievement.domain.readModels.AchievementMediaDetailReadModel;
+import espresso.achievement.domain.readModels.AchievementReactionsReadModel;
+import espresso.achievement.domain.readModels.AchievementViewsReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryLookupReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.ChangeReadModel;
+import espresso.achievement.domain.readModels.ChangesReadModel;
+import espresso.achievement.domain.readModels.SkillSummaryReadModel;
+import espresso.achievement.domain.readModels.UserSkillStatsReadModel;
+import espresso.achievement.domain.readModels.LeaderboardReadModel;
+import espresso.achievement.domain.readModels.TrendingAchievementReadModel;
+import espresso.achievement.domain.readModels.UserProfileSummaryReadModel;
+import espresso.common.domain.contracts.IDomainEventLog;
+import espresso.common.domain.events.DomainEventRecord;
+import espresso.common.domain.queries.KeysetCursor;
+import espresso.common.domain.queries.QuerySizeType;
+import espresso.common.domain.queries.RankCursor;
+import espresso.common.domain.responses.HandlerResponse;
+import espresso.common.domain.responses.ResponseType;
+import espresso.user.domain.contracts.IUserKeyFilter;
+import espresso.user.domain.contracts.IUserRepository;
+import espresso.user.domain.entities.User;
+import espresso.user.domain.events.UserProfileImageChanged;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementQueryHandlerTest {
+
+    private static final OffsetDateTime BASE_DATE = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 123456000, ZoneOffset.UTC);
+
+    @Mock
+    private IAchievementQryRepository achievementRepository;
+
+    @Mock
+    private IAchievementDetailCache detailCache;
+
+    @Mock
+    private IAchievementFeedBuffer feedBuffer;
+
+    @Mock
+    private IAchievementFragmentCache fragmentCache;
+
+    @Mock
+    private IAchievementKeyFilter achievementKeyFilter;
+
+    @Mock
+    private IAchievementSkillIndex skillIndex;
+
+    @Mock
+    private IDomainEventLog eventLog;
+
+    @Mock
+    private IAchievementStreamBroadcaster streamBroadcaster;
+
+    @Mock
+    private IAchievementTimelineRepository timelineRepository;
+
+    @Mock
+    private IUserSkillStatsRepository userSkillStatsRepository;
+
+    @Mock
+    private IUserKeyFilter userKeyFilter;
+
+    @Mock
+    private IUserRepository userRepository;
+
+    @Mock
+    private IAchievementLeaderboards leaderboards;
+
+    @Mock
+    private IAchievementTrendingScorer trendingScorer;
+
+    @Mock
+    private IAchievementReactionCounter reactionCounter;
+
+    @Mock
+    private IAchievementViewCounter viewCounter;
+
+    @Mock
+    private IAchievementHiddenOwners hiddenOwners;
+
+    @InjectMocks
+    private AchievementQueryHandler achievementQueryHandler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(fragmentCache.toFragments(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @Test
+    void handle_LatestAchievements_MorePagesAvailable_ReturnsNextCursor() {
+        // Arrange
+        List<AchievementDtoSm> page = createPage(4);
+        when(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 4)).thenReturn(null);
+        doReturn(page).when(achievementRepository)
+                .getLatestAchievements(eq(AchievementDtoSm.class), eq(4), isNull(), isNull());
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.sm, null, 3, null));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getCount());
+        assertEquals(new KeysetCursor(BASE_DATE.minusMinutes(2), 2L), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void handle_LatestAchievements_LastPage_ReturnsNoCursor() {
+        // Arrange
+        List<AchievementDtoSm> page = createPage(2);
+        when(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 4)).thenReturn(null);
+        doReturn(page).when(achievementRepository)
+                .getLatestAchievements(eq(AchievementDtoSm.class), eq(4), isNull(), any());
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.sm, null, 3, null));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getCount());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void handle_LatestAchievements_Owner_MergesHiddenAchievementsNewestFirst() {
+        // Arrange
+        AchievementDtoSm hidden = new AchievementDtoSm(10L, BASE_DATE.minusSeconds(30), "PRIVATE", "title",
+                "description", List.of("str"), null, List.of());
+        when(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 4)).thenReturn(null);
+        when(hiddenOwners.mayHaveHidden("USERKEY")).thenReturn(true);
+        doReturn(createPage(3)).when(achievementRepository)
+                .getLatestAchievements(eq(AchievementDtoSm.class), eq(4), isNull(), isNull());
+        doReturn(List.of(hidden)).when(achievementRepository)
+                .getHiddenAchievementsOfUser(eq(AchievementDtoSm.class), eq("USERKEY"), eq(4), isNull(), isNull());
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.sm, null, 3, null), "USERKEY");
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(List.of(3L, 10L, 2L),
+                ((List<?>) result.getData()).stream().map(dto -> ((AchievementDtoSm) dto).getId()).toList());
+        assertEquals(new KeysetCursor(BASE_DATE.minusMinutes(1), 2L), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void handle_LatestAchievements_RequesterWithoutHiddenAchievements_DoesNotReadThem() {
+        // Arrange
+        when(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 4)).thenReturn(null);
+        when(hiddenOwners.mayHaveHidden("USERKEY")).thenReturn(false);
+        doReturn(createPage(2)).when(achievementRepository)
+                .getLatestAchievements(eq(AchievementDtoSm.class), eq(4), isNull(), isNull());
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.sm, null, 3, null), "USERKEY");
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getCount());
+        verify(achievementRepository, never()).getHiddenAchievementsOfUser(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void handle_LatestAchievements_Anonymous_DoesNotReadHiddenAchievements() {
+        // Arrange
+        when(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 4)).thenReturn(null);
+        doReturn(createPage(2)).when(achievementRepository)
+                .getLatestAchievements(eq(AchievementDtoSm.class), eq(4), isNull(), isNull());
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.sm, null, 3, null), null);
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getCount());
+        verify(achievementRepository, never()).getHiddenAchievementsOfUser(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void handle_LatestAchievements_WithCursor_SeeksFromCursor() {
+        // Arrange
+        KeysetCursor cursor = new KeysetCursor(BASE_DATE, 42L);
+        doReturn(new ArrayList<>()).when(achievementRepository)
+                .getLatestAchievements(eq(AchievementDtoSm.class), eq(11), isNull(), eq(cursor));
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.xs, null, null, cursor.encode()));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        verify(achievementRepository).getLatestAchievements(AchievementDtoSm.class, 11, null, cursor);
+    }
+
+    @Test
+    void handle_LatestAchievements_FirstPageBuffered_DoesNotQueryRepository() {
+        // Arrange
+        List<AchievementDtoSm> page = createPage(11);
+        doReturn(page).when(feedBuffer).getLatestAchievements(AchievementDtoSm.class, 11);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.sm, null, null, null));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(10, result.getCount());
+        assertNotNull(result.getNextCursor());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_LatestAchievements_WindowNotBuffered_FallsBackToRepository() {
+        // Arrange
+        when(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 11)).thenReturn(null);
+        doReturn(createPage(3)).when(achievementRepository)
+                .getLatestAchievements(AchievementDtoSm.class, 11, null, null);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.sm, null, null, null));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getCount());
+    }
+
+    @Test
+    void handle_LatestAchievements_InvalidCursor_ReturnsValidationError() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetLatestAchievementsQuery(QuerySizeType.sm, null, 10, "not-a-cursor"));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.VALIDATION_ERROR, result.getResponseType());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_AchievementsBySkills_IndexNotReady_QueriesNormalizedSkillsAndReturnsNextCursor() {
+        // Arrange
+        when(skillIndex.findIds((short) 3, true, null, null, 4)).thenReturn(null);
+        doReturn(createPage(4)).when(achievementRepository)
+                .getAchievementsWithSkills(AchievementDtoSm.class, 4, List.of("str", "dex"), true, null, null);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetAchievementsBySkillsQuery(
+                QuerySizeType.sm, List.of(" STR", "dex", "str"), SkillMatchType.all, null, 3, null));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getCount());
+        assertEquals(new KeysetCursor(BASE_DATE.minusMinutes(2), 2L), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void handle_AchievementsBySkills_IndexReady_LoadsOnlyThePageIdsAndDropsItemsBeforeFromDate() {
+        // Arrange
+        KeysetCursor cursor = new KeysetCursor(BASE_DATE, 42L);
+        OffsetDateTime fromDate = BASE_DATE.minusMinutes(1).minusSeconds(30);
+        List<AchievementDtoSm> page = createPage(3);
+        List<Long> ids = page.stream().map(AchievementDtoSm::getId).toList();
+
+        when(skillIndex.findIds((short) 1, false, fromDate, 42L, 11)).thenReturn(ids);
+        doReturn(page).when(achievementRepository).getAchievementsByIds(AchievementDtoSm.class, ids, null);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetAchievementsBySkillsQuery(
+                QuerySizeType.sm, List.of("str"), null, fromDate, null, cursor.encode()));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getCount());
+        assertNull(result.getNextCursor());
+        verify(achievementRepository, never()).getAchievementsWithSkills(any(), any(), any(), anyBoolean(), any(),
+                any());
+    }
+
+    @Test
+    void handle_AchievementsBySkills_UnknownSkill_ReturnsValidationError() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetAchievementsBySkillsQuery(
+                QuerySizeType.sm, List.of("str", "foo"), null, null, null, null));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.VALIDATION_ERROR, result.getResponseType());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_AchievementDetail_KeyNeverIssued_ReturnsNotFoundWithoutRepository() {
+        // Arrange
+        when(achievementKeyFilter.mightExist("UNKNOWN")).thenReturn(false);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementDetailQuery(QuerySizeType.sm, "UNKNOWN"));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.NOT_FOUND, result.getResponseType());
+        verifyNoInteractions(achievementRepository);
+        verifyNoInteractions(trendingScorer);
+        verifyNoInteractions(viewCounter);
+    }
+
+    @Test
+    void handle_AchievementDetail_KeyMightExist_QueriesRepository() {
+        // Arrange
+        AchievementDtoSm dto = createPage(1).get(0);
+        when(achievementKeyFilter.mightExist("KEY0000")).thenReturn(true);
+        doReturn(dto).when(detailCache).getAchievementByKey(AchievementDtoSm.class, "KEY0000");
+        when(fragmentCache.toFragment(AchievementDtoSm.class, dto)).thenReturn(dto);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementDetailQuery(QuerySizeType.sm, "KEY0000"), "USER009");
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertSame(dto, result.getData());
+        verify(trendingScorer).recordView("KEY0000");
+        verify(viewCounter).recordView("KEY0000", "USER009");
+    }
+
+    @Test
+    void handle_AchievementSummariesByUser_MorePagesAvailable_ReturnsNextCursor() {
+        // Arrange
+        when(achievementRepository.getAchievementSummariesByUser("USERKEY", false, 4, null))
+                .thenReturn(createSummaries(4));
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementSummariesByUserQuery("USERKEY", 3, null));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getCount());
+        assertEquals(new KeysetCursor(BASE_DATE.minusMinutes(2), 2L), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void handle_AchievementSummariesByUser_WithCursor_SeeksFromCursor() {
+        // Arrange
+        KeysetCursor cursor = new KeysetCursor(BASE_DATE, 42L);
+        when(achievementRepository.getAchievementSummariesByUser("USERKEY", false, 11, cursor))
+                .thenReturn(createSummaries(2));
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementSummariesByUserQuery("USERKEY", null, cursor.encode()));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getCount());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void handle_AchievementSummariesByUser_OwnerOrOtherUser_OnlyTheOwnerSeesHiddenAchievements() {
+        // Arrange
+        when(achievementRepository.getAchievementSummariesByUser(eq("USERKEY"), anyBoolean(), eq(11), isNull()))
+                .thenReturn(createSummaries(2));
+
+        // Act
+        achievementQueryHandler.handle(new GetAchievementSummariesByUserQuery("USERKEY", null, null), "USERKEY");
+        achievementQueryHandler.handle(new GetAchievementSummariesByUserQuery("USERKEY", null, null), "USER009");
+
+        // Assert
+        verify(achievementRepository).getAchievementSummariesByUser("USERKEY", true, 11, null);
+        verify(achievementRepository).getAchievementSummariesByUser("USERKEY", false, 11, null);
+    }
+
+    @Test
+    void handle_AchievementSummariesByUser_InvalidQuery_ReturnsValidationError() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementSummariesByUserQuery("KEY", 500, "not-a-cursor"));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.VALIDATION_ERROR, result.getResponseType());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_AchievementSummary_KeyNeverIssued_ReturnsNotFoundWithoutRepository() {
+        // Arrange
+        when(achievementKeyFilter.mightExist("UNKNOWN")).thenReturn(false);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementSummaryByKeyQuery("UNKNOWN"));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.NOT_FOUND, result.getResponseType());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_AchievementSummary_ExistingKey_ReturnsSummary() {
+        // Arrange
+        AchievementSummaryReadModel summary = createSummaries(1).get(0);
+        when(achievementKeyFilter.mightExist("KEY0000")).thenReturn(true);
+        when(achievementRepository.getAchievementSummaryByKey("KEY0000", null)).thenReturn(summary);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementSummaryByKeyQuery("KEY0000"));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertSame(summary, result.getData());
+    }
+
+    @Test
+    void handle_AchievementSummary_NotVisibleToTheRequester_ReturnsNotFound() {
+        // Arrange
+        when(achievementKeyFilter.mightExist("KEY0000")).thenReturn(true);
+        when(achievementRepository.getAchievementSummaryByKey("KEY0000", "USER009")).thenReturn(null);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementSummaryByKeyQuery("KEY0000"), "USER009");
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.NOT_FOUND, result.getResponseType());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handle_AchievementSummariesByKeys_PreservesRequestOrderAndFlagsMissingKeys() {
+        // Arrange
+        List<AchievementSummaryReadModel> found = createSummaries(3);
+        when(achievementKeyFilter.mightExist(any())).thenAnswer(invocation -> !"NEVERKY".equals(invocation.getArgument(0)));
+        when(achievementRepository.getAchievementSummariesByKeys(any(), isNull()))
+                .thenReturn(List.of(found.get(2), found.get(0)));
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetAchievementSummariesByKeysQuery(
+                List.of("KEY0000", "NEVERKY", "KEY0001", "KEY0002", "KEY0000")));
+
+        // Assert
+        assertTrue(result.isSuccess());
+
+        List<AchievementSummaryLookupReadModel> lookups = (List<AchievementSummaryLookupReadModel>) result.getData();
+        assertEquals(List.of("KEY0000", "NEVERKY", "KEY0001", "KEY0002", "KEY0000"),
+                lookups.stream().map(AchievementSummaryLookupReadModel::getKey).toList());
+        assertEquals(List.of(true, false, false, true, true),
+                lookups.stream().map(AchievementSummaryLookupReadModel::isFound).toList());
+        assertSame(found.get(2), lookups.get(3).getSummary());
+        assertNull(lookups.get(1).getSummary());
+
+        // Queried once, without the duplicate and the key that was never issued
+        verify(achievementRepository).getAchievementSummariesByKeys(
+                new LinkedHashSet<>(List.of("KEY0000", "KEY0001", "KEY0002")), null);
+    }
+
+    @Test
+    void handle_AchievementSummariesByKeys_NoKeyIssued_DoesNotQueryRepository() {
+        // Arrange
+        when(achievementKeyFilter.mightExist(any())).thenReturn(false);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementSummariesByKeysQuery(List.of("UNKNOWN")));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getCount());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_AchievementSummariesByKeys_TooManyKeys_ReturnsValidationError() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetAchievementSummariesByKeysQuery(
+                Collections.nCopies(GetAchievementSummariesByKeysQuery.MAX_KEYS + 1, "KEY0000")));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.VALIDATION_ERROR, result.getResponseType());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_SearchAchievements_MorePagesAvailable_LoadsThePageInRankOrderAndReturnsNextCursor() {
+        // Arrange
+        List<AchievementSearchHit> hits = List.of(new AchievementSearchHit(7L, 0.9f),
+                new AchievementSearchHit(3L, 0.5f), new AchievementSearchHit(9L, 0.1f));
+        List<AchievementDtoSm> page = createPage(2);
+
+        when(achievementRepository.searchAchievements("dragon slayer", 3, null, null)).thenReturn(hits);
+        doReturn(page).when(achievementRepository).getAchievementsByIds(AchievementDtoSm.class, List.of(7L, 3L), null);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new SearchAchievementsQuery(QuerySizeType.sm, " dragon slayer ", 2, null));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getCount());
+        assertEquals(new RankCursor(0.5f, 3L), RankCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void handle_SearchAchievements_WithRequester_SearchesAndLoadsAsTheRequester() {
+        // Arrange
+        List<AchievementSearchHit> hits = List.of(new AchievementSearchHit(7L, 0.9f));
+        List<AchievementDtoSm> page = createPage(1);
+
+        when(achievementRepository.searchAchievements("dragon", 11, null, "USER1")).thenReturn(hits);
+        doReturn(page).when(achievementRepository).getAchievementsByIds(AchievementDtoSm.class, List.of(7L), "USER1");
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new SearchAchievementsQuery(QuerySizeType.sm, "dragon", null, null), "USER1");
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getCount());
+    }
+
+    @Test
+    void handle_SearchAchievements_WithCursor_SeeksFromCursor() {
+        // Arrange
+        RankCursor cursor = new RankCursor(0.0333f, 42L);
+        when(achievementRepository.searchAchievements("dragon", 11, cursor, null)).thenReturn(List.of());
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new SearchAchievementsQuery(QuerySizeType.xs, "dragon", null, cursor.encode()));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(0, result.getCount());
+        assertNull(result.getNextCursor());
+        verify(achievementRepository, never()).getAchievementsByIds(any(), any(), any());
+    }
+
+    @Test
+    void handle_SearchAchievements_LargeSize_ReturnsValidationError() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new SearchAchievementsQuery(QuerySizeType.lg, "dragon", null, null));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.VALIDATION_ERROR, result.getResponseType());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_SearchAchievements_InvalidCursor_ReturnsValidationError() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new SearchAchievementsQuery(QuerySizeType.sm, "dragon", null, "not-a-cursor"));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.VALIDATION_ERROR, result.getResponseType());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @Test
+    void handle_Changes_SkipsPrivateAchievementsOfOthersButAdvancesTheSequence() {
+        // Arrange
+        List<DomainEventRecord> records = List.of(
+                new DomainEventRecord(6, new NewAchievementCreated("KEY0001", "USER001", null, new String[0],
+                        new String[0], AchievementVisibilityStatus.EVERYONE)),
+                new DomainEventRecord(7, new NewAchievementCreated("KEY0002", "USER002", null, new String[0],
+                        new String[0], AchievementVisibilityStatus.PRIVATE)),
+                new DomainEventRecord(8, new AchievementMediaAdded("KEY0003", "USER001",
+                        AchievementVisibilityStatus.PRIVATE, new String[] { "MEDIA01" })),
+                new DomainEventRecord(9, new UserProfileImageChanged("USER002", "https://images/user002.png")));
+        when(eventLog.getLastSequence()).thenReturn(9L);
+        mockReplay(6, 100, records);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetChangesQuery(5L, null, null), "USER001");
+
+        // Assert
+        assertTrue(result.isSuccess());
+        ChangesReadModel changes = (ChangesReadModel) result.getData();
+        assertEquals(9, changes.getSequence());
+        assertFalse(changes.isHasMore());
+        assertFalse(changes.isResync());
+        assertEquals(List.of(AchievementChangeType.ACHIEVEMENT_CREATED, AchievementChangeType.ACHIEVEMENT_MEDIA_ADDED,
+                AchievementChangeType.USER_PROFILE_IMAGE_CHANGED),
+                changes.getChanges().stream().map(ChangeReadModel::getType).toList());
+        assertEquals(List.of("KEY0001", "KEY0003", "USER002"),
+                changes.getChanges().stream().map(ChangeReadModel::getKey).toList());
+    }
+
+    @Test
+    void handle_Changes_LimitReached_ReturnsHasMore() {
+        // Arrange
+        when(eventLog.getLastSequence()).thenReturn(50L);
+        mockReplay(1, 2, List.of(
+                new DomainEventRecord(1, new UserProfileImageChanged("USER001", "https://images/user001.png")),
+                new DomainEventRecord(2, new UserProfileImageChanged("USER002", "https://images/user002.png"))));
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetChangesQuery(0L, 2, null), null);
+
+        // Assert
+        ChangesReadModel changes = (ChangesReadModel) result.getData();
+        assertEquals(2, changes.getSequence());
+        assertTrue(changes.isHasMore());
+        assertEquals(2, changes.getChanges().size());
+    }
+
+    @Test
+    void handle_Changes_SequenceAheadOfTheLog_ReturnsResync() {
+        // Arrange
+        when(eventLog.getLastSequence()).thenReturn(10L);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetChangesQuery(25L, null, null), null);
+
+        // Assert
+        ChangesReadModel changes = (ChangesReadModel) result.getData();
+        assertTrue(changes.isResync());
+        assertEquals(10, changes.getSequence());
+        assertTrue(changes.getChanges().isEmpty());
+        verify(eventLog, never()).replay(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void handle_Changes_SequenceBeforeTheRetainedLog_ReturnsResync() {
+        // Arrange
+        when(eventLog.getLastSequence()).thenReturn(100L);
+        when(eventLog.getFirstSequence()).thenReturn(40L);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetChangesQuery(25L, null, null), null);
+
+        // Assert
+        ChangesReadModel changes = (ChangesReadModel) result.getData();
+        assertTrue(changes.isResync());
+        assertEquals(100, changes.getSequence());
+        verify(eventLog, never()).replay(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void handle_Changes_InvalidQuery_ReturnsValidationError() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetChangesQuery(null, 1000, null), null);
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.VALIDATION_ERROR, result.getResponseType());
+        verifyNoInteractions(eventLog);
+    }
+
+    @Test
+    void awaitChanges_NoWait_CompletesWithoutWaitingOnTheLog() {
+        // Act & Assert
+        assertTrue(achievementQueryHandler.awaitChanges(new GetChangesQuery(5L, null, 0)).isDone());
+        verifyNoInteractions(eventLog);
+    }
+
+    @Test
+    void handle_StreamLatestAchievements_SubscribesWithTheDtoOfTheSize() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(streamBroadcaster.subscribe(AchievementDtoSm.class)).thenReturn(emitter);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new StreamLatestAchievementsQuery(QuerySizeType.xs));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertSame(emitter, result.getData());
+    }
+
+    @Test
+    void handle_StreamLatestAchievements_NoSize_ReturnsValidationError() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new StreamLatestAchievementsQuery(null));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.VALIDATION_ERROR, result.getResponseType());
+        verifyNoInteractions(streamBroadcaster);
+    }
+
+    @Test
+    void handle_Timeline_MorePagesAvailable_LoadsThePageAndReturnsNextCursor() {
+        // Arrange
+        List<AchievementTimelineItem> items = List.of(
+                new AchievementTimelineItem(9L, BASE_DATE, 1L),
+                new AchievementTimelineItem(7L, BASE_DATE.minusMinutes(1), 2L),
+                new AchievementTimelineItem(5L, BASE_DATE.minusMinutes(2), 1L));
+        List<AchievementDtoSm> page = createPage(2);
+
+        when(timelineRepository.getTimeline("USER001", 3, null)).thenReturn(items);
+        doReturn(page).when(achievementRepository).getAchievementsByIds(AchievementDtoSm.class, List.of(9L, 7L), null);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetTimelineQuery(QuerySizeType.sm, 2, null), "USER001");
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getCount());
+        assertEquals(new KeysetCursor(BASE_DATE.minusMinutes(1), 7L), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void handle_Timeline_NoRequester_ReturnsUnauthorized() {
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetTimelineQuery(QuerySizeType.sm, 10, null), null);
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(ResponseType.UNAUTHORIZED, result.getResponseType());
+        verifyNoInteractions(timelineRepository);
+    }
+
+    @Test
+    void handle_UserSkillStats_RowExists_ReturnsTheCountsInSkillOrder() {
+        // Arrange
+        UserSkillStats stats = new UserSkillStats();
+        stats.setUserKey("USER001");
+        stats.setAchievementCount(3);
+        stats.setStrCount(2);
+        stats.setLucCount(1);
+        when(userSkillStatsRepository.getByUserKey("USER001")).thenReturn(stats);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetUserSkillStatsQuery("USER001"));
+
+        // Assert
+        assertTrue(result.isSuccess());
+
+        UserSkillStatsReadModel readModel = (UserSkillStatsReadModel) result.getData();
+        assertEquals(3, readModel.getAchievementCount());
+        assertEquals(List.of("str", "dex", "con", "int", "wis", "cha", "luc"),
+                List.copyOf(readModel.getSkills().keySet()));
+        assertEquals(2, readModel.getSkills().get("str"));
+        assertEquals(1, readModel.getSkills().get("luc"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void handle_UserSkillStats_NoRow_ReturnsZerosForAUserAndNotFoundOtherwise() {
+        // Arrange
+        when(userKeyFilter.mightExist(any())).thenReturn(true);
+        when(userRepository.findByKey("USER001", User.class)).thenReturn(new User());
+
+        // Act
+        HandlerResponse<Object> known = achievementQueryHandler.handle(new GetUserSkillStatsQuery("USER001"));
+        HandlerResponse<Object> unknown = achievementQueryHandler.handle(new GetUserSkillStatsQuery("USER404"));
+
+        // Assert
+        assertTrue(known.isSuccess());
+        assertEquals(0, ((UserSkillStatsReadModel) known.getData()).getAchievementCount());
+        assertEquals(ResponseType.NOT_FOUND, unknown.getResponseType());
+    }
+
+    @Test
+    void handle_AchievementReactions_ReturnsTheCountsAndTheReactionsOfTheRequester() {
+        // Arrange
+        Achievement achievement = createAchievement(AchievementVisibilityStatus.EVERYONE);
+        User requester = new User();
+        requester.setId(9L);
+        when(achievementKeyFilter.mightExist("KEY0001")).thenReturn(true);
+        when(achievementRepository.getAchievementByKey(Achievement.class, "KEY0001")).thenReturn(achievement);
+        when(userRepository.findByKey("USER009", User.class)).thenReturn(requester);
+        when(reactionCounter.isReady()).thenReturn(true);
+        when(reactionCounter.getCounts(5L)).thenReturn(Map.of(AchievementReactionType.LIKE, 3L));
+        when(reactionCounter.getReactions(5L, 9L)).thenReturn(EnumSet.of(AchievementReactionType.LIKE));
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementReactionsQuery("KEY0001"), "USER009");
+
+        // Assert
+        assertTrue(result.isSuccess());
+
+        AchievementReactionsReadModel readModel = (AchievementReactionsReadModel) result.getData();
+        assertEquals("KEY0001", readModel.getAchievementKey());
+        assertEquals(Map.of("like", 3L), readModel.getCounts());
+        assertEquals(List.of("like"), readModel.getReacted());
+    }
+
+    @Test
+    void handle_AchievementReactions_PrivateAchievementOfAnotherUser_ReturnsNotFound() {
+        // Arrange
+        when(achievementKeyFilter.mightExist("KEY0001")).thenReturn(true);
+        when(achievementRepository.getAchievementByKey(Achievement.class, "KEY0001"))
+                .thenReturn(createAchievement(AchievementVisibilityStatus.PRIVATE));
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetAchievementReactionsQuery("KEY0001"), "USER009");
+
+        // Assert
+        assertEquals(ResponseType.NOT_FOUND, result.getResponseType());
+        verifyNoInteractions(reactionCounter);
+    }
+
+    @Test
+    void handle_AchievementViews_ReturnsTheStoredCounts() {
+        // Arrange
+        when(achievementKeyFilter.mightExist("KEY0001")).thenReturn(true);
+        when(achievementRepository.getAchievementByKey(Achievement.class, "KEY0001"))
+                .thenReturn(createAchievement(AchievementVisibilityStatus.PRIVATE));
+        when(viewCounter.getViews(5L)).thenReturn(new AchievementViewCount(40, 12));
+
+        // Act: the owner sees the views of their private achievement, nobody else does
+        HandlerResponse<Object> owner = achievementQueryHandler
+                .handle(new GetAchievementViewsQuery("KEY0001"), "USER001");
+        HandlerResponse<Object> other = achievementQueryHandler
+                .handle(new GetAchievementViewsQuery("KEY0001"), "USER009");
+
+        // Assert
+        assertTrue(owner.isSuccess());
+
+        AchievementViewsReadModel readModel = (AchievementViewsReadModel) owner.getData();
+        assertEquals("KEY0001", readModel.getAchievementKey());
+        assertEquals(40, readModel.getViews());
+        assertEquals(12, readModel.getUniqueViewers());
+        assertEquals(ResponseType.NOT_FOUND, other.getResponseType());
+        verify(viewCounter, times(1)).getViews(5L);
+    }
+
+    @Test
+    void handle_SkillLeaderboard_ReturnsTheTopUsersWithTheirProfiles() {
+        // Arrange
+        when(leaderboards.getTop(AchievementSkill.STR, LeaderboardWindow.last30days, 2)).thenReturn(List.of(
+                new LeaderboardEntry(1, 7L, 12), new LeaderboardEntry(2, 3L, 9)));
+        when(leaderboards.getRankedUsers(AchievementSkill.STR, LeaderboardWindow.last30days)).thenReturn(40);
+        when(achievementRepository.getUserSummariesByIds(List.of(7L, 3L))).thenReturn(Map.of(
+                7L, new UserProfileSummaryReadModel("USER007", "seven"),
+                3L, new UserProfileSummaryReadModel("USER003", "three")));
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetSkillLeaderboardQuery("STR", LeaderboardWindow.last30days, 2));
+        HandlerResponse<Object> invalid = achievementQueryHandler
+                .handle(new GetSkillLeaderboardQuery("foo", null, null));
+
+        // Assert
+        assertTrue(result.isSuccess());
+
+        LeaderboardReadModel readModel = (LeaderboardReadModel) result.getData();
+        assertEquals("str", readModel.getSkill());
+        assertEquals(40, readModel.getRankedUsers());
+        assertEquals("USER007", readModel.getEntries().get(0).getUserKey());
+        assertEquals(12, readModel.getEntries().get(0).getScore());
+        assertEquals(2, readModel.getEntries().get(1).getRank());
+        assertEquals(ResponseType.VALIDATION_ERROR, invalid.getResponseType());
+    }
+
+    @Test
+    void handle_SkillLeaderboardRank_ResolvesTheUserIdFromTheStatsRow() {
+        // Arrange
+        UserSkillStats stats = new UserSkillStats();
+        stats.setUserId(3L);
+        stats.setUserKey("USER003");
+        when(userSkillStatsRepository.getByUserKey("USER003")).thenReturn(stats);
+        when(leaderboards.getAround(AchievementSkill.DEX, LeaderboardWindow.all, 3L, 5)).thenReturn(null);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler
+                .handle(new GetSkillLeaderboardRankQuery("dex", null, "USER003", null));
+
+        // Assert: the leaderboards are still seeding
+        assertEquals(ResponseType.SERVICE_UNAVAILABLE, result.getResponseType());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void handle_TrendingAchievements_ServesTheSnapshotWithoutRepository() {
+        // Arrange
+        List<TrendingAchievementReadModel> snapshot = createSummaries(3).stream()
+                .map(summary -> new TrendingAchievementReadModel(1.0, summary))
+                .toList();
+        when(trendingScorer.getTrending()).thenReturn(snapshot);
+
+        // Act
+        HandlerResponse<Object> result = achievementQueryHandler.handle(new GetTrendingAchievementsQuery(2));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(snapshot.subList(0, 2), result.getData());
+        verifyNoInteractions(achievementRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockReplay(long fromSequence, long maxEvents, List<DomainEventRecord> records) {
+        when(eventLog.replay(eq(fromSequence), eq(maxEvents), any())).thenAnswer(invocation -> {
+            records.forEach(((Consumer<DomainEventRecord>) invocation.getArgument(2))::accept);
+            return (long) records.size();
+        });
+    }
+
+    private List<AchievementSummaryReadModel> createSummaries(int size) {
+        List<AchievementSummaryReadModel> summaries = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            summaries.add(new AchievementSummaryReadModel((long) (size - i), BASE_DATE.minusMinutes(i),
+                    "KEY000" + i, "title", null, new SkillSummaryReadModel[] { new SkillSummaryReadModel("str") },
+                    new AchievementMediaDetailReadModel[0], null));
+        }
+
+        return summaries;
+    }
+
+    private List<AchievementDtoSm> createPage(int size) {
+        List<AchievementDtoSm> page = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            page.add(new AchievementDtoSm((long) (size - i), BASE_DATE.minusMinutes(i), "KEY000" + i, "title",
+                    "description", List.of("str"), null, List.of()));
+        }
+
+        return page;
+    }
+
+    private Achievement createAchievement(AchievementVisibilityStatus visibility) {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setEntityKey("USER001");
+
+        Achievement achievement = new Achievement();
+        achievement.setId(5L);
+        achievement.setEntityKey("KEY0001");
+        achievement.setActive(true);
+        achievement.setAchievementVisibility(visibility);
+        achievement.setUser(owner);
+
+        return achievement;
+    }
+}
@@ -0,0 +1,119 @@
+package espresso.achievement.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import espresso.common.domain.support.OrderStatisticTree;
+
+/**
+ * Measures one skill leaderboard ({@link OrderStatisticTree}) holding the
+ * given number of users, with a skewed score distribution (most users have a
+ * handful of achievements, few have hundreds): the throughput of counting a
+ * new achievement, and the operations of the leaderboard queries.
+ * <p>
+ * The memory footprint is printed when the trial starts, both as reported by
+ * the tree and as the heap growth measured around filling it; the 14
+ * leaderboards of the application hold at most 14 times that, for users that
+ * have achievements with every skill.
+ * </p>
+ * <p>
+ * Run with the main method from the IDE, or after {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main AchievementLeaderboardBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class AchievementLeaderboardBenchmark {
+
+    @Param({ "100000", "1000000" })
+    private int users;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private OrderStatisticTree tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+
+        tree = new OrderStatisticTree();
+
+        for (long user = 1; user <= users; user++) {
+            tree.set(user, score());
+        }
+
+        long heap = usedHeap() - before;
+
+        System.out.printf("%n%d users: %d bytes reported (%.1f per user), %d bytes of heap (%.1f per user)%n",
+                users, tree.sizeInBytes(), (double) tree.sizeInBytes() / users, heap, (double) heap / users);
+    }
+
+    @Benchmark
+    public int increment() {
+        // Every new achievement moves its owner up by one
+        return tree.increment(user(), 1);
+    }
+
+    @Benchmark
+    public int rank() {
+        return tree.rank(user());
+    }
+
+    @Benchmark
+    public void top10(Blackhole blackhole) {
+        tree.range(1, 10, (rank, member, score) -> blackhole.consume(member));
+    }
+
+    @Benchmark
+    public void around5(Blackhole blackhole) {
+        int rank = tree.rank(user());
+
+        tree.range(Math.max(rank - 5, 1), 11, (r, member, score) -> blackhole.consume(member));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AchievementLeaderboardBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private long user() {
+        return 1 + random.nextInt(users);
+    }
+
+    // Roughly a power law: most users have 1 or 2, one in a thousand has 100 or more
+    private int score() {
+        return (int) Math.min(Math.floor(Math.pow(random.nextDouble(), -1.5)), 10_000);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
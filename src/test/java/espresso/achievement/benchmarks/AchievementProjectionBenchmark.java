@@ -0,0 +1,160 @@
+package espresso.achievement.benchmarks;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.domain.entities.AchievementMedia;
+import espresso.achievement.domain.entities.AchievementMediaDtoSm;
+import espresso.user.domain.entities.User;
+
+/**
+ * Compares the in-memory half of the latest feed read path for an sm page:
+ * the former Spring Data interface projections (JDK proxies over entities)
+ * against the record DTOs built by the constructor-expression queries. Both
+ * paths produce the DTOs from already loaded data and serialize them with the
+ * MVC object mapper; the column pruning of the new queries is not part of it.
+ * <p>
+ * Run with the main method from the IDE, or after {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main AchievementProjectionBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AchievementProjectionBenchmark {
+
+    @Param({ "10", "50", "100" })
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    private List<Achievement> entities;
+
+    @Setup
+    public void setUp() {
+        User user = User.create("benchmark", "benchmark@example.com", "Password123!", "First", "Last",
+                LocalDate.of(1990, 1, 1));
+        user.setEntityKey("USERKEY");
+
+        entities = new ArrayList<>(pageSize);
+
+        for (int i = 0; i < pageSize; i++) {
+            Achievement achievement = Achievement.create("Title " + i, "Description " + i, new Date(), true, user,
+                    List.of("str", "dex", "int"));
+            achievement.setId((long) i);
+
+            AchievementMedia media = AchievementMedia.create(achievement, "image" + i + ".png", "image/png",
+                    new byte[] { 1 });
+            media.setMediaUrl("https://storage/image" + i + ".png");
+            achievement.setMedia(List.of(media));
+
+            entities.add(achievement);
+        }
+    }
+
+    @Benchmark
+    public String proxyProjection() throws JsonProcessingException {
+        List<LegacyAchievementDtoSm> page = new ArrayList<>(entities.size());
+
+        for (Achievement entity : entities) {
+            page.add(projectionFactory.createProjection(LegacyAchievementDtoSm.class, entity));
+        }
+
+        return objectMapper.writeValueAsString(page);
+    }
+
+    @Benchmark
+    public String recordProjection() throws JsonProcessingException {
+        List<AchievementDtoSm> page = new ArrayList<>(entities.size());
+
+        for (Achievement entity : entities) {
+            // Same values the constructor expression receives from the result set
+            User user = entity.getUser();
+            AchievementMedia media = entity.getMedia().get(0);
+
+            page.add(new AchievementDtoSm(entity.getId(), entity.getRegisteredAt(), entity.getEntityKey(),
+                    entity.getTitle(), entity.getDescription(), entity.getSkills(), user.getEntityKey(),
+                    user.getUsername(), user.getEmail())
+                    .withMedia(List.of(new AchievementMediaDtoSm(media.getImageKey(), media.getMediaUrl()))));
+        }
+
+        return objectMapper.writeValueAsString(page);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AchievementProjectionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // The interface projections as they were before the record DTOs
+
+    public interface LegacyAchievementDtoSm {
+
+        @JsonIgnore
+        Long getId();
+
+        @JsonIgnore
+        OffsetDateTime getRegisteredAt();
+
+        String getEntityKey();
+
+        String getTitle();
+
+        String getDescription();
+
+        List<String> getSkills();
+
+        LegacyUserDtoSm getUser();
+
+        List<LegacyAchievementMediaDtoSm> getMedia();
+    }
+
+    public interface LegacyUserDtoSm {
+
+        String getEntityKey();
+
+        String getUsername();
+
+        String getEmail();
+    }
+
+    public interface LegacyAchievementMediaDtoSm {
+
+        String getImageKey();
+
+        String getMediaUrl();
+    }
+}
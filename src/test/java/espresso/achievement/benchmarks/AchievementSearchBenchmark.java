@@ -0,0 +1,138 @@
+package espresso.achievement.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import espresso.achievement.domain.entities.AchievementSearchHit;
+import espresso.achievement.infrastructure.repositories.AchievementProjectionPSQLProviderImpl;
+
+/**
+ * Latency of the ranking query of the full-text search against PostgreSQL,
+ * sampled so that the p99 is reported (the target is under 50 ms for a first
+ * page over a few million achievements).
+ * <p>
+ * Needs a dedicated database whose schema was created by starting the
+ * application once against it (the search vector and its GIN index are added
+ * by AchievementSchemaMigration). Missing rows up to {@code rows} are generated
+ * on setup, with titles and descriptions drawn from a small vocabulary so that
+ * common and rare words both occur. The connection is read from the
+ * {@code benchmark.datasource.url}, {@code benchmark.datasource.username} and
+ * {@code benchmark.datasource.password} system properties.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(4)
+@Fork(1)
+public class AchievementSearchBenchmark {
+
+    private static final String[] WORDS = { "dragon", "marathon", "chess", "summit", "piano", "garden",
+            "codebase", "recipe", "sprint", "library", "voyage", "castle", "harvest", "canvas", "orbit", "lantern" };
+
+    private static final String COUNT = "SELECT count(*) FROM Achievements";
+
+    // Every word of the vocabulary has its own frequency: word i (from 1) is in about 1 / i of the titles
+    private static final String SEED = "INSERT INTO Achievements (entityKey, timeStamp, title, description, "
+            + "completeddate, registeredAt, active, skills, skillMask, achievementVisibility) "
+            + "SELECT 'Z' || upper(lpad(to_hex(n), 6, '0')), now(), "
+            + "(SELECT string_agg(w, ' ') FROM unnest(cast(:words AS text[])) WITH ORDINALITY AS v(w, i) "
+            + "WHERE n % i = 0 OR i = 1 + n % 16), "
+            + "'Benchmark achievement number ' || n || ' about ' || (cast(:words AS text[]))[1 + (n * 7) % 16], "
+            + "now() - make_interval(mins => n), now() - make_interval(mins => :rows - n), true, "
+            + "cast('{str}' AS varchar(255)[]), 1, 'EVERYONE' "
+            + "FROM generate_series(:from, :rows) AS n";
+
+    @Param({ "3000000" })
+    private int rows;
+
+    @Param({ "10" })
+    private int limit;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.datasource.url", "jdbc:postgresql://localhost:5432/espresso_benchmark"),
+                System.getProperty("benchmark.datasource.username", "postgres"),
+                System.getProperty("benchmark.datasource.password", "postgres"));
+
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        long existing = jdbcTemplate.queryForObject(COUNT, Map.of(), Long.class);
+
+        if (existing < rows) {
+            // Array literal, cast to text[] by the statement
+            String words = "{" + String.join(",", WORDS) + "}";
+
+            jdbcTemplate.update(SEED, Map.of("words", words, "from", existing + 1, "rows", rows));
+            jdbcTemplate.getJdbcTemplate().execute("ANALYZE Achievements");
+        }
+    }
+
+    @Benchmark
+    public List<AchievementSearchHit> firstPage() {
+        return search(AchievementProjectionPSQLProviderImpl.SEARCH, randomText(), null);
+    }
+
+    @Benchmark
+    public List<AchievementSearchHit> nextPage() {
+        String text = randomText();
+        List<AchievementSearchHit> first = search(AchievementProjectionPSQLProviderImpl.SEARCH, text, null);
+
+        return first.isEmpty() ? first
+                : search(AchievementProjectionPSQLProviderImpl.SEARCH_AFTER, text, first.get(first.size() - 1));
+    }
+
+    private List<AchievementSearchHit> search(String sql, String text, AchievementSearchHit after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("text", text, "limit", limit));
+        parameters.put("requesterKey", null);
+
+        if (after != null) {
+            parameters.put("rank", after.rank());
+            parameters.put("id", after.id());
+        }
+
+        return jdbcTemplate.query(sql, parameters,
+                (rs, rowNum) -> new AchievementSearchHit(rs.getLong(1), rs.getFloat(2)));
+    }
+
+    private static String randomText() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Mix of common (low index) and rare (high index) words, one or two words per search
+        String word = WORDS[random.nextInt(WORDS.length)];
+
+        return random.nextBoolean() ? word : word + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AchievementSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
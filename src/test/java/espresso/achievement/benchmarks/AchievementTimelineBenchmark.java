@@ -0,0 +1,182 @@
+package espresso.achievement.benchmarks;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import espresso.achievement.domain.entities.AchievementTimelineItem;
+import espresso.achievement.infrastructure.repositories.AchievementTimelineRepository;
+import espresso.achievement.infrastructure.timelines.AchievementTimelineMerger;
+
+/**
+ * Latency of the first page of a home timeline read by merging the streams
+ * of the followees (fan-out on read) and from the precomputed entries
+ * (fan-out on write), for a reader following 10, 1k and 100k users.
+ * <p>
+ * Needs a dedicated database whose schema was created by starting the
+ * application once against it. On setup, {@code maxFollowees} users with
+ * {@code achievementsPerUser} public achievements each are generated once,
+ * and two readers per followee count follow the first {@code followees} of
+ * them: one merges its timeline, the other one is materialized with the same
+ * statement the application uses. The connection is read from the
+ * {@code benchmark.datasource.url}, {@code benchmark.datasource.username} and
+ * {@code benchmark.datasource.password} system properties.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(4)
+@Fork(1)
+public class AchievementTimelineBenchmark {
+
+    private static final OffsetDateTime NEWEST = OffsetDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final OffsetDateTime OLDEST = OffsetDateTime.of(1, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final RowMapper<AchievementTimelineItem> ITEM = (rs, rowNum) -> new AchievementTimelineItem(
+            rs.getLong(1), rs.getObject(2, OffsetDateTime.class), rs.getLong(3));
+
+    private static final String INSERT_USERS = "INSERT INTO Users (entityKey, timeStamp, username, email, "
+            + "passwordHash, emailVerified, ageVerified, phoneVerified, addressVerified, active, registeredAt) "
+            + "SELECT k, now(), 'benchmark_' || k, k || '@benchmark.test', '-', false, false, false, false, true, "
+            + "now() FROM unnest(cast(:keys AS text[])) AS k ON CONFLICT (entityKey) DO NOTHING";
+
+    private static final String SEED_FOLLOWEES = "INSERT INTO Users (entityKey, timeStamp, username, email, "
+            + "passwordHash, emailVerified, ageVerified, phoneVerified, addressVerified, active, registeredAt) "
+            + "SELECT 'F' || lpad(to_hex(n), 6, '0'), now(), 'followee_' || n, 'followee_' || n || '@benchmark.test', "
+            + "'-', false, false, false, false, true, now() FROM generate_series(1, :maxFollowees) AS n "
+            + "ON CONFLICT (entityKey) DO NOTHING";
+
+    // Every followee posted in turn, one achievement a minute
+    private static final String SEED_ACHIEVEMENTS = "INSERT INTO Achievements (entityKey, timeStamp, title, "
+            + "description, completeddate, registeredAt, active, skills, skillMask, achievementVisibility, userId) "
+            + "SELECT 'T' || lpad(to_hex(u.n * :perUser + i), 6, '0'), now(), 'Timeline achievement', "
+            + "'Benchmark achievement of followee ' || u.n, now(), "
+            + "now() - make_interval(mins => (i * :maxFollowees + u.n)), true, cast('{str}' AS varchar(255)[]), 1, "
+            + "'EVERYONE', u.id FROM (SELECT id, row_number() OVER (ORDER BY id) AS n FROM Users "
+            + "WHERE entityKey LIKE 'F%') u CROSS JOIN generate_series(0, :perUser - 1) AS i "
+            + "ON CONFLICT (entityKey) DO NOTHING";
+
+    private static final String FOLLOW = "INSERT INTO UserFollows (followerId, followeeId, followedAt) "
+            + "SELECT r.id, u.id, now() FROM Users r, (SELECT id FROM Users WHERE entityKey LIKE 'F%' "
+            + "ORDER BY id LIMIT :followees) u WHERE r.entityKey IN (:readers) "
+            + "ON CONFLICT (followerId, followeeId) DO NOTHING";
+
+    private static final String MARK_MATERIALIZED = "INSERT INTO MaterializedTimelines (ownerId, materializedAt) "
+            + "VALUES (:ownerId, now()) ON CONFLICT (ownerId) DO NOTHING";
+
+    @Param({ "10", "1000", "100000" })
+    private int followees;
+
+    @Param({ "100000" })
+    private int maxFollowees;
+
+    @Param({ "5" })
+    private int achievementsPerUser;
+
+    @Param({ "10" })
+    private int limit;
+
+    @Param({ "5" })
+    private int mergePageSize;
+
+    @Param({ "1000" })
+    private int capacity;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private long mergedReaderId;
+
+    private long materializedReaderId;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.datasource.url", "jdbc:postgresql://localhost:5432/espresso_benchmark"),
+                System.getProperty("benchmark.datasource.username", "postgres"),
+                System.getProperty("benchmark.datasource.password", "postgres"));
+
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        jdbcTemplate.update(SEED_FOLLOWEES, Map.of("maxFollowees", maxFollowees));
+        jdbcTemplate.update(SEED_ACHIEVEMENTS, Map.of("maxFollowees", maxFollowees, "perUser", achievementsPerUser));
+
+        // One pair of readers per followee count, so the runs do not share follows
+        String mergedReader = "M" + String.format("%06d", followees);
+        String materializedReader = "W" + String.format("%06d", followees);
+
+        jdbcTemplate.update(INSERT_USERS, Map.of("keys", "{" + mergedReader + "," + materializedReader + "}"));
+        jdbcTemplate.update(FOLLOW, Map.of("followees", followees,
+                "readers", List.of(mergedReader, materializedReader)));
+
+        mergedReaderId = findUserId(mergedReader);
+        materializedReaderId = findUserId(materializedReader);
+
+        jdbcTemplate.update(AchievementTimelineRepository.MATERIALIZE,
+                Map.of("ownerId", materializedReaderId, "capacity", capacity));
+        jdbcTemplate.update(MARK_MATERIALIZED, Map.of("ownerId", materializedReaderId));
+
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE Achievements");
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE UserFollows");
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE AchievementTimelineEntries");
+    }
+
+    @Benchmark
+    public List<AchievementTimelineItem> fanOutOnRead() {
+        int pageSize = Math.min(limit + 1, mergePageSize);
+
+        List<AchievementTimelineItem> heads = jdbcTemplate.query(AchievementTimelineRepository.HEADS,
+                Map.of("ownerId", mergedReaderId, "registeredAt", NEWEST, "id", Long.MAX_VALUE,
+                        "pageSize", pageSize),
+                ITEM);
+
+        return AchievementTimelineMerger.merge(heads, pageSize, limit + 1,
+                (authorId, after, size) -> jdbcTemplate.query(AchievementTimelineRepository.STREAM_PAGE,
+                        Map.of("authorId", authorId, "registeredAt", after.getTimestamp(), "id", after.getId(),
+                                "pageSize", size),
+                        ITEM));
+    }
+
+    @Benchmark
+    public List<AchievementTimelineItem> fanOutOnWrite() {
+        return jdbcTemplate.query(AchievementTimelineRepository.MATERIALIZED_PAGE,
+                Map.of("ownerId", materializedReaderId, "registeredAt", NEWEST, "id", Long.MAX_VALUE,
+                        "horizonRegisteredAt", OLDEST, "horizonId", 0L, "limit", limit + 1),
+                ITEM);
+    }
+
+    private long findUserId(String userKey) {
+        return jdbcTemplate.queryForObject(AchievementTimelineRepository.USER_ID, Map.of("userKey", userKey),
+                Long.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AchievementTimelineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
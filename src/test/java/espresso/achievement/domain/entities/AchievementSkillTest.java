@@ -0,0 +1,33 @@
+package espresso.achievement.domain.entities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class AchievementSkillTest {
+
+    @Test
+    void toMask_Abbreviations_SetsOneBitPerSkill() {
+        assertEquals(0b1000011, AchievementSkill.toMask(List.of("str", " DEX", "luc", "str", "unknown")));
+        assertEquals(0, AchievementSkill.toMask(null));
+    }
+
+    @Test
+    void toAbbreviations_Mask_ReturnsTheSkillsInSkillOrder() {
+        assertEquals(List.of("str", "int", "luc"), AchievementSkill.toAbbreviations((short) 0b1001001));
+    }
+
+    @Test
+    void setSkills_Achievement_KeepsTheSkillMaskInSync() {
+        // Arrange
+        Achievement achievement = new Achievement();
+
+        // Act
+        achievement.setSkills(List.of("con", "cha"));
+
+        // Assert
+        assertEquals(AchievementSkill.CON.getMask() | AchievementSkill.CHA.getMask(), achievement.getSkillMask());
+    }
+}
@@ -0,0 +1,163 @@
+package espresso.achievement.infrastructure.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import espresso.achievement.domain.contracts.IAchievementQryRepository;
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementDtoLg;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementDetailCacheTest {
+
+    private static final OffsetDateTime BASE_DATE = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private IAchievementQryRepository achievementQryRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AchievementDetailCache detailCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        detailCache = createCache(2, Duration.ofMinutes(5));
+
+        lenient().when(achievementQryRepository.getAchievementByKey(eq(AchievementDtoSm.class), anyString()))
+                .thenAnswer(invocation -> createDto(invocation.getArgument(1)));
+    }
+
+    @Test
+    void getAchievementByKey_SecondRequest_IsServedFromCache() {
+        // Act
+        AchievementDtoSm first = detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        AchievementDtoSm second = detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+
+        // Assert
+        assertSame(first, second);
+        verify(achievementQryRepository, times(1)).getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        assertEquals(1.0, requests("hit"));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void getAchievementByKey_DifferentSize_IsCachedSeparately() {
+        // Arrange
+        when(achievementQryRepository.getAchievementByKey(AchievementDtoLg.class, "KEY0001")).thenReturn(null);
+
+        // Act
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        AchievementDtoLg lg = detailCache.getAchievementByKey(AchievementDtoLg.class, "KEY0001");
+
+        // Assert
+        assertNull(lg);
+        assertEquals(2.0, requests("miss"));
+    }
+
+    @Test
+    void getAchievementByKey_OverCapacity_KeepsEntriesReadSinceTheHandPassed() {
+        // Arrange
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0002");
+
+        // Act: read the first entry, then add a third one
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0003");
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0003");
+
+        // Assert
+        verify(achievementQryRepository, times(1)).getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        verify(achievementQryRepository, times(1)).getAchievementByKey(AchievementDtoSm.class, "KEY0003");
+        assertEquals(2, detailCache.size());
+        assertEquals(1.0, evictions("size"));
+    }
+
+    @Test
+    void getAchievementByKey_Expired_ReloadsFromRepository() {
+        // Arrange
+        detailCache = createCache(10, Duration.ZERO);
+
+        // Act
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+
+        // Assert
+        verify(achievementQryRepository, times(2)).getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        assertEquals(1.0, evictions("expired"));
+    }
+
+    @Test
+    void invalidate_AchievementChanged_ReloadsFromRepository() {
+        // Arrange
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+
+        // Act
+        detailCache.invalidate("KEY0001");
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+
+        // Assert
+        verify(achievementQryRepository, times(2)).getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+        assertEquals(1.0, meterRegistry.get("achievement.detail.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void getAchievementByKey_InvalidatedWhileLoading_DoesNotCacheStaleDetail() {
+        // Arrange: the achievement changes while the detail is being read
+        when(achievementQryRepository.getAchievementByKey(AchievementDtoSm.class, "KEY0001"))
+                .thenAnswer(invocation -> {
+                    detailCache.invalidate("KEY0001");
+                    return createDto("KEY0001");
+                });
+
+        // Act
+        detailCache.getAchievementByKey(AchievementDtoSm.class, "KEY0001");
+
+        // Assert
+        assertEquals(0, detailCache.size());
+    }
+
+    @Test
+    void getAchievementByKey_Entity_IsNeverCached() {
+        // Act
+        detailCache.getAchievementByKey(Achievement.class, "KEY0001");
+        detailCache.getAchievementByKey(Achievement.class, "KEY0001");
+
+        // Assert
+        verify(achievementQryRepository, times(2)).getAchievementByKey(Achievement.class, "KEY0001");
+        assertEquals(0, detailCache.size());
+    }
+
+    private AchievementDetailCache createCache(int maxEntries, Duration ttl) {
+        return new AchievementDetailCache(achievementQryRepository, meterRegistry, true, maxEntries, ttl);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("achievement.detail.cache.requests").tag("result", result).counter().count();
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get("achievement.detail.cache.evictions").tag("cause", cause).counter().count();
+    }
+
+    private AchievementDtoSm createDto(String entityKey) {
+        return new AchievementDtoSm(1L, BASE_DATE, entityKey, "title", "description", List.of("str"), null,
+                List.of());
+    }
+}
@@ -0,0 +1,43 @@
+package espresso.achievement.infrastructure.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import espresso.achievement.domain.entities.AchievementFacetFilter;
+import espresso.achievement.domain.readModels.AchievementFacetsReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AchievementFacetCacheTest {
+
+    private final AchievementFacetCache facetCache = new AchievementFacetCache(new SimpleMeterRegistry(), true, 100,
+            Duration.ofMinutes(1));
+
+    @Test
+    void get_EquivalentFilterSets_AreComputedOnce() {
+        // Arrange
+        List<AchievementFacetFilter> loaded = new ArrayList<>();
+
+        // Act
+        AchievementFacetsReadModel first = facetCache.get(
+                new AchievementFacetFilter(List.of("str", "dex"), false, null), filter -> load(loaded, filter));
+        AchievementFacetsReadModel second = facetCache.get(
+                new AchievementFacetFilter(List.of(" DEX", "str", "dex"), false, null), filter -> load(loaded, filter));
+        facetCache.get(new AchievementFacetFilter(List.of("str", "dex"), true, null), filter -> load(loaded, filter));
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(List.of(
+                new AchievementFacetFilter(List.of("dex", "str"), false, null),
+                new AchievementFacetFilter(List.of("dex", "str"), true, null)), loaded);
+    }
+
+    private static AchievementFacetsReadModel load(List<AchievementFacetFilter> loaded, AchievementFacetFilter filter) {
+        loaded.add(filter);
+        return new AchievementFacetsReadModel(0, List.of(), List.of(), List.of());
+    }
+}
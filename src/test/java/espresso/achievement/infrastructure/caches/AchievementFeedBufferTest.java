@@ -0,0 +1,219 @@
+package espresso.achievement.infrastructure.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import espresso.JacksonConfig;
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementDtoLg;
+import espresso.achievement.domain.entities.AchievementDtoMd;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import espresso.user.domain.entities.User;
+import espresso.user.domain.entities.UserProfileImage;
+import espresso.user.domain.entities.UserDtoSm;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementFeedBufferTest {
+
+    private static final OffsetDateTime BASE_DATE = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AchievementFeedBuffer feedBuffer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(feedBuffer, "enabled", true);
+        ReflectionTestUtils.setField(feedBuffer, "capacity", 5);
+        ReflectionTestUtils.setField(feedBuffer, "objectMapper", new JacksonConfig().objectMapper());
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void getLatestAchievements_NotSeeded_ReturnsNull() {
+        assertNull(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 3));
+    }
+
+    @Test
+    void seed_FewerRowsThanCapacity_ServesAnyWindow() {
+        // Arrange
+        stubLatest(createDtos(3, 1));
+
+        // Act
+        feedBuffer.seed();
+
+        // Assert
+        List<?> result = feedBuffer.getLatestAchievements(AchievementDtoSm.class, 11);
+        assertNotNull(result);
+        assertEquals(3, result.size());
+    }
+
+    @Test
+    void seed_FullCapacity_FallsBackWhenWindowExceedsBuffer() {
+        // Arrange
+        stubLatest(createDtos(5, 1));
+
+        // Act
+        feedBuffer.seed();
+
+        // Assert
+        assertEquals(5, feedBuffer.getLatestAchievements(AchievementDtoSm.class, 5).size());
+        assertNull(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 6));
+    }
+
+    @Test
+    void append_NewAchievement_IsServedFirstAndOldestIsEvicted() {
+        // Arrange
+        stubLatest(createDtos(5, 1));
+        feedBuffer.seed();
+
+        AchievementDtoSm created = createDto(100L, BASE_DATE.plusHours(1), "NEWKEY1");
+        doReturn(created).when(achievementPSQLProvider).findAchievementByKey(any(), eq("NEWKEY1"));
+
+        // Act
+        feedBuffer.append("NEWKEY1");
+
+        // Assert
+        List<?> result = feedBuffer.getLatestAchievements(AchievementDtoSm.class, 5);
+        assertEquals(5, result.size());
+        assertEquals(100L, ((BufferedAchievement) result.get(0)).getId());
+        assertEquals(2L, ((BufferedAchievement) result.get(4)).getId());
+    }
+
+    @Test
+    void append_SavedAchievement_IsBuiltWithoutQueryingTheDatabase() {
+        // Arrange
+        stubLatest(createDtos(5, 1));
+        feedBuffer.seed();
+
+        User user = new User();
+        user.setEntityKey("USERKEY");
+        user.setUsername("username");
+
+        Achievement created = Achievement.create("title", "description", new Date(), true, user, List.of("str"));
+        created.setId(100L);
+
+        // Act
+        feedBuffer.append(created);
+
+        // Assert
+        List<?> result = feedBuffer.getLatestAchievements(AchievementDtoLg.class, 5);
+        BufferedAchievement first = (BufferedAchievement) result.get(0);
+
+        assertEquals(100L, first.getId());
+        assertEquals(created.getEntityKey(), first.getEntityKey());
+        assertEquals("USERKEY", first.getContent().get("user").get("entityKey").asText());
+        verify(achievementPSQLProvider, never()).findAchievementByKey(any(), any());
+    }
+
+    @Test
+    void append_SavedAchievementWithUnloadedProfileImage_ReadsOnlyTheLargeDto() {
+        // Arrange
+        stubLatest(createDtos(5, 1));
+        feedBuffer.seed();
+
+        User user = new User();
+        user.setEntityKey("USERKEY");
+        user.setUsername("username");
+        user.setProfileImage(createUninitializedProfileImage());
+
+        Achievement created = Achievement.create("title", "description", new Date(), true, user, List.of("str"));
+        created.setId(100L);
+
+        AchievementDtoLg stored = new AchievementDtoLg(100L, created.getRegisteredAt(), created.getEntityKey(),
+                "title", "description", new Date(), "USERKEY", "username", "user@example.com", "first", "last",
+                null, 7L, "image", "image/png", "png", "https://example.com/image.png", List.of("str"),
+                created.getAchievementVisibility());
+        doReturn(stored).when(achievementPSQLProvider)
+                .findAchievementByKey(AchievementDtoLg.class, created.getEntityKey());
+
+        // Act
+        feedBuffer.append(created);
+
+        // Assert
+        BufferedAchievement large = (BufferedAchievement) feedBuffer.getLatestAchievements(AchievementDtoLg.class, 5)
+                .get(0);
+        BufferedAchievement small = (BufferedAchievement) feedBuffer.getLatestAchievements(AchievementDtoSm.class, 5)
+                .get(0);
+
+        assertEquals(100L, large.getId());
+        assertEquals("https://example.com/image.png",
+                large.getContent().get("user").get("profileImage").get("profileImageUrl").asText());
+        assertEquals(100L, small.getId());
+        verify(achievementPSQLProvider, times(1)).findAchievementByKey(any(), any());
+    }
+
+    @Test
+    void seed_DatabaseUnavailable_LeavesBufferEmpty() {
+        // Arrange
+        when(achievementPSQLProvider.findLatestAchievements(any(), any(Limit.class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        // Act
+        feedBuffer.seed();
+
+        // Assert
+        assertNull(feedBuffer.getLatestAchievements(AchievementDtoSm.class, 1));
+    }
+
+    private UserProfileImage createUninitializedProfileImage() {
+        UserProfileImage image = mock(UserProfileImage.class, withSettings().extraInterfaces(HibernateProxy.class));
+        LazyInitializer initializer = mock(LazyInitializer.class);
+
+        // Reported as not loaded, like the proxy of a user whose session is closed
+        when(initializer.isUninitialized()).thenReturn(true);
+        when(((HibernateProxy) image).asHibernateProxy()).thenReturn((HibernateProxy) image);
+        when(((HibernateProxy) image).getHibernateLazyInitializer()).thenReturn(initializer);
+
+        return image;
+    }
+
+    private void stubLatest(List<AchievementDtoSm> dtos) {
+        for (Class<?> dtoType : List.of(AchievementDtoSm.class, AchievementDtoMd.class, AchievementDtoLg.class)) {
+            doReturn(dtos).when(achievementPSQLProvider).findLatestAchievements(eq(dtoType), any(Limit.class));
+        }
+    }
+
+    private List<AchievementDtoSm> createDtos(int size, long firstId) {
+        List<AchievementDtoSm> dtos = new ArrayList<>();
+
+        // Newest first, as returned by the database
+        for (int i = size - 1; i >= 0; i--) {
+            dtos.add(createDto(firstId + i, BASE_DATE.plusMinutes(i), "KEY000" + i));
+        }
+
+        return dtos;
+    }
+
+    private AchievementDtoSm createDto(Long id, OffsetDateTime registeredAt, String entityKey) {
+        return new AchievementDtoSm(id, registeredAt, entityKey, "title " + id, "description " + id,
+                List.of("str"), new UserDtoSm("USERKEY", "username", "user@example.com"), List.of());
+    }
+}
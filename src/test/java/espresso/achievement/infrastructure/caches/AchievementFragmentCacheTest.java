@@ -0,0 +1,185 @@
+package espresso.achievement.infrastructure.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import espresso.JacksonConfig;
+import espresso.achievement.domain.entities.AchievementDtoMd;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.domain.entities.AchievementMediaDtoSm;
+import espresso.common.domain.responses.ServiceResponse;
+import espresso.user.domain.entities.UserDtoSm;
+
+public class AchievementFragmentCacheTest {
+
+    private static final OffsetDateTime BASE_DATE = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private AchievementFragmentCache fragmentCache;
+
+    @BeforeEach
+    void setUp() {
+        fragmentCache = new AchievementFragmentCache();
+        ReflectionTestUtils.setField(fragmentCache, "enabled", true);
+        ReflectionTestUtils.setField(fragmentCache, "maxBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(fragmentCache, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(fragmentCache, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void toFragments_SplicedIntoEnvelope_SerializesLikeTheDtos() throws Exception {
+        // Arrange
+        List<AchievementDtoSm> dtos = List.of(createDto(1L, "KEY0001"), createDto(2L, "KEY0002"));
+
+        // Act
+        List<?> fragments = fragmentCache.toFragments(AchievementDtoSm.class, dtos);
+
+        // Assert
+        assertInstanceOf(JsonFragment.class, fragments.get(0));
+        assertEquals(
+                objectMapper.writeValueAsString(ServiceResponse.success(HttpStatus.OK, dtos, 2, "cursor")),
+                objectMapper.writeValueAsString(ServiceResponse.success(HttpStatus.OK, fragments, 2, "cursor")));
+    }
+
+    @Test
+    void toFragment_SameAchievementAndSize_ReusesCachedFragment() {
+        // Act
+        JsonFragment first = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001"));
+        JsonFragment second = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001"));
+        JsonFragment otherSize = (JsonFragment) fragmentCache.toFragment(AchievementDtoMd.class,
+                new AchievementDtoMd(1L, BASE_DATE, "KEY0001", "title", "description", null, null, List.of(), null));
+
+        // Assert
+        assertSame(first.block(), second.block());
+        assertNotSame(first.block(), otherSize.block());
+    }
+
+    @Test
+    void invalidate_MediaAdded_ReencodesTheAchievement() {
+        // Arrange
+        JsonFragment before = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001"));
+
+        // Act
+        fragmentCache.invalidate("KEY0001");
+        JsonFragment after = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001")
+                .withMedia(List.of(new AchievementMediaDtoSm("IMG0001", "https://storage/image.png"))));
+
+        // Assert
+        assertNotSame(before.block(), after.block());
+        assertTrue(after.toString().contains("IMG0001"));
+    }
+
+    @Test
+    void toFragment_StaleDtoPutAfterInvalidation_IsNotServedForTheFreshDto() {
+        // Arrange: a detail request loaded the DTO before the media upload committed
+        AchievementDtoSm stale = createDto(1L, "KEY0001");
+        AchievementDtoSm fresh = stale
+                .withMedia(List.of(new AchievementMediaDtoSm("IMG0001", "https://storage/image.png")));
+
+        // Act: the upload invalidates, then the request puts the DTO it loaded
+        fragmentCache.invalidate("KEY0001");
+        fragmentCache.toFragment(AchievementDtoSm.class, stale);
+        JsonFragment served = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, fresh);
+        JsonFragment again = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, fresh);
+
+        // Assert
+        assertTrue(served.toString().contains("IMG0001"));
+        assertSame(served.block(), again.block());
+    }
+
+    @Test
+    void toFragment_InvalidatedWhileEncoding_IsNotCached() throws Exception {
+        // Arrange: the media upload invalidates while the request encodes the DTO it loaded
+        ObjectMapper invalidatingMapper = spy(objectMapper);
+        ReflectionTestUtils.setField(fragmentCache, "objectMapper", invalidatingMapper);
+        doAnswer(invocation -> {
+            fragmentCache.invalidate("KEY0001");
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(invalidatingMapper).writeValueAsBytes(any());
+
+        AchievementDtoSm dto = createDto(1L, "KEY0001");
+
+        // Act
+        Object first = fragmentCache.toFragment(AchievementDtoSm.class, dto);
+        Object second = fragmentCache.toFragment(AchievementDtoSm.class, dto);
+
+        // Assert
+        assertSame(dto, first);
+        assertInstanceOf(JsonFragment.class, second);
+        verify(invalidatingMapper, times(2)).writeValueAsBytes(any());
+    }
+
+    @Test
+    void toFragment_OverBudget_EvictsEntriesNotReadSinceTheHandPassed() {
+        // Arrange: room for two fragments of one page each
+        ReflectionTestUtils.setField(fragmentCache, "maxBytes", 2L * FragmentArena.PAGE_SIZE);
+        JsonFragment first = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001"));
+        JsonFragment second = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(2L, "KEY0002"));
+
+        // Act: read the first entry, then add a third one
+        fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001"));
+        fragmentCache.toFragment(AchievementDtoSm.class, createDto(3L, "KEY0003"));
+
+        // Assert
+        JsonFragment kept = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001"));
+        assertSame(first.block(), kept.block());
+        assertTrue(fragmentCache.getAllocatedBytes() <= 2L * FragmentArena.PAGE_SIZE);
+        assertTrue(fragmentCache.getTotalBytes() <= 2L * FragmentArena.PAGE_SIZE);
+
+        // The evicted fragment is still written out, encoded again
+        assertTrue(second.toString().contains("KEY0002"));
+    }
+
+    @Test
+    void toFragment_LargerThanTheCache_ReturnsTheDto() {
+        // Arrange
+        ReflectionTestUtils.setField(fragmentCache, "maxBytes", (long) FragmentArena.PAGE_SIZE);
+        AchievementDtoSm dto = new AchievementDtoSm(1L, BASE_DATE, "KEY0001", "title", "x".repeat(1024),
+                List.of("str"), new UserDtoSm("USERKEY", "username", "user@example.com"), List.of());
+
+        // Act & Assert
+        assertSame(dto, fragmentCache.toFragment(AchievementDtoSm.class, dto));
+    }
+
+    @Test
+    void toFragment_Expired_ReencodesTheAchievement() {
+        // Arrange
+        ReflectionTestUtils.setField(fragmentCache, "ttl", Duration.ZERO);
+
+        // Act
+        JsonFragment first = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001"));
+        JsonFragment second = (JsonFragment) fragmentCache.toFragment(AchievementDtoSm.class, createDto(1L, "KEY0001"));
+
+        // Assert
+        assertNotSame(first.block(), second.block());
+    }
+
+    @Test
+    void toFragment_Disabled_ReturnsTheDto() {
+        // Arrange
+        ReflectionTestUtils.setField(fragmentCache, "enabled", false);
+        AchievementDtoSm dto = createDto(1L, "KEY0001");
+
+        // Act & Assert
+        assertSame(dto, fragmentCache.toFragment(AchievementDtoSm.class, dto));
+    }
+
+    private AchievementDtoSm createDto(Long id, String entityKey) {
+        return new AchievementDtoSm(id, BASE_DATE.plusMinutes(id), entityKey, "title " + id, "description " + id,
+                List.of("str"), new UserDtoSm("USERKEY", "username", "user@example.com"), List.of());
+    }
+}
@@ -0,0 +1,68 @@
+package espresso.achievement.infrastructure.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AchievementHiddenOwnersTest {
+
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    private AchievementHiddenOwners hiddenOwners;
+
+    @BeforeEach
+    void setUp() {
+        achievementPSQLProvider = mock(AchievementPSQLProvider.class);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        hiddenOwners = new AchievementHiddenOwners();
+        ReflectionTestUtils.setField(hiddenOwners, "achievementPSQLProvider", achievementPSQLProvider);
+        ReflectionTestUtils.setField(hiddenOwners, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(hiddenOwners, "meterRegistry", new SimpleMeterRegistry());
+        hiddenOwners.initialize();
+    }
+
+    @Test
+    void mayHaveHidden_NotSeeded_ReturnsTrue() {
+        // Act & Assert
+        assertTrue(hiddenOwners.mayHaveHidden("USER1"));
+    }
+
+    @Test
+    void mayHaveHidden_Seeded_ReturnsTrueOnlyForSeededOrAddedOwners() {
+        // Arrange
+        when(achievementPSQLProvider.streamHiddenAchievementOwners()).thenReturn(Stream.of("USER1"));
+        hiddenOwners.seed();
+
+        // Act
+        hiddenOwners.add("USER2");
+
+        // Assert
+        assertTrue(hiddenOwners.mayHaveHidden("USER1"));
+        assertTrue(hiddenOwners.mayHaveHidden("USER2"));
+        assertFalse(hiddenOwners.mayHaveHidden("USER3"));
+    }
+
+    @Test
+    void mayHaveHidden_SeedingFailed_ReturnsTrue() {
+        // Arrange
+        when(achievementPSQLProvider.streamHiddenAchievementOwners()).thenThrow(new IllegalStateException("down"));
+        hiddenOwners.seed();
+
+        // Act & Assert
+        assertTrue(hiddenOwners.mayHaveHidden("USER3"));
+    }
+}
@@ -0,0 +1,181 @@
+package espresso.achievement.infrastructure.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.domain.entities.LeaderboardEntry;
+import espresso.achievement.domain.queries.LeaderboardWindow;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AchievementLeaderboardsTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 7, 31, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final short STR = AchievementSkill.STR.getMask();
+    private static final short DEX = AchievementSkill.DEX.getMask();
+
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    private MutableClock clock;
+
+    private AchievementLeaderboards leaderboards;
+
+    @BeforeEach
+    void setUp() {
+        achievementPSQLProvider = mock(AchievementPSQLProvider.class);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        clock = new MutableClock(NOW.toInstant());
+        leaderboards = new AchievementLeaderboards(new SimpleMeterRegistry(), achievementPSQLProvider,
+                transactionManager, true, clock);
+    }
+
+    @Test
+    void getTop_NotSeeded_ReturnsNull() {
+        // Act & Assert
+        assertNull(leaderboards.getTop(AchievementSkill.STR, LeaderboardWindow.all, 10));
+        assertFalse(leaderboards.isReady());
+    }
+
+    @Test
+    void getTop_Seeded_RanksUsersPerSkillAndWindow() {
+        // Arrange: user 1 has 3 old str achievements, user 2 has 2 recent str+dex ones
+        seed(List.of(
+                row(1, 1, STR, NOW.minusDays(60)),
+                row(2, 1, STR, NOW.minusDays(45)),
+                row(3, 1, STR, NOW.minusDays(31)),
+                row(4, 2, (short) (STR | DEX), NOW.minusDays(2)),
+                row(5, 2, (short) (STR | DEX), NOW)));
+
+        // Act
+        List<LeaderboardEntry> allTime = leaderboards.getTop(AchievementSkill.STR, LeaderboardWindow.all, 10);
+        List<LeaderboardEntry> recent = leaderboards.getTop(AchievementSkill.STR, LeaderboardWindow.last30days, 10);
+        List<LeaderboardEntry> dex = leaderboards.getTop(AchievementSkill.DEX, LeaderboardWindow.all, 10);
+
+        // Assert
+        assertEquals(List.of(new LeaderboardEntry(1, 1, 3), new LeaderboardEntry(2, 2, 2)), allTime);
+        assertEquals(List.of(new LeaderboardEntry(1, 2, 2)), recent);
+        assertEquals(List.of(new LeaderboardEntry(1, 2, 2)), dex);
+        assertEquals(0, leaderboards.getRankedUsers(AchievementSkill.LUC, LeaderboardWindow.all));
+    }
+
+    @Test
+    void getAround_RankedUser_ReturnsTheNeighboursWithinTheRadius() {
+        // Arrange: user n has n str achievements
+        seed(List.of());
+
+        for (long user = 1; user <= 10; user++) {
+            for (int i = 0; i < user; i++) {
+                leaderboards.add(user * 100 + i, user, STR, NOW);
+            }
+        }
+
+        // Act
+        List<LeaderboardEntry> around = leaderboards.getAround(AchievementSkill.STR, LeaderboardWindow.all, 9, 2);
+        List<LeaderboardEntry> unranked = leaderboards.getAround(AchievementSkill.DEX, LeaderboardWindow.all, 9, 2);
+
+        // Assert
+        assertEquals(List.of(
+                new LeaderboardEntry(1, 10, 10),
+                new LeaderboardEntry(2, 9, 9),
+                new LeaderboardEntry(3, 8, 8),
+                new LeaderboardEntry(4, 7, 7)), around);
+        assertTrue(unranked.isEmpty());
+    }
+
+    @Test
+    void getTop_DayLeavesTheWindow_SubtractsItsAchievements() {
+        // Arrange
+        seed(List.of(
+                row(1, 1, STR, NOW.minusDays(29)),
+                row(2, 1, STR, NOW.minusDays(1)),
+                row(3, 2, STR, NOW.minusDays(28))));
+
+        // Act
+        clock.advance(Duration.ofDays(1));
+        List<LeaderboardEntry> afterOneDay = leaderboards.getTop(AchievementSkill.STR, LeaderboardWindow.last30days, 10);
+
+        clock.advance(Duration.ofDays(1));
+        List<LeaderboardEntry> afterTwoDays = leaderboards.getTop(AchievementSkill.STR, LeaderboardWindow.last30days, 10);
+
+        // Assert
+        assertEquals(List.of(new LeaderboardEntry(1, 1, 1), new LeaderboardEntry(2, 2, 1)), afterOneDay);
+        assertEquals(List.of(new LeaderboardEntry(1, 1, 1)), afterTwoDays);
+        assertEquals(2, leaderboards.getRankedUsers(AchievementSkill.STR, LeaderboardWindow.all));
+    }
+
+    @Test
+    void seed_AchievementSavedWhileSeeding_IsCountedOnce() {
+        // Arrange: achievement 2 is saved while the stream runs and also read by it, achievement 3 is not read
+        when(achievementPSQLProvider.streamUserSkillMasks()).thenAnswer(invocation -> {
+            leaderboards.add(2L, 1L, STR, NOW);
+            leaderboards.add(3L, 1L, STR, NOW);
+
+            return Stream.of(row(1, 1, STR, NOW), row(2, 1, STR, NOW));
+        });
+
+        // Act
+        leaderboards.seed();
+
+        // Assert
+        assertEquals(List.of(new LeaderboardEntry(1, 1, 3)),
+                leaderboards.getTop(AchievementSkill.STR, LeaderboardWindow.all, 10));
+    }
+
+    private void seed(List<Object[]> rows) {
+        when(achievementPSQLProvider.streamUserSkillMasks()).thenReturn(rows.stream());
+        leaderboards.seed();
+        assertTrue(leaderboards.isReady());
+    }
+
+    private static Object[] row(long id, long userId, short skillMask, OffsetDateTime registeredAt) {
+        return new Object[] { id, userId, skillMask, registeredAt };
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
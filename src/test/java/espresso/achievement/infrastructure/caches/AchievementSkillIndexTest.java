@@ -0,0 +1,125 @@
+package espresso.achievement.infrastructure.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import espresso.achievement.domain.entities.AchievementSkill;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AchievementSkillIndexTest {
+
+    private static final OffsetDateTime BASE_DATE = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final short STR = AchievementSkill.STR.getMask();
+    private static final short DEX = AchievementSkill.DEX.getMask();
+
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    private AchievementSkillIndex skillIndex;
+
+    @BeforeEach
+    void setUp() {
+        achievementPSQLProvider = mock(AchievementPSQLProvider.class);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        skillIndex = new AchievementSkillIndex();
+        ReflectionTestUtils.setField(skillIndex, "achievementPSQLProvider", achievementPSQLProvider);
+        ReflectionTestUtils.setField(skillIndex, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(skillIndex, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(skillIndex, "enabled", true);
+        skillIndex.initialize();
+    }
+
+    @Test
+    void findIds_NotSeeded_ReturnsNull() {
+        // Act & Assert
+        assertNull(skillIndex.findIds(STR, false, null, null, 10));
+    }
+
+    @Test
+    void findIds_AnyAndAll_CombineTheSkillBitsetsNewestFirst() {
+        // Arrange: even ids have str, ids divisible by 3 have dex, across several chunks
+        List<Object[]> rows = new ArrayList<>();
+
+        for (long id = 1; id <= 200_000; id++) {
+            short mask = (short) ((id % 2 == 0 ? STR : 0) | (id % 3 == 0 ? DEX : 0));
+            rows.add(new Object[] { id, mask, BASE_DATE });
+        }
+
+        seed(rows);
+
+        // Act
+        List<Long> all = skillIndex.findIds((short) (STR | DEX), true, null, null, 3);
+        List<Long> any = skillIndex.findIds((short) (STR | DEX), false, null, null, 4);
+        List<Long> afterCursor = skillIndex.findIds((short) (STR | DEX), true, null, 65_538L, 2);
+
+        // Assert
+        assertEquals(List.of(199_998L, 199_992L, 199_986L), all);
+        assertEquals(List.of(200_000L, 199_998L, 199_996L, 199_995L), any);
+        assertEquals(List.of(65_532L, 65_526L), afterCursor);
+    }
+
+    @Test
+    void findIds_FromDate_StopsAtTheFirstIdOfTheMinute() {
+        // Arrange
+        seed(List.of(
+                new Object[] { 1L, STR, BASE_DATE.minusDays(8) },
+                new Object[] { 2L, STR, BASE_DATE.minusDays(6) },
+                new Object[] { 3L, DEX, BASE_DATE.minusDays(1) },
+                new Object[] { 4L, STR, BASE_DATE }));
+
+        // Act
+        List<Long> lastWeek = skillIndex.findIds(STR, false, BASE_DATE.minusDays(7), null, 10);
+        List<Long> future = skillIndex.findIds(STR, false, BASE_DATE.plusDays(1), null, 10);
+
+        // Assert
+        assertEquals(List.of(4L, 2L), lastWeek);
+        assertTrue(future.isEmpty());
+    }
+
+    @Test
+    void add_AchievementSavedAfterSeeding_IsFound() {
+        // Arrange
+        seed(List.of());
+
+        // Act
+        skillIndex.add(7L, DEX, BASE_DATE);
+
+        // Assert
+        assertEquals(List.of(7L), skillIndex.findIds(DEX, false, null, null, 10));
+        assertTrue(skillIndex.getSizeInBytes() > 0);
+    }
+
+    @Test
+    void add_IdBeyondOrdinalRange_StopsServingQueries() {
+        // Arrange
+        seed(List.of());
+
+        // Act
+        skillIndex.add(Integer.MAX_VALUE + 1L, STR, BASE_DATE);
+
+        // Assert
+        assertNull(skillIndex.findIds(STR, false, null, null, 10));
+    }
+
+    private void seed(List<Object[]> rows) {
+        when(achievementPSQLProvider.streamPublicSkillMasks()).thenReturn(rows.stream());
+        skillIndex.seed();
+    }
+}
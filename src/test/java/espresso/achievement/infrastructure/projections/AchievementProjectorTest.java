@@ -0,0 +1,186 @@
+package espresso.achievement.infrastructure.projections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementMedia;
+import espresso.achievement.domain.entities.AchievementProjection;
+import espresso.achievement.domain.readModels.ProjectionRebuildReadModel;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import espresso.achievement.infrastructure.repositories.AchievementReadModelPSQLProvider;
+import espresso.user.domain.entities.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Verifies that the projections rebuilt in parallel chunks and the ones
+ * projected for a single achievement read the same summaries as the join
+ * queries over the write tables.
+ * <p>
+ * The projector commits its own transactions from other threads, so the
+ * test data is committed too and removed after every test.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:espresso;MODE=PostgreSQL;NON_KEYWORDS=USER,VALUE",
+        "achievement.projection.catch-up-interval=1h"
+})
+@Import(AchievementProjector.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AchievementProjectorTest {
+
+    private static final int ACHIEVEMENTS = 25;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AchievementProjector projector;
+
+    @Autowired
+    private AchievementReadModelPSQLProvider readModelPSQLProvider;
+
+    @Autowired
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    private final List<String> entityKeys = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = User.create("user00001", "user1@example.com", "Password123!", "First", "Last",
+                    LocalDate.of(1990, 1, 1));
+            entityManager.persist(user);
+
+            for (int a = 0; a < ACHIEVEMENTS; a++) {
+                Achievement achievement = Achievement.create("Title " + a, "Description " + a, new Date(), true,
+                        user, List.of("str", "dex"));
+                entityManager.persist(achievement);
+                entityKeys.add(achievement.getEntityKey());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM AchievementProjection").executeUpdate();
+            entityManager.createQuery("DELETE FROM AchievementMedia").executeUpdate();
+            entityManager.createQuery("DELETE FROM Achievement").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+        });
+    }
+
+    @Test
+    void rebuild_SmallChunks_ProjectsEveryAchievementOnce() {
+        ProjectionRebuildReadModel result = projector.rebuild(4, 3);
+
+        assertEquals(ACHIEVEMENTS, result.getProjected());
+        assertEquals((ACHIEVEMENTS + 3) / 4, result.getChunks());
+        assertEquals(ACHIEVEMENTS, readModelPSQLProvider.count());
+        assertTrue(projector.isReady());
+
+        // Replacing the rows again does not duplicate them
+        projector.rebuild(7, 2);
+
+        assertEquals(ACHIEVEMENTS, readModelPSQLProvider.count());
+    }
+
+    @Test
+    void rebuild_Projection_ReadsSameSummaryAsWriteTables() {
+        projector.rebuild(10, 2);
+
+        for (String entityKey : entityKeys) {
+            assertEquals(
+                    objectMapper.valueToTree(achievementPSQLProvider.findAchievementSummaryByKey(entityKey, null)),
+                    objectMapper.valueToTree(readModelPSQLProvider.findByEntityKey(entityKey).toSummaryReadModel()));
+        }
+    }
+
+    @Test
+    void project_MediaAdded_ReplacesTheRowWithItsMedia() {
+        projector.rebuild(10, 2);
+
+        String entityKey = entityKeys.get(0);
+
+        String imageKey = new TransactionTemplate(transactionManager).execute(status -> {
+            Achievement achievement = entityManager
+                    .createQuery("SELECT a FROM Achievement a WHERE a.entityKey = :entityKey", Achievement.class)
+                    .setParameter("entityKey", entityKey)
+                    .getSingleResult();
+
+            AchievementMedia media = AchievementMedia.create(achievement, "image.png", "image/png",
+                    new byte[] { 1 });
+            media.setMediaUrl("https://storage/image.png");
+            entityManager.persist(media);
+
+            return media.getImageKey();
+        });
+
+        projector.project(entityKey);
+
+        AchievementProjection projection = readModelPSQLProvider.findByEntityKey(entityKey);
+
+        assertEquals(List.of(imageKey), projection.getMediaKeys());
+        assertEquals(List.of(imageKey), projection.getUploadedMediaKeys());
+        assertEquals(ACHIEVEMENTS, readModelPSQLProvider.count());
+        assertEquals(
+                objectMapper.valueToTree(achievementPSQLProvider.findAchievementSummaryByKey(entityKey, null)),
+                objectMapper.valueToTree(projection.toSummaryReadModel()));
+    }
+
+    @Test
+    void catchUp_AchievementWithoutEvent_IsProjectedAndPassedByTheWatermarkOnTheNextCatchUp() {
+        projector.rebuild(10, 2);
+        long rebuiltUpTo = projector.getWatermark();
+
+        String entityKey = new TransactionTemplate(transactionManager).execute(status -> {
+            User user = entityManager.createQuery("SELECT u FROM User u", User.class).getSingleResult();
+            Achievement achievement = Achievement.create("Late", "No event", new Date(), true, user, List.of("str"));
+            entityManager.persist(achievement);
+
+            return achievement.getEntityKey();
+        });
+
+        projector.catchUp();
+
+        assertNotNull(readModelPSQLProvider.findByEntityKey(entityKey));
+        assertEquals(rebuiltUpTo, projector.getWatermark());
+
+        projector.catchUp();
+
+        assertEquals(readModelPSQLProvider.findByEntityKey(entityKey).getId(), projector.getWatermark());
+    }
+
+    @Test
+    void project_UnknownKey_WritesNothing() {
+        projector.project("UNKNOWN");
+
+        assertEquals(0, readModelPSQLProvider.count());
+    }
+}
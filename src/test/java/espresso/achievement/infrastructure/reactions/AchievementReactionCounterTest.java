@@ -0,0 +1,121 @@
+package espresso.achievement.infrastructure.reactions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import espresso.achievement.domain.entities.AchievementReactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AchievementReactionCounterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private AchievementReactionCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        Clock clock = Clock.fixed(Instant.parse("2025-07-01T12:00:00Z"), ZoneOffset.UTC);
+        counter = new AchievementReactionCounter(meterRegistry, jdbcTemplate, transactionManager,
+                Duration.ofMillis(250), clock);
+
+        // No reactions stored yet
+        counter.seed();
+    }
+
+    @Test
+    void react_SameReactionTwice_CountsItOnce() {
+        // Act
+        boolean first = counter.react(5L, 9L, AchievementReactionType.LIKE);
+        boolean second = counter.react(5L, 9L, AchievementReactionType.LIKE);
+
+        // Assert
+        assertTrue(counter.isReady());
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(Set.of(AchievementReactionType.LIKE), counter.getReactions(5L, 9L));
+        assertEquals(1L, counter.getCounts(5L).get(AchievementReactionType.LIKE));
+        assertEquals(0L, counter.getCounts(5L).get(AchievementReactionType.CHEER));
+        assertFalse(counter.unreact(5L, 10L, AchievementReactionType.LIKE));
+    }
+
+    @Test
+    void flush_PendingChanges_AddsOnlyTheWrittenRowsToTheCounts() {
+        // Arrange: one of the two new likes is already stored, the cheer is added and removed again
+        counter.react(5L, 9L, AchievementReactionType.LIKE);
+        counter.react(5L, 10L, AchievementReactionType.LIKE);
+        counter.react(5L, 9L, AchievementReactionType.CHEER);
+        counter.unreact(5L, 9L, AchievementReactionType.CHEER);
+
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO AchievementReactions "), any(SqlParameterSource[].class)))
+                .thenReturn(new int[] { 1, 0 });
+        when(jdbcTemplate.batchUpdate(startsWith("DELETE FROM AchievementReactions "), any(SqlParameterSource[].class)))
+                .thenReturn(new int[] { 0 });
+
+        // Act
+        int flushed = counter.flush();
+
+        // Assert
+        assertEquals(3, flushed);
+
+        ArgumentCaptor<SqlParameterSource[]> counts = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO AchievementReactionCounts "), counts.capture());
+
+        assertEquals(1, counts.getValue().length);
+        assertEquals(5L, counts.getValue()[0].getValue("achievementId"));
+        assertEquals("like", counts.getValue()[0].getValue("reaction"));
+        assertEquals(1L, counts.getValue()[0].getValue("delta"));
+
+        // The flushed changes are read from the stored counts now, and nothing is left to flush
+        assertEquals(0L, counter.getCounts(5L).get(AchievementReactionType.LIKE));
+        assertEquals(0, meterRegistry.get("achievement.reaction.pending").gauge().value());
+        assertEquals(0, counter.flush());
+    }
+
+    @Test
+    void flush_WriteFails_KeepsTheChangesForTheNextFlush() {
+        // Arrange
+        counter.react(5L, 9L, AchievementReactionType.WOW);
+
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO AchievementReactions "), any(SqlParameterSource[].class)))
+                .thenThrow(new DataAccessResourceFailureException("The database is down"))
+                .thenReturn(new int[] { 1 });
+
+        // Act
+        assertThrows(DataAccessResourceFailureException.class, () -> counter.flush());
+
+        // Assert
+        assertEquals(1L, counter.getCounts(5L).get(AchievementReactionType.WOW));
+        assertEquals(1, counter.flush());
+        verify(jdbcTemplate).batchUpdate(eq(
+                "INSERT INTO AchievementReactionCounts (achievementId, reaction, reactionCount) "
+                        + "VALUES (:achievementId, :reaction, :delta) ON CONFLICT (achievementId, reaction) "
+                        + "DO UPDATE SET reactionCount = AchievementReactionCounts.reactionCount "
+                        + "+ EXCLUDED.reactionCount"),
+                any(SqlParameterSource[].class));
+    }
+}
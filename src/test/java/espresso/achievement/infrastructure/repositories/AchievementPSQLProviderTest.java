@@ -0,0 +1,413 @@
+package espresso.achievement.infrastructure.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import espresso.achievement.application.queryHandlers.AchievementQueryHandler;
+import espresso.achievement.domain.entities.Achievement;
+import espresso.achievement.domain.entities.AchievementDtoLg;
+import espresso.achievement.domain.entities.AchievementDtoMd;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.domain.entities.AchievementMedia;
+import espresso.achievement.domain.readModels.AchievementFacetsReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.FacetCountReadModel;
+import espresso.common.domain.queries.QuerySizeType;
+import espresso.user.domain.entities.User;
+import espresso.user.domain.entities.UserProfileImage;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifies that every page of the latest feed and of the user timelines is
+ * assembled with a bounded number of SQL statements, whatever the page size
+ * and the DTO size.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:espresso;MODE=PostgreSQL;NON_KEYWORDS=USER,VALUE"
+})
+public class AchievementPSQLProviderTest {
+
+    private static final int USERS = 5;
+    private static final int ACHIEVEMENTS_PER_USER = 10;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final AchievementQueryHandler queryHandler = new AchievementQueryHandler();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < USERS; u++) {
+            User user = User.create("user0000" + u, "user" + u + "@example.com", "Password123!", "First", "Last",
+                    LocalDate.of(1990, 1, 1));
+            entityManager.persist(user);
+
+            UserProfileImage image = UserProfileImage.create(user, "profile" + u + ".png", "image/png", null);
+            image.setProfileImageUrl("https://storage/profile" + u + ".png");
+            entityManager.persist(image);
+            user.setProfileImage(image);
+
+            for (int a = 0; a < ACHIEVEMENTS_PER_USER; a++) {
+                Achievement achievement = Achievement.create("Title " + a, "Description " + a, new Date(), true,
+                        user, List.of("str", "dex"));
+                entityManager.persist(achievement);
+
+                AchievementMedia media = AchievementMedia.create(achievement, "image" + a + ".png", "image/png",
+                        new byte[] { 1 });
+                media.setMediaUrl("https://storage/image" + a + ".png");
+                entityManager.persist(media);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Constructor-expression page query, plus one media query for the sizes that expose media
+    @ParameterizedTest
+    @CsvSource({ "xs, 2", "sm, 2", "md, 1", "lg, 2", "xl, 2" })
+    void findLatestAchievements_AnySize_UsesConstantNumberOfStatements(QuerySizeType size, long expected)
+            throws Exception {
+        assertEquals(expected, countStatements(size, 2));
+        assertEquals(expected, countStatements(size, USERS * ACHIEVEMENTS_PER_USER));
+    }
+
+    @Test
+    void findAchievementByKey_Lg_SelectsUserProfileImageAndMedia() throws Exception {
+        String entityKey = achievementPSQLProvider.findLatestAchievements(AchievementDtoSm.class, Limit.of(1))
+                .get(0).entityKey();
+
+        AchievementDtoLg dto = achievementPSQLProvider.findAchievementByKey(AchievementDtoLg.class, entityKey);
+
+        assertEquals(entityKey, dto.entityKey());
+        assertEquals(List.of("str", "dex"), dto.skills());
+        assertNotNull(dto.user().profileImage().profileImageUrl());
+        assertEquals(1, dto.media().size());
+
+        JsonNode json = objectMapper.valueToTree(dto);
+        assertFalse(json.has("id"));
+        assertFalse(json.has("registeredAt"));
+        assertTrue(json.get("user").has("profileImage"));
+        assertTrue(json.get("media").get(0).has("mediaUrl"));
+    }
+
+    @Test
+    void findAchievementsWithSkills_AnyOrAll_MatchesSkillArrays() {
+        List<AchievementDtoSm> any = achievementPSQLProvider.findAchievementsWithSkills(AchievementDtoSm.class,
+                Limit.of(100), List.of("dex", "luc"), false, null);
+        List<AchievementDtoSm> all = achievementPSQLProvider.findAchievementsWithSkills(AchievementDtoSm.class,
+                Limit.of(100), List.of("dex", "luc"), true, null);
+        List<AchievementDtoSm> both = achievementPSQLProvider.findAchievementsWithSkills(AchievementDtoSm.class,
+                Limit.of(100), List.of("str", "dex"), true, null);
+
+        assertEquals(USERS * ACHIEVEMENTS_PER_USER, any.size());
+        assertTrue(all.isEmpty());
+        assertEquals(USERS * ACHIEVEMENTS_PER_USER, both.size());
+    }
+
+    @Test
+    void findAchievementsWithSkills_PrivateOrInactiveAchievements_AreLeftOut() {
+        List<String> hiddenKeys = persistPrivateAndRemovedAchievements();
+
+        List<String> keys = achievementPSQLProvider.findAchievementsWithSkills(AchievementDtoSm.class,
+                Limit.of(100), List.of("str"), false, null).stream().map(AchievementDtoSm::entityKey).toList();
+
+        assertEquals(USERS * ACHIEVEMENTS_PER_USER, keys.size());
+        assertFalse(keys.contains(hiddenKeys.get(0)));
+        assertFalse(keys.contains(hiddenKeys.get(1)));
+    }
+
+    @Test
+    void findAchievementsByIds_Ids_ReturnsAchievementsInIdOrderAndStoresSkillMask() {
+        List<Long> ids = new ArrayList<>(achievementPSQLProvider
+                .findLatestAchievements(AchievementDtoSm.class, Limit.of(5))
+                .stream().map(AchievementDtoSm::getId).toList());
+        Collections.reverse(ids);
+
+        List<AchievementDtoSm> dtos = achievementPSQLProvider.findAchievementsByIds(AchievementDtoSm.class, ids,
+                null);
+
+        assertEquals(ids, dtos.stream().map(AchievementDtoSm::getId).toList());
+        assertEquals((short) 3, achievementPSQLProvider.findById(ids.get(0)).orElseThrow().getSkillMask());
+    }
+
+    @Test
+    void findAchievementsByIds_PrivateOrInactiveAchievements_AreOnlyReturnedToTheirOwner() {
+        List<String> hiddenKeys = persistPrivateAndRemovedAchievements();
+        List<Long> ids = entityManager.getEntityManager()
+                .createQuery("SELECT a.id FROM Achievement a WHERE a.entityKey IN :keys ORDER BY a.id", Long.class)
+                .setParameter("keys", hiddenKeys)
+                .getResultList();
+
+        assertTrue(achievementPSQLProvider.findAchievementsByIds(AchievementDtoSm.class, ids, null).isEmpty());
+        assertTrue(achievementPSQLProvider.findAchievementsByIds(AchievementDtoSm.class, ids, userKey(1)).isEmpty());
+        assertEquals(List.of(hiddenKeys.get(0)), achievementPSQLProvider
+                .findAchievementsByIds(AchievementDtoSm.class, ids, userKey(0))
+                .stream().map(AchievementDtoSm::entityKey).toList());
+    }
+
+    @Test
+    void findLatestAchievements_PrivateOrInactiveAchievements_AreOnlyReturnedToTheirOwner() {
+        List<String> hiddenKeys = persistPrivateAndRemovedAchievements();
+
+        List<String> latest = achievementPSQLProvider.findLatestAchievements(AchievementDtoSm.class, Limit.of(100))
+                .stream().map(AchievementDtoSm::entityKey).toList();
+        List<String> ownerOnly = achievementPSQLProvider.findHiddenAchievementsOfUser(AchievementDtoSm.class,
+                Limit.of(100), userKey(0), null, null, null)
+                .stream().map(AchievementDtoSm::entityKey).toList();
+
+        assertEquals(USERS * ACHIEVEMENTS_PER_USER, latest.size());
+        assertFalse(latest.contains(hiddenKeys.get(0)));
+        assertFalse(latest.contains(hiddenKeys.get(1)));
+        assertEquals(List.of(hiddenKeys.get(0)), ownerOnly);
+        assertTrue(achievementPSQLProvider.findHiddenAchievementsOfUser(AchievementDtoSm.class, Limit.of(100),
+                userKey(1), null, null, null).isEmpty());
+    }
+
+    @Test
+    void findAchievementByKey_UnknownKey_ReturnsNull() {
+        assertNull(achievementPSQLProvider.findAchievementByKey(AchievementDtoMd.class, "MISSING"));
+    }
+
+    @Test
+    void findAchievementSummariesByUser_PagedWithCursor_ReturnsOnlyUserAchievementsInTwoStatementsPerPage() {
+        String userKey = userKey(1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<AchievementSummaryReadModel> firstPage = achievementPSQLProvider
+                .findAchievementSummariesByUser(userKey, false, Limit.of(6));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        AchievementSummaryReadModel last = firstPage.get(firstPage.size() - 1);
+        statistics.clear();
+
+        List<AchievementSummaryReadModel> secondPage = achievementPSQLProvider
+                .findAchievementSummariesByUserBefore(userKey, false, Limit.of(6), last.getRegisteredAt(),
+                        last.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(6, firstPage.size());
+        assertEquals(ACHIEVEMENTS_PER_USER - 6, secondPage.size());
+
+        List<AchievementSummaryReadModel> timeline = new ArrayList<>(firstPage);
+        timeline.addAll(secondPage);
+
+        assertEquals(ACHIEVEMENTS_PER_USER, timeline.stream().map(AchievementSummaryReadModel::getKey).distinct().count());
+
+        for (int i = 0; i < timeline.size(); i++) {
+            AchievementSummaryReadModel summary = timeline.get(i);
+
+            assertEquals(userKey, summary.getUserProfile().getKey());
+            assertEquals(2, summary.getSkills().length);
+            assertEquals(1, summary.getMedia().length);
+            assertTrue(summary.getMedia()[0].isUploaded());
+
+            if (i > 0) {
+                assertTrue(timeline.get(i - 1).getId() > summary.getId());
+            }
+        }
+    }
+
+    @Test
+    void findAchievementSummariesByUserAfterId_Id_ReturnsOnlyNewerAchievementsOfTheUser() {
+        String userKey = userKey(0);
+        List<AchievementSummaryReadModel> all = achievementPSQLProvider.findAchievementSummariesByUser(userKey, false,
+                Limit.of(ACHIEVEMENTS_PER_USER));
+        long afterId = all.stream().mapToLong(AchievementSummaryReadModel::getId).min().orElseThrow() + 5;
+
+        List<AchievementSummaryReadModel> newer = achievementPSQLProvider.findAchievementSummariesByUserAfterId(
+                userKey, false, afterId, Limit.of(ACHIEVEMENTS_PER_USER), null, null);
+        AchievementSummaryReadModel first = newer.get(0);
+        List<AchievementSummaryReadModel> next = achievementPSQLProvider.findAchievementSummariesByUserAfterId(
+                userKey, false, afterId, Limit.of(ACHIEVEMENTS_PER_USER), first.getRegisteredAt(), first.getId());
+
+        assertEquals(all.stream().filter(summary -> summary.getId() > afterId).toList().size(), newer.size());
+        assertTrue(newer.stream().allMatch(summary -> summary.getId() > afterId));
+        assertEquals(newer.size() - 1, next.size());
+    }
+
+    @Test
+    void findAchievementSummariesByUser_UnknownUser_ReturnsEmptyList() {
+        assertTrue(achievementPSQLProvider.findAchievementSummariesByUser("MISSING", false, Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    void findAchievementSummariesByUser_PrivateOrInactiveAchievements_AreOnlyReturnedToTheirOwner() {
+        String userKey = userKey(0);
+        List<String> hiddenKeys = persistPrivateAndRemovedAchievements();
+
+        List<String> publicTimeline = achievementPSQLProvider.findAchievementSummariesByUser(userKey, false,
+                Limit.of(100)).stream().map(AchievementSummaryReadModel::getKey).toList();
+        List<String> ownerTimeline = achievementPSQLProvider.findAchievementSummariesByUser(userKey, true,
+                Limit.of(100)).stream().map(AchievementSummaryReadModel::getKey).toList();
+
+        assertEquals(ACHIEVEMENTS_PER_USER, publicTimeline.size());
+        assertFalse(publicTimeline.contains(hiddenKeys.get(0)));
+        assertFalse(publicTimeline.contains(hiddenKeys.get(1)));
+        assertEquals(ACHIEVEMENTS_PER_USER + 1, ownerTimeline.size());
+        assertTrue(ownerTimeline.contains(hiddenKeys.get(0)));
+        assertFalse(ownerTimeline.contains(hiddenKeys.get(1)));
+    }
+
+    @Test
+    void findAchievementSummariesByKeys_ManyKeys_UsesTwoStatementsAndSkipsMissingKeys() {
+        List<String> keys = new ArrayList<>(achievementPSQLProvider
+                .findLatestAchievements(AchievementDtoSm.class, Limit.of(20))
+                .stream().map(AchievementDtoSm::entityKey).toList());
+        keys.add("MISSING");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<AchievementSummaryReadModel> summaries = achievementPSQLProvider.findAchievementSummariesByKeys(keys,
+                null);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(20, summaries.size());
+        assertTrue(summaries.stream().allMatch(summary -> keys.contains(summary.getKey())));
+    }
+
+    @Test
+    void findAchievementSummaryByKey_ExistingKey_ReturnsSummaryWithoutKeysetColumns() throws Exception {
+        String entityKey = achievementPSQLProvider.findLatestAchievements(AchievementDtoSm.class, Limit.of(1))
+                .get(0).entityKey();
+
+        AchievementSummaryReadModel summary = achievementPSQLProvider.findAchievementSummaryByKey(entityKey, null);
+
+        assertEquals(entityKey, summary.getKey());
+
+        JsonNode json = objectMapper.valueToTree(summary);
+        assertFalse(json.has("id"));
+        assertFalse(json.has("registeredAt"));
+        assertEquals("str", json.get("skills").get(0).get("abbreviation").asText());
+    }
+
+    @Test
+    void findAchievementSummariesByKeys_PrivateOrInactiveAchievements_AreOnlyFoundByTheirOwner() {
+        List<String> hiddenKeys = persistPrivateAndRemovedAchievements();
+
+        assertNull(achievementPSQLProvider.findAchievementSummaryByKey(hiddenKeys.get(0), null));
+        assertNull(achievementPSQLProvider.findAchievementSummaryByKey(hiddenKeys.get(0), userKey(1)));
+        assertNotNull(achievementPSQLProvider.findAchievementSummaryByKey(hiddenKeys.get(0), userKey(0)));
+        assertTrue(achievementPSQLProvider.findAchievementSummariesByKeys(hiddenKeys, userKey(1)).isEmpty());
+        assertEquals(List.of(hiddenKeys.get(0)), achievementPSQLProvider
+                .findAchievementSummariesByKeys(hiddenKeys, userKey(0))
+                .stream().map(AchievementSummaryReadModel::getKey).toList());
+    }
+
+    @Test
+    void findAchievementFacets_AllOrFilteredAchievements_CountsEveryFacetInOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AchievementFacetsReadModel facets = achievementPSQLProvider.findAchievementFacets(List.of(), false, null);
+        AchievementFacetsReadModel none = achievementPSQLProvider.findAchievementFacets(List.of("dex", "luc"), true,
+                null);
+
+        int achievements = USERS * ACHIEVEMENTS_PER_USER;
+        String month = new SimpleDateFormat("yyyy-MM").format(new Date());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(achievements, facets.getTotal());
+        assertEquals(List.of("str", "dex", "con", "int", "wis", "cha", "luc"),
+                facets.getSkills().stream().map(FacetCountReadModel::getValue).toList());
+        assertEquals(List.of((long) achievements, (long) achievements, 0L, 0L, 0L, 0L, 0L),
+                facets.getSkills().stream().map(FacetCountReadModel::getCount).toList());
+        assertEquals(month, facets.getCompletionMonths().get(0).getValue());
+        assertEquals(achievements, facets.getCompletionMonths().get(0).getCount());
+        assertEquals("EVERYONE", facets.getVisibilities().get(0).getValue());
+        assertEquals(0, none.getTotal());
+        assertTrue(none.getCompletionMonths().isEmpty());
+    }
+
+    @Test
+    void findAchievementFacets_PrivateOrInactiveAchievements_AreNotCounted() {
+        persistPrivateAndRemovedAchievements();
+
+        AchievementFacetsReadModel facets = achievementPSQLProvider.findAchievementFacets(List.of(), false, null);
+
+        assertEquals(USERS * ACHIEVEMENTS_PER_USER, facets.getTotal());
+        assertEquals(List.of("EVERYONE"),
+                facets.getVisibilities().stream().map(FacetCountReadModel::getValue).toList());
+    }
+
+    /**
+     * Adds a private and a removed (inactive) achievement to the first user
+     * @return The keys of the private and of the removed achievement
+     */
+    private List<String> persistPrivateAndRemovedAchievements() {
+        User owner = entityManager.getEntityManager()
+                .createQuery("SELECT u FROM User u WHERE u.username = :username", User.class)
+                .setParameter("username", "user00000")
+                .getSingleResult();
+
+        Achievement hidden = Achievement.create("Private", "Only for me", new Date(), false, owner, List.of("str"));
+        Achievement removed = Achievement.create("Removed", "Deleted", new Date(), true, owner, List.of("str"));
+        removed.setActive(false);
+        entityManager.persist(hidden);
+        entityManager.persist(removed);
+        entityManager.flush();
+        entityManager.clear();
+
+        return List.of(hidden.getEntityKey(), removed.getEntityKey());
+    }
+
+    private String userKey(int u) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT u.entityKey FROM User u WHERE u.username = :username", String.class)
+                .setParameter("username", "user0000" + u)
+                .getSingleResult();
+    }
+
+    private long countStatements(QuerySizeType size, int limit) throws Exception {
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<?> page = achievementPSQLProvider.findLatestAchievements(queryHandler.getDtoSize(size),
+                Limit.of(limit));
+
+        // Serializing the page touches every property the DTO exposes, like the API does
+        String json = objectMapper.writeValueAsString(page);
+
+        assertEquals(limit, page.size());
+        assertFalse(json.isEmpty());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,228 @@
+package espresso.achievement.infrastructure.streams;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import espresso.JacksonConfig;
+import espresso.achievement.domain.entities.AchievementDtoLg;
+import espresso.achievement.domain.entities.AchievementDtoSm;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.achievement.infrastructure.repositories.AchievementPSQLProvider;
+import espresso.common.domain.events.DomainEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class AchievementStreamBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private AchievementPSQLProvider achievementPSQLProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AchievementStreamBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().doAnswer(invocation -> Map.of("entityKey", invocation.getArgument(1)))
+                .when(achievementPSQLProvider).findAchievementByKey(any(), any());
+
+        broadcaster = new AchievementStreamBroadcaster(meterRegistry, achievementPSQLProvider, transactionManager,
+                new JacksonConfig().objectMapper(), 2, Duration.ofMinutes(1), Duration.ofSeconds(20), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+
+    @Test
+    void handle_PublicAchievement_IsEncodedOncePerSizeAndPushedToItsSubscribers() throws InterruptedException {
+        // Arrange
+        RecordingEmitter first = subscribe(AchievementDtoSm.class, 1);
+        RecordingEmitter second = subscribe(AchievementDtoSm.class, 1);
+        RecordingEmitter large = subscribe(AchievementDtoLg.class, 1);
+
+        // Act
+        broadcaster.handle(List.of(created("KEY0001", AchievementVisibilityStatus.EVERYONE)));
+
+        // Assert
+        assertTrue(first.delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(second.delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(large.delivered.await(5, TimeUnit.SECONDS));
+        assertSame(first.frames.get(0), second.frames.get(0));
+        assertNotSame(first.frames.get(0), large.frames.get(0));
+        verify(achievementPSQLProvider, times(1)).findAchievementByKey(eq(AchievementDtoSm.class), eq("KEY0001"));
+        verify(achievementPSQLProvider, times(1)).findAchievementByKey(eq(AchievementDtoLg.class), eq("KEY0001"));
+    }
+
+    @Test
+    void supports_PrivateAchievementOrNoSubscriber_IsNotDelivered() {
+        // Act & Assert
+        assertFalse(broadcaster.supports(created("KEY0001", AchievementVisibilityStatus.EVERYONE)));
+
+        subscribe(AchievementDtoSm.class, 1);
+
+        assertTrue(broadcaster.supports(created("KEY0001", AchievementVisibilityStatus.EVERYONE)));
+        assertFalse(broadcaster.supports(created("KEY0002", AchievementVisibilityStatus.PRIVATE)));
+    }
+
+    @Test
+    void handle_Batch_IsPushedAsOneFrame() throws InterruptedException {
+        // Arrange
+        RecordingEmitter emitter = subscribe(AchievementDtoSm.class, 1);
+
+        // Act
+        broadcaster.handle(List.of(
+                created("KEY0001", AchievementVisibilityStatus.EVERYONE),
+                created("KEY0002", AchievementVisibilityStatus.EVERYONE),
+                created("KEY0003", AchievementVisibilityStatus.EVERYONE)));
+
+        // Assert
+        assertTrue(emitter.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, emitter.frames.size());
+
+        String text = emitter.frames.get(0).stream().map(part -> String.valueOf(part.getData()))
+                .reduce("", String::concat);
+        assertTrue(text.indexOf("id:KEY0001") < text.indexOf("id:KEY0002"));
+        assertTrue(text.indexOf("id:KEY0002") < text.indexOf("id:KEY0003"));
+    }
+
+    @Test
+    void handle_SlowSubscriberBufferFull_IsEvictedWithoutDelayingTheOthers() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(AchievementDtoSm.class, 1, release);
+        RecordingEmitter fast = subscribe(AchievementDtoSm.class, 4);
+
+        // Act: the slow subscriber holds the first frame, buffers two and has no room for the fourth
+        for (int i = 1; i <= 4; i++) {
+            broadcaster.handle(List.of(created("KEY000" + i, AchievementVisibilityStatus.EVERYONE)));
+
+            assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+            awaitFrames(fast, i);
+        }
+
+        // Assert
+        assertTrue(fast.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1, meterRegistry.get("achievement.stream.evicted").counter().count());
+
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void handle_SendFails_RemovesTheSubscriber() throws InterruptedException {
+        // Arrange
+        RecordingEmitter broken = new RecordingEmitter(1, null) {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+                sending.countDown();
+                throw new IOException("Broken pipe");
+            }
+        };
+        broadcaster.subscribe(AchievementDtoSm.class, broken);
+
+        // Act
+        broadcaster.handle(List.of(created("KEY0001", AchievementVisibilityStatus.EVERYONE)));
+
+        // Assert
+        assertTrue(broken.sending.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 50 && broadcaster.getSubscriberCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    private static void awaitFrames(RecordingEmitter emitter, int frames) throws InterruptedException {
+        for (int i = 0; i < 500 && emitter.frames.size() < frames; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private RecordingEmitter subscribe(Class<?> dtoType, int expectedFrames) {
+        return subscribe(dtoType, expectedFrames, null);
+    }
+
+    private RecordingEmitter subscribe(Class<?> dtoType, int expectedFrames, CountDownLatch release) {
+        RecordingEmitter emitter = new RecordingEmitter(expectedFrames, release);
+        broadcaster.subscribe(dtoType, emitter);
+        return emitter;
+    }
+
+    private static DomainEvent created(String key, AchievementVisibilityStatus visibility) {
+        return new NewAchievementCreated(key, "USER001", null, new String[0], new String[0], visibility);
+    }
+
+    /**
+     * Records the frames instead of writing them to a response, optionally
+     * holding the first one until released
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<Set<DataWithMediaType>> frames = new CopyOnWriteArrayList<>();
+
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        final CountDownLatch delivered;
+
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        private final CountDownLatch release;
+
+        RecordingEmitter(int expectedFrames, CountDownLatch release) {
+            this.delivered = new CountDownLatch(expectedFrames);
+            this.release = release;
+        }
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            frames.add(items);
+            delivered.countDown();
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package espresso.achievement.infrastructure.timelines;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import espresso.achievement.domain.entities.AchievementTimelineItem;
+import espresso.common.domain.queries.KeysetCursor;
+
+public class AchievementTimelineMergerTest {
+
+    private static final OffsetDateTime BASE_DATE = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void merge_SeveralStreams_ReturnsTheNewestItemsNewestFirst() {
+        // Arrange: author 1 posted at minutes 0, 3, 6..., author 2 at 1, 4, 7..., author 3 at 2, 5, 8...
+        Map<Long, List<AchievementTimelineItem>> streams = Map.of(
+                1L, stream(1L, 0, 3, 10),
+                2L, stream(2L, 1, 3, 10),
+                3L, stream(3L, 2, 3, 10));
+
+        List<AchievementTimelineItem> reads = new ArrayList<>();
+
+        // Act
+        List<AchievementTimelineItem> page = AchievementTimelineMerger.merge(heads(streams, 2), 2, 7,
+                (authorId, after, size) -> {
+                    List<AchievementTimelineItem> next = read(streams.get(authorId), after, size);
+                    reads.addAll(next);
+                    return next;
+                });
+
+        // Assert
+        assertEquals(7, page.size());
+
+        for (int i = 0; i < page.size(); i++) {
+            assertEquals(BASE_DATE.minusMinutes(i), page.get(i).registeredAt());
+        }
+
+        // Every stream was read once past its head of 2, only as far as the page needed
+        assertEquals(6, reads.size());
+    }
+
+    @Test
+    void merge_ShortHeads_AreNotReadFurther() {
+        // Arrange
+        Map<Long, List<AchievementTimelineItem>> streams = Map.of(
+                1L, stream(1L, 0, 2, 1),
+                2L, stream(2L, 1, 2, 1));
+
+        // Act
+        List<AchievementTimelineItem> page = AchievementTimelineMerger.merge(heads(streams, 3), 3, 10,
+                (authorId, after, size) -> fail("A stream shorter than its head was read again"));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), page.stream().map(AchievementTimelineItem::authorId).toList());
+    }
+
+    @Test
+    void merge_OneStreamHoldsThePage_ReadsOnlyThatStream() {
+        // Arrange: author 1 posted the 6 newest achievements, author 2 is older than the page
+        Map<Long, List<AchievementTimelineItem>> streams = Map.of(
+                1L, stream(1L, 0, 1, 6),
+                2L, stream(2L, 100, 1, 6));
+
+        List<Long> readAuthors = new ArrayList<>();
+
+        // Act
+        List<AchievementTimelineItem> page = AchievementTimelineMerger.merge(heads(streams, 2), 2, 5,
+                (authorId, after, size) -> {
+                    readAuthors.add(authorId);
+                    return read(streams.get(authorId), after, size);
+                });
+
+        // Assert
+        assertTrue(page.stream().allMatch(item -> item.authorId() == 1L));
+        assertTrue(readAuthors.stream().allMatch(authorId -> authorId == 1L));
+    }
+
+    @Test
+    void merge_NoHeads_ReturnsEmptyPage() {
+        // Act & Assert
+        assertTrue(AchievementTimelineMerger.merge(List.of(), 5, 10, (authorId, after, size) -> List.of()).isEmpty());
+    }
+
+    /**
+     * The achievements of an author, newest first, from a given minute before the base date and every step minutes
+     */
+    private static List<AchievementTimelineItem> stream(Long authorId, int firstMinute, int step, int count) {
+        List<AchievementTimelineItem> items = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            int minute = firstMinute + i * step;
+            items.add(new AchievementTimelineItem(1000L - minute, BASE_DATE.minusMinutes(minute), authorId));
+        }
+
+        return items;
+    }
+
+    private static List<AchievementTimelineItem> heads(Map<Long, List<AchievementTimelineItem>> streams, int size) {
+        List<AchievementTimelineItem> heads = new ArrayList<>();
+
+        streams.values().forEach(items -> heads.addAll(items.subList(0, Math.min(size, items.size()))));
+
+        return heads;
+    }
+
+    private static List<AchievementTimelineItem> read(List<AchievementTimelineItem> items, KeysetCursor after,
+            int size) {
+        return items.stream()
+                .filter(item -> item.registeredAt().isBefore(after.getTimestamp()))
+                .limit(size)
+                .toList();
+    }
+}
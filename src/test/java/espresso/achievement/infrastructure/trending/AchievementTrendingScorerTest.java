@@ -0,0 +1,111 @@
+package espresso.achievement.infrastructure.trending;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.util.unit.DataSize;
+
+import espresso.achievement.domain.contracts.IAchievementQryRepository;
+import espresso.achievement.domain.entities.AchievementVisibilityStatus;
+import espresso.achievement.domain.events.AchievementMediaAdded;
+import espresso.achievement.domain.events.NewAchievementCreated;
+import espresso.achievement.domain.readModels.AchievementMediaDetailReadModel;
+import espresso.achievement.domain.readModels.AchievementSummaryReadModel;
+import espresso.achievement.domain.readModels.SkillSummaryReadModel;
+import espresso.achievement.domain.readModels.TrendingAchievementReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AchievementTrendingScorerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IAchievementQryRepository achievementRepository;
+
+    private AchievementTrendingScorer scorer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        achievementRepository = mock(IAchievementQryRepository.class);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        // Every key but PRIVATE is public
+        lenient().when(achievementRepository.getPublicEntityKeys(any())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream().filter(key -> !key.equals("PRIVATE")).toList());
+        lenient().when(achievementRepository.getAchievementSummariesByKeys(any(), isNull())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream().map(AchievementTrendingScorerTest::summary)
+                        .toList());
+
+        Clock clock = Clock.fixed(Instant.parse("2025-07-01T12:00:00Z"), ZoneOffset.UTC);
+        scorer = new AchievementTrendingScorer(meterRegistry, achievementRepository, transactionManager,
+                Duration.ofHours(6), DataSize.ofKilobytes(16), 2, Duration.ofSeconds(15), 8, 1, 3, 2, clock);
+    }
+
+    @Test
+    void publish_WeightedSignals_PublishesThePublicTopK() {
+        // Arrange: views weigh 1, media 3, creates 2; the private achievement has the most views
+        scorer.recordView("KEY0001");
+        scorer.recordView("PRIVATE");
+        scorer.recordView("PRIVATE");
+        scorer.recordView("PRIVATE");
+        scorer.recordView("PRIVATE");
+        scorer.handle(List.of(
+                new AchievementMediaAdded("KEY0002", "USER001", AchievementVisibilityStatus.EVERYONE, new String[0]),
+                new NewAchievementCreated("KEY0003", "USER001", null, new String[0], new String[0],
+                        AchievementVisibilityStatus.EVERYONE)));
+
+        // Act
+        assertEquals(7, scorer.drain());
+        scorer.publish();
+
+        // Assert
+        List<TrendingAchievementReadModel> trending = scorer.getTrending();
+
+        assertEquals(List.of("KEY0002", "KEY0003"),
+                trending.stream().map(item -> item.getAchievement().getKey()).toList());
+        assertEquals(3, trending.get(0).getScore(), 1e-9);
+        assertThrows(UnsupportedOperationException.class, () -> trending.add(null));
+    }
+
+    @Test
+    void recordView_QueueFull_DropsTheSignal() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            scorer.recordView("KEY000" + i);
+        }
+
+        // Assert
+        assertEquals(2, meterRegistry.get("achievement.trending.dropped").counter().count());
+        assertEquals(8, scorer.drain());
+    }
+
+    @Test
+    void supports_PrivateCreatesAndMedia_AreNotSignals() {
+        // Act & Assert
+        assertFalse(scorer.supports(new NewAchievementCreated("KEY0001", "USER001", null, new String[0],
+                new String[0], AchievementVisibilityStatus.PRIVATE)));
+        assertFalse(scorer.supports(new AchievementMediaAdded("KEY0001", "USER001",
+                AchievementVisibilityStatus.PRIVATE, new String[0])));
+        assertTrue(scorer.supports(new AchievementMediaAdded("KEY0001", "USER001",
+                AchievementVisibilityStatus.EVERYONE, new String[0])));
+    }
+
+    private static AchievementSummaryReadModel summary(String key) {
+        return new AchievementSummaryReadModel(1L, null, key, "title", null, new SkillSummaryReadModel[0],
+                new AchievementMediaDetailReadModel[0], null);
+    }
+}
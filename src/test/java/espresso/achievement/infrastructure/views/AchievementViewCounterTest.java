@@ -0,0 +1,141 @@
+package espresso.achievement.infrastructure.views;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import espresso.common.domain.support.HyperLogLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AchievementViewCounterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private AchievementViewCounter counter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        Clock clock = Clock.fixed(Instant.parse("2025-07-01T12:00:00Z"), ZoneOffset.UTC);
+        counter = new AchievementViewCounter(meterRegistry, jdbcTemplate, transactionManager,
+                Duration.ofSeconds(5), 16, 100, clock);
+
+        // KEY0001 is achievement 5, with no viewers stored yet
+        ResultSet row = mock(ResultSet.class);
+        lenient().when(row.getLong(1)).thenReturn(5L);
+        lenient().when(row.getString(2)).thenReturn("KEY0001");
+        lenient().when(row.getBytes(3)).thenReturn(null);
+
+        lenient().doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(2).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT s.achievementId"), any(SqlParameterSource.class),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void flush_BufferedViews_AddsTheViewsAndMergesTheViewers() {
+        // Arrange: the same user twice, another user and an anonymous viewer
+        counter.recordView("KEY0001", "USER001");
+        counter.recordView("KEY0001", "USER001");
+        counter.recordView("KEY0001", "USER002");
+        counter.recordView("KEY0001", null);
+
+        // Act
+        int drained = counter.drain();
+        int flushed = counter.flush();
+
+        // Assert
+        assertEquals(4, drained);
+        assertEquals(1, flushed);
+
+        ArgumentCaptor<SqlParameterSource[]> updates = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE AchievementViewStats "), updates.capture());
+
+        assertEquals(1, updates.getValue().length);
+        assertEquals(5L, updates.getValue()[0].getValue("achievementId"));
+        assertEquals(4L, updates.getValue()[0].getValue("views"));
+
+        HyperLogLog sketch = HyperLogLog.fromBytes((byte[]) updates.getValue()[0].getValue("sketch"));
+        assertEquals(2, sketch.estimate());
+
+        // Nothing is left to flush
+        assertEquals(0, meterRegistry.get("achievement.view.pending").gauge().value());
+        assertEquals(0, counter.flush());
+    }
+
+    @Test
+    void flush_WriteFails_KeepsTheViewsForTheNextFlush() {
+        // Arrange
+        counter.recordView("KEY0001", "USER001");
+        counter.drain();
+
+        when(jdbcTemplate.update(startsWith("INSERT INTO AchievementViewStats "), any(SqlParameterSource.class)))
+                .thenThrow(new DataAccessResourceFailureException("The database is down"))
+                .thenReturn(1);
+
+        // Act
+        assertThrows(DataAccessResourceFailureException.class, () -> counter.flush());
+
+        // Assert
+        assertEquals(1, meterRegistry.get("achievement.view.pending").gauge().value());
+        assertEquals(1, counter.flush());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE AchievementViewStats "), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    void isFlushDue_BufferFullAfterAFailedFlush_WaitsForTheInterval() {
+        // Arrange: a full buffer
+        for (int i = 0; i < 100; i++) {
+            counter.recordView("KEY0001", "USER" + i);
+            counter.drain();
+        }
+
+        assertTrue(counter.isFlushDue(0, 1000));
+
+        when(jdbcTemplate.update(startsWith("INSERT INTO AchievementViewStats "), any(SqlParameterSource.class)))
+                .thenThrow(new DataAccessResourceFailureException("The database is down"));
+
+        // Act
+        assertThrows(DataAccessResourceFailureException.class, () -> counter.flush());
+
+        // Assert
+        assertFalse(counter.isFlushDue(0, 1000));
+        assertTrue(counter.isFlushDue(1000, 1000));
+    }
+
+    @Test
+    void recordView_QueueFull_DropsTheView() {
+        // Act
+        for (int i = 0; i < 17; i++) {
+            counter.recordView("KEY0001", "USER001");
+        }
+
+        // Assert
+        assertEquals(1, meterRegistry.get("achievement.view.dropped").counter().count());
+        assertEquals(16, counter.drain());
+    }
+}
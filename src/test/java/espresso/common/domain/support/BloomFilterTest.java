@@ -0,0 +1,69 @@
+package espresso.common.domain.support;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+    @Test
+    void mightContain_AddedKeys_AreNeverRejected() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        Set<String> keys = generateKeys(10_000);
+
+        // Act
+        keys.forEach(filter::put);
+
+        // Assert
+        assertTrue(keys.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void mightContain_UnknownKeys_FalsePositiveRateIsCloseToConfigured() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        Set<String> keys = generateKeys(10_000);
+        keys.forEach(filter::put);
+
+        // Act
+        int falsePositives = 0;
+        int probes = 0;
+
+        for (String key : generateKeys(20_000)) {
+            if (!keys.contains(key)) {
+                probes++;
+                falsePositives += filter.mightContain(key) ? 1 : 0;
+            }
+        }
+
+        // Assert
+        double measured = (double) falsePositives / probes;
+        assertTrue(measured < 0.02, "measured false positive rate " + measured);
+        assertEquals(0.01, filter.getFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void getFalsePositiveRate_Empty_IsZero() {
+        assertEquals(0.0, new BloomFilter(1_000, 0.01).getFalsePositiveRate());
+    }
+
+    @Test
+    void constructor_InvalidRate_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+    }
+
+    private static Set<String> generateKeys(int count) {
+        Set<String> keys = new HashSet<>();
+
+        while (keys.size() < count) {
+            keys.add(KeyGenerator.generateKey(7));
+        }
+
+        return keys;
+    }
+}
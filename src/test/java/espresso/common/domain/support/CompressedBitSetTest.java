@@ -0,0 +1,90 @@
+package espresso.common.domain.support;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+public class CompressedBitSetTest {
+
+    @Test
+    void add_SparseAndDenseChunks_ContainsExactlyTheAddedValues() {
+        // Arrange
+        CompressedBitSet bitSet = new CompressedBitSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        // Chunk 0 stays sparse, chunk 3 turns into a bitmap
+        for (int i = 0; i < 100; i++) {
+            expected.add(random.nextInt(1 << 16));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            expected.add((3 << 16) + random.nextInt(1 << 16));
+        }
+
+        // Act
+        expected.forEach(bitSet::add);
+        expected.forEach(bitSet::add);
+
+        // Assert
+        assertEquals(expected.size(), bitSet.cardinality());
+
+        for (int value = 0; value < (4 << 16); value++) {
+            assertEquals(expected.contains(value), bitSet.contains(value), "value " + value);
+        }
+    }
+
+    @Test
+    void readChunk_SparseChunk_WritesTheValuesAsBits() {
+        // Arrange
+        CompressedBitSet bitSet = new CompressedBitSet();
+        bitSet.add((2 << 16) + 1);
+        bitSet.add((2 << 16) + 130);
+        long[] words = new long[CompressedBitSet.WORDS_PER_CHUNK];
+
+        // Act
+        boolean found = bitSet.readChunk(2, words);
+
+        // Assert
+        assertTrue(found);
+        assertEquals(1L << 1, words[0]);
+        assertEquals(1L << 2, words[2]);
+        assertFalse(bitSet.readChunk(1, words));
+        assertEquals(0L, words[0]);
+    }
+
+    @Test
+    void floorChunk_GapsBetweenChunks_SkipsEmptyChunks() {
+        // Arrange
+        CompressedBitSet bitSet = new CompressedBitSet();
+        bitSet.add(5);
+        bitSet.add(7 << 16);
+
+        // Act & Assert
+        assertEquals(7, bitSet.floorChunk(100));
+        assertEquals(0, bitSet.floorChunk(6));
+        assertEquals(-1, bitSet.floorChunk(-1));
+    }
+
+    @Test
+    void sizeInBytes_DenseChunk_IsBoundedByTheBitmap() {
+        // Arrange
+        CompressedBitSet bitSet = new CompressedBitSet();
+
+        // Act
+        for (int value = 0; value < (1 << 16); value++) {
+            bitSet.add(value);
+        }
+
+        // Assert
+        assertEquals(CompressedBitSet.WORDS_PER_CHUNK * 8L, bitSet.sizeInBytes());
+    }
+
+    @Test
+    void add_NegativeValue_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressedBitSet().add(-1));
+    }
+}
@@ -0,0 +1,76 @@
+package espresso.common.domain.support;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DecayedSpaceSavingTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void add_HeavyHittersAmongNoise_AreKeptAndRankedFirst() {
+        // Arrange: 3 keys get a third of the hits, the rest is spread over 100000 keys
+        DecayedSpaceSaving<String> sketch = new DecayedSpaceSaving<>(100, HOUR, 0);
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            switch (i % 9) {
+                case 0 -> sketch.add("hot-a", 1, 0);
+                case 1 -> sketch.add("hot-b", 1, 0);
+                case 2 -> sketch.add(i % 2 == 0 ? "hot-c" : "hot-b", 1, 0);
+                default -> sketch.add("noise-" + random.nextInt(100_000), 1, 0);
+            }
+        }
+
+        // Assert
+        List<DecayedSpaceSaving.Entry<String>> top = sketch.top(3, 0);
+
+        assertEquals(List.of("hot-b", "hot-a", "hot-c"), top.stream().map(DecayedSpaceSaving.Entry::key).toList());
+        assertEquals(100, sketch.size());
+
+        // The count of a key never underestimates its hits, and overestimates them by at most its error
+        DecayedSpaceSaving.Entry<String> hotA = top.get(1);
+        assertTrue(hotA.count() >= 11_112);
+        assertTrue(hotA.count() - hotA.error() <= 11_112);
+    }
+
+    @Test
+    void top_OneHalfLifeLater_HalvesTheCounts() {
+        // Arrange
+        DecayedSpaceSaving<String> sketch = new DecayedSpaceSaving<>(10, HOUR, 0);
+        sketch.add("a", 8, 0);
+
+        // Act
+        double later = sketch.top(1, HOUR).get(0).count();
+
+        // Assert
+        assertEquals(4, later, 1e-9);
+    }
+
+    @Test
+    void add_RecentHitsOutweighOlderOnes() {
+        // Arrange
+        DecayedSpaceSaving<String> sketch = new DecayedSpaceSaving<>(10, HOUR, 0);
+
+        // Act: 10 hits long ago against 3 recent ones, across many landmark moves
+        for (int i = 0; i < 10; i++) {
+            sketch.add("old", 1, 0);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            sketch.add("new", 1, 100 * HOUR);
+        }
+
+        // Assert
+        List<DecayedSpaceSaving.Entry<String>> top = sketch.top(2, 100 * HOUR);
+
+        assertEquals("new", top.get(0).key());
+        assertEquals(3, top.get(0).count(), 1e-9);
+        assertEquals(10 * Math.pow(2, -100), top.get(1).count(), 1e-40);
+    }
+}
@@ -0,0 +1,188 @@
+package espresso.common.domain.support;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import espresso.common.domain.contracts.IDomainEventLog;
+import espresso.common.domain.events.DomainEvent;
+import espresso.common.domain.events.DomainEventRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class EntityKeyFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void mightExist_NotSeeded_AllowsEveryKey() {
+        // Arrange
+        EntityKeyFilter filter = createFilter(() -> Stream.of("KEY0001"));
+
+        // Act & Assert
+        assertTrue(filter.mightExist("UNKNOWN"));
+    }
+
+    @Test
+    void mightExist_Seeded_RejectsKeysThatWereNeverIssued() {
+        // Arrange
+        EntityKeyFilter filter = createFilter(() -> Stream.of("KEY0001", "KEY0002"));
+
+        // Act
+        filter.seed();
+
+        // Assert
+        assertTrue(filter.mightExist("KEY0001"));
+        assertTrue(filter.mightExist("KEY0002"));
+        assertFalse(filter.mightExist("UNKNOWN"));
+        assertEquals(1.0, meterRegistry.get("entity.key.filter.rejections").tag("entity", "test").counter().count());
+    }
+
+    @Test
+    void add_KeySavedAfterSeeding_IsNotRejected() {
+        // Arrange
+        EntityKeyFilter filter = createFilter(Stream::empty);
+        filter.seed();
+
+        // Act
+        filter.add("KEY0003");
+
+        // Assert
+        assertTrue(filter.mightExist("KEY0003"));
+    }
+
+    @Test
+    void seed_DatabaseUnavailable_AllowsEveryKey() {
+        // Arrange
+        EntityKeyFilter filter = createFilter(() -> {
+            throw new IllegalStateException("connection refused");
+        });
+
+        // Act
+        filter.seed();
+
+        // Assert
+        assertTrue(filter.mightExist("UNKNOWN"));
+    }
+
+    @Test
+    void initialize_RegistersFalsePositiveRateGauge() {
+        // Arrange
+        EntityKeyFilter filter = createFilter(() -> Stream.of("KEY0001"));
+
+        // Act
+        filter.seed();
+
+        // Assert
+        double fpp = meterRegistry.get("entity.key.filter.fpp").tag("entity", "test").gauge().value();
+        assertTrue(fpp > 0 && fpp < 0.01);
+    }
+
+    @Test
+    void seed_EventLogHasEveryKey_DoesNotStreamTheTable() {
+        // Arrange
+        AtomicInteger streams = new AtomicInteger();
+        EntityKeyFilter filter = createFilter(() -> {
+            streams.incrementAndGet();
+            return Stream.of("KEY0001", "KEY0002");
+        }, () -> 2L);
+        ReflectionTestUtils.setField(filter, "eventLog", createEventLog("KEY0001", "KEY0002"));
+
+        // Act
+        filter.seed();
+
+        // Assert
+        assertEquals(0, streams.get());
+        assertTrue(filter.mightExist("KEY0001"));
+        assertTrue(filter.mightExist("KEY0002"));
+        assertFalse(filter.mightExist("UNKNOWN"));
+    }
+
+    @Test
+    void seed_EventLogMissesKeys_StreamsTheTable() {
+        // Arrange
+        EntityKeyFilter filter = createFilter(() -> Stream.of("KEY0001", "KEY0002", "KEY0003"));
+        ReflectionTestUtils.setField(filter, "eventLog", createEventLog("KEY0002"));
+
+        // Act
+        filter.seed();
+
+        // Assert
+        assertTrue(filter.mightExist("KEY0001"));
+        assertTrue(filter.mightExist("KEY0003"));
+        assertFalse(filter.mightExist("UNKNOWN"));
+    }
+
+    private record Created(String key) implements DomainEvent {
+    }
+
+    private IDomainEventLog createEventLog(String... keys) {
+        IDomainEventLog eventLog = mock(IDomainEventLog.class);
+
+        when(eventLog.replay(anyLong(), any())).thenAnswer(invocation -> {
+            Consumer<DomainEventRecord> consumer = invocation.getArgument(1);
+            List<String> created = List.of(keys);
+
+            for (int i = 0; i < created.size(); i++) {
+                consumer.accept(new DomainEventRecord(i + 1, new Created(created.get(i))));
+            }
+
+            return (long) created.size();
+        });
+
+        return eventLog;
+    }
+
+    private EntityKeyFilter createFilter(Supplier<Stream<String>> keys) {
+        return createFilter(keys, () -> keys.get().count());
+    }
+
+    private EntityKeyFilter createFilter(Supplier<Stream<String>> keys, Supplier<Long> count) {
+        EntityKeyFilter filter = new EntityKeyFilter("test") {
+            @Override
+            protected Stream<String> streamKeys() {
+                return keys.get();
+            }
+
+            @Override
+            protected long countKeys() {
+                return count.get();
+            }
+
+            @Override
+            protected String getCreatedKey(DomainEvent event) {
+                return event instanceof Created created ? created.key() : null;
+            }
+        };
+
+        ReflectionTestUtils.setField(filter, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "expectedKeys", 1_000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        filter.initialize();
+
+        return filter;
+    }
+}
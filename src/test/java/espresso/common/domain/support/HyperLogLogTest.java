@@ -0,0 +1,105 @@
+package espresso.common.domain.support;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class HyperLogLogTest {
+
+    @Test
+    void estimate_ManyDistinctMembers_IsWithinTheStandardError() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog(11);
+
+        // Act: every member is added twice
+        for (long member = 0; member < 200_000; member++) {
+            sketch.add(hash(member));
+            sketch.add(hash(member));
+        }
+
+        // Assert: 3 standard errors of precision 11
+        assertEquals(200_000, sketch.estimate(), 200_000 * 0.07);
+    }
+
+    @Test
+    void estimate_FewMembers_IsNearlyExact() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog(11);
+
+        // Act
+        for (long member = 0; member < 50; member++) {
+            sketch.add(hash(member));
+        }
+
+        // Assert
+        assertEquals(50, sketch.estimate(), 1);
+        assertFalse(sketch.add(hash(7)));
+        assertEquals(0, new HyperLogLog(11).estimate());
+    }
+
+    @Test
+    void merge_OverlappingSketches_CountsTheUnion() {
+        // Arrange: 0..29999 and 20000..49999
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        HyperLogLog union = new HyperLogLog(12);
+
+        for (long member = 0; member < 50_000; member++) {
+            if (member < 30_000) {
+                left.add(hash(member));
+            }
+
+            if (member >= 20_000) {
+                right.add(hash(member));
+            }
+
+            union.add(hash(member));
+        }
+
+        // Act
+        left.merge(right);
+
+        // Assert: the registers are the ones of the sketch of the union
+        assertArrayEquals(union.toBytes(), left.toBytes());
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(11)));
+    }
+
+    @Test
+    void toBytes_SparseAndDenseSketches_RoundTrip() {
+        // Arrange
+        HyperLogLog sparse = new HyperLogLog(11);
+        HyperLogLog dense = new HyperLogLog(11);
+
+        for (long member = 0; member < 10; member++) {
+            sparse.add(hash(member));
+        }
+
+        for (long member = 0; member < 10_000; member++) {
+            dense.add(hash(member));
+        }
+
+        // Act
+        byte[] sparseBytes = sparse.toBytes();
+        byte[] denseBytes = dense.toBytes();
+
+        // Assert: 2 header bytes and 3 bytes per non-empty register, or all 2048 registers
+        assertEquals(2 + 10 * 3, sparseBytes.length);
+        assertEquals(2 + 2048, denseBytes.length);
+        assertEquals(sparse.estimate(), HyperLogLog.fromBytes(sparseBytes).estimate());
+        assertArrayEquals(denseBytes, HyperLogLog.fromBytes(denseBytes).toBytes());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] { 0, 11, 1 }));
+    }
+
+    // The finalizer of MurmurHash3, so consecutive members get unrelated hashes
+    private static long hash(long member) {
+        long hash = member;
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
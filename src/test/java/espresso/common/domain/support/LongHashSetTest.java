@@ -0,0 +1,75 @@
+package espresso.common.domain.support;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class LongHashSetTest {
+
+    @Test
+    void addAndRemove_RandomOperations_MatchAHashSet() {
+        // Arrange: a small key range, so the probe runs collide and removals shift them back
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(5_000) - 100;
+
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), set.remove(key), "remove " + key);
+            } else {
+                assertEquals(expected.add(key), set.add(key), "add " + key);
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), set.size());
+
+        for (long key = -100; key < 4_900; key++) {
+            assertEquals(expected.contains(key), set.contains(key), "contains " + key);
+        }
+    }
+
+    @Test
+    void add_Zero_IsKeptApartFromTheEmptySlots() {
+        // Arrange
+        LongHashSet set = new LongHashSet();
+
+        // Act
+        boolean added = set.add(0);
+        boolean addedAgain = set.add(0);
+
+        // Assert
+        assertTrue(added);
+        assertFalse(addedAgain);
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void add_ManyMembers_GrowsAndStaysAtMostHalfFull() {
+        // Arrange
+        LongHashSet set = new LongHashSet(4);
+
+        // Act
+        for (long key = 1; key <= 10_000; key++) {
+            set.add(key * 0x100000001L);
+        }
+
+        // Assert
+        assertEquals(10_000, set.size());
+        assertTrue(set.sizeInBytes() >= 2L * 10_000 * Long.BYTES);
+        assertTrue(set.contains(10_000 * 0x100000001L));
+        assertFalse(set.contains(10_001 * 0x100000001L));
+    }
+}
@@ -0,0 +1,119 @@
+package espresso.common.domain.support;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class OrderStatisticTreeTest {
+
+    @Test
+    void increment_RandomScoreChanges_RanksMatchASortedCopy() {
+        // Arrange
+        OrderStatisticTree tree = new OrderStatisticTree();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act: scores go up and down, and some members drop to 0 and leave
+        for (int i = 0; i < 20_000; i++) {
+            long member = random.nextInt(2_000);
+            int delta = random.nextInt(10) < 8 ? 1 : -1;
+
+            int score = tree.increment(member, delta);
+            expected.merge(member, delta, Integer::sum);
+
+            if (expected.get(member) <= 0) {
+                expected.remove(member);
+            }
+
+            assertEquals(Math.max(expected.getOrDefault(member, 0), 0), Math.max(score, 0));
+        }
+
+        // Assert
+        List<Map.Entry<Long, Integer>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        assertEquals(sorted.size(), tree.size());
+
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, tree.rank(sorted.get(i).getKey()), "member " + sorted.get(i).getKey());
+        }
+
+        List<long[]> range = new ArrayList<>();
+        tree.range(1, sorted.size(), (rank, member, score) -> range.add(new long[] { rank, member, score }));
+
+        for (int i = 0; i < sorted.size(); i++) {
+            assertArrayEquals(new long[] { i + 1, sorted.get(i).getKey(), sorted.get(i).getValue() }, range.get(i));
+        }
+    }
+
+    @Test
+    void set_EqualScores_RanksLowerMemberFirst() {
+        // Arrange
+        OrderStatisticTree tree = new OrderStatisticTree();
+
+        // Act
+        tree.set(30, 5);
+        tree.set(10, 5);
+        tree.set(20, 7);
+        tree.set(40, 1);
+
+        // Assert
+        assertEquals(1, tree.rank(20));
+        assertEquals(2, tree.rank(10));
+        assertEquals(3, tree.rank(30));
+        assertEquals(4, tree.rank(40));
+        assertEquals(0, tree.rank(50));
+    }
+
+    @Test
+    void set_ScoreZero_RemovesTheMemberAndReusesItsNode() {
+        // Arrange
+        OrderStatisticTree tree = new OrderStatisticTree();
+
+        for (long member = 1; member <= 100; member++) {
+            tree.set(member, (int) member);
+        }
+
+        long bytes = tree.sizeInBytes();
+
+        // Act
+        for (long member = 1; member <= 50; member++) {
+            tree.set(member, 0);
+        }
+
+        for (long member = 101; member <= 150; member++) {
+            tree.set(member, 1);
+        }
+
+        // Assert
+        assertEquals(100, tree.size());
+        assertEquals(0, tree.getScore(1));
+        assertEquals(1, tree.rank(100));
+        assertEquals(51, tree.rank(101));
+        assertEquals(bytes, tree.sizeInBytes());
+    }
+
+    @Test
+    void range_PastTheEnd_ReadsTheExistingRanksOnly() {
+        // Arrange
+        OrderStatisticTree tree = new OrderStatisticTree();
+        tree.set(1, 3);
+        tree.set(2, 2);
+        tree.set(3, 1);
+        List<Long> members = new ArrayList<>();
+
+        // Act
+        tree.range(2, 10, (rank, member, score) -> members.add(member));
+
+        // Assert
+        assertEquals(List.of(2L, 3L), members);
+    }
+}
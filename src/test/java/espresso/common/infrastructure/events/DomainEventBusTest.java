@@ -0,0 +1,203 @@
+package espresso.common.infrastructure.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import espresso.common.domain.contracts.IDomainEventSubscriber;
+import espresso.common.domain.events.DomainEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DomainEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DomainEventBus bus;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    void publish_Burst_IsDeliveredInOrderInBatches() throws InterruptedException {
+        // Arrange
+        RecordingSubscriber subscriber = new RecordingSubscriber(10, 95, null);
+        bus = startBus(subscriber, 1000);
+
+        // Act
+        for (int i = 0; i < 95; i++) {
+            bus.publish(new TestEvent(i));
+        }
+
+        // Assert
+        assertTrue(subscriber.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(95, subscriber.events.size());
+
+        for (int i = 0; i < 95; i++) {
+            assertEquals(i, subscriber.events.get(i).number());
+        }
+
+        assertTrue(subscriber.batchSizes.stream().allMatch(size -> size <= 10));
+        assertTrue(subscriber.batchSizes.size() < 95, "A burst should be delivered in batches");
+        assertEquals(95, meterRegistry.get("domain.event.bus.published").counter().count());
+        assertEquals(95, meterRegistry.get("domain.event.bus.lag").timer().count());
+    }
+
+    @Test
+    void publish_UnsupportedEvent_IsNotQueued() throws InterruptedException {
+        // Arrange
+        RecordingSubscriber subscriber = new RecordingSubscriber(10, 1, null);
+        bus = startBus(subscriber, 1000);
+
+        // Act
+        bus.publish(new DomainEvent() {
+        });
+        bus.publish(new TestEvent(1));
+
+        // Assert
+        assertTrue(subscriber.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(new TestEvent(1)), subscriber.events);
+    }
+
+    @Test
+    void publish_QueueFull_DropsWithoutBlocking() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber subscriber = new RecordingSubscriber(1, 3, release);
+        bus = startBus(subscriber, 2);
+
+        // The consumer holds the first event, so the queue fills with the next two
+        bus.publish(new TestEvent(0));
+        assertTrue(subscriber.started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        long started = System.nanoTime();
+
+        for (int i = 1; i <= 10; i++) {
+            bus.publish(new TestEvent(i));
+        }
+
+        long elapsed = System.nanoTime() - started;
+        release.countDown();
+
+        // Assert
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(subscriber.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(new TestEvent(0), new TestEvent(1), new TestEvent(2)), subscriber.events);
+        assertEquals(8, meterRegistry.get("domain.event.bus.dropped").counter().count());
+    }
+
+    @Test
+    void handle_Throws_CountsFailureAndKeepsConsuming() throws InterruptedException {
+        // Arrange
+        RecordingSubscriber subscriber = new RecordingSubscriber(1, 1, null) {
+            @Override
+            public void handle(List<DomainEvent> events) {
+                if (((TestEvent) events.get(0)).number() == 0) {
+                    throw new IllegalStateException("Failed");
+                }
+                super.handle(events);
+            }
+        };
+        bus = startBus(subscriber, 10);
+
+        // Act
+        bus.publish(new TestEvent(0));
+        bus.publish(new TestEvent(1));
+
+        // Assert
+        assertTrue(subscriber.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(new TestEvent(1)), subscriber.events);
+        assertEquals(1, meterRegistry.get("domain.event.bus.failed").counter().count());
+    }
+
+    @Test
+    void stop_QueuedEvents_AreDeliveredBeforeStopping() throws InterruptedException {
+        // Arrange
+        RecordingSubscriber subscriber = new RecordingSubscriber(5, 20, null);
+        bus = startBus(subscriber, 100);
+
+        for (int i = 0; i < 20; i++) {
+            bus.publish(new TestEvent(i));
+        }
+
+        // Act
+        bus.stop();
+
+        // Assert
+        assertEquals(20, subscriber.events.size());
+    }
+
+    private DomainEventBus startBus(IDomainEventSubscriber subscriber, int queueCapacity) {
+        DomainEventBus eventBus = new DomainEventBus(meterRegistry, List.of(subscriber), queueCapacity,
+                Duration.ofMillis(20), Duration.ofSeconds(5));
+        eventBus.start();
+        return eventBus;
+    }
+
+    private record TestEvent(int number) implements DomainEvent {
+    }
+
+    private static class RecordingSubscriber implements IDomainEventSubscriber {
+
+        private final int batchSize;
+        private final CountDownLatch release;
+
+        private final List<TestEvent> events = new CopyOnWriteArrayList<>();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch delivered;
+
+        RecordingSubscriber(int batchSize, int expected, CountDownLatch release) {
+            this.batchSize = batchSize;
+            this.release = release;
+            this.delivered = new CountDownLatch(expected);
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public boolean supports(DomainEvent event) {
+            return event instanceof TestEvent;
+        }
+
+        @Override
+        public void handle(List<DomainEvent> events) {
+            started.countDown();
+
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            batchSizes.add(events.size());
+
+            for (DomainEvent event : events) {
+                this.events.add((TestEvent) event);
+                delivered.countDown();
+            }
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batchSize;
+        }
+    }
+}
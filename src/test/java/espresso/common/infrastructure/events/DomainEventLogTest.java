@@ -0,0 +1,305 @@
+package espresso.common.infrastructure.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import espresso.common.domain.events.DomainEvent;
+import espresso.common.domain.events.DomainEventRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DomainEventLogTest {
+
+    @TempDir
+    private Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DomainEventLog eventLog;
+
+    @AfterEach
+    void tearDown() {
+        if (eventLog != null) {
+            eventLog.close();
+        }
+    }
+
+    @Test
+    void replay_AnySequence_ReturnsEventsFromItInOrder() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofMegabytes(1));
+
+        for (int i = 1; i <= 20; i++) {
+            eventLog.append(new TestEvent("KEY" + i));
+        }
+
+        // Act & Assert
+        assertEquals(keys(1, 20), replay(1));
+        assertEquals(keys(15, 20), replay(15));
+        assertEquals(List.of(), replay(21));
+        assertEquals(20, eventLog.getLastSequence());
+    }
+
+    @Test
+    void append_SegmentFull_RollsToANewSegment() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofBytes(256));
+
+        // Act
+        for (int i = 1; i <= 50; i++) {
+            eventLog.append(new TestEvent("KEY" + i));
+        }
+
+        // Assert
+        assertTrue(countSegments() > 1);
+        assertEquals(keys(1, 50), replay(1));
+        assertEquals(keys(37, 50), replay(37));
+        assertEquals(keys(1, 50), replay(1));
+    }
+
+    @Test
+    void append_MoreSegmentsThanRetained_DeletesTheOldest() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofBytes(256), 2);
+
+        // Act
+        for (int i = 1; i <= 50; i++) {
+            eventLog.append(new TestEvent("KEY" + i));
+        }
+
+        // Assert
+        long first = eventLog.getFirstSequence();
+
+        assertEquals(2, countSegments());
+        assertTrue(first > 1);
+        assertEquals(keys((int) first, 50), replay(first));
+        assertEquals(keys((int) first, 50), replayKeys(1));
+    }
+
+    @Test
+    void onDomainEvent_CommittedEvent_IsForcedBeforeReturning() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofMegabytes(1));
+
+        // Act
+        eventLog.onDomainEvent(new TestEvent("KEY1"));
+        eventLog.onDomainEvent(new DomainEvent() {
+        });
+
+        // Assert
+        assertEquals(1, eventLog.getLastSequence());
+        assertEquals(1, eventLog.getDurableSequence());
+        assertEquals(keys(1, 1), replay(1));
+    }
+
+    @Test
+    void open_ExistingLog_ContinuesAfterTheLastSequence() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofBytes(256));
+        eventLog.appendAll(List.of(new TestEvent("KEY1"), new TestEvent("KEY2"), new TestEvent("KEY3")));
+        eventLog.close();
+
+        // Act
+        eventLog = openLog(DataSize.ofBytes(256));
+        long sequence = eventLog.append(new TestEvent("KEY4"));
+
+        // Assert
+        assertEquals(4, sequence);
+        assertEquals(keys(1, 4), replay(1));
+    }
+
+    @Test
+    void open_TornRecord_IsClearedAndOverwritten() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofMegabytes(1));
+        eventLog.append(new TestEvent("KEY1"));
+        eventLog.append(new TestEvent("KEY2"));
+        eventLog.close();
+
+        // A length without its body, as left by a crash in the middle of an append
+        Path segment;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+
+        long end = endOfRecords(segment);
+
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(40);
+            file.writeInt(12345);
+            file.writeLong(3);
+        }
+
+        // Act
+        eventLog = openLog(DataSize.ofMegabytes(1));
+        eventLog.append(new TestEvent("KEY3"));
+
+        // Assert
+        assertEquals(keys(1, 3), replay(1));
+    }
+
+    @Test
+    void appendAll_Batch_IsForcedOnce() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofMegabytes(1));
+
+        // Act
+        eventLog.appendAll(List.of(new TestEvent("KEY1"), new TestEvent("KEY2"), new TestEvent("KEY3")));
+
+        // Assert
+        assertEquals(3, eventLog.getDurableSequence());
+        assertEquals(1, meterRegistry.get("domain.event.log.fsync").timer().count());
+        assertEquals(3, meterRegistry.get("domain.event.log.appended").counter().count());
+    }
+
+    @Test
+    void replay_MaxEvents_StopsAfterThemFromAnIndexedSequence() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofMegabytes(1));
+
+        for (int i = 1; i <= 3000; i++) {
+            eventLog.append(new TestEvent("KEY" + i));
+        }
+
+        List<String> keys = new ArrayList<>();
+
+        // Act
+        long replayed = eventLog.replay(2050, 5, record -> keys.add(((TestEvent) record.event()).key()));
+
+        // Assert
+        assertEquals(5, replayed);
+        assertEquals(keys(2050, 2054), keys);
+    }
+
+    @Test
+    void awaitAppend_CompletesWhenALaterEventIsDurable() throws Exception {
+        // Arrange
+        eventLog = openLog(DataSize.ofMegabytes(1));
+        eventLog.appendAll(List.of(new TestEvent("KEY1")));
+
+        // Act
+        CompletableFuture<Long> pending = eventLog.awaitAppend(1);
+        CompletableFuture<Long> available = eventLog.awaitAppend(0);
+
+        eventLog.appendAll(List.of(new TestEvent("KEY2")));
+
+        // Assert
+        assertTrue(available.isDone());
+        assertEquals(2, pending.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void supports_EventWithoutCodec_IsNotLogged() throws IOException {
+        // Arrange
+        eventLog = openLog(DataSize.ofMegabytes(1));
+
+        // Act & Assert
+        assertTrue(eventLog.supports(new TestEvent("KEY1")));
+        assertFalse(eventLog.supports(new DomainEvent() {
+        }));
+    }
+
+    private DomainEventLog openLog(DataSize segmentSize) throws IOException {
+        return openLog(segmentSize, 0);
+    }
+
+    private DomainEventLog openLog(DataSize segmentSize, int maxSegments) throws IOException {
+        DomainEventLog log = new DomainEventLog(meterRegistry, List.of(new TestEventCodec()), true, directory,
+                segmentSize, maxSegments, Duration.ZERO);
+        log.open();
+        return log;
+    }
+
+    private List<String> replayKeys(long fromSequence) {
+        List<String> keys = new ArrayList<>();
+
+        eventLog.replay(fromSequence, record -> keys.add(((TestEvent) record.event()).key()));
+
+        return keys;
+    }
+
+    private List<String> replay(long fromSequence) {
+        List<String> keys = new ArrayList<>();
+        List<Long> sequences = new ArrayList<>();
+
+        eventLog.replay(fromSequence, (DomainEventRecord record) -> {
+            sequences.add(record.sequence());
+            keys.add(((TestEvent) record.event()).key());
+        });
+
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals(fromSequence + i, sequences.get(i));
+        }
+
+        return keys;
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    // Walks the length prefixes of the records up to the zero filled part
+    private static long endOfRecords(Path segment) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            long position = 0;
+            int length;
+
+            while ((length = file.readInt()) != 0) {
+                position += 8 + length;
+                file.seek(position);
+            }
+
+            return position;
+        }
+    }
+
+    private static List<String> keys(int from, int to) {
+        List<String> keys = new ArrayList<>();
+
+        for (int i = from; i <= to; i++) {
+            keys.add("KEY" + i);
+        }
+
+        return keys;
+    }
+
+    private record TestEvent(String key) implements DomainEvent {
+    }
+
+    private static class TestEventCodec extends DomainEventCodec<TestEvent> {
+
+        TestEventCodec() {
+            super(100, TestEvent.class);
+        }
+
+        @Override
+        protected void write(TestEvent event, DataOutputStream out) throws IOException {
+            writeString(out, event.key());
+        }
+
+        @Override
+        protected TestEvent read(DataInputStream in) throws IOException {
+            return new TestEvent(readString(in));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package espresso.user.domain.commands;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for FollowUserCommand validation
+ */
+class FollowUserCommandTest {
+
+    @Test
+    void validate_ValidKeys_ReturnsNoErrors() {
+        // Arrange
+        FollowUserCommand command = new FollowUserCommand("USER001", "USER002");
+
+        // Act
+        Set<String> errors = command.validate();
+
+        // Assert
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void validate_SameKeys_ReturnsSelfFollowError() {
+        // Arrange
+        FollowUserCommand command = new FollowUserCommand("USER001", "USER001");
+
+        // Act
+        Set<String> errors = command.validate();
+
+        // Assert
+        assertTrue(errors.contains("followeeKey:LOCALIZE: USERS CAN NOT FOLLOW THEMSELVES"));
+    }
+
+    @Test
+    void validate_NoFollower_ReturnsError() {
+        // Arrange
+        FollowUserCommand command = new FollowUserCommand(null, "USER002");
+
+        // Act
+        Set<String> errors = command.validate();
+
+        // Assert
+        assertFalse(errors.isEmpty());
+    }
+}